@@ -0,0 +1,56 @@
+package com.sp.maven.baseline;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.codehaus.plexus.util.FileUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Benchmark of the extraction of the public packages, for each way of declaring them.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ApiExtractorBenchmark {
+
+    /** How the exposed packages are declared. */
+    @Param({"OSGI", "NETBEANS", "CLASSES"})
+    public SyntheticJars.Layout layout;
+
+    /** Number of packages in the JAR file. */
+    @Param({"100"})
+    public int packages;
+
+    private File directory;
+    private JarIndex index;
+
+    @Setup
+    public void setUp() throws Exception {
+        directory = Files.createTempDirectory("sp-bench-api").toFile();
+        File file = new File(directory, "api.jar");
+        SyntheticJars.write(file, packages, layout, "1.0.0", 0);
+        index = JarIndex.open(file);
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        index.close();
+        FileUtils.deleteDirectory(directory);
+    }
+
+    @Benchmark
+    public Map<String, String> getPublicPackages() {
+        return ApiExtractor.getPublicPackages(index);
+    }
+
+}
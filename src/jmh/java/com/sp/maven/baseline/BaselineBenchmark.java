@@ -0,0 +1,56 @@
+package com.sp.maven.baseline;
+
+import aQute.bnd.differ.Baseline;
+import java.io.File;
+import java.nio.file.Files;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.codehaus.plexus.util.FileUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Benchmark of the bnd comparison of two versions of a JAR file, one package out of ten being changed.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class BaselineBenchmark {
+
+    /** Number of packages in the JAR files. */
+    @Param({"10", "100", "1000"})
+    public int packages;
+
+    private File directory;
+    private File previousFile;
+    private File currentFile;
+    private BaselineMojo mojo;
+
+    @Setup
+    public void setUp() throws Exception {
+        directory = Files.createTempDirectory("sp-bench-baseline").toFile();
+        previousFile = new File(directory, "previous.jar");
+        currentFile = new File(directory, "current.jar");
+        SyntheticJars.write(previousFile, packages, SyntheticJars.Layout.OSGI, "1.0.0", 0);
+        SyntheticJars.write(currentFile, packages, SyntheticJars.Layout.OSGI, "1.0.0", 10);
+        mojo = new BaselineMojo();
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        FileUtils.deleteDirectory(directory);
+    }
+
+    @Benchmark
+    public Set<Baseline.Info> compareJarFile() throws Exception {
+        return mojo.compareJarFile(previousFile, currentFile);
+    }
+
+}
@@ -0,0 +1,86 @@
+package com.sp.maven.utils;
+
+import java.io.File;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import org.apache.maven.model.Dependency;
+import org.apache.maven.model.DependencyManagement;
+import org.apache.maven.model.Model;
+import org.apache.maven.model.io.xpp3.MavenXpp3Writer;
+import org.apache.maven.plugin.logging.Log;
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.apache.maven.project.MavenProject;
+import org.codehaus.plexus.util.FileUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Benchmark of the reading and writing of a POM file.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PomBenchmark {
+
+    /** Number of managed dependencies in the POM file. */
+    @Param({"10", "100", "1000"})
+    public int dependencies;
+
+    private File directory;
+    private Path pomFile;
+    private Log log;
+
+    @Setup
+    public void setUp() throws Exception {
+        directory = Files.createTempDirectory("sp-bench-pom").toFile();
+        pomFile = new File(directory, "pom.xml").toPath();
+        Model model = new Model();
+        model.setModelVersion("4.0.0");
+        model.setGroupId("com.sp.bench");
+        model.setArtifactId("bench");
+        model.setVersion("1.0.0-SNAPSHOT");
+        model.setPackaging("pom");
+        DependencyManagement dependencyManagement = new DependencyManagement();
+        for (int i = 0; i < dependencies; i++) {
+            Dependency dependency = new Dependency();
+            dependency.setGroupId("com.sp.bench");
+            dependency.setArtifactId("module-" + i);
+            dependency.setVersion("1." + i + ".0");
+            dependencyManagement.addDependency(dependency);
+        }
+        model.setDependencyManagement(dependencyManagement);
+        try (OutputStream out = Files.newOutputStream(pomFile)) {
+            new MavenXpp3Writer().write(out, model);
+        }
+        log = new SystemStreamLog();
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        FileUtils.deleteDirectory(directory);
+    }
+
+    @Benchmark
+    public Model loadMavenModel() throws Exception {
+        return Helper.loadMavenModel(pomFile);
+    }
+
+    @Benchmark
+    public Model roundTrip() throws Exception {
+        Model model = Helper.loadMavenModel(pomFile);
+        MavenProject project = new MavenProject(model);
+        project.setFile(pomFile.toFile());
+        Helper.savePomFile(project, model, false, null, log);
+        return model;
+    }
+
+}
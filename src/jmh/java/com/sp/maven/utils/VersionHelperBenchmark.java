@@ -0,0 +1,33 @@
+package com.sp.maven.utils;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Benchmark of the computation of the next version.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class VersionHelperBenchmark {
+
+    /** The version to bump. */
+    @Param({"1.13.5", "1.13.5-SNAPSHOT", "2.0.0-rc1"})
+    public String version;
+
+    /** The type of change. */
+    @Param({"MAJOR", "MINOR", "MICRO"})
+    public ChangeType changeType;
+
+    @Benchmark
+    public String bumpVersion() {
+        return VersionHelper.bumpVersion(version, changeType);
+    }
+
+}
@@ -1,18 +1,12 @@
 package com.sp.maven.baseline;
 
-import java.io.File;
-import java.io.IOException;
-import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Enumeration;
-import java.util.HashSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Set;
+import java.util.Map;
 import java.util.jar.Attributes;
-import java.util.jar.JarEntry;
-import java.util.jar.JarFile;
-import java.util.jar.Manifest;
-import org.apache.maven.plugin.MojoExecutionException;
 
 /**
  * ApiExtractor.
@@ -21,14 +15,17 @@ public class ApiExtractor {
 
     /** The serial version unique id. */
     private static final long serialVersionUID = 20170803060827L;
-    /** Extension for .class files. */
-    private static final String CLASS_EXTENSION = ".class";
+    /** Package segments excluded from the API when the packages are found by scanning the classes. */
+    public static final List<String> DEFAULT_EXCLUDED_SEGMENTS = Collections.unmodifiableList(
+            Arrays.asList("impl", "internal"));
     /** Netbeans tag for exposed packages. */
     private static final String TAG_EXPOSED_PACKAGES_NETBEANS = "OpenIDE-Module-Public-Packages";
     /** OSGi tag for exposed packages. */
     private static final String TAG_EXPOSED_PACKAGES_OSGI = "Export-Package";
     /** OSGi tag. */
     private static final String TAG_OSGI_BUNDLE_SYMBOLICNAME = "Bundle-SymbolicName";
+    /** Suffix of the NetBeans packages exposed with their content. */
+    private static final String CONTENT_SUFFIX = ".*";
 
     /**
      * Constructor.
@@ -38,86 +35,71 @@ public class ApiExtractor {
 
     /**
      * Check if the jar file contains source code.
-     * @param file The jar file to browse.
+     * @param jarIndex The index of the jar file to browse.
      * @return True if the jar file contain a .class entry, else return false.
-     * @throws MojoExecutionException if the file can't be accessed.
      */
-    public static boolean hasSourceCode(final File file) throws MojoExecutionException {
-        try {
-            JarFile jarFile = new JarFile(file);
-            Enumeration<JarEntry> entries = jarFile.entries();
-            while (entries.hasMoreElements()) {
-                JarEntry entry = entries.nextElement();
-                if (!entry.isDirectory() && entry.getName().endsWith(CLASS_EXTENSION)) {
-                    return true;
-                }
-            }
-            return false;
-        } catch (IOException ioe) {
-            throw new MojoExecutionException("The file can't be accessed : " + file.getAbsolutePath(), ioe);
-        }
+    public static boolean hasSourceCode(final JarIndex jarIndex) {
+        return jarIndex.hasClasses();
     }
 
     /**
-     * Get the list of all the classes contain in the given JAR file.
-     * @param jarFile JAR file to analyse.
-     * @return The list of all the classes contain in the given JAR file.
+     * Get the packages exported by the given OSGi bundle.
+     * @param jarIndex The index of the JAR file to analyse.
+     * @return The exported packages with their declared version (null if not declared), in the declaration order.
      */
-    private static List<String> getAllClasses(final JarFile jarFile) {
-        List<String> classNames = new ArrayList<>();
-        jarFile.stream().forEach((JarEntry entry) -> {
-            if (!entry.isDirectory() && entry.getName().endsWith(CLASS_EXTENSION)) {
-                String fullClassName = entry.getName().replace('/', '.'); // including ".class"
-                classNames.add(fullClassName.substring(0, fullClassName.length() - CLASS_EXTENSION.length()));
-            }
-        });
-        return classNames;
+    public static Map<String, String> getExportedPackages(final JarIndex jarIndex) {
+        return ExportPackageParser.parse(jarIndex.getMainAttributes().getValue(TAG_EXPOSED_PACKAGES_OSGI));
+    }
+
+    /**
+     * Get the exposed packages of the given JAR file.
+     * @param jarIndex The index of the JAR file to analyse.
+     * @return The exposed packages with their declared version (null if not declared).
+     */
+    public static Map<String, String> getPublicPackages(final JarIndex jarIndex) {
+        return getPublicPackages(jarIndex, DEFAULT_EXCLUDED_SEGMENTS);
     }
 
     /**
-     * Get the list of exposed packages for the given JAR file.
-     * @param jarFile JAR file to analyse.
-     * @return The list of exposed packages for the given JAR file.
-     * @throws MojoExecutionException If an error occurs retrieving the MANIFEST.
+     * Get the exposed packages of the given JAR file: the packages exported by an OSGi bundle, the public packages
+     * of a NetBeans module, else the packages found by scanning the classes.
+     * @param jarIndex The index of the JAR file to analyse.
+     * @param excludedSegments The package segments excluded when the packages are found by scanning the classes.
+     * @return The exposed packages with their declared version (null if not declared). The NetBeans packages exposed
+     * with their content are named without their .* suffix, the other declarations are kept as is.
      */
-    public static List<String> getPublicPackages(final JarFile jarFile) throws MojoExecutionException {
-        try {
-            List<String> result = new ArrayList<>();
-            Manifest manifest = jarFile.getManifest();
-            Attributes attributes = manifest.getMainAttributes();
-            String[] arr;
-            // If the manifest contains OSGI tag
-            if (attributes.containsKey(new Attributes.Name(TAG_OSGI_BUNDLE_SYMBOLICNAME))) {
-                if (attributes.containsKey(new Attributes.Name(TAG_EXPOSED_PACKAGES_OSGI))) {
-                    arr = attributes.getValue(TAG_EXPOSED_PACKAGES_OSGI).split("\",");
-                    for (int i = 0; i < arr.length; i++) {
-                        String packageWithVersionAndUsage = arr[i];
-                        int indexOf = packageWithVersionAndUsage.indexOf(';');
-                        if (indexOf != -1) {
-                            arr[i] = packageWithVersionAndUsage.substring(0, indexOf) + ".*";
-                        }
-                    }
-                } else {
-                    arr = new String[0];
-                }
-            } else if (attributes.containsKey(new Attributes.Name(TAG_EXPOSED_PACKAGES_NETBEANS))) {
-                arr = attributes.getValue(TAG_EXPOSED_PACKAGES_NETBEANS).split(", ");
-            } else {
-                final Set<String> packages = new HashSet<>();
-                List<String> allClasses = getAllClasses(jarFile);
-                allClasses.stream().forEach(fullClassName -> {
-                    if (!fullClassName.contains(".impl.") && !fullClassName.contains(".internal.")) {
-                        String packageName = fullClassName.substring(0, fullClassName.lastIndexOf('.'));
-                        packages.add(packageName);
-                    }
-                });
-                arr = packages.toArray(new String[packages.size()]);
+    public static Map<String, String> getPublicPackages(final JarIndex jarIndex,
+            final Collection<String> excludedSegments) {
+        Attributes attributes = jarIndex.getMainAttributes();
+        // If the manifest contains OSGI tag
+        if (attributes.containsKey(new Attributes.Name(TAG_OSGI_BUNDLE_SYMBOLICNAME))) {
+            return getExportedPackages(jarIndex);
+        }
+        Map<String, String> result = new LinkedHashMap<>();
+        if (attributes.containsKey(new Attributes.Name(TAG_EXPOSED_PACKAGES_NETBEANS))) {
+            for (String publicPackage : attributes.getValue(TAG_EXPOSED_PACKAGES_NETBEANS).split(", ")) {
+                result.put(publicPackage.endsWith(CONTENT_SUFFIX)
+                        ? publicPackage.substring(0, publicPackage.length() - CONTENT_SUFFIX.length())
+                        : publicPackage, null);
+            }
+        } else {
+            for (String scannedPackage : jarIndex.scanPackages(excludedSegments)) {
+                result.put(scannedPackage, null);
             }
-            result.addAll(Arrays.asList(arr));
-            return result;
-        } catch (IOException ioe) {
-            throw new MojoExecutionException("The Manifest can't be accessed.", ioe);
         }
+        return result;
+    }
+
+    /**
+     * Check if the API of the exposed packages of the given JAR file is compared, which is the case when they are
+     * declared in the MANIFEST. Only the presence of the packages found by scanning the classes is compared.
+     * @param jarIndex The index of the JAR file to analyse.
+     * @return True if the API of the exposed packages is compared.
+     */
+    public static boolean isContentExposed(final JarIndex jarIndex) {
+        Attributes attributes = jarIndex.getMainAttributes();
+        return attributes.containsKey(new Attributes.Name(TAG_OSGI_BUNDLE_SYMBOLICNAME))
+                || attributes.containsKey(new Attributes.Name(TAG_EXPOSED_PACKAGES_NETBEANS));
     }
 
 }
@@ -0,0 +1,269 @@
+package com.sp.maven.baseline;
+
+import com.sp.maven.utils.ChangeType;
+import com.sp.maven.utils.QualifierPolicy;
+import com.sp.maven.utils.SemanticVersion;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.artifact.metadata.ArtifactMetadataSource;
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugins.annotations.Component;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+import org.apache.maven.project.MavenProject;
+import org.apache.maven.shared.artifact.resolve.ArtifactResolver;
+
+/**
+ * This goal baselines all the modules of the reactor in a single execution.
+ * The previous released artifacts are resolved first, then the comparisons are run, both on a bounded
+ * worker pool, and a single report is produced. The build fails once, at the end, if any module
+ * version is not appropriate.
+ * The goal is not bound to a phase: it is invoked from the command line once the modules are packaged, for instance
+ * with mvn package sp:baseline-all, and a module whose JAR file can't be found fails the goal.
+ *
+ * 2026-10-18 10:21:07
+ */
+@Mojo(name = "baseline-all", aggregator = true, threadSafe = true)
+public class BaselineAllMojo extends AbstractMojo {
+
+    /** The serial version unique id. */
+    private static final long serialVersionUID = 20261018102107L;
+
+    @Component
+    protected ArtifactResolver resolver;
+    @Component
+    private ArtifactMetadataSource metadataSource;
+
+    @Parameter(defaultValue = "${session}", readonly = true, required = true)
+    protected MavenSession session;
+
+    /** Flag to easily skip execution. */
+    @Parameter(property = "sp.baseline.skip", defaultValue = "false")
+    protected boolean skip;
+    /** Project types which this plugin supports. */
+    @Parameter(property = "sp.baseline.supportedProjectTypes", defaultValue = "jar,bundle,nbm")
+    protected List<String> supportedProjectTypes = Arrays.asList(new String[]{"jar", "bundle", "nbm"});
+    /** Number of comparisons run in parallel, 0 to use the number of available processors. */
+    @Parameter(property = "sp.baseline.threads", defaultValue = "0")
+    protected int threads;
+    /** Flag to use the cache of the API trees computed for the released artifacts. */
+    @Parameter(property = "sp.baseline.useCache", defaultValue = "true")
+    protected boolean useCache;
+    /** Directory of the cache of the API trees computed for the released artifacts. */
+    @Parameter(property = "sp.baseline.cacheDirectory", defaultValue = "${user.home}/.m2/sp-baseline-cache")
+    protected File cacheDirectory;
+    /** Maximum size of the cache in megabytes. */
+    @Parameter(property = "sp.baseline.cacheMaxSize", defaultValue = "512")
+    protected long cacheMaxSize;
+    /** Maximum age of a cache entry in days. */
+    @Parameter(property = "sp.baseline.cacheMaxAge", defaultValue = "90")
+    protected long cacheMaxAge;
+    /** Flag to analyse only the packages whose classes changed since the previous version. */
+    @Parameter(property = "sp.baseline.incremental", defaultValue = "false")
+    protected boolean incremental;
+    /** Package segments excluded from the API of the JAR files which don't declare their exposed packages. */
+    @Parameter(property = "sp.baseline.excludedPackageSegments", defaultValue = "impl,internal")
+    protected List<String> excludedPackageSegments = ApiExtractor.DEFAULT_EXCLUDED_SEGMENTS;
+    /** Flag to store the index of the released versions on disk, to skip the metadata lookups of the next builds. */
+    @Parameter(property = "sp.baseline.persistResolutionIndex", defaultValue = "false")
+    protected boolean persistResolutionIndex;
+    /** File storing the index of the released versions. */
+    @Parameter(property = "sp.baseline.resolutionIndexFile",
+            defaultValue = "${user.home}/.m2/sp-baseline-cache/resolution-index.properties")
+    protected File resolutionIndexFile;
+    /** How long the stored released versions are trusted, in minutes. */
+    @Parameter(property = "sp.baseline.resolutionIndexTtl", defaultValue = "60")
+    protected long resolutionIndexTtl;
+    /** Flag to write the detected changes of each module in a JSON report and a text summary,
+     * the failure message then only lists the changed packages. */
+    @Parameter(property = "sp.baseline.writeReport", defaultValue = "false")
+    protected boolean writeReport;
+
+    @Override
+    public void execute() throws MojoExecutionException, MojoFailureException {
+        // If the execution is skipped, we return immediatly.
+        if (skip) {
+            getLog().warn("Skipping Baseline execution" );
+            return;
+        }
+
+        List<MavenProject> projects = new ArrayList<>();
+        for (MavenProject project : session.getProjects()) {
+            String artifactType = project.getArtifact().getType();
+            if (!supportedProjectTypes.contains(artifactType)) {
+                getLog().debug("Skipping " + project.getId() + " (project type " + artifactType + " not supported)");
+                continue;
+            }
+            projects.add(project);
+        }
+        if (projects.isEmpty()) {
+            getLog().warn("Not generating Baseline report as there is no module to compare");
+            return;
+        }
+
+        // The resolutions and the comparisons run on a bounded pool, the indexes and the cache are shared by all the workers.
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        poolSize = Math.max(1, Math.min(poolSize, projects.size()));
+        ExecutorService executor = Executors.newFixedThreadPool(poolSize);
+        try {
+            // Resolve all the previous released versions before starting the comparisons.
+            ResolutionIndex resolutionIndex = ResolutionIndex.forSession(session,
+                    persistResolutionIndex ? resolutionIndexFile : null, resolutionIndexTtl, getLog());
+            PreviousArtifactResolver previousArtifactResolver =
+                    new PreviousArtifactResolver(resolver, metadataSource, session, resolutionIndex);
+            Map<MavenProject, Artifact> previousArtifacts;
+            try {
+                previousArtifacts = resolvePreviousArtifacts(projects, previousArtifactResolver, executor);
+            } finally {
+                // The goal is the only execution of the session, the index is stored once the resolutions are done.
+                resolutionIndex.save();
+            }
+            if (previousArtifacts.isEmpty()) {
+                getLog().warn("Not generating Baseline report as there is no module to compare");
+                return;
+            }
+
+            BaselineCache cache = useCache ? new BaselineCache(cacheDirectory, cacheMaxSize, cacheMaxAge, getLog()) : null;
+            BaselineComparator comparator = new BaselineComparator(cache, incremental, excludedPackageSegments, getLog());
+            getLog().info("Baselining " + previousArtifacts.size() + " modules using " + poolSize + " threads");
+            List<String> failures = new ArrayList<>();
+            Map<MavenProject, Future<Map<ChangeType, List<String>>>> futures = new LinkedHashMap<>();
+            for (Map.Entry<MavenProject, Artifact> entry : previousArtifacts.entrySet()) {
+                MavenProject project = entry.getKey();
+                File previousFile = entry.getValue().getFile();
+                File currentFile = BaselineComparator.getBundleFile(project,
+                        new File(project.getBuild().getDirectory()), project.getBuild().getFinalName(), null);
+                if (!currentFile.exists()) {
+                    // The goal runs before the package phase, or the module has not been built
+                    getLog().error("The file of " + project.getId() + " can't be found: "
+                            + currentFile.getAbsolutePath());
+                    failures.add("The file " + currentFile.getAbsolutePath() + " of " + project.getId()
+                            + " can't be found, the goal must be invoked after the package phase.");
+                    continue;
+                }
+                if (previousFile == null || !previousFile.exists()) {
+                    getLog().error("Skipping Baseline of " + project.getId() + " because the files can't be found: "
+                            + previousFile + ", " + currentFile.getAbsolutePath());
+                    continue;
+                }
+                File reportDirectory = writeReport ? getReportDirectory(project) : null;
+                futures.put(project, executor.submit(
+                        () -> comparator.detectChanges(previousFile, currentFile, reportDirectory)));
+            }
+
+            // Build the consolidated report in the reactor order.
+            getLog().info("Baseline report:");
+            for (Map.Entry<MavenProject, Future<Map<ChangeType, List<String>>>> entry : futures.entrySet()) {
+                MavenProject project = entry.getKey();
+                Map<ChangeType, List<String>> detectedChanges = getResult(project, entry.getValue());
+                ChangeType changeType = BaselineComparator.getChangeType(detectedChanges);
+                String previousVersion = previousArtifacts.get(project).getVersion();
+                String version = project.getVersion();
+                SemanticVersion expected = SemanticVersion.parse(previousVersion)
+                        .bump(changeType, QualifierPolicy.DROP);
+                String expectedVersion = expected.toString();
+                String expectedVersionSnap = expected.toSnapshot().toString();
+                if (!SemanticVersion.parse(version).toRelease().toString().equals(expectedVersion)) {
+                    getLog().info("\t[KO] " + project.getId() + " : " + changeType + " change since " + previousVersion
+                            + ", expected " + expectedVersion + " or " + expectedVersionSnap);
+                    StringBuilder msg = new StringBuilder();
+                    msg.append("Module version of ").append(project.getId()).append(" is not appropriate.");
+                    msg.append("\nDefined version: \t").append(version);
+                    msg.append("\nExpected version: \t").append(expectedVersion).append(" or ").append(expectedVersionSnap);
+                    for (String detail : detectedChanges.get(changeType)) {
+                        msg.append("\n").append(detail);
+                    }
+                    if (writeReport) {
+                        msg.append("\nSee ").append(new File(getReportDirectory(project), DiffReportWriter.TEXT_REPORT))
+                                .append(" for the details.");
+                    }
+                    failures.add(msg.toString());
+                } else {
+                    getLog().info("\t[OK] " + project.getId() + " : " + changeType + " change since " + previousVersion);
+                }
+            }
+            if (!failures.isEmpty()) {
+                throw new MojoFailureException(failures.size() + " module versions are not appropriate.\n"
+                        + String.join("\n\n", failures));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Resolve the previous released artifacts of the given projects on the given pool.
+     * @param projects The projects to baseline.
+     * @param previousArtifactResolver The resolver of the previous released artifacts.
+     * @param executor The pool running the resolutions.
+     * @return The previous artifacts in the order of the given projects, without the projects which have
+     * no previous released version.
+     * @throws MojoFailureException If a version range is invalid.
+     * @throws MojoExecutionException If an error occurs during a resolution.
+     */
+    Map<MavenProject, Artifact> resolvePreviousArtifacts(final List<MavenProject> projects,
+            final PreviousArtifactResolver previousArtifactResolver, final ExecutorService executor)
+            throws MojoExecutionException, MojoFailureException {
+        Map<MavenProject, Future<Artifact>> futures = new LinkedHashMap<>();
+        for (MavenProject project : projects) {
+            String versionSpec = "(," + project.getVersion() + ")";
+            futures.put(project, executor.submit(() -> {
+                try {
+                    return previousArtifactResolver.resolve(project, project.getGroupId(), project.getArtifactId(),
+                            versionSpec, null, project.getRemoteArtifactRepositories(), false);
+                } catch (MojoExecutionException | MojoFailureException e) {
+                    return previousArtifactResolver.resolve(project, project.getGroupId(), project.getArtifactId(),
+                            versionSpec, null, project.getRemoteArtifactRepositories(), true);
+                }
+            }));
+        }
+        Map<MavenProject, Artifact> previousArtifacts = new LinkedHashMap<>();
+        for (Map.Entry<MavenProject, Future<Artifact>> entry : futures.entrySet()) {
+            MavenProject project = entry.getKey();
+            Artifact previousArtifact = getResult(project, entry.getValue());
+            if (previousArtifact == null) {
+                getLog().warn("Skipping " + project.getId() + " as there is no previous version of the library to compare against");
+                continue;
+            }
+            previousArtifacts.put(project, previousArtifact);
+        }
+        return previousArtifacts;
+    }
+
+    private static File getReportDirectory(final MavenProject project) {
+        return new File(project.getBuild().getDirectory(), "sp-baseline");
+    }
+
+    private static <T> T getResult(final MavenProject project, final Future<T> future)
+            throws MojoExecutionException, MojoFailureException {
+        try {
+            return future.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new MojoExecutionException("Baseline of " + project.getId() + " has been interrupted", ex);
+        } catch (ExecutionException ex) {
+            Throwable cause = ex.getCause();
+            if (cause instanceof MojoExecutionException) {
+                throw (MojoExecutionException) cause;
+            }
+            if (cause instanceof MojoFailureException) {
+                throw (MojoFailureException) cause;
+            }
+            throw new MojoExecutionException("An error occurred during the baseline of " + project.getId(), cause);
+        }
+    }
+
+}
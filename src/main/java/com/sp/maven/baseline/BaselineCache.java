@@ -0,0 +1,244 @@
+package com.sp.maven.baseline;
+
+import aQute.bnd.differ.DiffPluginImpl;
+import aQute.bnd.osgi.Jar;
+import aQute.bnd.service.diff.Delta;
+import aQute.bnd.service.diff.Tree;
+import aQute.bnd.service.diff.Type;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import org.apache.maven.plugin.logging.Log;
+
+/**
+ * On-disk cache of the bnd API trees computed for released artifacts.
+ * A released JAR never changes, so its tree is stored under the SHA-256 of the file
+ * and reused by the next baselining instead of analysing the JAR again.
+ *
+ * 2026-10-18 09:12:40
+ */
+public class BaselineCache {
+
+    /** The serial version unique id. */
+    private static final long serialVersionUID = 20261018091240L;
+    /** Version of the storage format, part of the file names to ignore entries written by older formats. */
+    private static final int FORMAT_VERSION = 1;
+    /** Prefix of the cache entries. */
+    private static final String ENTRY_PREFIX = "v" + FORMAT_VERSION + "-";
+    /** Extension of the cache entries. */
+    private static final String ENTRY_EXT = ".tree";
+    /** Size of the buffer used to hash the files. */
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /** Directory containing the entries. */
+    private final File directory;
+    /** Maximum size of the cache in bytes. */
+    private final long maxSize;
+    /** Maximum age of an entry in milliseconds. */
+    private final long maxAge;
+    /** The logger to use for messages. */
+    private final Log logger;
+
+    /**
+     * Constructor.
+     * @param directory Directory containing the entries.
+     * @param maxSizeInMb Maximum size of the cache in megabytes.
+     * @param maxAgeInDays Maximum age of an entry in days.
+     * @param logger The logger to use for messages.
+     */
+    public BaselineCache(final File directory, final long maxSizeInMb, final long maxAgeInDays, final Log logger) {
+        this.directory = directory;
+        this.maxSize = maxSizeInMb * 1024L * 1024L;
+        this.maxAge = maxAgeInDays * 24L * 60L * 60L * 1000L;
+        this.logger = logger;
+    }
+
+    /**
+     * Get the API tree of the given JAR file from the cache, or compute and store it if needed.
+     * @param file The JAR file.
+     * @param jar The bnd JAR opened on the same file.
+     * @param differ The differ used to compute the tree.
+     * @return The API tree of the JAR file.
+     * @throws Exception If the tree can't be computed.
+     */
+    public Tree getTree(final File file, final Jar jar, final DiffPluginImpl differ) throws Exception {
+        File entry = new File(directory, ENTRY_PREFIX + sha256(file) + ENTRY_EXT);
+        if (entry.isFile()) {
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+                    new GZIPInputStream(Files.newInputStream(entry.toPath()))))) {
+                Tree tree = differ.deserialize(readData(in));
+                // Keep the recently used entries at the end of the eviction queue
+                entry.setLastModified(System.currentTimeMillis());
+                logger.debug("Baseline cache hit for " + file + " : " + entry);                             // NOI18N
+                return tree;
+            } catch (IOException | RuntimeException ex) {
+                logger.debug("Ignoring unreadable baseline cache entry " + entry + " : " + ex.getMessage()); // NOI18N
+                Files.deleteIfExists(entry.toPath());
+            }
+        }
+        Tree tree = differ.tree(jar);
+        store(entry, tree);
+        evict();
+        return tree;
+    }
+
+    /**
+     * Write the given tree in the cache. The entry is first written in a temporary file and then moved,
+     * so that concurrent builds never read a partial entry.
+     * @param entry The entry to write.
+     * @param tree The tree to store.
+     */
+    private void store(final File entry, final Tree tree) {
+        Path tmp = null;
+        try {
+            Files.createDirectories(directory.toPath());
+            tmp = Files.createTempFile(directory.toPath(), entry.getName(), ".tmp");                       // NOI18N
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                    new GZIPOutputStream(Files.newOutputStream(tmp))))) {
+                writeData(out, tree.serialize());
+            }
+            try {
+                Files.move(tmp, entry.toPath(), StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException ex) {
+                Files.move(tmp, entry.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+            logger.debug("Baseline cache entry stored : " + entry);                                         // NOI18N
+        } catch (IOException ex) {
+            logger.warn("Unable to store the baseline cache entry " + entry + " : " + ex.getMessage());     // NOI18N
+            if (tmp != null) {
+                tmp.toFile().delete();
+            }
+        }
+    }
+
+    /**
+     * Remove the entries older than the maximum age, then the least recently used ones
+     * until the cache fits in the maximum size.
+     */
+    private synchronized void evict() {
+        File[] files = directory.listFiles((dir, name) -> name.endsWith(ENTRY_EXT));
+        if (files == null) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        long totalSize = 0;
+        List<File> entries = new ArrayList<>();
+        for (File file : files) {
+            if (now - file.lastModified() > maxAge) {
+                logger.debug("Evicting expired baseline cache entry " + file);                             // NOI18N
+                file.delete();
+            } else {
+                totalSize += file.length();
+                entries.add(file);
+            }
+        }
+        entries.sort(Comparator.comparingLong(File::lastModified));
+        for (File file : entries) {
+            if (totalSize <= maxSize) {
+                break;
+            }
+            totalSize -= file.length();
+            logger.debug("Evicting baseline cache entry " + file);                                         // NOI18N
+            file.delete();
+        }
+    }
+
+    /**
+     * Compute the SHA-256 of the given file.
+     * @param file The file to hash.
+     * @return The hexadecimal SHA-256 of the file.
+     * @throws IOException If the file can't be read.
+     */
+    static String sha256(final File file) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");                                                  // NOI18N
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IOException(ex);
+        }
+        byte[] buffer = new byte[BUFFER_SIZE];
+        try (InputStream in = Files.newInputStream(file.toPath())) {
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+        }
+        StringBuilder sb = new StringBuilder();
+        for (byte b : digest.digest()) {
+            sb.append(Character.forDigit((b >> 4) & 0xF, 16));
+            sb.append(Character.forDigit(b & 0xF, 16));
+        }
+        return sb.toString();
+    }
+
+    private static void writeData(final DataOutputStream out, final Tree.Data data) throws IOException {
+        writeString(out, data.name);
+        writeString(out, data.type == null ? null : data.type.name());
+        writeString(out, data.add == null ? null : data.add.name());
+        writeString(out, data.rem == null ? null : data.rem.name());
+        writeString(out, data.comment);
+        Tree.Data[] children = data.children == null ? new Tree.Data[0] : data.children;
+        out.writeInt(children.length);
+        for (Tree.Data child : children) {
+            writeData(out, child);
+        }
+    }
+
+    private static Tree.Data readData(final DataInputStream in) throws IOException {
+        Tree.Data data = new Tree.Data();
+        data.name = readString(in);
+        String type = readString(in);
+        data.type = type == null ? null : Type.valueOf(type);
+        String add = readString(in);
+        data.add = add == null ? null : Delta.valueOf(add);
+        String rem = readString(in);
+        data.rem = rem == null ? null : Delta.valueOf(rem);
+        data.comment = readString(in);
+        data.children = new Tree.Data[in.readInt()];
+        for (int i = 0; i < data.children.length; i++) {
+            data.children[i] = readData(in);
+        }
+        return data;
+    }
+
+    /**
+     * Write a nullable string. {@link DataOutputStream#writeUTF(String)} is not used because
+     * the manifest elements of the tree may exceed its 64K limit.
+     */
+    private static void writeString(final DataOutputStream out, final String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+        } else {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+    }
+
+    private static String readString(final DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+}
@@ -0,0 +1,401 @@
+package com.sp.maven.baseline;
+
+import aQute.bnd.differ.Baseline;
+import aQute.bnd.differ.DiffPluginImpl;
+import aQute.bnd.header.OSGiHeader;
+import aQute.bnd.header.Parameters;
+import aQute.bnd.osgi.Analyzer;
+import aQute.bnd.osgi.Constants;
+import aQute.bnd.osgi.Instructions;
+import aQute.bnd.osgi.Jar;
+import aQute.bnd.osgi.Processor;
+import aQute.bnd.service.diff.Diff;
+import aQute.bnd.service.diff.Tree;
+import com.sp.maven.utils.ChangeType;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.jar.Manifest;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.logging.Log;
+import org.apache.maven.project.MavenProject;
+import org.codehaus.plexus.util.StringUtils;
+
+/**
+ * Compare two versions of a JAR file and detect the API changes between them.
+ * A comparator holds no state specific to a comparison, so a single instance can be used from several threads.
+ *
+ * 2026-10-18 10:05:51
+ */
+public class BaselineComparator {
+
+    /** The serial version unique id. */
+    private static final long serialVersionUID = 20261018100551L;
+
+    /** The cache of the API trees computed for the released artifacts, null if disabled. */
+    private final BaselineCache cache;
+    /** True to analyse only the packages whose classes changed. */
+    private final boolean incremental;
+    /** The package segments excluded from the API when the packages are found by scanning the classes. */
+    private final Collection<String> excludedSegments;
+    /** The logger to use for messages. */
+    private final Log logger;
+
+    /**
+     * Constructor.
+     * @param cache The cache of the API trees computed for the released artifacts, null to disable it.
+     * @param logger The logger to use for messages.
+     */
+    public BaselineComparator(final BaselineCache cache, final Log logger) {
+        this(cache, false, logger);
+    }
+
+    /**
+     * Constructor.
+     * @param cache The cache of the API trees computed for the released artifacts, null to disable it.
+     * @param incremental True to analyse only the packages whose classes changed.
+     * @param logger The logger to use for messages.
+     */
+    public BaselineComparator(final BaselineCache cache, final boolean incremental, final Log logger) {
+        this(cache, incremental, ApiExtractor.DEFAULT_EXCLUDED_SEGMENTS, logger);
+    }
+
+    /**
+     * Constructor.
+     * @param cache The cache of the API trees computed for the released artifacts, null to disable it.
+     * @param incremental True to analyse only the packages whose classes changed.
+     * @param excludedSegments The package segments excluded from the API when the JAR files declare no exposed
+     * packages.
+     * @param logger The logger to use for messages.
+     */
+    public BaselineComparator(final BaselineCache cache, final boolean incremental,
+            final Collection<String> excludedSegments, final Log logger) {
+        this.cache = cache;
+        this.incremental = incremental;
+        this.excludedSegments = excludedSegments;
+        this.logger = logger;
+    }
+
+    /**
+     * Detect the changes between the previous and the current JAR file.
+     * @param previousFile The previous released JAR file.
+     * @param currentFile The current JAR file.
+     * @return The changes detected, by change type.
+     * @throws MojoExecutionException If an error occurs during the comparison.
+     */
+    public Map<ChangeType, List<String>> detectChanges(final File previousFile, final File currentFile)
+            throws MojoExecutionException {
+        return detectChanges(previousFile, currentFile, null);
+    }
+
+    /**
+     * Detect the changes between the previous and the current JAR file, and write them in a report.
+     * When a report is written, the detected changes only contain a summary of each changed package,
+     * the changed elements being in the report.
+     * @param previousFile The previous released JAR file.
+     * @param currentFile The current JAR file.
+     * @param reportDirectory The directory of the report, null to keep the details in the detected changes.
+     * @return The changes detected, by change type.
+     * @throws MojoExecutionException If an error occurs during the comparison.
+     */
+    public Map<ChangeType, List<String>> detectChanges(final File previousFile, final File currentFile,
+            final File reportDirectory) throws MojoExecutionException {
+        Map<ChangeType, List<String>> detectedChanges = new HashMap<>();
+        detectedChanges.put(ChangeType.MAJOR, new ArrayList<>());
+        detectedChanges.put(ChangeType.MINOR, new ArrayList<>());
+        detectedChanges.put(ChangeType.MICRO, new ArrayList<>());
+        detectedChanges.put(ChangeType.NONE, new ArrayList<>());
+
+        // Each file is indexed once and the index is shared by all the steps of the analysis.
+        try (JarIndex previousIndex = openIndex(previousFile);
+                JarIndex currentIndex = openIndex(currentFile)) {
+            // Ensure that the jar files contain source code, else we skip the baselining.
+            boolean previousHasSourceCode = ApiExtractor.hasSourceCode(previousIndex);
+            boolean currentHasSourceCode = ApiExtractor.hasSourceCode(currentIndex);
+            if (previousHasSourceCode && currentHasSourceCode) {
+                if (reportDirectory == null) {
+                    detectChanges(previousIndex, currentIndex, detectedChanges, null);
+                } else {
+                    writeReport(previousIndex, currentIndex, detectedChanges, reportDirectory);
+                }
+            } else {
+                logger.warn("No source code found in the files.");
+            }
+        } catch (IOException ioe) {
+            throw new MojoExecutionException("The files can't be accessed : " + previousFile.getAbsolutePath()
+                    + ", " + currentFile.getAbsolutePath(), ioe);
+        }
+        return detectedChanges;
+    }
+
+    private void writeReport(final JarIndex previousIndex, final JarIndex currentIndex,
+            final Map<ChangeType, List<String>> detectedChanges, final File reportDirectory)
+            throws MojoExecutionException {
+        try (DiffReportWriter report = DiffReportWriter.open(reportDirectory, previousIndex.getFile(),
+                currentIndex.getFile())) {
+            detectChanges(previousIndex, currentIndex, detectedChanges, report);
+            report.finish(getChangeType(detectedChanges));
+        } catch (IOException ioe) {
+            throw new MojoExecutionException("The baseline report can't be written in "
+                    + reportDirectory.getAbsolutePath(), ioe);
+        }
+        logger.info("Baseline report written in " + reportDirectory.getAbsolutePath());
+    }
+
+    private void detectChanges(final JarIndex previousIndex, final JarIndex currentIndex,
+            final Map<ChangeType, List<String>> detectedChanges, final DiffReportWriter report)
+            throws MojoExecutionException, IOException {
+        PackageExposure exposure = comparePackages(previousIndex, currentIndex);
+        // Check if we expose less packages
+        for (String removedPackage : exposure.getRemovedPackages()) {
+            addChange(detectedChanges, report, ChangeType.MAJOR,
+                    "The package " + removedPackage + " is no more exposed", null);
+        }
+        // Check if we expose more packages
+        for (String addedPackage : exposure.getAddedPackages()) {
+            addChange(detectedChanges, report, ChangeType.MINOR,
+                    "The package " + addedPackage + " is now exposed", null);
+        }
+        // Check all the BND differences which occurred on public packages
+        for (Baseline.Info info : exposure.getChangedPackages().values()) {
+            Diff packageDiff = info.packageDiff;
+            switch (packageDiff.getDelta()) {
+                case MAJOR :
+                    addChange(detectedChanges, report, ChangeType.MAJOR, info.packageName, packageDiff);
+                    break;
+                case MINOR :
+                    addChange(detectedChanges, report, ChangeType.MINOR, info.packageName, packageDiff);
+                    break;
+                default :
+                    addChange(detectedChanges, report, ChangeType.MICRO, info.packageName, packageDiff);
+                    break;
+            }
+        }
+    }
+
+    /**
+     * Compare the packages exposed by the previous and the current JAR file.
+     * @param previousFile The previous released JAR file.
+     * @param currentFile The current JAR file.
+     * @return The exposure of the packages.
+     * @throws MojoExecutionException If an error occurs during the comparison.
+     */
+    public PackageExposure comparePackages(final File previousFile, final File currentFile)
+            throws MojoExecutionException {
+        try (JarIndex previousIndex = openIndex(previousFile);
+                JarIndex currentIndex = openIndex(currentFile)) {
+            return comparePackages(previousIndex, currentIndex);
+        } catch (IOException ioe) {
+            throw new MojoExecutionException("The files can't be accessed : " + previousFile.getAbsolutePath()
+                    + ", " + currentFile.getAbsolutePath(), ioe);
+        }
+    }
+
+    private PackageExposure comparePackages(final JarIndex previousIndex, final JarIndex currentIndex)
+            throws MojoExecutionException {
+        // Rely on BND o compute the differences
+        Set<Baseline.Info> bndDifferences = compareJarFile(previousIndex, currentIndex);
+        // Extract the public packages
+        Map<String, String> previousPublicPackages = ApiExtractor.getPublicPackages(previousIndex, excludedSegments);
+        logger.debug("Previously exposed packages:");
+        previousPublicPackages.forEach((previousPublicPackage, version) -> {
+            logger.debug("\t" + previousPublicPackage + (version == null ? "" : " " + version));
+        });
+        Map<String, String> currentPublicPackages = ApiExtractor.getPublicPackages(currentIndex, excludedSegments);
+        logger.debug("Currently exposed packages:");
+        currentPublicPackages.forEach((currentPublicPackage, version) -> {
+            logger.debug("\t" + currentPublicPackage + (version == null ? "" : " " + version));
+        });
+        return PackageExposure.compute(previousPublicPackages, currentPublicPackages,
+                ApiExtractor.isContentExposed(currentIndex), bndDifferences);
+    }
+
+    /**
+     * Register a detected change. Without report, the description of the changed elements is kept in memory
+     * to be logged, else it is written in the report and only a summary is kept.
+     */
+    private static void addChange(final Map<ChangeType, List<String>> detectedChanges, final DiffReportWriter report,
+            final ChangeType changeType, final String message, final Diff packageDiff) throws IOException {
+        if (packageDiff == null) {
+            detectedChanges.get(changeType).add(message);
+            if (report != null) {
+                report.writeChange(changeType, message, null);
+            }
+        } else if (report == null) {
+            StringBuilder sb = new StringBuilder();
+            DiffReportWriter.writeText(packageDiff, 0, sb);
+            detectedChanges.get(changeType).add(sb.toString());
+        } else {
+            String summary = "A " + changeType.name().toLowerCase() + " change occurs in the package " + message;
+            detectedChanges.get(changeType).add(summary);
+            report.writeChange(changeType, summary, packageDiff);
+        }
+    }
+
+    /**
+     * Compute the main change type of the given detected changes.
+     * @param detectedChanges The changes detected, by change type.
+     * @return The main change type.
+     */
+    public static ChangeType getChangeType(final Map<ChangeType, List<String>> detectedChanges) {
+        if (!detectedChanges.get(ChangeType.MAJOR).isEmpty()) {
+            return ChangeType.MAJOR;
+        } else if (!detectedChanges.get(ChangeType.MINOR).isEmpty()) {
+            return ChangeType.MINOR;
+        } else {
+            return ChangeType.MICRO;
+        }
+    }
+
+    /**
+     * Get the JAR file built for the given project.
+     * @param project The project.
+     * @param buildDirectory The build directory of the project.
+     * @param finalName The final name of the project artifact.
+     * @param comparisonClassifier Classifier for the artifact to compare, may be null.
+     * @return The JAR file built for the given project.
+     */
+    public static File getBundleFile(final MavenProject project, final File buildDirectory, final String finalName,
+            final String comparisonClassifier) {
+        File currentFile = new File(buildDirectory, getBundleName(project, finalName, comparisonClassifier, false));
+        if (!currentFile.exists()) {
+            currentFile = new File(buildDirectory, getBundleName(project, finalName, comparisonClassifier, true));
+        }
+        return currentFile;
+    }
+
+    private static String getBundleName(final MavenProject project, final String finalName,
+            final String comparisonClassifier, final boolean retry) {
+        String extension;
+        try {
+            extension = project.getArtifact().getArtifactHandler().getExtension();
+        } catch (Throwable e) {
+            extension = project.getArtifact().getType();
+        }
+
+        if (StringUtils.isEmpty(extension) || "bundle".equals(extension) || "pom".equals(extension) || "nbm".equals(extension)) {
+            extension = "jar"; // just in case maven gets confused
+        }
+
+        String classifier = comparisonClassifier != null ? comparisonClassifier : project.getArtifact().getClassifier();
+        if (null != classifier && classifier.trim().length() > 0) {
+            return finalName + '-' + classifier + '.' + extension;
+        }
+
+        // Fix a bug in the maven-baseline-plugin when the artifact produces a xxx-bundle.jar but not xxx.jar
+        if (retry && "bundle".equals(project.getArtifact().getType())) {
+            return finalName + '-' + project.getArtifact().getType() + '.' + extension;
+        }
+
+        return finalName + '.' + extension;
+    }
+
+    /**
+     * Compare the given JAR files with bnd.
+     * @param baselineFile The previous released JAR file.
+     * @param newFile The current JAR file.
+     * @return The bnd information of each package.
+     * @throws MojoExecutionException If an error occurs during the comparison.
+     */
+    public Set<Baseline.Info> compareJarFile(final File baselineFile, final File newFile) throws MojoExecutionException {
+        try (JarIndex previousIndex = openIndex(baselineFile);
+                JarIndex currentIndex = openIndex(newFile)) {
+            return compareJarFile(previousIndex, currentIndex);
+        } catch (IOException ioe) {
+            throw new MojoExecutionException("The files can't be accessed : " + baselineFile.getAbsolutePath()
+                    + ", " + newFile.getAbsolutePath(), ioe);
+        }
+    }
+
+    private Set<Baseline.Info> compareJarFile(final JarIndex baselineIndex, final JarIndex newIndex)
+            throws MojoExecutionException {
+        try {
+            Processor processor = new Processor();
+            DiffPluginImpl differ = new DiffPluginImpl();
+            Baseline baseline = new Baseline(processor, differ);
+            if (incremental) {
+                return compareChangedPackages(baseline, differ, baselineIndex, newIndex);
+            }
+            // The bnd JARs read their entries through the indexes, the files are not parsed again.
+            try (Jar older = baselineIndex.toBndJar();
+                    Jar newer = newIndex.toBndJar();) {
+                if (cache == null) {
+                    return baseline.baseline(newer, older, null);
+                }
+                // The released JAR never changes, so its API tree can be taken from the cache
+                Tree olderTree = cache.getTree(baselineIndex.getFile(), older, differ);
+                Tree newerTree = differ.tree(newer);
+                Set<Baseline.Info> infoSet = baseline.baseline(
+                        newerTree, getExports(newer), olderTree, getExports(older), new Instructions());
+                return infoSet;
+            }
+        }   catch (Exception ex) {
+            throw new MojoExecutionException("An error occurred trying to compare the files.", ex);
+        }
+    }
+
+    /**
+     * Compare only the packages whose API may have changed. The classes of the other packages are byte-identical,
+     * so bnd would report them unchanged: the detected changes are the same as with a full comparison.
+     */
+    private Set<Baseline.Info> compareChangedPackages(final Baseline baseline, final DiffPluginImpl differ,
+            final JarIndex baselineIndex, final JarIndex newIndex) throws Exception {
+        Set<String> changedPackages = ChangedPackages.compute(baselineIndex, newIndex);
+        logger.debug(changedPackages.size() + " packages have changed: " + changedPackages);
+        if (changedPackages.isEmpty()) {
+            return new HashSet<>();
+        }
+        try (Jar older = baselineIndex.toBndJar();
+                Jar newer = newIndex.toBndJar();) {
+            Tree olderTree = cache == null
+                    ? getTree(differ, baselineIndex, changedPackages) : cache.getTree(baselineIndex.getFile(), older, differ);
+            Tree newerTree = getTree(differ, newIndex, changedPackages);
+            Set<Baseline.Info> infoSet = baseline.baseline(
+                    newerTree, getExports(newer), olderTree, getExports(older), new Instructions());
+            infoSet.removeIf(info -> !changedPackages.contains(info.packageName.replace('.', '/')));
+            return infoSet;
+        }
+    }
+
+    /**
+     * Compute the API tree of the given packages. The whole JAR is on the classpath of the analysis,
+     * so that the members inherited from the other packages are resolved as in a full comparison.
+     */
+    private static Tree getTree(final DiffPluginImpl differ, final JarIndex index, final Set<String> packages)
+            throws Exception {
+        try (Analyzer analyzer = new Analyzer()) {
+            analyzer.setJar(index.toBndJar(packages));
+            analyzer.addClasspath(index.toBndJar());
+            return differ.tree(analyzer);
+        }
+    }
+
+    /**
+     * Get the Export-Package header of the given JAR, as bnd does when it baselines two JAR files.
+     * @param jar The JAR to analyze.
+     * @return The exported packages.
+     * @throws Exception If the MANIFEST can't be read.
+     */
+    private static Parameters getExports(final Jar jar) throws Exception {
+        Manifest manifest = jar.getManifest();
+        if (manifest == null) {
+            return new Parameters();
+        }
+        return OSGiHeader.parseHeader(manifest.getMainAttributes().getValue(Constants.EXPORT_PACKAGE));
+    }
+
+    private static JarIndex openIndex(final File file) throws MojoExecutionException {
+        try {
+            return JarIndex.open(file);
+        } catch (IOException ioe) {
+            throw new MojoExecutionException("The file can't be accessed : " + file.getAbsolutePath(), ioe);
+        }
+    }
+
+}
@@ -2,32 +2,20 @@
 package com.sp.maven.baseline;
 
 import aQute.bnd.differ.Baseline;
-import aQute.bnd.differ.DiffPluginImpl;
-import aQute.bnd.osgi.Jar;
-import aQute.bnd.osgi.Processor;
-import aQute.bnd.service.diff.Delta;
-import aQute.bnd.service.diff.Diff;
+import com.sp.maven.utils.BackupStrategies;
 import com.sp.maven.utils.ChangeType;
 import com.sp.maven.utils.Helper;
-import com.sp.maven.utils.VersionHelper;
+import com.sp.maven.utils.QualifierPolicy;
+import com.sp.maven.utils.SemanticVersion;
 import java.io.File;
-import java.io.IOException;
-import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collection;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.jar.JarFile;
 
 import org.apache.maven.artifact.Artifact;
-import org.apache.maven.artifact.metadata.ArtifactMetadataRetrievalException;
 import org.apache.maven.artifact.metadata.ArtifactMetadataSource;
 import org.apache.maven.artifact.repository.ArtifactRepository;
-import org.apache.maven.artifact.versioning.ArtifactVersion;
-import org.apache.maven.artifact.versioning.InvalidVersionSpecificationException;
-import org.apache.maven.artifact.versioning.VersionRange;
 import org.apache.maven.execution.MavenSession;
 import org.apache.maven.model.Model;
 import org.apache.maven.plugin.AbstractMojo;
@@ -38,13 +26,8 @@ import org.apache.maven.plugins.annotations.LifecyclePhase;
 import org.apache.maven.plugins.annotations.Mojo;
 import org.apache.maven.plugins.annotations.Parameter;
 import org.apache.maven.plugins.annotations.ResolutionScope;
-import org.apache.maven.project.DefaultProjectBuildingRequest;
 import org.apache.maven.project.MavenProject;
-import org.apache.maven.project.ProjectBuildingRequest;
-import org.apache.maven.shared.artifact.DefaultArtifactCoordinate;
 import org.apache.maven.shared.artifact.resolve.ArtifactResolver;
-import org.apache.maven.shared.artifact.resolve.ArtifactResolverException;
-import org.codehaus.plexus.util.StringUtils;
 
 /**
  * This goal is based on the maven-bundle-plugin and should be used to ensure
@@ -84,6 +67,9 @@ public class BaselineMojo extends AbstractMojo {
    /** Controls whether a backup pom should be created. */
     @Parameter(property = "generateBackupPoms", defaultValue = "true")
     private boolean generateBackupPoms;
+    /** The backup strategy: copy, link (hard link to the original pom) or archive (one file for the reactor). */
+    @Parameter(property = "backupStrategy", defaultValue = "copy")
+    private String backupStrategy;
     /** Group id to compare the current code against. */
     @Parameter(property = "sp.baseline.comparisonGroupId", defaultValue = "${project.groupId}")
     protected String comparisonGroupId;
@@ -102,9 +88,55 @@ public class BaselineMojo extends AbstractMojo {
     /** Project types which this plugin supports. */
     @Parameter(property = "sp.baseline.supportedProjectTypes", defaultValue = "jar,bundle,nbm")
     protected List<String> supportedProjectTypes = Arrays.asList(new String[]{"jar", "bundle", "nbm"});
+    /** Flag to use the cache of the API trees computed for the released artifacts. */
+    @Parameter(property = "sp.baseline.useCache", defaultValue = "true")
+    protected boolean useCache;
+    /** Directory of the cache of the API trees computed for the released artifacts. */
+    @Parameter(property = "sp.baseline.cacheDirectory", defaultValue = "${user.home}/.m2/sp-baseline-cache")
+    protected File cacheDirectory;
+    /** Maximum size of the cache in megabytes. */
+    @Parameter(property = "sp.baseline.cacheMaxSize", defaultValue = "512")
+    protected long cacheMaxSize;
+    /** Maximum age of a cache entry in days. */
+    @Parameter(property = "sp.baseline.cacheMaxAge", defaultValue = "90")
+    protected long cacheMaxAge;
+    /** Flag to analyse only the packages whose classes changed since the previous version. */
+    @Parameter(property = "sp.baseline.incremental", defaultValue = "false")
+    protected boolean incremental;
+    /** Package segments excluded from the API of the JAR files which don't declare their exposed packages. */
+    @Parameter(property = "sp.baseline.excludedPackageSegments", defaultValue = "impl,internal")
+    protected List<String> excludedPackageSegments = ApiExtractor.DEFAULT_EXCLUDED_SEGMENTS;
+    /** Flag to store the index of the released versions on disk, to skip the metadata lookups of the next builds. */
+    @Parameter(property = "sp.baseline.persistResolutionIndex", defaultValue = "false")
+    protected boolean persistResolutionIndex;
+    /** File storing the index of the released versions. */
+    @Parameter(property = "sp.baseline.resolutionIndexFile",
+            defaultValue = "${user.home}/.m2/sp-baseline-cache/resolution-index.properties")
+    protected File resolutionIndexFile;
+    /** How long the stored released versions are trusted, in minutes. */
+    @Parameter(property = "sp.baseline.resolutionIndexTtl", defaultValue = "60")
+    protected long resolutionIndexTtl;
+    /** Flag to write the detected changes in a JSON report and a text summary,
+     * the failure message then only lists the changed packages. */
+    @Parameter(property = "sp.baseline.writeReport", defaultValue = "false")
+    protected boolean writeReport;
+    /** Directory of the report. */
+    @Parameter(property = "sp.baseline.reportDirectory", defaultValue = "${project.build.directory}/sp-baseline")
+    protected File reportDirectory;
 
     @Override
     public void execute() throws MojoExecutionException, MojoFailureException {
+        ResolutionIndex resolutionIndex = ResolutionIndex.forSession(session,
+                persistResolutionIndex ? resolutionIndexFile : null, resolutionIndexTtl, getLog());
+        try {
+            baseline(resolutionIndex);
+        } finally {
+            // The entries added by this execution are merged in the stored index, as the build may stop after it.
+            resolutionIndex.save();
+        }
+    }
+
+    private void baseline(final ResolutionIndex resolutionIndex) throws MojoExecutionException, MojoFailureException {
         // If the execution is skipped, we return immediatly.
         if (skip) {
             getLog().warn("Skipping Baseline execution" );
@@ -119,11 +151,15 @@ public class BaselineMojo extends AbstractMojo {
         }
 
         // We try to retrieve the previous released version (SNAPSHOT are ignored).
+        PreviousArtifactResolver previousArtifactResolver =
+                new PreviousArtifactResolver(resolver, metadataSource, session, resolutionIndex);
         Artifact previousArtifact;
         try {
-            previousArtifact = getPreviousArtifact(false);
+            previousArtifact = previousArtifactResolver.resolve(project, comparisonGroupId, comparisonArtifactId,
+                    comparisonVersion, comparisonClassifier, remoteRepositories, false);
         } catch (MojoExecutionException | MojoFailureException e) {
-            previousArtifact = getPreviousArtifact(true);
+            previousArtifact = previousArtifactResolver.resolve(project, comparisonGroupId, comparisonArtifactId,
+                    comparisonVersion, comparisonClassifier, remoteRepositories, true);
         }
         // If there is not previous released version, we return immediatly.
         if (previousArtifact == null) {
@@ -133,10 +169,7 @@ public class BaselineMojo extends AbstractMojo {
 
         // Comparison can be done
         File previousFile = previousArtifact.getFile();
-        File currentFile = new File(buildDirectory, getBundleName(false));
-        if (!currentFile.exists()) {
-            currentFile = new File(buildDirectory, getBundleName(true));
-        }
+        File currentFile = BaselineComparator.getBundleFile(project, buildDirectory, finalName, comparisonClassifier);
 
         // Now we should have found the files. If they don't exist, we log a warning and stop
         if (!previousFile.exists()) {
@@ -154,86 +187,24 @@ public class BaselineMojo extends AbstractMojo {
         getLog().info("Old File : " + previousFile.getAbsolutePath());
         getLog().info("New File : " + currentFile.getAbsolutePath());
 
-        Map<ChangeType, List<String>> detectedChanges = new HashMap<>();
-        detectedChanges.put(ChangeType.MAJOR, new ArrayList<>());
-        detectedChanges.put(ChangeType.MINOR, new ArrayList<>());
-        detectedChanges.put(ChangeType.MICRO, new ArrayList<>());
-        detectedChanges.put(ChangeType.NONE, new ArrayList<>());
-
-        // Ensure that the jar files contain source code, else we skip the baselining.
-        boolean previousHasSourceCode = ApiExtractor.hasSourceCode(previousFile);
-        boolean currentHasSourceCode = ApiExtractor.hasSourceCode(currentFile);
-
-        if (previousHasSourceCode && currentHasSourceCode) {
-            // Rely on BND o compute the differences
-            Set<Baseline.Info> bndDifferences = compareJarFile(previousFile, currentFile);
-            // Extract the public packages
-            List<String> previousPublicPackages = getPublicPackages(previousFile.getAbsolutePath());
-            getLog().debug("Previously exposed packages:");
-            previousPublicPackages.forEach((previousPublicPackage) -> {
-                getLog().debug("\t" + previousPublicPackage);
-            });
-            List<String> currentPublicPackages = getPublicPackages(currentFile.getAbsolutePath());
-            getLog().debug("Currently exposed packages:");
-            currentPublicPackages.forEach((currentPublicPackage) -> {
-                getLog().debug("\t" + currentPublicPackage);
-            });
-            // Check if we expose less packages
-            for (String previousPublicPackage : previousPublicPackages) {
-                if (!currentPublicPackages.contains(previousPublicPackage)) {
-                    detectedChanges.get(ChangeType.MAJOR).add("The package " + previousPublicPackage + " is no more exposed");
-                }
-            }
-            // Check if we expose more packages
-            for (String currentPublicPackage : currentPublicPackages) {
-                if (!previousPublicPackages.contains(currentPublicPackage)) {
-                    detectedChanges.get(ChangeType.MINOR).add("The package " + currentPublicPackage + " is now exposed");
-                }
-            }
-            // Check all the BND differences which occurred on public packages
-            for (Baseline.Info info : bndDifferences) {
-                String packageName = info.packageName;
-                if (currentPublicPackages.contains(packageName + ".*")) {
-                    Diff packageDiff = info.packageDiff;
-                    StringBuilder sb = new StringBuilder();
-                    getDiffMessages(packageDiff, sb, "");
-                    Delta delta = packageDiff.getDelta();
-                    switch (delta) {
-                        case MAJOR :
-                            detectedChanges.get(ChangeType.MAJOR).add(sb.toString());
-                            break;
-                        case MINOR :
-                            detectedChanges.get(ChangeType.MINOR).add(sb.toString());
-                            break;
-                        case MICRO :
-                            detectedChanges.get(ChangeType.MICRO).add(sb.toString());
-                            break;
-                    }
-                }
-            }
-        } else {
-            getLog().warn("No source code found in the files.");
-        }
+        Map<ChangeType, List<String>> detectedChanges = createComparator().detectChanges(previousFile, currentFile,
+                writeReport ? reportDirectory : null);
 
         // Compute the main change type
-        ChangeType changeType;
-        if (!detectedChanges.get(ChangeType.MAJOR).isEmpty()) {
-            changeType = ChangeType.MAJOR;
-        } else if (!detectedChanges.get(ChangeType.MINOR).isEmpty()) {
-            changeType = ChangeType.MINOR;
-        } else {
-            changeType = ChangeType.MICRO;
-        }
+        ChangeType changeType = BaselineComparator.getChangeType(detectedChanges);
         logDetectedChanges(changeType, detectedChanges.get(changeType));
         // Check if the version has been correctly bumped
         String version = project.getVersion();
-        String expectedVersion = VersionHelper.bumpVersion(previousArtifact.getVersion(), changeType);
-        String expectedVersionSnap = expectedVersion + "-SNAPSHOT";
-        if (!version.equals(expectedVersion) && !version.equals(expectedVersionSnap)) {
+        SemanticVersion expected = SemanticVersion.parse(previousArtifact.getVersion())
+                .bump(changeType, QualifierPolicy.DROP);
+        String expectedVersion = expected.toString();
+        String expectedVersionSnap = expected.toSnapshot().toString();
+        if (!SemanticVersion.parse(version).toRelease().toString().equals(expectedVersion)) {
             if (replaceVersions) {
                 Model model = project.getOriginalModel();
                 model.setVersion(expectedVersionSnap);
-                Helper.savePomFile(project, model, generateBackupPoms, getLog());
+                Helper.savePomVersions(project, model, generateBackupPoms,
+                        BackupStrategies.forSession(session, backupStrategy), getLog());
                 getLog().info("Version was incorrect and has been changed from :" + version + " to: " + expectedVersionSnap);
             } else {
                 StringBuilder msg = new StringBuilder();
@@ -244,6 +215,9 @@ public class BaselineMojo extends AbstractMojo {
                 for (String detail : details) {
                     msg.append("\n").append(detail);
                 }
+                if (writeReport) {
+                    msg.append("\nSee ").append(new File(reportDirectory, DiffReportWriter.TEXT_REPORT)).append(" for the details.");
+                }
                 throw new MojoFailureException(msg.toString());
             }
         } else {
@@ -260,164 +234,17 @@ public class BaselineMojo extends AbstractMojo {
         }
     }
 
-    private void getDiffMessages(final Diff diff, final StringBuilder sb, final String indent) {
-        switch (diff.getDelta()) {
-            case MAJOR :
-                sb.append(indent);
-                sb.append("A major change occurs in the ");
-                sb.append(diff.getNewer().getType().toString().toLowerCase());
-                sb.append(" ");
-                sb.append(diff.getNewer().getName());
-                sb.append("\n");
-                break;
-            case MINOR :
-                sb.append(indent);
-                sb.append("A minor change occurs in the ");
-                sb.append(diff.getNewer().getType().toString().toLowerCase());
-                sb.append(" ");
-                sb.append(diff.getNewer().getName());
-                sb.append("\n");
-                break;
-            case MICRO :
-                sb.append(indent);
-                sb.append("A micro change occurs in the ");
-                sb.append(diff.getNewer().getType().toString().toLowerCase());
-                sb.append(" ");
-                sb.append(diff.getNewer().getName());
-                sb.append("\n");
-                break;
-
-
-            case ADDED :
-                sb.append(indent);
-                sb.append("+ ");
-                sb.append(diff.getNewer().getType().toString().toLowerCase());
-                sb.append(" ");
-                sb.append(diff.getNewer().getName());
-                sb.append("\n");
-                break;
-            case REMOVED :
-                sb.append(indent);
-                sb.append("- ");
-                sb.append(diff.getOlder().getType().toString().toLowerCase());
-                sb.append(" ");
-                sb.append(diff.getOlder().getName());
-                sb.append("\n");
-                break;
-        }
-        for (Diff childDiff : diff.getChildren()) {
-            getDiffMessages(childDiff, sb, indent + "  ");
-        }
-    }
-
-    private Artifact getPreviousArtifact(final boolean retry) throws MojoFailureException, MojoExecutionException {
-        // Find the previous version JAR and resolve it, and it's dependencies
-        final VersionRange range;
-        try {
-            range = VersionRange.createFromVersionSpec(comparisonVersion);
-        } catch (InvalidVersionSpecificationException e) {
-            throw new MojoFailureException("Invalid comparison version: " + e.getMessage());
-        }
-
-        DefaultArtifactCoordinate dac = new DefaultArtifactCoordinate();
-        dac.setGroupId(comparisonGroupId);
-        dac.setArtifactId(comparisonArtifactId);
-        if (comparisonClassifier != null) {
-            dac.setClassifier(comparisonClassifier);
-        } else if (retry && "bundle".equals(project.getArtifact().getType())) {
-            dac.setClassifier(project.getArtifact().getType());
-        }
-        try {
-            dac.setExtension(project.getArtifact().getArtifactHandler().getExtension());
-        } catch (Throwable e) {
-            dac.setExtension(project.getArtifact().getType());
-        }
-        try {
-            List<ArtifactVersion> availableVersions = metadataSource.retrieveAvailableVersions(
-                    project.getArtifact(), session.getLocalRepository(), project.getRemoteArtifactRepositories());
-            filterSnapshots(availableVersions);
-            ArtifactVersion version = range.matchVersion(availableVersions);
-            if (version != null) {
-                dac.setVersion(version.toString());
-            }
-        } catch (ArtifactMetadataRetrievalException amre) {
-            throw new MojoExecutionException("Error determining previous version: " + amre.getMessage(), amre);
-        }
-
-        // If there is no version, then we don't try to retrieve the artifact and return directly.
-        if (dac.getVersion() == null) {
-            return null;
-        } else {
-            final Artifact previousArtifact;
-            try {
-                ProjectBuildingRequest buildingRequest = new DefaultProjectBuildingRequest(this.session.getProjectBuildingRequest());
-                buildingRequest.setRemoteRepositories(this.remoteRepositories);
-                previousArtifact = this.resolver.resolveArtifact(buildingRequest, dac).getArtifact();
-            } catch (ArtifactResolverException e) {
-                throw new MojoExecutionException(e.getMessage(), e);
-            }
-            return previousArtifact;
-        }
-    }
-
-    private void filterSnapshots(final Collection<ArtifactVersion> versions) {
-        versions.removeIf(av -> av.getQualifier() != null && av.getQualifier().endsWith("SNAPSHOT"));
-    }
-
-    private String getBundleName(final boolean retry) {
-        String extension;
-        try {
-            extension = project.getArtifact().getArtifactHandler().getExtension();
-        } catch (Throwable e) {
-            extension = project.getArtifact().getType();
-        }
-
-        if (StringUtils.isEmpty(extension) || "bundle".equals(extension) || "pom".equals(extension) || "nbm".equals(extension)) {
-            extension = "jar"; // just in case maven gets confused
-        }
-
-        String classifier = this.comparisonClassifier != null ? this.comparisonClassifier : project.getArtifact().getClassifier();
-        if (null != classifier && classifier.trim().length() > 0) {
-            return finalName + '-' + classifier + '.' + extension;
-        }
-
-        // Fix a bug in the maven-baseline-plugin when the artifact produces a xxx-bundle.jar but not xxx.jar
-        if (retry && "bundle".equals(project.getArtifact().getType())) {
-            return finalName + '-' + project.getArtifact().getType() + '.' + extension;
-        }
-
-        return finalName + '.' + extension;
+    /**
+     * Create the comparator according to the cache options.
+     * @return The comparator to use.
+     */
+    private BaselineComparator createComparator() {
+        BaselineCache cache = useCache ? new BaselineCache(cacheDirectory, cacheMaxSize, cacheMaxAge, getLog()) : null;
+        return new BaselineComparator(cache, incremental, excludedPackageSegments, getLog());
     }
 
     public Set<Baseline.Info> compareJarFile(final File baselineFile, final File newFile) throws MojoExecutionException {
-        try {
-            Processor processor = new Processor();
-            DiffPluginImpl differ = new DiffPluginImpl();
-            Baseline baseline = new Baseline(processor, differ);
-            try (Jar older = new Jar(baselineFile);
-                    Jar newer = new Jar(newFile);) {
-                Set<Baseline.Info> infoSet = baseline.baseline(newer, older, null);
-                return infoSet;
-            }
-        }   catch (Exception ex) {
-            throw new MojoExecutionException("An error occurred trying to compare the files.", ex);
-        }
-    }
-
-    /**
-     * This method access the JAR File based on the given path and returns the list of exposed packages.
-     * @param jarFilePath The JAR file to analyze.
-     * @return The list of exposed packages.
-     * @throws MojoExecutionException If an error occurs during the scan.
-     */
-    private List<String> getPublicPackages(final String jarFilePath) throws MojoExecutionException {
-        try {
-            JarFile jarFile = new JarFile(jarFilePath);
-            List<String> publicPackages = ApiExtractor.getPublicPackages(jarFile);
-            return publicPackages;
-        } catch (IOException ioe) {
-            throw new MojoExecutionException("The file can't be accessed : " + jarFilePath, ioe);
-        }
+        return createComparator().compareJarFile(baselineFile, newFile);
     }
 
 }
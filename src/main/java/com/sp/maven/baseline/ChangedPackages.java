@@ -0,0 +1,198 @@
+package com.sp.maven.baseline;
+
+import aQute.bnd.header.Attrs;
+import aQute.bnd.header.OSGiHeader;
+import aQute.bnd.header.Parameters;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Find the packages whose API may differ between two versions of a JAR file, without analysing the classes.
+ * A package is changed when one of its classes was added, removed or modified (according to the CRC-32
+ * stored in the zip directory), or when its Export-Package clause changed. As bnd flattens the inherited
+ * members in the API of a class, a package whose classes extend or implement a type of a changed package
+ * is considered changed too.
+ *
+ * 2026-10-18 13:40:02
+ */
+public class ChangedPackages {
+
+    /** The serial version unique id. */
+    private static final long serialVersionUID = 20261018134002L;
+    /** OSGi tag for exposed packages. */
+    private static final String TAG_EXPOSED_PACKAGES_OSGI = "Export-Package";
+    /** Magic number of the class files. */
+    private static final int CLASS_MAGIC = 0xCAFEBABE;
+
+    /**
+     * Constructor.
+     */
+    private ChangedPackages() {
+    }
+
+    /**
+     * Compute the packages whose API may differ between the given JAR files.
+     * @param older The index of the previous JAR file.
+     * @param newer The index of the current JAR file.
+     * @return The changed packages, with '/' as separator.
+     * @throws IOException If a class can't be read.
+     */
+    public static Set<String> compute(final JarIndex older, final JarIndex newer) throws IOException {
+        Set<String> changed = new HashSet<>();
+        // Compare the classes
+        Map<String, Long> olderChecksums = older.getClassChecksums();
+        Map<String, Long> newerChecksums = newer.getClassChecksums();
+        olderChecksums.forEach((entry, checksum) -> {
+            if (!checksum.equals(newerChecksums.get(entry))) {
+                changed.add(JarIndex.getPackage(entry));
+            }
+        });
+        newerChecksums.keySet().forEach(entry -> {
+            if (!olderChecksums.containsKey(entry)) {
+                changed.add(JarIndex.getPackage(entry));
+            }
+        });
+        // Compare the export clauses
+        Parameters olderExports = OSGiHeader.parseHeader(older.getMainAttributes().getValue(TAG_EXPOSED_PACKAGES_OSGI));
+        Parameters newerExports = OSGiHeader.parseHeader(newer.getMainAttributes().getValue(TAG_EXPOSED_PACKAGES_OSGI));
+        Set<String> exportedPackages = new HashSet<>(olderExports.keySet());
+        exportedPackages.addAll(newerExports.keySet());
+        for (String exportedPackage : exportedPackages) {
+            if (!Objects.equals(toString(olderExports.get(exportedPackage)), toString(newerExports.get(exportedPackage)))) {
+                changed.add(exportedPackage.replace('.', '/'));
+            }
+        }
+        if (changed.isEmpty()) {
+            return changed;
+        }
+        // The classes of the unchanged packages are identical in both files, only the newer one is read.
+        Map<String, Set<String>> superTypePackages = new HashMap<>();
+        for (String entry : newerChecksums.keySet()) {
+            String packageName = JarIndex.getPackage(entry);
+            if (!changed.contains(packageName)) {
+                Set<String> packages = superTypePackages.computeIfAbsent(packageName, k -> new HashSet<>());
+                for (String superType : getSuperTypes(newer.read(entry))) {
+                    String superTypePackage = JarIndex.getPackage(superType);
+                    if (!superTypePackage.equals(packageName)) {
+                        packages.add(superTypePackage);
+                    }
+                }
+            }
+        }
+        boolean updated = true;
+        while (updated) {
+            updated = false;
+            for (Map.Entry<String, Set<String>> entry : superTypePackages.entrySet()) {
+                if (!changed.contains(entry.getKey())) {
+                    for (String superTypePackage : entry.getValue()) {
+                        if (changed.contains(superTypePackage)) {
+                            changed.add(entry.getKey());
+                            updated = true;
+                            break;
+                        }
+                    }
+                }
+            }
+        }
+        return changed;
+    }
+
+    private static String toString(final Attrs attrs) {
+        return attrs == null ? null : attrs.toString();
+    }
+
+    /**
+     * Read the super class and the interfaces declared in the given class file.
+     * @param classBytes The content of the class file.
+     * @return The internal names of the super types.
+     * @throws IOException If the class file is invalid.
+     */
+    static Set<String> getSuperTypes(final byte[] classBytes) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(classBytes);
+        if (buffer.remaining() < 10 || buffer.getInt() != CLASS_MAGIC) {
+            throw new IOException("Invalid class file");
+        }
+        buffer.position(8);
+        int count = buffer.getShort() & 0xFFFF;
+        String[] utf8 = new String[count];
+        int[] classNames = new int[count];
+        for (int i = 1; i < count; i++) {
+            int tag = buffer.get();
+            switch (tag) {
+                case 1 : // Utf8
+                    int length = buffer.getShort() & 0xFFFF;
+                    utf8[i] = decode(classBytes, buffer.position(), length);
+                    buffer.position(buffer.position() + length);
+                    break;
+                case 7 : // Class
+                    classNames[i] = buffer.getShort() & 0xFFFF;
+                    break;
+                case 8 : // String
+                case 16 : // MethodType
+                case 19 : // Module
+                case 20 : // Package
+                    buffer.position(buffer.position() + 2);
+                    break;
+                case 15 : // MethodHandle
+                    buffer.position(buffer.position() + 3);
+                    break;
+                case 3 : // Integer
+                case 4 : // Float
+                case 9 : // Fieldref
+                case 10 : // Methodref
+                case 11 : // InterfaceMethodref
+                case 12 : // NameAndType
+                case 17 : // Dynamic
+                case 18 : // InvokeDynamic
+                    buffer.position(buffer.position() + 4);
+                    break;
+                case 5 : // Long
+                case 6 : // Double
+                    buffer.position(buffer.position() + 8);
+                    i++;
+                    break;
+                default :
+                    throw new IOException("Invalid constant pool tag " + tag);
+            }
+        }
+        // access_flags, this_class
+        buffer.position(buffer.position() + 4);
+        Set<String> superTypes = new HashSet<>();
+        int superClass = buffer.getShort() & 0xFFFF;
+        if (superClass != 0) {
+            superTypes.add(utf8[classNames[superClass]]);
+        }
+        int interfaces = buffer.getShort() & 0xFFFF;
+        for (int i = 0; i < interfaces; i++) {
+            superTypes.add(utf8[classNames[buffer.getShort() & 0xFFFF]]);
+        }
+        return superTypes;
+    }
+
+    /**
+     * Decode a modified UTF-8 string of the constant pool. The class names are ASCII in most cases,
+     * the decoding falls back on {@link DataInputStream#readUTF} otherwise.
+     */
+    private static String decode(final byte[] bytes, final int offset, final int length) throws IOException {
+        char[] chars = new char[length];
+        for (int i = 0; i < length; i++) {
+            byte b = bytes[offset + i];
+            if (b < 0) {
+                ByteBuffer encoded = ByteBuffer.allocate(length + 2);
+                encoded.putShort((short) length);
+                encoded.put(bytes, offset, length);
+                return new DataInputStream(new ByteArrayInputStream(encoded.array())).readUTF();
+            }
+            chars[i] = (char) b;
+        }
+        return new String(chars);
+    }
+
+}
@@ -0,0 +1,246 @@
+package com.sp.maven.baseline;
+
+import aQute.bnd.service.diff.Delta;
+import aQute.bnd.service.diff.Diff;
+import aQute.bnd.service.diff.Tree;
+import aQute.bnd.service.diff.Type;
+import com.sp.maven.utils.ChangeType;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Write the changes detected by a baselining in a JSON report and in a text summary.
+ * The bnd differences are written while their tree is walked, and the unchanged or ignored subtrees are
+ * skipped without being visited, so the size of the JAR files has no impact on the memory used.
+ *
+ * 2026-10-18 15:02:26
+ */
+public class DiffReportWriter implements Closeable {
+
+    /** The serial version unique id. */
+    private static final long serialVersionUID = 20261018150226L;
+    /** Name of the JSON report. */
+    public static final String JSON_REPORT = "baseline-report.json";
+    /** Name of the text summary. */
+    public static final String TEXT_REPORT = "baseline-report.txt";
+    /** Number of spaces added at each level of the text summary. */
+    private static final int INDENT = 2;
+    /** The lower case names of the element types, computed once. */
+    private static final Map<Type, String> TYPE_NAMES = new EnumMap<>(Type.class);
+    /** The lower case names of the deltas, computed once. */
+    private static final Map<Delta, String> DELTA_NAMES = new EnumMap<>(Delta.class);
+
+    static {
+        for (Type type : Type.values()) {
+            TYPE_NAMES.put(type, type.toString().toLowerCase());
+        }
+        for (Delta delta : Delta.values()) {
+            DELTA_NAMES.put(delta, delta.toString().toLowerCase());
+        }
+    }
+
+    /** The JSON report. */
+    private final Writer json;
+    /** The text summary. */
+    private final Writer text;
+    /** True until the first change is written. */
+    private boolean firstChange = true;
+
+    private DiffReportWriter(final Writer json, final Writer text) {
+        this.json = json;
+        this.text = text;
+    }
+
+    /**
+     * Create the report files in the given directory and write their header.
+     * @param directory The directory of the report files, created if needed.
+     * @param previousFile The previous released JAR file.
+     * @param currentFile The current JAR file.
+     * @return The writer.
+     * @throws IOException If the files can't be created.
+     */
+    public static DiffReportWriter open(final File directory, final File previousFile, final File currentFile)
+            throws IOException {
+        Files.createDirectories(directory.toPath());
+        Writer json = Files.newBufferedWriter(new File(directory, JSON_REPORT).toPath(), StandardCharsets.UTF_8);
+        Writer text;
+        try {
+            text = Files.newBufferedWriter(new File(directory, TEXT_REPORT).toPath(), StandardCharsets.UTF_8);
+        } catch (IOException ex) {
+            json.close();
+            throw ex;
+        }
+        DiffReportWriter writer = new DiffReportWriter(json, text);
+        json.write("{\n  \"previous\": ");
+        writer.writeString(previousFile.getAbsolutePath());
+        json.write(",\n  \"current\": ");
+        writer.writeString(currentFile.getAbsolutePath());
+        json.write(",\n  \"changes\": [");
+        text.write("Old File : ");
+        text.write(previousFile.getAbsolutePath());
+        text.write("\nNew File : ");
+        text.write(currentFile.getAbsolutePath());
+        text.write("\n\n");
+        return writer;
+    }
+
+    /**
+     * Write a detected change.
+     * @param changeType The type of the change.
+     * @param message The description of the change.
+     * @param diff The bnd differences of the change, may be null.
+     * @throws IOException If the report can't be written.
+     */
+    public void writeChange(final ChangeType changeType, final String message, final Diff diff) throws IOException {
+        json.write(firstChange ? "\n    {" : ",\n    {");
+        firstChange = false;
+        json.write("\"changeType\": \"");
+        json.write(changeType.name());
+        json.write("\", \"message\": ");
+        writeString(message);
+        text.write("[");
+        text.write(changeType.name());
+        text.write("] ");
+        text.write(message);
+        text.write("\n");
+        if (diff != null) {
+            json.write(", \"diff\": ");
+            writeJson(diff);
+            for (Diff child : diff.getChildren()) {
+                writeText(child, 1, text);
+            }
+        }
+        json.write("}");
+    }
+
+    /**
+     * Write the footer of the reports.
+     * @param changeType The main change type.
+     * @throws IOException If the report can't be written.
+     */
+    public void finish(final ChangeType changeType) throws IOException {
+        json.write(firstChange ? "],\n" : "\n  ],\n");
+        json.write("  \"changeType\": \"");
+        json.write(changeType.name());
+        json.write("\"\n}\n");
+        text.write("\nMain change type : ");
+        text.write(changeType.name());
+        text.write("\n");
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            json.close();
+        } finally {
+            text.close();
+        }
+    }
+
+    /**
+     * Write the description of the given differences, one line per changed element.
+     * @param diff The differences.
+     * @param depth The depth of the element, used to indent the line.
+     * @param out The output.
+     * @throws IOException If the output can't be written.
+     */
+    static void writeText(final Diff diff, final int depth, final Appendable out) throws IOException {
+        Delta delta = diff.getDelta();
+        if (delta == Delta.UNCHANGED || delta == Delta.IGNORED) {
+            // bnd computes the delta of an element from its children, nothing changed below
+            return;
+        }
+        switch (delta) {
+            case MAJOR :
+                writeLine(diff.getNewer(), "A major change occurs in the ", depth, out);
+                break;
+            case MINOR :
+                writeLine(diff.getNewer(), "A minor change occurs in the ", depth, out);
+                break;
+            case MICRO :
+                writeLine(diff.getNewer(), "A micro change occurs in the ", depth, out);
+                break;
+            case ADDED :
+                writeLine(diff.getNewer(), "+ ", depth, out);
+                break;
+            case REMOVED :
+                writeLine(diff.getOlder(), "- ", depth, out);
+                break;
+            default :
+                // The element itself is not described, only its changed children
+                break;
+        }
+        for (Diff child : diff.getChildren()) {
+            writeText(child, depth + 1, out);
+        }
+    }
+
+    private static void writeLine(final Tree element, final String prefix, final int depth, final Appendable out)
+            throws IOException {
+        for (int i = depth * INDENT; i > 0; i--) {
+            out.append(' ');
+        }
+        out.append(prefix).append(TYPE_NAMES.get(element.getType())).append(' ').append(element.getName()).append('\n');
+    }
+
+    private void writeJson(final Diff diff) throws IOException {
+        Delta delta = diff.getDelta();
+        Tree element = delta == Delta.REMOVED ? diff.getOlder() : diff.getNewer();
+        json.write("{\"delta\": \"");
+        json.write(DELTA_NAMES.get(delta));
+        json.write("\", \"type\": \"");
+        json.write(TYPE_NAMES.get(element.getType()));
+        json.write("\", \"name\": ");
+        writeString(element.getName());
+        boolean firstChild = true;
+        for (Diff child : diff.getChildren()) {
+            Delta childDelta = child.getDelta();
+            if (childDelta == Delta.UNCHANGED || childDelta == Delta.IGNORED) {
+                continue;
+            }
+            json.write(firstChild ? ", \"changes\": [" : ", ");
+            firstChild = false;
+            writeJson(child);
+        }
+        json.write(firstChild ? "}" : "]}");
+    }
+
+    private void writeString(final String value) throws IOException {
+        json.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' :
+                    json.write("\\\"");
+                    break;
+                case '\\' :
+                    json.write("\\\\");
+                    break;
+                case '\n' :
+                    json.write("\\n");
+                    break;
+                case '\r' :
+                    json.write("\\r");
+                    break;
+                case '\t' :
+                    json.write("\\t");
+                    break;
+                default :
+                    if (c < 0x20) {
+                        json.write(String.format("\\u%04x", (int) c));
+                    } else {
+                        json.write(c);
+                    }
+                    break;
+            }
+        }
+        json.write('"');
+    }
+
+}
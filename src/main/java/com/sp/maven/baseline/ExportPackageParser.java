@@ -0,0 +1,51 @@
+package com.sp.maven.baseline;
+
+import aQute.bnd.header.Attrs;
+import aQute.bnd.header.OSGiHeader;
+import aQute.bnd.header.Parameters;
+import aQute.bnd.osgi.Processor;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Parse an OSGi Export-Package header with the bnd header parser, which the baselining also uses to compare the
+ * export clauses, so that both agree on the exported packages.
+ * A clause declares one or several packages followed by their directives (name:=value) and attributes
+ * (name=value or name:type=value), the values may be quoted strings containing separators.
+ *
+ * 2026-10-18 16:04:37
+ */
+public class ExportPackageParser {
+
+    /** The serial version unique id. */
+    private static final long serialVersionUID = 20261018160437L;
+    /** Attribute declaring the version of the exported packages. */
+    private static final String VERSION_ATTRIBUTE = "version";
+    /** Deprecated attribute declaring the version of the exported packages. */
+    private static final String SPECIFICATION_VERSION_ATTRIBUTE = "specification-version";
+
+    private ExportPackageParser() {
+    }
+
+    /**
+     * Parse the given Export-Package header.
+     * @param header The header, may be null.
+     * @return The exported packages with their declared version (null if not declared), in the declaration order.
+     * A package exported by several clauses keeps the version of the first one.
+     */
+    public static Map<String, String> parse(final String header) {
+        Map<String, String> packages = new LinkedHashMap<>();
+        Parameters exports = OSGiHeader.parseHeader(header);
+        for (Map.Entry<String, Attrs> export : exports.entrySet()) {
+            // bnd marks the duplicated packages with a trailing ~
+            String name = Processor.removeDuplicateMarker(export.getKey());
+            if (!packages.containsKey(name)) {
+                Attrs attrs = export.getValue();
+                String version = attrs.get(VERSION_ATTRIBUTE);
+                packages.put(name, version != null ? version : attrs.get(SPECIFICATION_VERSION_ATTRIBUTE));
+            }
+        }
+        return packages;
+    }
+
+}
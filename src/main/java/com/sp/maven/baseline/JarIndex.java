@@ -0,0 +1,473 @@
+package com.sp.maven.baseline;
+
+import aQute.bnd.osgi.AbstractResource;
+import aQute.bnd.osgi.Jar;
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.jar.Attributes;
+import java.util.jar.Manifest;
+import java.util.stream.IntStream;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+import java.util.zip.ZipException;
+
+/**
+ * Index of a JAR file built from a single read of its zip central directory.
+ * It exposes the class entries, the derived packages and the MANIFEST, and can feed bnd with the
+ * entries so that the file is never parsed twice. The index keeps the file open to read the entries
+ * on demand and must be closed once the analysis is done.
+ *
+ * The central directory is read with one positional read rather than memory-mapped: a mapping can't be
+ * released before the garbage collector runs, which would keep the file locked after {@link #close()}.
+ *
+ * 2026-10-18 11:03:26
+ */
+public class JarIndex implements Closeable {
+
+    /** The serial version unique id. */
+    private static final long serialVersionUID = 20261018110326L;
+    /** Extension for .class files. */
+    private static final String CLASS_EXTENSION = ".class";
+    /** Path of the MANIFEST. */
+    private static final String MANIFEST_NAME = "META-INF/MANIFEST.MF";
+    /** Signature of the end of central directory record. */
+    private static final int END_SIG = 0x06054b50;
+    /** Signature of the zip64 end of central directory locator. */
+    private static final int ZIP64_LOCATOR_SIG = 0x07064b50;
+    /** Signature of the zip64 end of central directory record. */
+    private static final int ZIP64_END_SIG = 0x06064b50;
+    /** Signature of a central directory file header. */
+    private static final int CEN_SIG = 0x02014b50;
+    /** Size of the end of central directory record without comment. */
+    private static final int END_SIZE = 22;
+    /** Size of the zip64 end of central directory locator. */
+    private static final int ZIP64_LOCATOR_SIZE = 20;
+    /** Size of the fixed part of a central directory file header. */
+    private static final int CEN_SIZE = 46;
+    /** Size of the fixed part of a local file header. */
+    private static final int LOC_SIZE = 30;
+    /** Maximum size of the zip comment. */
+    private static final int MAX_COMMENT_SIZE = 0xFFFF;
+    /** Compression method: stored. */
+    private static final int STORED = 0;
+    /** Compression method: deflated. */
+    private static final int DEFLATED = 8;
+    /** The extension of the classes, encoded. */
+    private static final byte[] CLASS_EXTENSION_BYTES = CLASS_EXTENSION.getBytes(StandardCharsets.UTF_8);
+    /** Number of entries scanned by each task of a parallel scan. */
+    private static final int SCAN_CHUNK_SIZE = 8192;
+
+    /** The indexed file. */
+    private final File file;
+    /** The channel used to read the entries. */
+    private final FileChannel channel;
+    /** The raw central directory. */
+    private final byte[] centralDirectory;
+    /** Offset of the name of each entry in the central directory. */
+    private final int[] nameOffsets;
+    /** Length in bytes of the name of each entry. */
+    private final int[] nameLengths;
+    /** Index of each entry by name. */
+    private final Map<String, Integer> entries;
+    /** Names of the entries, in the central directory order. */
+    private final String[] names;
+    /** The MANIFEST, null if the file has none. */
+    private final Manifest manifest;
+
+    private JarIndex(final File file, final FileChannel channel, final byte[] centralDirectory, final int count)
+            throws IOException {
+        this.file = file;
+        this.channel = channel;
+        this.centralDirectory = centralDirectory;
+        this.nameOffsets = new int[count];
+        this.nameLengths = new int[count];
+        this.names = new String[count];
+        this.entries = new HashMap<>(count * 2);
+        ByteBuffer cen = ByteBuffer.wrap(centralDirectory).order(ByteOrder.LITTLE_ENDIAN);
+        int pos = 0;
+        for (int i = 0; i < count; i++) {
+            if (pos + CEN_SIZE > centralDirectory.length || cen.getInt(pos) != CEN_SIG) {
+                throw new ZipException("Invalid central directory in " + file);
+            }
+            int nameLength = cen.getShort(pos + 28) & 0xFFFF;
+            int extraLength = cen.getShort(pos + 30) & 0xFFFF;
+            int commentLength = cen.getShort(pos + 32) & 0xFFFF;
+            nameOffsets[i] = pos;
+            nameLengths[i] = nameLength;
+            names[i] = new String(centralDirectory, pos + CEN_SIZE, nameLength, StandardCharsets.UTF_8);
+            entries.put(names[i], i);
+            pos += CEN_SIZE + nameLength + extraLength + commentLength;
+        }
+        Integer manifestIndex = entries.get(MANIFEST_NAME);
+        if (manifestIndex == null) {
+            this.manifest = null;
+        } else {
+            this.manifest = new Manifest(new ByteArrayInputStream(read(manifestIndex)));
+        }
+    }
+
+    /**
+     * Open and index the given JAR file.
+     * @param file The JAR file to index.
+     * @return The index of the file, to be closed by the caller.
+     * @throws IOException If the file can't be read or is not a valid zip file.
+     */
+    public static JarIndex open(final File file) throws IOException {
+        FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+        try {
+            long fileSize = channel.size();
+            // Locate the end of central directory record, followed by an optional comment
+            int tailSize = (int) Math.min(fileSize, END_SIZE + MAX_COMMENT_SIZE + ZIP64_LOCATOR_SIZE);
+            ByteBuffer tail = readFully(channel, fileSize - tailSize, tailSize);
+            int end = -1;
+            for (int pos = tailSize - END_SIZE; pos >= 0; pos--) {
+                if (tail.getInt(pos) == END_SIG) {
+                    end = pos;
+                    break;
+                }
+            }
+            if (end < 0) {
+                throw new ZipException("Not a zip file: " + file);
+            }
+            long count = tail.getShort(end + 10) & 0xFFFF;
+            long cenSize = tail.getInt(end + 12) & 0xFFFFFFFFL;
+            long cenOffset = tail.getInt(end + 16) & 0xFFFFFFFFL;
+            // The zip64 records are used when the values don't fit in the classic record
+            int locator = end - ZIP64_LOCATOR_SIZE;
+            if (locator >= 0 && tail.getInt(locator) == ZIP64_LOCATOR_SIG) {
+                ByteBuffer zip64End = readFully(channel, tail.getLong(locator + 8), 56);
+                if (zip64End.getInt(0) == ZIP64_END_SIG) {
+                    count = zip64End.getLong(32);
+                    cenSize = zip64End.getLong(40);
+                    cenOffset = zip64End.getLong(48);
+                }
+            }
+            if (cenSize > Integer.MAX_VALUE || count > Integer.MAX_VALUE) {
+                throw new ZipException("Central directory too large in " + file);
+            }
+            byte[] centralDirectory = readFully(channel, cenOffset, (int) cenSize).array();
+            return new JarIndex(file, channel, centralDirectory, (int) count);
+        } catch (IOException | RuntimeException ex) {
+            channel.close();
+            throw ex;
+        }
+    }
+
+    /**
+     * @return The indexed file.
+     */
+    public File getFile() {
+        return file;
+    }
+
+    /**
+     * @return True if the JAR file contains at least one .class entry.
+     */
+    public boolean hasClasses() {
+        for (int i = 0; i < names.length; i++) {
+            if (isClass(i)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return The MANIFEST of the JAR file, null if there is none.
+     */
+    public Manifest getManifest() {
+        return manifest;
+    }
+
+    /**
+     * @return The main attributes of the MANIFEST, empty if there is no MANIFEST.
+     */
+    public Attributes getMainAttributes() {
+        return manifest == null ? new Attributes() : manifest.getMainAttributes();
+    }
+
+    /**
+     * @return The paths of the .class entries, in the central directory order.
+     */
+    public List<String> getClassEntries() {
+        List<String> classEntries = new ArrayList<>();
+        for (int i = 0; i < names.length; i++) {
+            if (isClass(i)) {
+                classEntries.add(names[i]);
+            }
+        }
+        return classEntries;
+    }
+
+    /**
+     * @return The dotted names of the packages containing at least one class, the default package excepted.
+     */
+    public Set<String> getPackages() {
+        Set<String> packages = new LinkedHashSet<>();
+        for (int i = 0; i < names.length; i++) {
+            if (isClass(i)) {
+                int lastSlash = names[i].lastIndexOf('/');
+                if (lastSlash > 0) {
+                    packages.add(names[i].substring(0, lastSlash).replace('/', '.'));
+                }
+            }
+        }
+        return packages;
+    }
+
+    /**
+     * Scan the class entries to find their packages, the packages having an excluded segment being ignored.
+     * The names are read from the central directory, and only one string is built for each package.
+     * Large JAR files are scanned in parallel.
+     * @param excludedSegments The excluded segments: a package is excluded when one of its segments but the first
+     * one is excluded, e.g. com.sp.impl or com.sp.impl.util for the segment impl.
+     * @return The dotted names of the packages, sorted, the default package excepted.
+     */
+    public Set<String> scanPackages(final Collection<String> excludedSegments) {
+        byte[][] excluded = new byte[excludedSegments.size()][];
+        int k = 0;
+        for (String excludedSegment : excludedSegments) {
+            excluded[k++] = ('/' + excludedSegment + '/').getBytes(StandardCharsets.UTF_8);
+        }
+        int chunks = (names.length + SCAN_CHUNK_SIZE - 1) / SCAN_CHUNK_SIZE;
+        IntStream stream = IntStream.range(0, chunks);
+        if (chunks > 1) {
+            stream = stream.parallel();
+        }
+        return stream.mapToObj(chunk -> scanPackages(chunk * SCAN_CHUNK_SIZE,
+                Math.min(names.length, (chunk + 1) * SCAN_CHUNK_SIZE), excluded))
+                .collect(TreeSet::new, Set::addAll, Set::addAll);
+    }
+
+    private Set<String> scanPackages(final int from, final int to, final byte[][] excluded) {
+        Set<String> packages = new HashSet<>();
+        // The classes of a package are usually stored together, the package of the previous one is skipped
+        int previousStart = -1;
+        int previousLength = -1;
+        for (int i = from; i < to; i++) {
+            if (!isClass(i)) {
+                continue;
+            }
+            int start = nameOffsets[i] + CEN_SIZE;
+            int length = nameLengths[i] - 1;
+            while (length >= 0 && centralDirectory[start + length] != '/') {
+                length--;
+            }
+            if (length <= 0) {
+                continue;
+            }
+            if (length == previousLength && regionMatches(previousStart, start, length)) {
+                continue;
+            }
+            previousStart = start;
+            previousLength = length;
+            boolean isExcluded = false;
+            for (byte[] segment : excluded) {
+                // The segment is searched in the package name followed by its slash
+                if (indexOf(start, length + 1, segment) >= 0) {
+                    isExcluded = true;
+                    break;
+                }
+            }
+            if (!isExcluded) {
+                packages.add(new String(centralDirectory, start, length, StandardCharsets.UTF_8).replace('/', '.'));
+            }
+        }
+        return packages;
+    }
+
+    private boolean regionMatches(final int offset, final int otherOffset, final int length) {
+        for (int i = length - 1; i >= 0; i--) {
+            if (centralDirectory[offset + i] != centralDirectory[otherOffset + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int indexOf(final int offset, final int length, final byte[] pattern) {
+        for (int i = offset, last = offset + length - pattern.length; i <= last; i++) {
+            if (regionMatches(i, pattern)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private boolean regionMatches(final int offset, final byte[] pattern) {
+        for (int i = 0; i < pattern.length; i++) {
+            if (centralDirectory[offset + i] != pattern[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Get the checksum of each class entry, made of the CRC-32 and the size stored in the central directory.
+     * Two entries with the same checksum are considered byte-identical.
+     * @return The checksum of each class entry, by path.
+     */
+    public Map<String, Long> getClassChecksums() {
+        Map<String, Long> checksums = new HashMap<>();
+        ByteBuffer cen = ByteBuffer.wrap(centralDirectory).order(ByteOrder.LITTLE_ENDIAN);
+        for (int i = 0; i < names.length; i++) {
+            if (isClass(i)) {
+                long crc = cen.getInt(nameOffsets[i] + 16) & 0xFFFFFFFFL;
+                long size = cen.getInt(nameOffsets[i] + 24) & 0xFFFFFFFFL;
+                checksums.put(names[i], (crc << 32) | size);
+            }
+        }
+        return checksums;
+    }
+
+    /**
+     * Read and uncompress the content of the given entry.
+     * @param entryName The path of the entry.
+     * @return The uncompressed content, null if there is no such entry.
+     * @throws IOException If the entry can't be read.
+     */
+    public byte[] read(final String entryName) throws IOException {
+        Integer index = entries.get(entryName);
+        return index == null ? null : read(index);
+    }
+
+    /**
+     * Create a bnd JAR reading its entries through this index, to avoid a second parsing of the file.
+     * The bnd JAR can be used as long as this index is open.
+     * @return The bnd JAR.
+     */
+    public Jar toBndJar() {
+        return toBndJar(null);
+    }
+
+    /**
+     * Create a bnd JAR containing only the classes of the given packages, and all the other resources.
+     * The bnd JAR can be used as long as this index is open.
+     * @param packages The packages to keep, with '/' as separator, or null to keep all of them.
+     * @return The bnd JAR.
+     */
+    public Jar toBndJar(final Set<String> packages) {
+        Jar jar = new Jar(file.getAbsoluteFile().getName());
+        long lastModified = file.lastModified();
+        for (int i = 0; i < names.length; i++) {
+            if (!isDirectory(i) && (packages == null || !isClass(i) || packages.contains(getPackage(names[i])))) {
+                final int index = i;
+                jar.putResource(names[i], new AbstractResource(lastModified) {
+                    @Override
+                    protected byte[] getBytes() throws Exception {
+                        return read(index);
+                    }
+                }, true);
+            }
+        }
+        return jar;
+    }
+
+    /**
+     * Get the package of the given entry.
+     * @param entryName The path of the entry.
+     * @return The package of the entry, with '/' as separator, empty for the default package.
+     */
+    static String getPackage(final String entryName) {
+        int lastSlash = entryName.lastIndexOf('/');
+        return lastSlash < 0 ? "" : entryName.substring(0, lastSlash);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private boolean isDirectory(final int index) {
+        return nameLengths[index] == 0
+                || centralDirectory[nameOffsets[index] + CEN_SIZE + nameLengths[index] - 1] == '/';
+    }
+
+    private boolean isClass(final int index) {
+        int length = nameLengths[index];
+        return length >= CLASS_EXTENSION_BYTES.length
+                && regionMatches(nameOffsets[index] + CEN_SIZE + length - CLASS_EXTENSION_BYTES.length, CLASS_EXTENSION_BYTES);
+    }
+
+    /**
+     * Read and uncompress the content of the given entry.
+     * @param index Index of the entry.
+     * @return The uncompressed content.
+     * @throws IOException If the entry can't be read.
+     */
+    byte[] read(final int index) throws IOException {
+        ByteBuffer cen = ByteBuffer.wrap(centralDirectory).order(ByteOrder.LITTLE_ENDIAN);
+        int pos = nameOffsets[index];
+        int method = cen.getShort(pos + 10) & 0xFFFF;
+        long compressedSize = cen.getInt(pos + 20) & 0xFFFFFFFFL;
+        long size = cen.getInt(pos + 24) & 0xFFFFFFFFL;
+        long localOffset = cen.getInt(pos + 42) & 0xFFFFFFFFL;
+        if (compressedSize == 0xFFFFFFFFL || size == 0xFFFFFFFFL || localOffset == 0xFFFFFFFFL) {
+            throw new ZipException("Zip64 entries are not supported: " + names[index] + " in " + file);
+        }
+        ByteBuffer loc = readFully(channel, localOffset, LOC_SIZE);
+        long dataOffset = localOffset + LOC_SIZE + (loc.getShort(26) & 0xFFFF) + (loc.getShort(28) & 0xFFFF);
+        byte[] data = readFully(channel, dataOffset, (int) compressedSize).array();
+        if (method == STORED) {
+            return data;
+        } else if (method == DEFLATED) {
+            Inflater inflater = new Inflater(true);
+            try {
+                inflater.setInput(data);
+                byte[] result = new byte[(int) size];
+                int inflated = 0;
+                while (inflated < result.length && !inflater.finished()) {
+                    int n = inflater.inflate(result, inflated, result.length - inflated);
+                    if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                        break;
+                    }
+                    inflated += n;
+                }
+                if (inflated != result.length) {
+                    throw new ZipException("Invalid entry size for " + names[index] + " in " + file);
+                }
+                return result;
+            } catch (DataFormatException ex) {
+                throw new ZipException("Invalid compressed data for " + names[index] + " in " + file + " : " + ex.getMessage());
+            } finally {
+                inflater.end();
+            }
+        } else {
+            throw new ZipException("Unsupported compression method " + method + " for " + names[index] + " in " + file);
+        }
+    }
+
+    private static ByteBuffer readFully(final FileChannel channel, final long position, final int length)
+            throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length).order(ByteOrder.LITTLE_ENDIAN);
+        long pos = position;
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, pos);
+            if (read < 0) {
+                throw new EOFException("Unexpected end of file at " + pos);
+            }
+            pos += read;
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+}
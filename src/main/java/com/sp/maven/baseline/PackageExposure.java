@@ -0,0 +1,116 @@
+package com.sp.maven.baseline;
+
+import aQute.bnd.differ.Baseline;
+import aQute.bnd.service.diff.Delta;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The packages exposed by two versions of a JAR file: the packages which are no more exposed, the packages
+ * which are now exposed, and the exposed packages whose API changed according to bnd.
+ * The sets are computed once, by hashing, and are read-only.
+ *
+ * 2026-10-18 16:41:05
+ */
+public final class PackageExposure {
+
+    /** The serial version unique id. */
+    private static final long serialVersionUID = 20261018164105L;
+
+    /** The packages exposed by the previous version, with their declared version. */
+    private final Map<String, String> previousPackages;
+    /** The packages exposed by the current version, with their declared version. */
+    private final Map<String, String> currentPackages;
+    /** The packages exposed by the current version only. */
+    private final Set<String> addedPackages;
+    /** The packages exposed by the previous version only. */
+    private final Set<String> removedPackages;
+    /** The bnd information of the exposed packages whose API changed, by package name. */
+    private final Map<String, Baseline.Info> changedPackages;
+
+    private PackageExposure(final Map<String, String> previousPackages, final Map<String, String> currentPackages,
+            final Set<String> addedPackages, final Set<String> removedPackages,
+            final Map<String, Baseline.Info> changedPackages) {
+        this.previousPackages = Collections.unmodifiableMap(previousPackages);
+        this.currentPackages = Collections.unmodifiableMap(currentPackages);
+        this.addedPackages = Collections.unmodifiableSet(addedPackages);
+        this.removedPackages = Collections.unmodifiableSet(removedPackages);
+        this.changedPackages = Collections.unmodifiableMap(changedPackages);
+    }
+
+    /**
+     * Compute the exposure of the packages.
+     * @param previousPublicPackages The packages exposed by the previous version, as returned by {@link ApiExtractor}.
+     * @param currentPublicPackages The packages exposed by the current version, as returned by {@link ApiExtractor}.
+     * @param contentExposed True if the API of the packages exposed by the current version is compared.
+     * @param bndDifferences The bnd information of each package.
+     * @return The exposure of the packages.
+     */
+    public static PackageExposure compute(final Map<String, String> previousPublicPackages,
+            final Map<String, String> currentPublicPackages, final boolean contentExposed,
+            final Collection<Baseline.Info> bndDifferences) {
+        Map<String, String> previousPackages = new LinkedHashMap<>(previousPublicPackages);
+        Map<String, String> currentPackages = new LinkedHashMap<>(currentPublicPackages);
+        Set<String> removedPackages = new LinkedHashSet<>();
+        for (String previousPackage : previousPackages.keySet()) {
+            if (!currentPackages.containsKey(previousPackage)) {
+                removedPackages.add(previousPackage);
+            }
+        }
+        Set<String> addedPackages = new LinkedHashSet<>();
+        for (String currentPackage : currentPackages.keySet()) {
+            if (!previousPackages.containsKey(currentPackage)) {
+                addedPackages.add(currentPackage);
+            }
+        }
+        Map<String, Baseline.Info> changedPackages = new LinkedHashMap<>();
+        for (Baseline.Info info : bndDifferences) {
+            Delta delta = info.packageDiff.getDelta();
+            if (contentExposed && currentPackages.containsKey(info.packageName)
+                    && (delta == Delta.MAJOR || delta == Delta.MINOR || delta == Delta.MICRO)) {
+                changedPackages.put(info.packageName, info);
+            }
+        }
+        return new PackageExposure(previousPackages, currentPackages, addedPackages, removedPackages, changedPackages);
+    }
+
+    /**
+     * @return The packages exposed by the previous version, with their declared version (null if not declared).
+     */
+    public Map<String, String> getPreviousPackages() {
+        return previousPackages;
+    }
+
+    /**
+     * @return The packages exposed by the current version, with their declared version (null if not declared).
+     */
+    public Map<String, String> getCurrentPackages() {
+        return currentPackages;
+    }
+
+    /**
+     * @return The packages exposed by the current version only.
+     */
+    public Set<String> getAddedPackages() {
+        return addedPackages;
+    }
+
+    /**
+     * @return The packages exposed by the previous version only.
+     */
+    public Set<String> getRemovedPackages() {
+        return removedPackages;
+    }
+
+    /**
+     * @return The bnd information of the exposed packages whose API changed, by package name.
+     */
+    public Map<String, Baseline.Info> getChangedPackages() {
+        return changedPackages;
+    }
+
+}
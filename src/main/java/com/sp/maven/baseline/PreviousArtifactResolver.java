@@ -0,0 +1,146 @@
+package com.sp.maven.baseline;
+
+import java.io.File;
+import java.util.Collection;
+import java.util.List;
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.artifact.DefaultArtifact;
+import org.apache.maven.artifact.handler.DefaultArtifactHandler;
+import org.apache.maven.artifact.metadata.ArtifactMetadataRetrievalException;
+import org.apache.maven.artifact.metadata.ArtifactMetadataSource;
+import org.apache.maven.artifact.repository.ArtifactRepository;
+import org.apache.maven.artifact.versioning.ArtifactVersion;
+import org.apache.maven.artifact.versioning.InvalidVersionSpecificationException;
+import org.apache.maven.artifact.versioning.VersionRange;
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.project.DefaultProjectBuildingRequest;
+import org.apache.maven.project.MavenProject;
+import org.apache.maven.project.ProjectBuildingRequest;
+import org.apache.maven.shared.artifact.DefaultArtifactCoordinate;
+import org.apache.maven.shared.artifact.resolve.ArtifactResolver;
+import org.apache.maven.shared.artifact.resolve.ArtifactResolverException;
+
+/**
+ * Resolve the previous released version of a project, used as the reference of the baselining.
+ *
+ * 2026-10-18 10:02:15
+ */
+public class PreviousArtifactResolver {
+
+    /** The serial version unique id. */
+    private static final long serialVersionUID = 20261018100215L;
+
+    /** The artifact resolver. */
+    private final ArtifactResolver resolver;
+    /** The source of the available versions. */
+    private final ArtifactMetadataSource metadataSource;
+    /** The Maven session. */
+    private final MavenSession session;
+    /** The index consulted before any lookup. */
+    private final ResolutionIndex index;
+
+    /**
+     * Constructor.
+     * @param resolver The artifact resolver.
+     * @param metadataSource The source of the available versions.
+     * @param session The Maven session.
+     * @param index The index consulted before any lookup, shared by the executions of the session.
+     */
+    public PreviousArtifactResolver(final ArtifactResolver resolver, final ArtifactMetadataSource metadataSource,
+            final MavenSession session, final ResolutionIndex index) {
+        this.resolver = resolver;
+        this.metadataSource = metadataSource;
+        this.session = session;
+        this.index = index;
+    }
+
+    /**
+     * Resolve the previous released version (SNAPSHOT are ignored) of the given project.
+     * @param project The project to baseline.
+     * @param groupId Group id to compare the current code against.
+     * @param artifactId Artifact id to compare the current code against.
+     * @param versionSpec Version range to compare the current code against.
+     * @param classifier Classifier for the artifact to compare the current code against, may be null.
+     * @param remoteRepositories The remote repositories to use.
+     * @param retry True to look for the bundle classifier when the project produces a xxx-bundle.jar.
+     * @return The previous artifact, or null if there is no previous released version.
+     * @throws MojoFailureException If the version range is invalid.
+     * @throws MojoExecutionException If an error occurs during the resolution.
+     */
+    public Artifact resolve(final MavenProject project, final String groupId, final String artifactId,
+            final String versionSpec, final String classifier, final List<ArtifactRepository> remoteRepositories,
+            final boolean retry) throws MojoFailureException, MojoExecutionException {
+        // Find the previous version JAR and resolve it, and it's dependencies
+        final VersionRange range;
+        try {
+            range = VersionRange.createFromVersionSpec(versionSpec);
+        } catch (InvalidVersionSpecificationException e) {
+            throw new MojoFailureException("Invalid comparison version: " + e.getMessage());
+        }
+
+        DefaultArtifactCoordinate dac = new DefaultArtifactCoordinate();
+        dac.setGroupId(groupId);
+        dac.setArtifactId(artifactId);
+        if (classifier != null) {
+            dac.setClassifier(classifier);
+        } else if (retry && "bundle".equals(project.getArtifact().getType())) {
+            dac.setClassifier(project.getArtifact().getType());
+        }
+        try {
+            dac.setExtension(project.getArtifact().getArtifactHandler().getExtension());
+        } catch (Throwable e) {
+            dac.setExtension(project.getArtifact().getType());
+        }
+        // The released versions are retrieved once per artifact, the retry reuses them.
+        String versionsKey = project.getArtifact().getGroupId() + ":" + project.getArtifact().getArtifactId();
+        List<ArtifactVersion> availableVersions = index.getVersions(versionsKey);
+        if (availableVersions == null) {
+            try {
+                availableVersions = metadataSource.retrieveAvailableVersions(
+                        project.getArtifact(), session.getLocalRepository(), project.getRemoteArtifactRepositories());
+            } catch (ArtifactMetadataRetrievalException amre) {
+                throw new MojoExecutionException("Error determining previous version: " + amre.getMessage(), amre);
+            }
+            filterSnapshots(availableVersions);
+            index.putVersions(versionsKey, availableVersions);
+        }
+        ArtifactVersion version = range.matchVersion(availableVersions);
+        if (version != null) {
+            dac.setVersion(version.toString());
+        }
+
+        // If there is no version, then we don't try to retrieve the artifact and return directly.
+        if (dac.getVersion() == null) {
+            return null;
+        }
+        // A released artifact never changes, the file resolved previously can be used as is.
+        String coordinate = dac.getGroupId() + ":" + dac.getArtifactId() + ":" + dac.getExtension() + ":"
+                + (dac.getClassifier() == null ? "" : dac.getClassifier()) + ":" + dac.getVersion();
+        File indexedFile = index.getFile(coordinate);
+        if (indexedFile != null) {
+            Artifact previousArtifact = new DefaultArtifact(dac.getGroupId(), dac.getArtifactId(), dac.getVersion(),
+                    null, dac.getExtension(), dac.getClassifier(), new DefaultArtifactHandler(dac.getExtension()));
+            previousArtifact.setFile(indexedFile);
+            return previousArtifact;
+        }
+        final Artifact previousArtifact;
+        try {
+            ProjectBuildingRequest buildingRequest = new DefaultProjectBuildingRequest(this.session.getProjectBuildingRequest());
+            buildingRequest.setRemoteRepositories(remoteRepositories);
+            previousArtifact = this.resolver.resolveArtifact(buildingRequest, dac).getArtifact();
+        } catch (ArtifactResolverException e) {
+            throw new MojoExecutionException(e.getMessage(), e);
+        }
+        if (previousArtifact.getFile() != null) {
+            index.putFile(coordinate, previousArtifact.getFile());
+        }
+        return previousArtifact;
+    }
+
+    private void filterSnapshots(final Collection<ArtifactVersion> versions) {
+        versions.removeIf(av -> av.getQualifier() != null && av.getQualifier().endsWith("SNAPSHOT"));
+    }
+
+}
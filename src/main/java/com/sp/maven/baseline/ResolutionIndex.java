@@ -0,0 +1,246 @@
+package com.sp.maven.baseline;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import org.apache.maven.artifact.versioning.ArtifactVersion;
+import org.apache.maven.artifact.versioning.DefaultArtifactVersion;
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.plugin.logging.Log;
+
+/**
+ * Index of the released versions (groupId:artifactId to versions) and of the resolved files
+ * (coordinate to local file) of the artifacts used as baseline.
+ * One index is shared by all the executions of a build using the same storage, keyed by the top level directory of
+ * the build rather than by session as a parallel build gives each project a copy of the session, so the metadata of
+ * an artifact is retrieved only once. It can also be stored on disk to avoid the metadata lookups of the next builds.
+ * The versions are trusted for a limited time, as new versions may be released meanwhile. The index is written after
+ * each execution which added entries, merged under a file lock with the entries stored meanwhile by the other
+ * executions and builds.
+ *
+ * 2026-10-18 14:31:44
+ */
+public class ResolutionIndex {
+
+    /** The serial version unique id. */
+    private static final long serialVersionUID = 20261018143144L;
+    /** Suffix of the keys of the versions in the persisted index. */
+    private static final String VERSIONS_SUFFIX = ".versions";
+    /** Suffix of the keys of the retrieval times in the persisted index. */
+    private static final String TIMESTAMP_SUFFIX = ".timestamp";
+    /** Suffix of the keys of the files in the persisted index. */
+    private static final String FILE_SUFFIX = ".file";
+    /** Separator of the versions in the persisted index. */
+    private static final String VERSION_SEPARATOR = ",";
+    /** Suffix of the lock file of the persisted index. */
+    private static final String LOCK_SUFFIX = ".lock";
+    /** The shared indexes, by storage, time to live and top level directory of the build. */
+    private static final Map<String, ResolutionIndex> INDEXES = new ConcurrentHashMap<>();
+    /** Lock of the writers of this JVM, as a file lock can't be held twice by the same process. */
+    private static final Object SAVE_LOCK = new Object();
+
+    /** The released versions, by groupId:artifactId. */
+    private final Map<String, List<ArtifactVersion>> versions = new ConcurrentHashMap<>();
+    /** The retrieval time of the released versions, by groupId:artifactId. */
+    private final Map<String, Long> timestamps = new ConcurrentHashMap<>();
+    /** The resolved files, by coordinate. */
+    private final Map<String, File> files = new ConcurrentHashMap<>();
+    /** The file storing the index, null if the index is not persisted. */
+    private final File storage;
+    /** How long the versions are trusted, in milliseconds. */
+    private final long ttl;
+    /** The logger to use for messages. */
+    private final Log logger;
+    /** True if entries were added since the index was loaded or stored. */
+    private boolean dirty;
+
+    private ResolutionIndex(final File storage, final long ttlInMinutes, final Log logger) {
+        this.storage = storage;
+        this.ttl = ttlInMinutes * 60L * 1000L;
+        this.logger = logger;
+        if (storage != null && storage.isFile()) {
+            load();
+        }
+    }
+
+    /**
+     * Get the index of the build of the given session for the given storage, created on first use.
+     * @param session The Maven session, or one of its copies in a parallel build.
+     * @param storage The file storing the index, null to keep the index in memory only.
+     * @param ttlInMinutes How long the versions are trusted, in minutes.
+     * @param logger The logger to use for messages.
+     * @return The index of the build.
+     */
+    public static ResolutionIndex forSession(final MavenSession session, final File storage,
+            final long ttlInMinutes, final Log logger) {
+        String topLevelDirectory = session.getTopLevelProject() != null
+                ? session.getTopLevelProject().getBasedir().getAbsolutePath()
+                : String.valueOf(session.getExecutionRootDirectory());
+        String key = (storage == null ? "" : storage.getAbsolutePath()) + "|" + ttlInMinutes + "|" + topLevelDirectory;
+        return INDEXES.computeIfAbsent(key, k -> new ResolutionIndex(storage, ttlInMinutes, logger));
+    }
+
+    /**
+     * Get the released versions of the given artifact.
+     * @param key The groupId:artifactId of the artifact.
+     * @return A copy of the known versions, null if they are not indexed.
+     */
+    public List<ArtifactVersion> getVersions(final String key) {
+        List<ArtifactVersion> indexed = versions.get(key);
+        Long timestamp = timestamps.get(key);
+        if (indexed == null || timestamp == null || System.currentTimeMillis() - timestamp > ttl) {
+            return null;
+        }
+        return new ArrayList<>(indexed);
+    }
+
+    /**
+     * Register the released versions of the given artifact.
+     * @param key The groupId:artifactId of the artifact.
+     * @param availableVersions The available versions.
+     */
+    public void putVersions(final String key, final List<ArtifactVersion> availableVersions) {
+        versions.put(key, new ArrayList<>(availableVersions));
+        timestamps.put(key, System.currentTimeMillis());
+        markDirty();
+    }
+
+    /**
+     * Get the file resolved for the given coordinate.
+     * @param coordinate The coordinate of the artifact.
+     * @return The local file, null if it is not indexed or doesn't exist anymore.
+     */
+    public File getFile(final String coordinate) {
+        File file = files.get(coordinate);
+        return file != null && file.isFile() ? file : null;
+    }
+
+    /**
+     * Register the file resolved for the given coordinate.
+     * @param coordinate The coordinate of the artifact.
+     * @param file The local file.
+     */
+    public void putFile(final String coordinate, final File file) {
+        files.put(coordinate, file);
+        markDirty();
+    }
+
+    private synchronized void markDirty() {
+        dirty = true;
+    }
+
+    private void load() {
+        Properties properties;
+        try {
+            properties = read();
+        } catch (IOException ex) {
+            logger.warn("Unable to read the resolution index " + storage + " : " + ex.getMessage());        // NOI18N
+            return;
+        }
+        long now = System.currentTimeMillis();
+        for (String name : properties.stringPropertyNames()) {
+            String value = properties.getProperty(name);
+            if (name.endsWith(VERSIONS_SUFFIX)) {
+                String key = name.substring(0, name.length() - VERSIONS_SUFFIX.length());
+                long timestamp;
+                try {
+                    timestamp = Long.parseLong(properties.getProperty(key + TIMESTAMP_SUFFIX, "0"));
+                } catch (NumberFormatException ex) {
+                    timestamp = 0;
+                }
+                if (now - timestamp <= ttl) {
+                    List<ArtifactVersion> indexed = new ArrayList<>();
+                    for (String version : value.split(VERSION_SEPARATOR)) {
+                        if (!version.isEmpty()) {
+                            indexed.add(new DefaultArtifactVersion(version));
+                        }
+                    }
+                    versions.put(key, indexed);
+                    timestamps.put(key, timestamp);
+                }
+            } else if (name.endsWith(FILE_SUFFIX)) {
+                files.put(name.substring(0, name.length() - FILE_SUFFIX.length()), new File(value));
+            }
+        }
+        logger.debug("Resolution index loaded from " + storage + " : " + versions.size() + " artifacts");      // NOI18N
+    }
+
+    private Properties read() throws IOException {
+        Properties properties = new Properties();
+        if (storage.isFile()) {
+            try (InputStream in = Files.newInputStream(storage.toPath())) {
+                properties.load(in);
+            }
+        }
+        return properties;
+    }
+
+    /**
+     * Write the index in its storage file if entries were added. The entries stored meanwhile by the other builds
+     * are kept, the most recent versions of an artifact being kept. The file is written under a lock, through
+     * a temporary file so that the readers never read a partial index.
+     */
+    public synchronized void save() {
+        if (storage == null || !dirty) {
+            return;
+        }
+        Path tmp = null;
+        File parent = storage.getAbsoluteFile().getParentFile();
+        synchronized (SAVE_LOCK) {
+            try {
+                Files.createDirectories(parent.toPath());
+                try (FileChannel lockChannel = FileChannel.open(new File(parent, storage.getName() + LOCK_SUFFIX).toPath(),
+                        StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+                        FileLock lock = lockChannel.lock()) {
+                    Properties properties = read();
+                    versions.forEach((key, indexed) -> {
+                        long timestamp = timestamps.get(key);
+                        long storedTimestamp;
+                        try {
+                            storedTimestamp = Long.parseLong(properties.getProperty(key + TIMESTAMP_SUFFIX, "0"));
+                        } catch (NumberFormatException ex) {
+                            storedTimestamp = 0;
+                        }
+                        if (timestamp >= storedTimestamp) {
+                            List<String> values = new ArrayList<>();
+                            indexed.forEach(version -> values.add(version.toString()));
+                            properties.setProperty(key + VERSIONS_SUFFIX, String.join(VERSION_SEPARATOR, values));
+                            properties.setProperty(key + TIMESTAMP_SUFFIX, String.valueOf(timestamp));
+                        }
+                    });
+                    files.forEach((coordinate, file) -> properties.setProperty(coordinate + FILE_SUFFIX,
+                            file.getAbsolutePath()));
+                    tmp = Files.createTempFile(parent.toPath(), storage.getName(), ".tmp");
+                    try (OutputStream out = Files.newOutputStream(tmp)) {
+                        properties.store(out, "sp-maven-plugin resolution index");                          // NOI18N
+                    }
+                    try {
+                        Files.move(tmp, storage.toPath(), StandardCopyOption.ATOMIC_MOVE);
+                    } catch (AtomicMoveNotSupportedException ex) {
+                        Files.move(tmp, storage.toPath(), StandardCopyOption.REPLACE_EXISTING);
+                    }
+                }
+                dirty = false;
+            } catch (IOException ex) {
+                logger.warn("Unable to store the resolution index " + storage + " : " + ex.getMessage());   // NOI18N
+                if (tmp != null) {
+                    tmp.toFile().delete();
+                }
+            }
+        }
+    }
+
+}
@@ -0,0 +1,86 @@
+package com.sp.maven.effective;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.eclipse.aether.artifact.Artifact;
+import org.eclipse.aether.artifact.ArtifactProperties;
+import org.eclipse.aether.graph.DependencyNode;
+
+/**
+ * The transitive closure of a resolved dependency graph, by management key (groupId:artifactId:type[:classifier]).
+ * The resolved graph only holds the nodes reachable from the root, so the closure is the set of the keys met by a
+ * breadth-first walk of the graph, each node being visited once.
+ *
+ * 2026-10-18 22:16:41
+ */
+final class DependencyClosure {
+
+    /** The serial version unique id. */
+    private static final long serialVersionUID = 20261018221641L;
+
+    /** The management keys of the direct and transitive dependencies, nearest first. */
+    private final Set<String> keys;
+
+    private DependencyClosure(final Set<String> keys) {
+        this.keys = keys;
+    }
+
+    /**
+     * Build the closure of a resolved dependency graph.
+     * @param root The root node of the graph, the project itself.
+     * @return The closure.
+     */
+    static DependencyClosure of(final DependencyNode root) {
+        Set<String> keys = new LinkedHashSet<>();
+        Map<DependencyNode, Boolean> visited = new IdentityHashMap<>();
+        Deque<DependencyNode> nodes = new ArrayDeque<>();
+        nodes.add(root);
+        while (!nodes.isEmpty()) {
+            DependencyNode node = nodes.poll();
+            if (visited.put(node, Boolean.TRUE) != null) {
+                continue;
+            }
+            for (DependencyNode child : node.getChildren()) {
+                if (child.getArtifact() != null) {
+                    keys.add(getKey(child.getArtifact()));
+                    nodes.add(child);
+                }
+            }
+        }
+        return new DependencyClosure(keys);
+    }
+
+    /**
+     * Build the management key of a resolved artifact.
+     * @param artifact The artifact.
+     * @return groupId:artifactId:type[:classifier]
+     */
+    static String getKey(final Artifact artifact) {
+        String type = artifact.getProperty(ArtifactProperties.TYPE, artifact.getExtension());
+        String key = artifact.getGroupId() + ':' + artifact.getArtifactId() + ':' + type;
+        return artifact.getClassifier().isEmpty() ? key : key + ':' + artifact.getClassifier();
+    }
+
+    /**
+     * @param key The management key of an artifact.
+     * @return true if the artifact is a direct or transitive dependency of the root.
+     */
+    boolean contains(final String key) {
+        return keys.contains(key);
+    }
+
+    /**
+     * @return The management keys of the direct and transitive dependencies of the root.
+     */
+    List<String> getKeys() {
+        return Collections.unmodifiableList(new ArrayList<>(keys));
+    }
+
+}
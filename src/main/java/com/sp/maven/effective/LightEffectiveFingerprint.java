@@ -0,0 +1,212 @@
+package com.sp.maven.effective;
+
+import com.sp.maven.utils.CanonicalPomWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Properties;
+import org.apache.maven.model.Build;
+import org.apache.maven.model.Dependency;
+import org.apache.maven.model.DependencyManagement;
+import org.apache.maven.model.Model;
+import org.apache.maven.model.Plugin;
+import org.apache.maven.model.PluginManagement;
+import org.apache.maven.project.MavenProject;
+
+/**
+ * The fingerprint of the inputs of a light effective POM file, to skip the generation when nothing changed.
+ * The inputs are the sections of the effective model copied in the light effective POM file (dependencyManagement,
+ * dependencies, pluginManagement, plugins and properties) and the options of the goal. The entries of the sections
+ * are hashed sorted by key: the generated POM file declares the managed entries it uses, which come first once its
+ * effective model is built again, and the fingerprint must not change for that. The fingerprint is stored in the
+ * build directory of the project with the SHA-256 of the POM file written, so that a POM file changed since the
+ * generation is generated again.
+ *
+ * 2026-10-18 22:34:05
+ */
+final class LightEffectiveFingerprint {
+
+    /** The serial version unique id. */
+    private static final long serialVersionUID = 20261018223405L;
+    /** The name of the fingerprint file, in the build directory. */
+    static final String FINGERPRINT_FILE = "sp-light-effective.fingerprint";
+    /** The key of the fingerprint of the inputs. */
+    private static final String INPUTS = "inputs";
+    /** The key of the SHA-256 of the POM file. */
+    private static final String OUTPUT = "output";
+    /** The version of the fingerprint, to change when the generation changes. */
+    private static final String FORMAT_VERSION = "2";
+    /** Size of the buffer used to hash the files. */
+    private static final int BUFFER_SIZE = 16 * 1024;
+
+    /**
+     * Constructor.
+     */
+    private LightEffectiveFingerprint() {
+    }
+
+    /**
+     * Compute the fingerprint of the inputs of a light effective POM file.
+     * @param effectiveModel The effective model of the project.
+     * @param options The options of the generation.
+     * @return The hexadecimal SHA-256 of the inputs.
+     * @throws IOException If the model can't be serialized.
+     */
+    static String of(final Model effectiveModel, final String options) throws IOException {
+        MessageDigest digest = createDigest();
+        digest.update((FORMAT_VERSION + options).getBytes(StandardCharsets.UTF_8));
+        Model sections = new Model();
+        sections.setProperties(effectiveModel.getProperties());
+        if (effectiveModel.getDependencyManagement() != null) {
+            DependencyManagement dependencyManagement = new DependencyManagement();
+            dependencyManagement.setDependencies(sortDependencies(effectiveModel.getDependencyManagement().getDependencies()));
+            sections.setDependencyManagement(dependencyManagement);
+        }
+        sections.setDependencies(sortDependencies(effectiveModel.getDependencies()));
+        Build effectiveBuild = effectiveModel.getBuild();
+        if (effectiveBuild != null) {
+            Build build = new Build();
+            if (effectiveBuild.getPluginManagement() != null) {
+                PluginManagement pluginManagement = new PluginManagement();
+                pluginManagement.setPlugins(sortPlugins(effectiveBuild.getPluginManagement().getPlugins()));
+                build.setPluginManagement(pluginManagement);
+            }
+            build.setPlugins(sortPlugins(effectiveBuild.getPlugins()));
+            sections.setBuild(build);
+        }
+        try (OutputStream out = new DigestOutputStream(new NullOutputStream(), digest)) {
+            // The sections are hashed in a stable order
+            CanonicalPomWriter.write(sections, out);
+        }
+        return toHex(digest.digest());
+    }
+
+    /**
+     * Get the chain of the parents of a project, which the generation doesn't change.
+     * @param project The project.
+     * @return The ids of the parents, from the nearest one.
+     */
+    static String getParentChain(final MavenProject project) {
+        StringBuilder chain = new StringBuilder();
+        for (MavenProject parent = project.getParent(); parent != null; parent = parent.getParent()) {
+            if (chain.length() > 0) {
+                chain.append('/');
+            }
+            chain.append(parent.getId());
+        }
+        return chain.toString();
+    }
+
+    private static List<Dependency> sortDependencies(final List<Dependency> dependencies) {
+        List<Dependency> sorted = new ArrayList<>(dependencies);
+        sorted.sort(Comparator.comparing(Dependency::getManagementKey));
+        return sorted;
+    }
+
+    private static List<Plugin> sortPlugins(final List<Plugin> plugins) {
+        List<Plugin> sorted = new ArrayList<>(plugins);
+        sorted.sort(Comparator.comparing(Plugin::getKey));
+        return sorted;
+    }
+
+    /**
+     * @param project The project.
+     * @return The fingerprint file of the project.
+     */
+    static Path getFile(final MavenProject project) {
+        return Paths.get(project.getBuild().getDirectory(), FINGERPRINT_FILE);
+    }
+
+    /**
+     * Check if a light effective POM file is up to date.
+     * @param fingerprintFile The fingerprint file of the project.
+     * @param fingerprint The fingerprint of the current inputs.
+     * @param pomFile The POM file.
+     * @return true if the POM file has been generated from the same inputs and not changed since.
+     * @throws IOException If a file can't be read.
+     */
+    static boolean isUpToDate(final Path fingerprintFile, final String fingerprint, final Path pomFile)
+            throws IOException {
+        if (!Files.exists(fingerprintFile) || !Files.exists(pomFile)) {
+            return false;
+        }
+        Properties stored = new Properties();
+        try (InputStream in = Files.newInputStream(fingerprintFile)) {
+            stored.load(in);
+        }
+        return fingerprint.equals(stored.getProperty(INPUTS)) && sha256(pomFile).equals(stored.getProperty(OUTPUT));
+    }
+
+    /**
+     * Store the fingerprint of a generated light effective POM file.
+     * @param fingerprintFile The fingerprint file of the project.
+     * @param fingerprint The fingerprint of the inputs.
+     * @param pomFile The POM file generated.
+     * @throws IOException If a file can't be read or written.
+     */
+    static void store(final Path fingerprintFile, final String fingerprint, final Path pomFile) throws IOException {
+        Properties stored = new Properties();
+        stored.setProperty(INPUTS, fingerprint);
+        stored.setProperty(OUTPUT, sha256(pomFile));
+        Files.createDirectories(fingerprintFile.getParent());
+        try (OutputStream out = Files.newOutputStream(fingerprintFile)) {
+            stored.store(out, null);
+        }
+    }
+
+    private static String sha256(final Path file) throws IOException {
+        MessageDigest digest = createDigest();
+        byte[] buffer = new byte[BUFFER_SIZE];
+        try (InputStream in = Files.newInputStream(file)) {
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+        }
+        return toHex(digest.digest());
+    }
+
+    private static MessageDigest createDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");                                                    // NOI18N
+        } catch (NoSuchAlgorithmException ex) {
+            // Every Java platform supports SHA-256
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private static String toHex(final byte[] hash) {
+        StringBuilder sb = new StringBuilder(hash.length * 2);
+        for (byte b : hash) {
+            sb.append(Character.forDigit((b >> 4) & 0xF, 16));
+            sb.append(Character.forDigit(b & 0xF, 16));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Output stream discarding the bytes, only their digest is kept.
+     */
+    private static final class NullOutputStream extends OutputStream {
+
+        @Override
+        public void write(final int b) {
+        }
+
+        @Override
+        public void write(final byte[] b, final int off, final int len) {
+        }
+
+    }
+
+}
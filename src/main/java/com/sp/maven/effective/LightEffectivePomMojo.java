@@ -1,10 +1,20 @@
 
 package com.sp.maven.effective;
 
+import com.sp.maven.utils.BackupStrategies;
 import com.sp.maven.utils.Helper;
-import java.util.ArrayList;
+import com.sp.maven.utils.PomTransaction;
+import com.sp.maven.utils.ReleasePlan;
+import java.io.File;
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
+import org.apache.maven.execution.MavenSession;
 import org.apache.maven.model.Build;
 import org.apache.maven.model.Dependency;
 import org.apache.maven.model.DependencyManagement;
@@ -14,15 +24,24 @@ import org.apache.maven.model.PluginManagement;
 import org.apache.maven.plugin.AbstractMojo;
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugin.logging.Log;
 import org.apache.maven.plugins.annotations.Component;
 import org.apache.maven.plugins.annotations.Mojo;
 import org.apache.maven.plugins.annotations.Parameter;
+import org.apache.maven.project.DefaultDependencyResolutionRequest;
+import org.apache.maven.project.DependencyResolutionException;
+import org.apache.maven.project.DependencyResolutionRequest;
 import org.apache.maven.project.MavenProject;
+import org.apache.maven.project.ProjectDependenciesResolver;
 
 /**
  * This goal should be used to generate a light effective POM file.
  * The main difference with the versions-maven-plugin is that only the dependencyManagement section is included.
  * This should be used to backup the assembly pom files with all resolved dependency information needed to replay the build.
+ * With the reactor option, the light effective POM files of all the selected projects are generated in parallel.
+ * With the transitiveClosure option, the managed versions of the transitive dependencies are kept as well.
+ * A POM file already generated from the same effective sections and options is not generated again, see
+ * {@link LightEffectiveFingerprint}.
  *
  * 2017-12-06 09:33:32
  */
@@ -36,9 +55,23 @@ public class LightEffectivePomMojo extends AbstractMojo {
     @Component
     private MavenProject project;
 
+    /** The Maven session. */
+    @Parameter(defaultValue = "${session}", readonly = true, required = true)
+    private MavenSession session;
+
+    /** The resolver of the dependency graph, used with the transitiveClosure option. */
+    @Component
+    private ProjectDependenciesResolver dependenciesResolver;
+
     /** Controls whether a backup pom should be created. */
     @Parameter(property = "generateBackupPoms", defaultValue = "true")
     private boolean generateBackupPoms;
+    /** The backup strategy: copy, link (hard link to the original pom) or archive (one file for the reactor). */
+    @Parameter(property = "backupStrategy", defaultValue = "copy")
+    private String backupStrategy;
+    /** The release plan file: when set, the changes are written in the plan instead of the pom files. */
+    @Parameter(property = "planFile")
+    private File planFile;
 
     /** Whether to process the dependencies section of the project. */
     @Parameter(property = "processDependencies", defaultValue = "false")
@@ -60,14 +93,175 @@ public class LightEffectivePomMojo extends AbstractMojo {
     @Parameter(property = "processProperties", defaultValue = "false")
     protected boolean processProperties;
 
+    /** Whether to generate the light effective POM files of all the selected projects of the reactor at once. */
+    @Parameter(property = "reactor", defaultValue = "false")
+    protected boolean reactor;
+
+    /** Whether to keep the managed dependencies of the whole resolved dependency graph, not only the direct ones. */
+    @Parameter(property = "transitiveClosure", defaultValue = "false")
+    protected boolean transitiveClosure;
+
+    /** Whether to skip the POM files already generated from the same inputs. */
+    @Parameter(property = "skipUnchanged", defaultValue = "true")
+    protected boolean skipUnchanged;
+
     @Override
     public void execute() throws MojoExecutionException, MojoFailureException {
+        if (reactor) {
+            executeReactor();
+            return;
+        }
+        // The resolved dependency graph, before the dependencies are replaced by the effective ones
+        DependencyClosure closure = transitiveClosure ? resolveClosure(project) : null;
+        // The fingerprint is computed before the effective sections are filtered
+        String fingerprint = getFingerprint(project, closure);
+        if (isUpToDate(project, fingerprint)) {
+            getLog().info("Light effective pom of " + project.getFile() + " is up to date");
+            return;
+        }
+        Model originalPom = getLightEffectivePom(project, null, closure);
+        if (planFile != null) {
+            // Plan the change only, see the goal apply-plan
+            ReleasePlan plan = ReleasePlan.forSession(session, planFile.toPath());
+            plan.addModel(project.getFile().toPath(), originalPom);
+            plan.write();
+            getLog().info("Light effective pom of " + project.getFile() + " planned in " + planFile);
+            return;
+        }
+        // Generate the backup and save
+        Helper.savePomFile(project, originalPom, generateBackupPoms,
+                BackupStrategies.forSession(session, backupStrategy), getLog());
+        storeFingerprint(project, fingerprint);
+    }
+
+    /**
+     * Generate the light effective POM files of all the selected projects of the reactor.
+     * The models are computed in parallel, the modules sharing the same expanded dependencyManagement share its
+     * index, and all the POM files are written in a single transaction.
+     * @throws MojoExecutionException If an error occurs during the process.
+     */
+    private void executeReactor() throws MojoExecutionException {
+        List<MavenProject> projects = session.getProjects();
+        Map<String, ManagedDependencyIndex> indexes = new ConcurrentHashMap<>();
+        Map<MavenProject, Model> models = new ConcurrentHashMap<>();
+        Map<MavenProject, String> fingerprints = new ConcurrentHashMap<>();
+        Map<MavenProject, MojoExecutionException> failures = new ConcurrentHashMap<>();
+        projects.parallelStream().forEach(p -> {
+            try {
+                DependencyClosure closure = transitiveClosure ? resolveClosure(p) : null;
+                String fingerprint = getFingerprint(p, closure);
+                if (isUpToDate(p, fingerprint)) {
+                    return;
+                }
+                if (fingerprint != null) {
+                    fingerprints.put(p, fingerprint);
+                }
+                ManagedDependencyIndex index = indexes.computeIfAbsent(ManagedDependencyIndex.getSharingKey(p),
+                        k -> ManagedDependencyIndex.of(p.getModel()));
+                models.put(p, getLightEffectivePom(p, index, closure));
+            } catch (MojoExecutionException e) {
+                failures.put(p, e);
+            }
+        });
+        if (!failures.isEmpty()) {
+            throw failures.values().iterator().next();
+        }
+        getLog().info(models.size() + " light effective poms computed with " + indexes.size()
+                + " dependency management indexes, " + (projects.size() - models.size()) + " up to date");
+        if (planFile != null) {
+            // Plan all the changes, see the goal apply-plan
+            ReleasePlan plan = ReleasePlan.forSession(session, planFile.toPath());
+            for (MavenProject p : projects) {
+                if (models.containsKey(p)) {
+                    plan.addModel(p.getFile().toPath(), models.get(p));
+                }
+            }
+            plan.write();
+            getLog().info(plan.size() + " light effective poms planned in " + planFile);
+            return;
+        }
+        // Persist all the changes at once
+        PomTransaction transaction = new PomTransaction(
+                PomTransaction.getDirectory(session.getTopLevelProject()), generateBackupPoms,
+                BackupStrategies.forSession(session, backupStrategy), getLog());
+        for (MavenProject p : projects) {
+            if (models.containsKey(p)) {
+                transaction.stageModel(p, models.get(p));
+            }
+        }
+        int savedPoms = transaction.commit();
+        for (Map.Entry<MavenProject, String> fingerprint : fingerprints.entrySet()) {
+            storeFingerprint(fingerprint.getKey(), fingerprint.getValue());
+        }
+        getLog().info(savedPoms + " light effective poms saved.");
+    }
+
+    /**
+     * Compute the fingerprint of the inputs of the light effective POM file of a project.
+     * @param mavenProject The project.
+     * @param closure The transitive closure of the dependencies, null if it is not used: the keys of the transitive
+     *     dependencies are not in the effective model, so they are part of the fingerprint.
+     * @return The fingerprint, null if the POM file must be generated anyway.
+     */
+    private String getFingerprint(final MavenProject mavenProject, final DependencyClosure closure) {
+        if (!skipUnchanged || planFile != null) {
+            return null;
+        }
+        String options = "dependencies=" + processDependencies + ",dependencyManagement=" + processDependencyManagement
+                + ",plugins=" + processPlugins + ",pluginManagement=" + processPluginManagement
+                + ",properties=" + processProperties + ",transitiveClosure=" + transitiveClosure
+                + ",parents=" + LightEffectiveFingerprint.getParentChain(mavenProject);
+        if (closure != null) {
+            options += ",closure=" + String.join(",", closure.getKeys());
+        }
+        try {
+            return LightEffectiveFingerprint.of(mavenProject.getModel(), options);
+        } catch (IOException e) {
+            getLog().warn("The fingerprint of " + mavenProject.getId() + " can't be computed : " + e.getMessage());
+            return null;
+        }
+    }
+
+    private boolean isUpToDate(final MavenProject mavenProject, final String fingerprint) {
+        if (fingerprint == null) {
+            return false;
+        }
+        try {
+            return LightEffectiveFingerprint.isUpToDate(LightEffectiveFingerprint.getFile(mavenProject), fingerprint,
+                    mavenProject.getFile().toPath());
+        } catch (IOException e) {
+            getLog().debug("The fingerprint of " + mavenProject.getId() + " can't be read : " + e.getMessage());
+            return false;
+        }
+    }
+
+    private void storeFingerprint(final MavenProject mavenProject, final String fingerprint) {
+        if (fingerprint == null) {
+            return;
+        }
+        try {
+            LightEffectiveFingerprint.store(LightEffectiveFingerprint.getFile(mavenProject), fingerprint,
+                    mavenProject.getFile().toPath());
+        } catch (IOException e) {
+            getLog().warn("The fingerprint of " + mavenProject.getId() + " can't be written : " + e.getMessage());
+        }
+    }
+
+    /**
+     * Merge the effective model of a project in its original model according to the options.
+     * @param mavenProject The project.
+     * @param index The index of the expanded dependencyManagement of the project, null to use its effective model.
+     * @param closure The transitive closure of the dependencies, null to use the direct dependencies only.
+     * @return The original model of the project, changed.
+     */
+    private Model getLightEffectivePom(final MavenProject mavenProject, final ManagedDependencyIndex index,
+            final DependencyClosure closure) {
         // The full effective model
-        Model fullEffectivePom = project.getModel();
+        Model fullEffectivePom = mavenProject.getModel();
         // The original model
-        Model originalPom = project.getOriginalModel();
+        Model originalPom = mavenProject.getOriginalModel();
         // Merge the effective pom and the original one according to the options
-        if (processDependencyManagement) {
+        if (processDependencyManagement && index == null) {
             originalPom.setDependencyManagement(fullEffectivePom.getDependencyManagement());
         }
         if (processDependencies) {
@@ -92,69 +286,116 @@ public class LightEffectivePomMojo extends AbstractMojo {
         if (processProperties) {
             originalPom.setProperties(fullEffectivePom.getProperties());
         }
-        // Filter the dependencyManagement to keep only the dependencies effectively used
-        filterDependencyManagement(originalPom);
+        if (processDependencyManagement && index != null) {
+            // Only the managed dependencies effectively used are copied from the shared index
+            selectDependencyManagement(originalPom, index, closure, getLog());
+        } else {
+            // Filter the dependencyManagement to keep only the dependencies effectively used
+            filterDependencyManagement(originalPom, closure, getLog());
+        }
         // Filter the pluginManagement to keep only the plugin effectively used
-        filterPluginManagement(originalPom);
-        // Generate the backup and save
-        Helper.savePomFile(project, originalPom, generateBackupPoms, getLog());
+        filterPluginManagement(originalPom, getLog());
+        return originalPom;
     }
 
     /**
-     * Filter the dependencyManagement to keep only the dependencies effectively used
+     * Resolve the dependency graph of a project, as Maven does to build it.
+     * @param mavenProject The project.
+     * @return The transitive closure of the dependencies of the project.
+     * @throws MojoExecutionException If the dependency graph can't be resolved.
+     */
+    private DependencyClosure resolveClosure(final MavenProject mavenProject) throws MojoExecutionException {
+        DependencyResolutionRequest request =
+                new DefaultDependencyResolutionRequest(mavenProject, session.getRepositorySession());
+        try {
+            return DependencyClosure.of(dependenciesResolver.resolve(request).getDependencyGraph());
+        } catch (DependencyResolutionException e) {
+            throw new MojoExecutionException("An error occurred resolving the dependencies of "
+                    + mavenProject.getId() + " : " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Get the management keys of the dependencies effectively used.
+     * @param model The model.
+     * @param closure The transitive closure of the dependencies, null to use the direct dependencies only.
+     * @return The management keys.
+     */
+    private static Set<String> getUsedKeys(final Model model, final DependencyClosure closure) {
+        List<Dependency> dependencies = model.getDependencies();
+        Set<String> keys = new LinkedHashSet<>(dependencies.size() * 2);
+        for (Dependency dependency : dependencies) {
+            keys.add(dependency.getManagementKey());
+        }
+        if (closure != null) {
+            keys.addAll(closure.getKeys());
+        }
+        return keys;
+    }
+
+    /**
+     * Filter the dependencyManagement to keep only the dependencies effectively used.
+     * The dependencies are matched by management key (groupId:artifactId:type[:classifier]), so the entries which
+     * only differ by type or classifier are filtered separately.
      * @param model Model to filter.
+     * @param closure The transitive closure of the dependencies, null to keep the direct dependencies only.
+     * @param log The logger.
      */
-    private void filterDependencyManagement(final Model model) {
+    static void filterDependencyManagement(final Model model, final DependencyClosure closure, final Log log) {
         DependencyManagement dependencyManagement = model.getDependencyManagement();
         if (dependencyManagement != null) {
             List<Dependency> dependencies = model.getDependencies();
             if (dependencies.isEmpty()) {
-                getLog().warn("There is no dependency defined in this POM. Filtering is skipped as it seems to be a depmgmt.");
+                log.warn("There is no dependency defined in this POM. Filtering is skipped as it seems to be a depmgmt.");
             } else {
-                List<String> dependenciesIds = new ArrayList<>();
-                dependencies.forEach((d) -> {
-                    String id = d.getGroupId() + ":" + d.getArtifactId();
-                    dependenciesIds.add(id);
-                });
-                List<Dependency> depMgmtDependencies = dependencyManagement.getDependencies();
-                List<Dependency> toRemove = new ArrayList<>();
-                depMgmtDependencies.forEach((d) -> {
-                    String id = d.getGroupId() + ":" + d.getArtifactId();
-                    if (!dependenciesIds.contains(id)) {
-                        toRemove.add(d);
-                    }
-                });
-                depMgmtDependencies.removeAll(toRemove);
+                Set<String> dependenciesKeys = getUsedKeys(model, closure);
+                dependencyManagement.getDependencies().removeIf(d -> !dependenciesKeys.contains(d.getManagementKey()));
             }
         }
     }
 
+    /**
+     * Set the dependencyManagement to the managed dependencies effectively used, from the index of the expanded
+     * dependencyManagement.
+     * @param model Model to update.
+     * @param index The index of the expanded dependencyManagement.
+     * @param closure The transitive closure of the dependencies, null to keep the direct dependencies only.
+     * @param log The logger.
+     */
+    static void selectDependencyManagement(final Model model, final ManagedDependencyIndex index,
+            final DependencyClosure closure, final Log log) {
+        if (index.size() == 0) {
+            model.setDependencyManagement(null);
+            return;
+        }
+        DependencyManagement dependencyManagement = new DependencyManagement();
+        if (model.getDependencies().isEmpty()) {
+            log.warn("There is no dependency defined in this POM. Filtering is skipped as it seems to be a depmgmt.");
+            dependencyManagement.setDependencies(index.selectAll());
+        } else {
+            dependencyManagement.setDependencies(index.select(getUsedKeys(model, closure)));
+        }
+        model.setDependencyManagement(dependencyManagement);
+    }
+
     /**
      * Filter the pluginManagement to keep only the plugin effectively used
      * @param model Model to filter.
+     * @param log The logger.
      */
-    private void filterPluginManagement(final Model model) {
+    static void filterPluginManagement(final Model model, final Log log) {
         Build build = model.getBuild();
-        PluginManagement pluginManagement = build.getPluginManagement();
+        PluginManagement pluginManagement = build == null ? null : build.getPluginManagement();
         if (pluginManagement != null) {
             List<Plugin> plugins = build.getPlugins();
             if (plugins.isEmpty()) {
-                getLog().warn("There is no plugins defined in this POM. Filtering is skipped as it seems to be an aggregator.");
+                log.warn("There is no plugins defined in this POM. Filtering is skipped as it seems to be an aggregator.");
             } else {
-                List<String> pluginsIds = new ArrayList<>();
-                plugins.forEach((p) -> {
-                    String id = p.getGroupId() + ":" + p.getArtifactId();
-                    pluginsIds.add(id);
-                });
-                List<Plugin> pluginMgmtPlugins = pluginManagement.getPlugins();
-                List<Plugin> toRemove = new ArrayList<>();
-                pluginMgmtPlugins.forEach((p) -> {
-                    String id = p.getGroupId() + ":" + p.getArtifactId();
-                    if (!pluginsIds.contains(id)) {
-                        toRemove.add(p);
-                    }
-                });
-                pluginMgmtPlugins.removeAll(toRemove);
+                Set<String> pluginsKeys = new HashSet<>(plugins.size() * 2);
+                for (Plugin plugin : plugins) {
+                    pluginsKeys.add(plugin.getKey());
+                }
+                pluginManagement.getPlugins().removeIf(p -> !pluginsKeys.contains(p.getKey()));
             }
         }
     }
@@ -0,0 +1,147 @@
+package com.sp.maven.effective;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import org.apache.maven.model.Dependency;
+import org.apache.maven.model.DependencyManagement;
+import org.apache.maven.model.Model;
+import org.apache.maven.model.Parent;
+import org.apache.maven.project.MavenProject;
+
+/**
+ * Immutable index of an expanded dependencyManagement section (imported BOMs included), by management key.
+ * The modules inheriting the dependencyManagement of the same parent without changing it share the same expanded
+ * section, so one index is built for all of them, see {@link #getSharingKey(MavenProject)}.
+ *
+ * 2026-10-18 21:58:20
+ */
+final class ManagedDependencyIndex {
+
+    /** The serial version unique id. */
+    private static final long serialVersionUID = 20261018215820L;
+    /** The start of the project expressions. */
+    private static final String PROJECT_EXPRESSION = "${project.";                                             // NOI18N
+    /** The start of the deprecated project expressions. */
+    private static final String POM_EXPRESSION = "${pom.";                                                     // NOI18N
+
+    /** The managed dependencies, in their declaration order. */
+    private final List<Dependency> dependencies;
+    /** The position of the managed dependencies, by management key. */
+    private final Map<String, Integer> positions;
+
+    /**
+     * Constructor.
+     * @param dependencies The expanded managed dependencies.
+     */
+    ManagedDependencyIndex(final List<Dependency> dependencies) {
+        this.dependencies = Collections.unmodifiableList(new ArrayList<>(dependencies));
+        this.positions = new HashMap<>(dependencies.size() * 2);
+        for (int i = dependencies.size() - 1; i >= 0; i--) {
+            // The first declaration wins, as in Maven
+            positions.put(dependencies.get(i).getManagementKey(), i);
+        }
+    }
+
+    /**
+     * Build the index of the effective dependencyManagement of a model.
+     * @param effectiveModel The effective model.
+     * @return The index.
+     */
+    static ManagedDependencyIndex of(final Model effectiveModel) {
+        DependencyManagement dependencyManagement = effectiveModel.getDependencyManagement();
+        return new ManagedDependencyIndex(dependencyManagement == null
+                ? Collections.<Dependency>emptyList() : dependencyManagement.getDependencies());
+    }
+
+    /**
+     * Get the key of the index of a project: the modules inheriting their groupId and version, without
+     * dependencyManagement, properties or profiles of their own, have the same expanded dependencyManagement as their
+     * parent, unless an inherited dependencyManagement section refers to the project itself.
+     * @param project The project.
+     * @return The key of the index.
+     */
+    static String getSharingKey(final MavenProject project) {
+        Model model = project.getOriginalModel();
+        Parent parent = model.getParent();
+        if (parent != null && model.getGroupId() == null && model.getVersion() == null
+                && model.getDependencyManagement() == null && model.getProperties().isEmpty()
+                && model.getProfiles().isEmpty() && !hasProjectExpressions(project.getParent())) {
+            return parent.getId();
+        }
+        return project.getId();
+    }
+
+    /**
+     * Check whether the dependencyManagement sections inherited from the given parent refer to the project, as they
+     * are then interpolated with the coordinates of each module.
+     * @param parent The parent project, null if unknown.
+     * @return true if an inherited dependencyManagement section has a project expression, or if a parent is unknown.
+     */
+    private static boolean hasProjectExpressions(final MavenProject parent) {
+        for (MavenProject ancestor = parent; ancestor != null; ancestor = ancestor.getParent()) {
+            Model model = ancestor.getOriginalModel() != null ? ancestor.getOriginalModel() : ancestor.getModel();
+            if (model.getDependencyManagement() != null) {
+                for (Dependency dependency : model.getDependencyManagement().getDependencies()) {
+                    if (isProjectExpression(dependency.getGroupId()) || isProjectExpression(dependency.getArtifactId())
+                            || isProjectExpression(dependency.getVersion())
+                            || isProjectExpression(dependency.getClassifier())
+                            || isProjectExpression(dependency.getType())) {
+                        return true;
+                    }
+                }
+            }
+            if (model.getParent() == null) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isProjectExpression(final String value) {
+        return value != null && (value.contains(PROJECT_EXPRESSION) || value.contains(POM_EXPRESSION));
+    }
+
+    /**
+     * @return The number of managed dependencies.
+     */
+    int size() {
+        return dependencies.size();
+    }
+
+    /**
+     * Select the managed dependencies of the given management keys.
+     * @param used The management keys of the used dependencies.
+     * @return Copies of the managed dependencies matching a key, in their declaration order.
+     */
+    List<Dependency> select(final Collection<String> used) {
+        TreeSet<Integer> selected = new TreeSet<>();
+        for (String key : used) {
+            Integer position = positions.get(key);
+            if (position != null) {
+                selected.add(position);
+            }
+        }
+        List<Dependency> result = new ArrayList<>(selected.size());
+        for (Integer position : selected) {
+            result.add(dependencies.get(position).clone());
+        }
+        return result;
+    }
+
+    /**
+     * @return Copies of all the managed dependencies.
+     */
+    List<Dependency> selectAll() {
+        List<Dependency> result = new ArrayList<>(dependencies.size());
+        for (Dependency dependency : dependencies) {
+            result.add(dependency.clone());
+        }
+        return result;
+    }
+
+}
@@ -0,0 +1,112 @@
+package com.sp.maven.revert;
+
+import com.sp.maven.utils.BackupArchive;
+import com.sp.maven.utils.BackupManifest;
+import com.sp.maven.utils.Helper;
+import com.sp.maven.utils.PomTransaction;
+import com.sp.maven.utils.ReactorLoader;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugin.logging.Log;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+import org.apache.maven.project.MavenProject;
+
+/**
+ * This goal is used to revert the changes made on all the POM files of the reactor at once.
+ * The POM files written by the last aggregator goal are restored from its journal, then the POM files of the backup
+ * archive, then the backups listed in the manifest and the backups of the modules of the reactor are moved back over
+ * their POM files, concurrently.
+ *
+ * 2026-10-18 18:34:02
+ */
+@Mojo(name="revert-all", aggregator=true, requiresProject=true, requiresDirectInvocation=true)              // NOI18N
+public class RevertAllMojo extends AbstractMojo {
+
+    /** The serial version unique id. */
+    private static final long serialVersionUID = 20261018183402L;
+    @Parameter(defaultValue = "${session}", required = true, readonly = true)                                 // NOI18N
+    private MavenSession session;
+
+    @Override
+    public void execute() throws MojoExecutionException, MojoFailureException {
+        revert(PomTransaction.getDirectory(session.getTopLevelProject()), ReactorLoader.getProjects(session),
+                getLog());
+    }
+
+    /**
+     * Revert the POM files from the journal, the backup archive and the backup files.
+     * @param directory The backup directory of the reactor, see {@link PomTransaction#getDirectory(MavenProject)}.
+     * @param projects The projects of the reactor, whose backup files are restored even if they aren't listed in
+     * the manifest.
+     * @param logger The logger to use for messages.
+     * @return The number of POM files restored.
+     * @throws MojoExecutionException If a POM file can't be restored.
+     */
+    static int revert(final Path directory, final List<MavenProject> projects, final Log logger)
+            throws MojoExecutionException {
+        int journaled = PomTransaction.rollback(directory, logger);
+        if (journaled > 0) {
+            logger.info(journaled + " POM files restored from the journal");                                  // NOI18N
+        }
+        int archived = BackupArchive.restore(directory, logger);
+        if (archived > 0) {
+            logger.info(archived + " POM files restored from the backup archive");                            // NOI18N
+        }
+        // The modules backed up out of the manifest are reverted as well
+        Set<Path> pomFiles = new LinkedHashSet<>();
+        try {
+            pomFiles.addAll(BackupManifest.read(directory));
+        } catch (IOException e) {
+            throw new MojoExecutionException("An error occurred reading the backup manifest : " + e.getMessage(), e);
+        }
+        for (MavenProject project : projects) {
+            pomFiles.add(project.getFile().toPath().toAbsolutePath());
+        }
+        Map<Path, IOException> failures = new ConcurrentHashMap<>();
+        List<Path> restored = pomFiles.parallelStream()
+                .filter(pomFile -> {
+                    Path backupFile = Helper.getBackupFile(pomFile);
+                    try {
+                        if (Files.exists(backupFile)) {
+                            Helper.moveAtomically(backupFile, pomFile);
+                            // A hard link to the POM file is left by the move
+                            Files.deleteIfExists(backupFile);
+                            return true;
+                        }
+                    } catch (IOException e) {
+                        failures.put(pomFile, e);
+                    }
+                    return false;
+                })
+                .collect(Collectors.toList());
+        for (Path pomFile : restored) {
+            logger.info("Restored " + pomFile);                                                               // NOI18N
+        }
+        logger.info(restored.size() + " POM files restored from their backup");                               // NOI18N
+        if (!failures.isEmpty()) {
+            Map.Entry<Path, IOException> failure = failures.entrySet().iterator().next();
+            throw new MojoExecutionException(failures.size() + " POM files can't be restored, first failure on "
+                    + failure.getKey() + " : " + failure.getValue().getMessage(), failure.getValue());          // NOI18N
+        }
+        try {
+            BackupManifest.delete(directory);
+        } catch (IOException e) {
+            throw new MojoExecutionException("An error occurred deleting the backup manifest : " + e.getMessage(), e);
+        }
+        return journaled + archived + restored.size();
+    }
+
+}
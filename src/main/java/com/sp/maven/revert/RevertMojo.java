@@ -1,9 +1,14 @@
 
 package com.sp.maven.revert;
 
+import com.sp.maven.utils.BackupArchive;
 import com.sp.maven.utils.Constants;
+import com.sp.maven.utils.Helper;
+import com.sp.maven.utils.PomTransaction;
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 
 import org.apache.maven.plugin.AbstractMojo;
 import org.apache.maven.plugin.MojoExecutionException;
@@ -11,10 +16,11 @@ import org.apache.maven.plugin.MojoFailureException;
 import org.apache.maven.plugins.annotations.Mojo;
 import org.apache.maven.plugins.annotations.Parameter;
 import org.apache.maven.project.MavenProject;
-import org.codehaus.plexus.util.FileUtils;
 
 /**
  * This goal is used to revert the changes made on the POM file and restore the backup which has been made previously.
+ * From the root project, it also restores all the POM files written by the last aggregator goal and all the POM files
+ * backed up in the archive of the reactor.
  *
  * 2017-11-27 07:08:41
  */
@@ -28,13 +34,24 @@ public class RevertMojo extends AbstractMojo {
 
     @Override
     public void execute() throws MojoExecutionException, MojoFailureException {
+        if (this.project.isExecutionRoot()) {
+            // The POM files written by a transaction are restored from its journal
+            Path directory = PomTransaction.getDirectory(this.project);
+            int restored = PomTransaction.rollback(directory, getLog());
+            if (restored > 0) {
+                getLog().info(restored + " POM files restored from the journal");                            // NOI18N
+            }
+            // The POM files backed up with the archive strategy are restored as well
+            BackupArchive.restore(directory, getLog());
+        }
         File outFile = this.project.getFile();
         File backupFile = new File(outFile.getParentFile(), outFile.getName() + "." + Constants.BACKUP_EXT);  // NOI18N
         if (backupFile.exists()) {
             getLog().info("Restoring " + outFile + " from " + backupFile);                                    // NOI18N
             try {
-                FileUtils.copyFile(backupFile, outFile);
-                FileUtils.forceDelete(backupFile);
+                // The backup may be a hard link to the POM file, it is moved rather than copied over it
+                Helper.moveAtomically(backupFile.toPath(), outFile.toPath());
+                Files.deleteIfExists(backupFile.toPath());
             } catch (IOException e) {
                 throw new MojoExecutionException(e.getMessage(), e);
             }
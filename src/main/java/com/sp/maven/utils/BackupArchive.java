@@ -0,0 +1,155 @@
+package com.sp.maven.utils;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.logging.Log;
+import org.apache.maven.project.MavenProject;
+
+/**
+ * The original contents of the POM files of a reactor, in a single file of the backup directory of the root project.
+ * The archive is append only: each record is the absolute path of a POM file followed by its content. Only the
+ * first record of a POM file is kept, as for the backup files.
+ *
+ * 2026-10-18 19:04:51
+ */
+public final class BackupArchive {
+
+    /** The serial version unique id. */
+    private static final long serialVersionUID = 20261018190451L;
+    /** The name of the archive file. */
+    public static final String ARCHIVE_FILE = "backups.archive";
+
+    /** The archive file. */
+    private final Path file;
+    /** The POM files already archived, loaded on first use and again once the archive is restored. */
+    private Set<Path> pomFiles;
+
+    /**
+     * Constructor.
+     * @param directory The directory of the archive, see {@link PomTransaction#getDirectory(MavenProject)}.
+     */
+    public BackupArchive(final Path directory) {
+        this.file = directory.resolve(ARCHIVE_FILE);
+    }
+
+    /**
+     * @param pomFile The POM file.
+     * @return True if the content of the POM file is archived.
+     * @throws IOException If the archive can't be read.
+     */
+    public synchronized boolean contains(final Path pomFile) throws IOException {
+        if (pomFiles == null || !Files.exists(file)) {
+            pomFiles = new HashSet<>(read(file.getParent()).keySet());
+        }
+        return pomFiles.contains(pomFile.toAbsolutePath());
+    }
+
+    /**
+     * Archive the content of a POM file, nothing is done if it is already archived.
+     * @param pomFile The POM file.
+     * @param content The content of the POM file.
+     * @return True if the content has been archived.
+     * @throws IOException If the archive can't be written.
+     */
+    public synchronized boolean add(final Path pomFile, final byte[] content) throws IOException {
+        if (contains(pomFile)) {
+            return false;
+        }
+        Path absolutePath = pomFile.toAbsolutePath();
+        ByteArrayOutputStream record = new ByteArrayOutputStream(content.length + 256);
+        try (DataOutputStream out = new DataOutputStream(record)) {
+            out.writeUTF(absolutePath.toString());
+            out.writeInt(content.length);
+            out.write(content);
+        }
+        Files.createDirectories(file.getParent());
+        Files.write(file, record.toByteArray(), StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        pomFiles.add(absolutePath);
+        return true;
+    }
+
+    /**
+     * Read the archive of the given directory. A truncated last record is ignored.
+     * @param directory The directory of the archive.
+     * @return The original contents, by POM file, empty if there is no archive.
+     * @throws IOException If the archive can't be read.
+     */
+    public static Map<Path, byte[]> read(final Path directory) throws IOException {
+        Path archiveFile = directory.resolve(ARCHIVE_FILE);
+        Map<Path, byte[]> contents = new LinkedHashMap<>();
+        if (!Files.exists(archiveFile)) {
+            return contents;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(archiveFile)))) {
+            while (true) {
+                Path pomFile = Paths.get(in.readUTF());
+                byte[] content = new byte[in.readInt()];
+                in.readFully(content);
+                contents.putIfAbsent(pomFile, content);
+            }
+        } catch (EOFException ex) {
+            // End of the archive
+        }
+        return contents;
+    }
+
+    /**
+     * Restore concurrently the POM files archived in the given directory, and delete the archive.
+     * @param directory The directory of the archive.
+     * @param logger The logger to use for messages.
+     * @return The number of POM files restored, 0 if there is no archive.
+     * @throws MojoExecutionException If a POM file can't be restored, the archive is kept in this case.
+     */
+    public static int restore(final Path directory, final Log logger) throws MojoExecutionException {
+        Map<Path, byte[]> contents;
+        try {
+            contents = read(directory);
+        } catch (IOException ex) {
+            throw new MojoExecutionException("An error occurred reading the backup archive in " + directory, ex); // NOI18N
+        }
+        Map<Path, IOException> failures = new ConcurrentHashMap<>();
+        List<Path> restored = new ArrayList<>(contents.keySet()).parallelStream()
+                .filter(pomFile -> {
+                    try {
+                        Helper.writeAtomically(pomFile, contents.get(pomFile));
+                        return true;
+                    } catch (IOException ex) {
+                        failures.put(pomFile, ex);
+                        return false;
+                    }
+                })
+                .collect(Collectors.toList());
+        for (Path pomFile : restored) {
+            logger.info("Restored " + pomFile + " from the backup archive");                                  // NOI18N
+        }
+        if (!failures.isEmpty()) {
+            Map.Entry<Path, IOException> failure = failures.entrySet().iterator().next();
+            throw new MojoExecutionException(failures.size() + " POM files can't be restored, first failure on "
+                    + failure.getKey() + " : " + failure.getValue().getMessage(), failure.getValue());          // NOI18N
+        }
+        try {
+            Files.deleteIfExists(directory.resolve(ARCHIVE_FILE));
+        } catch (IOException ex) {
+            throw new MojoExecutionException("An error occurred deleting the backup archive in " + directory, ex); // NOI18N
+        }
+        return restored.size();
+    }
+
+}
@@ -0,0 +1,87 @@
+package com.sp.maven.utils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import org.apache.maven.project.MavenProject;
+
+/**
+ * The list of the POM files backed up in a reactor, so that they can be all restored without visiting each module.
+ * The manifest is a text file, one absolute POM path per line, in the backup directory of the root project.
+ * The manifest is shared by the backup strategies of a backup directory, see {@link BackupStrategies}.
+ *
+ * 2026-10-18 18:20:37
+ */
+public final class BackupManifest {
+
+    /** The serial version unique id. */
+    private static final long serialVersionUID = 20261018182037L;
+    /** The name of the manifest file. */
+    public static final String MANIFEST_FILE = "backups.manifest";
+
+    /** The manifest file. */
+    private final Path file;
+    /** The POM files already listed, loaded on first use and again once the manifest is deleted. */
+    private Set<Path> pomFiles;
+
+    /**
+     * Constructor.
+     * @param directory The directory of the manifest, see {@link PomTransaction#getDirectory(MavenProject)}.
+     */
+    public BackupManifest(final Path directory) {
+        this.file = directory.resolve(MANIFEST_FILE);
+    }
+
+    /**
+     * Add a backed up POM file to the manifest, nothing is done if it is already listed.
+     * @param pomFile The POM file.
+     * @throws IOException If the manifest can't be written.
+     */
+    public synchronized void add(final Path pomFile) throws IOException {
+        if (pomFiles == null || !Files.exists(file)) {
+            pomFiles = new LinkedHashSet<>(read(file.getParent()));
+        }
+        Path absolutePath = pomFile.toAbsolutePath();
+        if (pomFiles.add(absolutePath)) {
+            Files.createDirectories(file.getParent());
+            Files.write(file, (absolutePath + System.lineSeparator()).getBytes(StandardCharsets.UTF_8),
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        }
+    }
+
+    /**
+     * Read the POM files listed in the manifest of the given directory.
+     * @param directory The directory of the manifest.
+     * @return The POM files, empty if there is no manifest.
+     * @throws IOException If the manifest can't be read.
+     */
+    public static List<Path> read(final Path directory) throws IOException {
+        Path manifestFile = directory.resolve(MANIFEST_FILE);
+        List<Path> pomFiles = new ArrayList<>();
+        if (Files.exists(manifestFile)) {
+            for (String line : Files.readAllLines(manifestFile, StandardCharsets.UTF_8)) {
+                if (!line.trim().isEmpty()) {
+                    pomFiles.add(Paths.get(line.trim()));
+                }
+            }
+        }
+        return pomFiles;
+    }
+
+    /**
+     * Delete the manifest of the given directory.
+     * @param directory The directory of the manifest.
+     * @throws IOException If the manifest can't be deleted.
+     */
+    public static void delete(final Path directory) throws IOException {
+        Files.deleteIfExists(directory.resolve(MANIFEST_FILE));
+    }
+
+}
@@ -0,0 +1,182 @@
+package com.sp.maven.utils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.logging.Log;
+import org.apache.maven.project.MavenProject;
+import org.codehaus.plexus.util.FileUtils;
+
+/**
+ * The available backup strategies:
+ * <ul>
+ * <li>{@link #COPY}: the POM file is copied in pom.xml.versionsBackup.</li>
+ * <li>{@link #LINK}: pom.xml.versionsBackup is a hard link to the POM file. As the POM file is written by an atomic
+ * rename, the link keeps the original content without copying it. A copy is made if the file system doesn't
+ * support hard links.</li>
+ * <li>{@link #ARCHIVE}: the original content is appended to the single {@link BackupArchive} of the reactor,
+ * no file is created next to the POM file.</li>
+ * </ul>
+ * The backup files are listed in the {@link BackupManifest} of the reactor. The strategies are shared by backup
+ * directory, so that the modules built in parallel append to a single manifest or archive instance.
+ *
+ * 2026-10-18 19:12:30
+ */
+public final class BackupStrategies {
+
+    /** The serial version unique id. */
+    private static final long serialVersionUID = 20261018191230L;
+    /** The name of the copy strategy. */
+    public static final String COPY = "copy";
+    /** The name of the hard link strategy. */
+    public static final String LINK = "link";
+    /** The name of the archive strategy. */
+    public static final String ARCHIVE = "archive";
+    /** The copy strategy which doesn't list the backup files. */
+    private static final BackupStrategy UNLISTED_COPY = new CopyStrategy(null);
+    /** The strategies of each backup directory, by name. */
+    private static final Map<Path, Map<String, BackupStrategy>> STRATEGIES = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor.
+     */
+    private BackupStrategies() {
+    }
+
+    /**
+     * Get the strategy of the reactor of the given session, see {@link #create(Path, String)}.
+     * @param session The Maven session.
+     * @param name The name of the strategy: copy, link or archive.
+     * @return The strategy.
+     * @throws MojoExecutionException If the strategy is unknown.
+     */
+    public static BackupStrategy forSession(final MavenSession session, final String name)
+            throws MojoExecutionException {
+        MavenProject rootProject = session.getTopLevelProject() != null
+                ? session.getTopLevelProject() : session.getCurrentProject();
+        return create(PomTransaction.getDirectory(rootProject), name);
+    }
+
+    /**
+     * Get the strategy of the given backup directory, created on first use. The copy and link strategies of a
+     * directory share its manifest.
+     * @param directory The backup directory of the reactor, see {@link PomTransaction#getDirectory(MavenProject)}.
+     * @param name The name of the strategy: copy, link or archive.
+     * @return The strategy.
+     * @throws MojoExecutionException If the strategy is unknown.
+     */
+    public static BackupStrategy create(final Path directory, final String name) throws MojoExecutionException {
+        BackupStrategy strategy = STRATEGIES.computeIfAbsent(directory.toAbsolutePath().normalize(),
+                BackupStrategies::createStrategies).get(name.toLowerCase(Locale.ROOT));
+        if (strategy == null) {
+            throw new MojoExecutionException("Unknown backup strategy " + name
+                    + ", expected " + COPY + ", " + LINK + " or " + ARCHIVE);                                 // NOI18N
+        }
+        return strategy;
+    }
+
+    private static Map<String, BackupStrategy> createStrategies(final Path directory) {
+        BackupManifest manifest = new BackupManifest(directory);
+        Map<String, BackupStrategy> strategies = new HashMap<>();
+        strategies.put(COPY, new CopyStrategy(manifest));
+        strategies.put(LINK, new LinkStrategy(manifest));
+        strategies.put(ARCHIVE, new ArchiveStrategy(new BackupArchive(directory)));
+        return strategies;
+    }
+
+    /**
+     * @return The copy strategy which doesn't list the backup files.
+     */
+    static BackupStrategy getDefault() {
+        return UNLISTED_COPY;
+    }
+
+    /**
+     * Copy the POM file next to it.
+     */
+    private static class CopyStrategy implements BackupStrategy {
+
+        /** The manifest listing the backup files, may be null. */
+        private final BackupManifest manifest;
+
+        private CopyStrategy(final BackupManifest manifest) {
+            this.manifest = manifest;
+        }
+
+        @Override
+        public void backup(final Path pomFile, final Log logger) throws IOException {
+            Path backupFile = Helper.getBackupFile(pomFile);
+            if (!Files.exists(backupFile)) {
+                logger.debug("Backing up " + pomFile + " to " + backupFile);                                  // NOI18N
+                createBackup(pomFile, backupFile, logger);
+            } else {
+                logger.debug("Leaving existing backup " + backupFile + " unmodified");                        // NOI18N
+            }
+            if (manifest != null) {
+                manifest.add(pomFile);
+            }
+        }
+
+        protected void createBackup(final Path pomFile, final Path backupFile, final Log logger) throws IOException {
+            FileUtils.copyFile(pomFile.toFile(), backupFile.toFile());
+        }
+
+        @Override
+        public Path getBackupFile(final Path pomFile) {
+            return Helper.getBackupFile(pomFile);
+        }
+
+    }
+
+    /**
+     * Link the POM file next to it.
+     */
+    private static final class LinkStrategy extends CopyStrategy {
+
+        private LinkStrategy(final BackupManifest manifest) {
+            super(manifest);
+        }
+
+        @Override
+        protected void createBackup(final Path pomFile, final Path backupFile, final Log logger) throws IOException {
+            try {
+                Files.createLink(backupFile, pomFile);
+            } catch (UnsupportedOperationException | IOException ex) {
+                logger.debug("Can't link " + backupFile + ", copying it: " + ex.getMessage());                // NOI18N
+                super.createBackup(pomFile, backupFile, logger);
+            }
+        }
+
+    }
+
+    /**
+     * Append the content of the POM file to the archive of the reactor.
+     */
+    private static final class ArchiveStrategy implements BackupStrategy {
+
+        /** The archive. */
+        private final BackupArchive archive;
+
+        private ArchiveStrategy(final BackupArchive archive) {
+            this.archive = archive;
+        }
+
+        @Override
+        public void backup(final Path pomFile, final Log logger) throws IOException {
+            if (archive.contains(pomFile)) {
+                logger.debug("Leaving existing archived content of " + pomFile + " unmodified");              // NOI18N
+            } else {
+                logger.debug("Archiving " + pomFile);                                                          // NOI18N
+                archive.add(pomFile, Files.readAllBytes(pomFile));
+            }
+        }
+
+    }
+
+}
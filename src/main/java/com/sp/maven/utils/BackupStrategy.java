@@ -0,0 +1,33 @@
+package com.sp.maven.utils;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import org.apache.maven.plugin.logging.Log;
+
+/**
+ * The way the original content of a POM file is kept before the file is written, see {@link BackupStrategies}.
+ * The POM files are always written by an atomic rename, so a backup may share the original file.
+ *
+ * 2026-10-18 18:58:16
+ */
+public interface BackupStrategy {
+
+    /**
+     * Back up the given POM file, nothing is done if it is already backed up.
+     * @param pomFile The POM file about to be written.
+     * @param logger The logger to use for messages.
+     * @throws IOException If the backup can't be made.
+     */
+    void backup(Path pomFile, Log logger) throws IOException;
+
+    /**
+     * Get the file keeping the backed up content of the given POM file, when the strategy keeps it in a file
+     * of its own.
+     * @param pomFile The POM file.
+     * @return The backup file, null if the content is not kept in a file of its own.
+     */
+    default Path getBackupFile(final Path pomFile) {
+        return null;
+    }
+
+}
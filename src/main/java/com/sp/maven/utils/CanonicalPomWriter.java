@@ -0,0 +1,127 @@
+package com.sp.maven.utils;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+import org.apache.maven.model.Model;
+import org.apache.maven.model.ModelBase;
+import org.apache.maven.model.io.xpp3.MavenXpp3Writer;
+
+/**
+ * Writer of byte-stable POM files: the same model always gives the same bytes.
+ * The POM files are written by MavenXpp3Writer, which keeps the order of the lists of the model (dependencies,
+ * plugins, modules...) and uses LF line endings, with an explicit UTF-8 encoding. The properties of the model and of
+ * its profiles, hash tables, are written sorted by name. The files are streamed through a buffered file channel to
+ * a temporary file, renamed over the POM file.
+ *
+ * 2026-10-18 22:51:37
+ */
+public final class CanonicalPomWriter {
+
+    /** The serial version unique id. */
+    private static final long serialVersionUID = 20261018225137L;
+    /** The encoding of the POM files. */
+    public static final String ENCODING = "UTF-8";
+    /** The size of the write buffer. */
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * Constructor.
+     */
+    private CanonicalPomWriter() {
+    }
+
+    /**
+     * Write the given model.
+     * @param model The model, unchanged.
+     * @param out The output stream, not closed.
+     * @throws IOException If the model can't be written.
+     */
+    public static void write(final Model model, final OutputStream out) throws IOException {
+        String encoding = model.getModelEncoding();
+        List<ModelBase> sections = new ArrayList<>();
+        sections.add(model);
+        sections.addAll(model.getProfiles());
+        List<Properties> properties = new ArrayList<>(sections.size());
+        for (ModelBase section : sections) {
+            properties.add(section.getProperties());
+            section.setProperties(new SortedProperties(section.getProperties()));
+        }
+        try {
+            model.setModelEncoding(ENCODING);
+            new MavenXpp3Writer().write(out, model);
+        } finally {
+            // The model is restored as it was
+            model.setModelEncoding(encoding);
+            for (int i = 0; i < sections.size(); i++) {
+                sections.get(i).setProperties(properties.get(i));
+            }
+        }
+    }
+
+    /**
+     * Write the given model in memory.
+     * @param model The model, unchanged.
+     * @return The content of the POM file.
+     * @throws IOException If the model can't be written.
+     */
+    public static byte[] toByteArray(final Model model) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(BUFFER_SIZE);
+        write(model, out);
+        return out.toByteArray();
+    }
+
+    /**
+     * Write the given model in a POM file, replaced atomically if the file system supports it.
+     * @param model The model, unchanged.
+     * @param pomFile The POM file.
+     * @throws IOException If the model can't be written.
+     */
+    public static void write(final Model model, final Path pomFile) throws IOException {
+        Path tempFile = pomFile.resolveSibling(pomFile.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(tempFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+                OutputStream out = new BufferedOutputStream(Channels.newOutputStream(channel), BUFFER_SIZE)) {
+            write(model, out);
+        } catch (IOException | RuntimeException ex) {
+            Files.deleteIfExists(tempFile);
+            throw ex;
+        }
+        Helper.moveAtomically(tempFile, pomFile);
+    }
+
+    /**
+     * Properties iterated in the order of their names.
+     */
+    private static final class SortedProperties extends Properties {
+
+        /** The serial version unique id. */
+        private static final long serialVersionUID = 20261018225137L;
+
+        private SortedProperties(final Properties properties) {
+            putAll(properties);
+        }
+
+        @Override
+        public Set<Object> keySet() {
+            List<Object> keys = new ArrayList<>(super.keySet());
+            keys.sort(Comparator.comparing(String::valueOf));
+            return Collections.unmodifiableSet(new LinkedHashSet<>(keys));
+        }
+
+    }
+
+}
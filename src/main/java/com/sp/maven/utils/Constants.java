@@ -7,6 +7,8 @@ public class Constants {
     public static final String SNAPSHOT = "-SNAPSHOT";
     /** Extension for POM backup. */
     public static final String BACKUP_EXT = "versionsBackup";
+    /** Directory of the POM backups, in the build directory of the root project. */
+    public static final String BACKUP_DIRECTORY = "sp-backups";
     /** ID separator. */
     public static final String ID_SEPARATOR = ":";
     /** ID for parent pom. */
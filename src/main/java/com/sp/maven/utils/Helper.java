@@ -1,24 +1,24 @@
 
 package com.sp.maven.utils;
 
-import java.io.File;
 import java.io.FileInputStream;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.io.Reader;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.util.Collection;
 import java.util.List;
+import java.util.Objects;
 import java.util.stream.Collectors;
+import org.apache.maven.model.Dependency;
 import org.apache.maven.model.Model;
 import org.apache.maven.model.io.xpp3.MavenXpp3Reader;
-import org.apache.maven.model.io.xpp3.MavenXpp3Writer;
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugin.logging.Log;
 import org.apache.maven.project.MavenProject;
-import org.codehaus.plexus.util.FileUtils;
 import org.codehaus.plexus.util.xml.pull.XmlPullParserException;
 
 /**
@@ -42,28 +42,117 @@ public class Helper {
      * @param project Maven Project for which we want to write the pom.xml
      * @param mavenModel The Maven Model to apply.
      * @param generateBackup True to generate a backup before saving the pom.xml.
+     * @param backupStrategy The backup strategy, null to copy the pom.xml without listing the backup.
      * @param logger The logger to use for messages.
      * @throws MojoExecutionException If an error occurs during the process.
      */
-    public static void savePomFile(final MavenProject project,
-            final Model mavenModel, final boolean generateBackup, final Log logger) throws MojoExecutionException {
-        generateBackupPoms(project, generateBackup, logger);
+    public static void savePomFile(final MavenProject project, final Model mavenModel, final boolean generateBackup,
+            final BackupStrategy backupStrategy, final Log logger) throws MojoExecutionException {
+        generateBackupPoms(project.getFile().toPath(), generateBackup, backupStrategy, logger);
         Path outputFilePath = project.getFile().toPath();
         saveMavenModel(outputFilePath, mavenModel, logger);
     }
 
-    private static void generateBackupPoms(final MavenProject project,
-            final boolean generateBackup, final Log logger) throws MojoExecutionException {
+    /**
+     * Generate the backup (if needed) and save the versions of the given model in the pom.xml.
+     * The project version, the parent version and the versions of the managed dependencies are edited in place,
+     * the rest of the file being kept as is. The whole model is written if the file can't be edited in place.
+     * @param project Maven Project for which we want to write the pom.xml
+     * @param mavenModel The Maven Model to apply, only its versions differ from the pom.xml.
+     * @param generateBackup True to generate a backup before saving the pom.xml.
+     * @param backupStrategy The backup strategy, null to copy the pom.xml without listing the backup.
+     * @param logger The logger to use for messages.
+     * @throws MojoExecutionException If an error occurs during the process.
+     */
+    public static void savePomVersions(final MavenProject project, final Model mavenModel,
+            final boolean generateBackup, final BackupStrategy backupStrategy, final Log logger)
+            throws MojoExecutionException {
+        Path pomFilePath = project.getFile().toPath();
+        PomEditor editor;
         try {
-            if (generateBackup) {
-                File pomFile = project.getFile();
-                File backupFile = new File(pomFile.getParentFile(), pomFile.getName() + "." + Constants.BACKUP_EXT);
-                if (!backupFile.exists()) {
-                    logger.debug("Backing up " + pomFile + " to " + backupFile);                              // NOI18N
-                    FileUtils.copyFile(pomFile, backupFile);
-                } else {
-                    logger.debug("Leaving existing backup " + backupFile + " unmodified");                    // NOI18N
+            editor = Files.exists(pomFilePath) ? PomEditor.read(pomFilePath) : null;
+        } catch (IOException ex) {
+            throw new MojoExecutionException("An error occurred reading " + pomFilePath, ex);                 // NOI18N
+        }
+        if (editor == null || !applyVersions(editor, mavenModel)) {
+            logger.debug("The versions of " + pomFilePath + " can't be edited in place");                     // NOI18N
+            savePomFile(project, mavenModel, generateBackup, backupStrategy, logger);
+            return;
+        }
+        generateBackupPoms(pomFilePath, generateBackup, backupStrategy, logger);
+        logger.debug("Save the versions of the POM file : " + pomFilePath);                                   // NOI18N
+        try {
+            if (editor.hasChanges()) {
+                writeAtomically(pomFilePath, editor.toByteArray());
+            }
+        } catch (IOException ex) {
+            throw new MojoExecutionException("An error occurred saving " + pomFilePath, ex);                  // NOI18N
+        }
+    }
+
+    /**
+     * Compute the content of the pom.xml once the versions of the given model applied, see
+     * {@link #savePomVersions(MavenProject, Model, boolean, BackupStrategy, Log)}.
+     * @param pomFilePath Path to the POM file.
+     * @param content The current content of the POM file, null if it doesn't exist.
+     * @param mavenModel The Maven Model to apply.
+     * @param logger The logger to use for messages.
+     * @return The new content of the POM file.
+     * @throws MojoExecutionException If an error occurs during the process.
+     */
+    static byte[] getPomContent(final Path pomFilePath, final byte[] content,
+            final Model mavenModel, final Log logger) throws MojoExecutionException {
+        PomEditor editor = content == null ? null : PomEditor.parse(content);
+        if (editor != null && applyVersions(editor, mavenModel)) {
+            return editor.toByteArray();
+        }
+        logger.debug("The versions of " + pomFilePath + " can't be edited in place");                         // NOI18N
+        return writeMavenModel(pomFilePath, mavenModel);
+    }
+
+    /**
+     * Write the whole given model.
+     * @param pomFilePath Path to the POM file, used for the messages.
+     * @param mavenModel The Maven Model to write.
+     * @return The content of the POM file.
+     * @throws MojoExecutionException If an error occurs during the process.
+     */
+    static byte[] writeMavenModel(final Path pomFilePath, final Model mavenModel) throws MojoExecutionException {
+        try {
+            return CanonicalPomWriter.toByteArray(mavenModel);
+        } catch (IOException ex) {
+            throw new MojoExecutionException("An error occurred saving " + pomFilePath, ex);                  // NOI18N
+        }
+    }
+
+    private static boolean applyVersions(final PomEditor editor, final Model mavenModel) {
+        String version = mavenModel.getVersion();
+        if (!Objects.equals(version, editor.getProjectVersion()) && !editor.setProjectVersion(version)) {
+            return false;
+        }
+        String parentVersion = mavenModel.getParent() == null ? null : mavenModel.getParent().getVersion();
+        if (!Objects.equals(parentVersion, editor.getParentVersion()) && !editor.setParentVersion(parentVersion)) {
+            return false;
+        }
+        if (mavenModel.getDependencyManagement() != null) {
+            for (Dependency dependency : mavenModel.getDependencyManagement().getDependencies()) {
+                String key = PomEditor.getManagementKey(dependency.getGroupId(), dependency.getArtifactId(),
+                        dependency.getType(), dependency.getClassifier());
+                if (!Objects.equals(dependency.getVersion(), editor.getManagedVersion(key))
+                        && !editor.setManagedVersion(key, dependency.getVersion())) {
+                    return false;
                 }
+            }
+        }
+        return true;
+    }
+
+    static void generateBackupPoms(final Path pomFile, final boolean generateBackup,
+            final BackupStrategy backupStrategy, final Log logger) throws MojoExecutionException {
+        try {
+            if (generateBackup) {
+                BackupStrategy strategy = backupStrategy != null ? backupStrategy : BackupStrategies.getDefault();
+                strategy.backup(pomFile, logger);
             } else {
                 logger.debug("Skipping generation of backup file");                                           // NOI18N
             }
@@ -78,21 +167,51 @@ public class Helper {
         try {
             if (!Files.exists(pomFilePath)) {
                 Files.createDirectories(pomFilePath.getParent());
-                Files.createFile(pomFilePath);
             }
+            CanonicalPomWriter.write(mavenModel, pomFilePath);
         } catch (IOException ex) {
             throw new MojoExecutionException("An error occurred saving " + pomFilePath, ex);                  // NOI18N
         }
-        try (FileOutputStream fos = new FileOutputStream(pomFilePath.toFile())) {
-            MavenXpp3Writer mavenWriter = new MavenXpp3Writer();
-            mavenWriter.write(fos, mavenModel);
-        } catch (IOException ex) {
-            throw new MojoExecutionException("An error occurred saving " + pomFilePath, ex);                  // NOI18N
-        }
     }
 
 
 
+    /**
+     * Get the backup file of a POM file.
+     * @param pomFile The POM file.
+     * @return The backup file, next to the POM file.
+     */
+    public static Path getBackupFile(final Path pomFile) {
+        return pomFile.resolveSibling(pomFile.getFileName() + "." + Constants.BACKUP_EXT);
+    }
+
+    /**
+     * Write a file through a temporary file renamed over it, so that the hard links to the previous file
+     * keep the previous content.
+     * @param file The file to write.
+     * @param content The content of the file.
+     * @throws IOException If the file can't be written.
+     */
+    public static void writeAtomically(final Path file, final byte[] content) throws IOException {
+        Path tempFile = file.resolveSibling(file.getFileName() + ".tmp");
+        Files.write(tempFile, content);
+        moveAtomically(tempFile, file);
+    }
+
+    /**
+     * Move a file, atomically if the file system supports it.
+     * @param source The file to move.
+     * @param target The destination, replaced if it exists.
+     * @throws IOException If the file can't be moved.
+     */
+    public static void moveAtomically(final Path source, final Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException ex) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
     /**
      * Load the Maven Model associated to the given Path.
      * @param pomFilePath Path to the POM file.
@@ -136,17 +255,36 @@ public class Helper {
                                       final ChangeType bumpType,
                                       final boolean bumpToSnapshot,
                                       final boolean generateBackupPoms) throws MojoExecutionException {
+        return bumpWithParams(project, bumpType, QualifierPolicy.DROP, bumpToSnapshot, generateBackupPoms);
+    }
+
+    /**
+     * Bump the project & saves it using the supplied parameters
+     * @param project project to bump
+     * @param bumpType bump type
+     * @param qualifierPolicy what to do with the qualifier of the current version
+     * @param bumpToSnapshot true if needs to bump to snapshot
+     * @param generateBackupPoms if backup required
+     * @return the new version
+     * @throws MojoExecutionException
+     */
+    public static String bumpWithParams(final MavenProject project,
+                                      final ChangeType bumpType,
+                                      final QualifierPolicy qualifierPolicy,
+                                      final boolean bumpToSnapshot,
+                                      final boolean generateBackupPoms) throws MojoExecutionException {
         Model originalModel = project.getOriginalModel();
         String originalVersion = originalModel.getVersion();
         if (originalVersion == null) {
             throw new MojoExecutionException("Project version is inherited from parent.");                   // NOI18N
         }
         // Compute the new version
-        String newVersion = VersionHelper.bumpVersion(originalVersion, bumpType);
+        SemanticVersion version = SemanticVersion.parse(originalVersion).bump(bumpType, qualifierPolicy);
         if (bumpToSnapshot) {
-            newVersion += Constants.SNAPSHOT;
+            version = version.toSnapshot();
         }
         // Apply the new version and save the POM file
+        String newVersion = version.toString();
         originalModel.setVersion(newVersion);
         return newVersion;
     }
@@ -157,30 +295,30 @@ public class Helper {
      * @param replaceExisting bump type
      * @param addSnapShot true if needs to bump to snapshot
      * @param suffix add suffix to version if required
-     * @param generateBackupPoms if backup required
      * @return the new version with qualifier add or replaced
      * @throws MojoExecutionException
      */
     public static String addQualifier(final MavenProject project,
                                       final boolean replaceExisting,
                                       final boolean addSnapShot,
-                                      final String suffix,
-                                      final boolean generateBackupPoms) throws MojoExecutionException {
+                                      final String suffix) throws MojoExecutionException {
         Model originalModel = project.getOriginalModel();
         String originalVersion = originalModel.getVersion();
         if (originalVersion == null) {
             throw new MojoExecutionException("Project version is inherited from parent.");                   // NOI18N
-        } else {
-            //Remove -SNAPSHOT from the original version to prevent results like: 1.2.7-SNAPSHOT-19R1-beta-SNAPSHOT
-            originalVersion = originalVersion.replace(Constants.SNAPSHOT, "");
         }
+        //Remove -SNAPSHOT from the original version to prevent results like: 1.2.7-SNAPSHOT-19R1-beta-SNAPSHOT
+        SemanticVersion version = SemanticVersion.parse(originalVersion).toRelease();
         // Compute the new version
         String newVersion;
-        int indexOf = originalVersion.indexOf("-");
-        if (replaceExisting && indexOf > 0) {
-            newVersion = originalVersion.substring(0, indexOf) + suffix;
+        int indexOf = version.toString().indexOf('-');
+        if (replaceExisting && version.getQualifier() != null && !version.getNumbers().isEmpty()) {
+            newVersion = version.getNumbers() + suffix;
+        } else if (replaceExisting && indexOf > 0) {
+            // Not a major.minor.micro version, the qualifier starts at the first dash
+            newVersion = version.toString().substring(0, indexOf) + suffix;
         } else {
-            newVersion = originalVersion + suffix;
+            newVersion = version + suffix;
         }
 
         if (addSnapShot) {
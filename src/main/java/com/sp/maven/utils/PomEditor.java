@@ -0,0 +1,437 @@
+package com.sp.maven.utils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.IllegalCharsetNameException;
+import java.nio.charset.StandardCharsets;
+import java.nio.charset.UnsupportedCharsetException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Edit the versions of a POM file in place.
+ * The file is scanned once to locate the bytes of the project version, of the parent version and of the versions
+ * of the managed dependencies. Only these bytes are replaced in the content to write: the comments, the
+ * formatting and the order of the elements are kept as is.
+ * The files encoded in UTF-16 or UTF-32 are not supported.
+ *
+ * 2026-10-18 17:12:48
+ */
+public final class PomEditor {
+
+    /** The serial version unique id. */
+    private static final long serialVersionUID = 20261018171248L;
+    /** The root element. */
+    private static final String PROJECT = "project";
+    /** The version element. */
+    private static final String VERSION = "version";
+    /** The parent element. */
+    private static final String PARENT = "parent";
+    /** The dependency management element. */
+    private static final String DEPENDENCY_MANAGEMENT = "dependencyManagement";
+    /** The dependencies element. */
+    private static final String DEPENDENCIES = "dependencies";
+    /** The dependency element. */
+    private static final String DEPENDENCY = "dependency";
+    /** The default type of a dependency. */
+    private static final String DEFAULT_TYPE = "jar";
+
+    /** The content of the file. */
+    private final byte[] content;
+    /** The encoding of the file. */
+    private final Charset charset;
+    /** The location of the project version, null if it is not declared. */
+    private Range projectVersion;
+    /** The location of the parent version, null if it is not declared. */
+    private Range parentVersion;
+    /** The location of the versions of the managed dependencies, by management key. */
+    private final Map<String, Range> managedVersions = new HashMap<>();
+    /** The new values, by location. */
+    private final Map<Integer, Edit> edits = new TreeMap<>();
+
+    private PomEditor(final byte[] content, final Charset charset) {
+        this.content = content;
+        this.charset = charset;
+    }
+
+    /**
+     * Read and scan the given POM file.
+     * @param file The POM file.
+     * @return The editor, null if the encoding of the file is not supported.
+     * @throws IOException If the file can't be read.
+     */
+    public static PomEditor read(final Path file) throws IOException {
+        return parse(Files.readAllBytes(file));
+    }
+
+    /**
+     * Scan the given content of a POM file.
+     * @param content The content of the file.
+     * @return The editor, null if the encoding of the content is not supported.
+     */
+    static PomEditor parse(final byte[] content) {
+        Charset charset = getCharset(content);
+        if (charset == null) {
+            return null;
+        }
+        PomEditor editor = new PomEditor(content, charset);
+        editor.scan();
+        return editor;
+    }
+
+    /**
+     * Build the key identifying a managed dependency, as Maven does.
+     * @param groupId The group id.
+     * @param artifactId The artifact id.
+     * @param type The type, null for jar.
+     * @param classifier The classifier, may be null.
+     * @return The management key.
+     */
+    public static String getManagementKey(final String groupId, final String artifactId, final String type,
+            final String classifier) {
+        return groupId + Constants.ID_SEPARATOR + artifactId + Constants.ID_SEPARATOR
+                + (type == null ? DEFAULT_TYPE : type)
+                + (classifier == null || classifier.isEmpty() ? "" : Constants.ID_SEPARATOR + classifier);
+    }
+
+    /**
+     * @return The project version declared in the file, null if it is not declared or can't be edited.
+     */
+    public String getProjectVersion() {
+        return getValue(projectVersion);
+    }
+
+    /**
+     * @return The parent version declared in the file, null if it is not declared or can't be edited.
+     */
+    public String getParentVersion() {
+        return getValue(parentVersion);
+    }
+
+    /**
+     * Get the version of a managed dependency declared in the file.
+     * @param managementKey The management key of the dependency.
+     * @return The version, null if it is not declared or can't be edited.
+     */
+    public String getManagedVersion(final String managementKey) {
+        return getValue(managedVersions.get(managementKey));
+    }
+
+    /**
+     * Change the project version.
+     * @param version The new version.
+     * @return False if the version is not declared in the file or can't be edited.
+     */
+    public boolean setProjectVersion(final String version) {
+        return setValue(projectVersion, version);
+    }
+
+    /**
+     * Change the parent version.
+     * @param version The new version.
+     * @return False if the version is not declared in the file or can't be edited.
+     */
+    public boolean setParentVersion(final String version) {
+        return setValue(parentVersion, version);
+    }
+
+    /**
+     * Change the version of a managed dependency.
+     * @param managementKey The management key of the dependency.
+     * @param version The new version.
+     * @return False if the version is not declared in the file or can't be edited.
+     */
+    public boolean setManagedVersion(final String managementKey, final String version) {
+        return setValue(managedVersions.get(managementKey), version);
+    }
+
+    /**
+     * @return True if a value has been changed.
+     */
+    public boolean hasChanges() {
+        return !edits.isEmpty();
+    }
+
+    /**
+     * @return The content of the file with the changed values.
+     */
+    public byte[] toByteArray() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(content.length + 64);
+        int position = 0;
+        for (Edit edit : edits.values()) {
+            out.write(content, position, edit.range.start - position);
+            byte[] value = escape(edit.value).getBytes(charset);
+            out.write(value, 0, value.length);
+            position = edit.range.end;
+        }
+        out.write(content, position, content.length - position);
+        return out.toByteArray();
+    }
+
+    private String getValue(final Range range) {
+        if (range == null) {
+            return null;
+        }
+        Edit edit = edits.get(range.start);
+        return edit != null ? edit.value : new String(content, range.start, range.end - range.start, charset);
+    }
+
+    private boolean setValue(final Range range, final String value) {
+        if (range == null || value == null) {
+            return false;
+        }
+        edits.put(range.start, new Edit(range, value));
+        return true;
+    }
+
+    /**
+     * Scan the file and locate the versions, in a single pass.
+     */
+    private void scan() {
+        List<Element> path = new ArrayList<>();
+        int position = getBomLength(content);
+        while (position < content.length) {
+            if (content[position] != '<') {
+                position++;
+                continue;
+            }
+            if (!path.isEmpty() && !startsWith(position, "</")) {
+                // Comments, CDATA and children: the element can't be edited as a simple value
+                path.get(path.size() - 1).mixed = true;
+            }
+            if (startsWith(position, "<!--")) {
+                position = skipTo(position + 4, "-->");
+            } else if (startsWith(position, "<![CDATA[")) {
+                position = skipTo(position + 9, "]]>");
+            } else if (startsWith(position, "<?")) {
+                position = skipTo(position + 2, "?>");
+            } else if (startsWith(position, "<!")) {
+                position = skipTo(position + 2, ">");
+            } else if (startsWith(position, "</")) {
+                int nameEnd = readName(position + 2);
+                if (!path.isEmpty()) {
+                    Element element = path.remove(path.size() - 1);
+                    endElement(path, element, position);
+                }
+                position = skipTo(nameEnd, ">");
+            } else {
+                int nameEnd = readName(position + 1);
+                String name = new String(content, position + 1, nameEnd - position - 1, StandardCharsets.US_ASCII);
+                // Skip the attributes, their values may contain '>'
+                int end = nameEnd;
+                byte quote = 0;
+                while (end < content.length && (quote != 0 || content[end] != '>')) {
+                    if (quote == 0 && (content[end] == '"' || content[end] == '\'')) {
+                        quote = content[end];
+                    } else if (content[end] == quote) {
+                        quote = 0;
+                    }
+                    end++;
+                }
+                if (end < content.length && content[end - 1] != '/') {
+                    path.add(new Element(name, end + 1));
+                }
+                position = end + 1;
+            }
+        }
+    }
+
+    private void endElement(final List<Element> path, final Element element, final int contentEnd) {
+        int depth = path.size();
+        Range range = element.mixed ? null : trim(element.contentStart, contentEnd);
+        if (depth == 1 && VERSION.equals(element.name) && isPath(path, PROJECT)) {
+            projectVersion = range;
+        } else if (depth == 2 && VERSION.equals(element.name) && isPath(path, PROJECT, PARENT)) {
+            parentVersion = range;
+        } else if (depth == 4 && isPath(path, PROJECT, DEPENDENCY_MANAGEMENT, DEPENDENCIES, DEPENDENCY)) {
+            Element dependency = path.get(3);
+            if (VERSION.equals(element.name)) {
+                dependency.version = range;
+            } else if (range != null) {
+                if (dependency.values == null) {
+                    dependency.values = new HashMap<>();
+                }
+                dependency.values.put(element.name, new String(content, range.start, range.end - range.start, charset));
+            }
+        } else if (depth == 3 && DEPENDENCY.equals(element.name)
+                && isPath(path, PROJECT, DEPENDENCY_MANAGEMENT, DEPENDENCIES) && element.version != null
+                && element.values != null) {
+            String key = getManagementKey(element.values.get("groupId"), element.values.get("artifactId"),
+                    element.values.get("type"), element.values.get("classifier"));
+            managedVersions.putIfAbsent(key, element.version);
+        }
+    }
+
+    private static boolean isPath(final List<Element> path, final String... names) {
+        for (int i = 0; i < names.length; i++) {
+            if (!names[i].equals(path.get(i).name)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Get the range of the given content without the surrounding whitespaces.
+     * @return The range, null if the content contains an entity reference.
+     */
+    private Range trim(final int start, final int end) {
+        int trimmedStart = start;
+        int trimmedEnd = end;
+        while (trimmedStart < trimmedEnd && isWhitespace(content[trimmedStart])) {
+            trimmedStart++;
+        }
+        while (trimmedEnd > trimmedStart && isWhitespace(content[trimmedEnd - 1])) {
+            trimmedEnd--;
+        }
+        for (int i = trimmedStart; i < trimmedEnd; i++) {
+            if (content[i] == '&') {
+                return null;
+            }
+        }
+        return new Range(trimmedStart, trimmedEnd);
+    }
+
+    private int readName(final int start) {
+        int end = start;
+        while (end < content.length && !isWhitespace(content[end]) && content[end] != '>' && content[end] != '/') {
+            end++;
+        }
+        return end;
+    }
+
+    private int skipTo(final int start, final String delimiter) {
+        for (int i = start; i < content.length; i++) {
+            if (startsWith(i, delimiter)) {
+                return i + delimiter.length();
+            }
+        }
+        return content.length;
+    }
+
+    private boolean startsWith(final int position, final String prefix) {
+        if (position + prefix.length() > content.length) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length(); i++) {
+            if (content[position + i] != (byte) prefix.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isWhitespace(final byte b) {
+        return b == ' ' || b == '\t' || b == '\r' || b == '\n';
+    }
+
+    private static String escape(final String value) {
+        return value.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;");
+    }
+
+    private static int getBomLength(final byte[] content) {
+        return content.length >= 3 && (content[0] & 0xFF) == 0xEF && (content[1] & 0xFF) == 0xBB
+                && (content[2] & 0xFF) == 0xBF ? 3 : 0;
+    }
+
+    /**
+     * Get the encoding declared by the XML declaration, UTF-8 by default.
+     * @return The encoding, null if it is not supported.
+     */
+    private static Charset getCharset(final byte[] content) {
+        if (content.length >= 2 && (content[0] == 0 || content[1] == 0 || (content[0] & 0xFF) >= 0xFE)) {
+            // UTF-16 or UTF-32, the markup is not ASCII
+            return null;
+        }
+        int bomLength = getBomLength(content);
+        String prolog = new String(content, bomLength, Math.min(content.length - bomLength, 200),
+                StandardCharsets.ISO_8859_1);
+        if (!prolog.startsWith("<?xml")) {
+            return StandardCharsets.UTF_8;
+        }
+        int declarationEnd = prolog.indexOf("?>");
+        int encoding = prolog.indexOf("encoding");
+        if (encoding < 0 || (declarationEnd >= 0 && encoding > declarationEnd)) {
+            return StandardCharsets.UTF_8;
+        }
+        int quote = encoding + 8;
+        while (quote < prolog.length() && prolog.charAt(quote) != '"' && prolog.charAt(quote) != '\'') {
+            quote++;
+        }
+        int end = quote + 1 < prolog.length() ? prolog.indexOf(prolog.charAt(quote), quote + 1) : -1;
+        if (end < 0) {
+            return null;
+        }
+        try {
+            Charset charset = Charset.forName(prolog.substring(quote + 1, end));
+            // The markup is read as ASCII
+            return charset.newEncoder().canEncode("<>/") && "<".getBytes(charset).length == 1 ? charset : null;
+        } catch (IllegalCharsetNameException | UnsupportedCharsetException ex) {
+            return null;
+        }
+    }
+
+    /**
+     * A range of bytes of the file.
+     */
+    private static final class Range {
+
+        /** The first byte. */
+        private final int start;
+        /** The byte following the last one. */
+        private final int end;
+
+        private Range(final int start, final int end) {
+            this.start = start;
+            this.end = end;
+        }
+
+    }
+
+    /**
+     * A new value.
+     */
+    private static final class Edit {
+
+        /** The replaced bytes. */
+        private final Range range;
+        /** The new value. */
+        private final String value;
+
+        private Edit(final Range range, final String value) {
+            this.range = range;
+            this.value = value;
+        }
+
+    }
+
+    /**
+     * An element being scanned.
+     */
+    private static final class Element {
+
+        /** The name of the element. */
+        private final String name;
+        /** The first byte of the content. */
+        private final int contentStart;
+        /** True if the content contains markup. */
+        private boolean mixed;
+        /** The values of the children, for a dependency. */
+        private Map<String, String> values;
+        /** The location of the version, for a dependency. */
+        private Range version;
+
+        private Element(final String name, final int contentStart) {
+            this.name = name;
+            this.contentStart = contentStart;
+        }
+
+    }
+
+}
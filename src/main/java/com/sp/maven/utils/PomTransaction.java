@@ -0,0 +1,480 @@
+package com.sp.maven.utils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import org.apache.maven.model.Model;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.logging.Log;
+import org.apache.maven.project.MavenProject;
+
+/**
+ * A batch of POM files written all at once.
+ * The models are staged first. On commit, the new content of each POM file is computed and written in a temporary
+ * file next to it, in parallel. The original contents are saved in a journal, taken from the backup files when the
+ * backup strategy keeps them in files of their own. All the files are flushed to the disk once, before the journal
+ * is marked prepared, then the temporary files are renamed over the POM files. If a rename fails, the POM files
+ * already renamed are restored; if the process dies, the journal is left uncommitted and
+ * {@link #rollback(Path, Log)} restores them.
+ * When backups are requested, the journal is kept after the commit so that the goal revert rolls back the whole
+ * batch.
+ *
+ * 2026-10-18 17:48:20
+ */
+public final class PomTransaction {
+
+    /** The serial version unique id. */
+    private static final long serialVersionUID = 20261018174820L;
+    /** The name of the journal file. */
+    public static final String JOURNAL_FILE = "pom-transaction.journal";
+    /** The extension of the temporary files. */
+    private static final String TEMP_EXT = "tmp";
+    /** The extension of the original contents saved in the journal directory. */
+    private static final String ORIGINAL_EXT = ".xml";
+    /** The journal key of the number of entries. */
+    private static final String COUNT = "count";
+    /** The journal key of the state. */
+    private static final String STATE = "state";
+    /** The journal key prefix of the POM files. */
+    private static final String POM = "pom.";
+    /** The journal key prefix of the original contents. */
+    private static final String ORIGINAL = "original.";
+    /** The state of a journal whose POM files may be partially written. */
+    private static final String PREPARED = "prepared";
+    /** The state of a journal whose POM files are all written. */
+    private static final String COMMITTED = "committed";
+
+    /** The directory of the journal. */
+    private final Path directory;
+    /** True to keep the journal and to generate the backup files. */
+    private final boolean generateBackup;
+    /** The backup strategy, may be null. */
+    private final BackupStrategy backupStrategy;
+    /** The logger. */
+    private final Log logger;
+    /** The staged POM files, by path. */
+    private final Map<Path, Staged> staged = new LinkedHashMap<>();
+
+    /**
+     * Constructor.
+     * @param directory The directory of the journal, see {@link #getDirectory(MavenProject)}.
+     * @param generateBackup True to generate the backup files and to keep the journal after the commit.
+     * @param backupStrategy The backup strategy, null to copy the POM files without listing the backups.
+     * @param logger The logger to use for messages.
+     */
+    public PomTransaction(final Path directory, final boolean generateBackup, final BackupStrategy backupStrategy,
+            final Log logger) {
+        this.directory = directory;
+        this.generateBackup = generateBackup;
+        this.backupStrategy = backupStrategy;
+        this.logger = logger;
+    }
+
+    /**
+     * Get the directory of the journal of a reactor.
+     * @param rootProject The root project of the reactor.
+     * @return The directory of the journal.
+     */
+    public static Path getDirectory(final MavenProject rootProject) {
+        return Paths.get(rootProject.getBuild().getDirectory(), Constants.BACKUP_DIRECTORY);
+    }
+
+    /**
+     * Stage the versions of the given model, see {@link Helper#savePomVersions(MavenProject, Model, boolean, BackupStrategy, Log)}.
+     * Staging a project again replaces its model.
+     * @param project Maven Project for which we want to write the pom.xml
+     * @param mavenModel The Maven Model to apply.
+     */
+    public void stage(final MavenProject project, final Model mavenModel) {
+        stage(project.getFile().toPath(), (pomFile, content) -> Helper.getPomContent(pomFile, content, mavenModel, logger));
+    }
+
+    /**
+     * Stage the whole given model, see {@link Helper#savePomFile(MavenProject, Model, boolean, BackupStrategy, Log)}.
+     * Staging a project again replaces its model.
+     * @param project Maven Project for which we want to write the pom.xml
+     * @param mavenModel The Maven Model to write.
+     */
+    public void stageModel(final MavenProject project, final Model mavenModel) {
+        stage(project.getFile().toPath(), (pomFile, content) -> Helper.writeMavenModel(pomFile, mavenModel));
+    }
+
+    /**
+     * Stage an update of the given POM file. Staging a POM file again replaces its update.
+     * @param pomFile The POM file.
+     * @param update The update, called on commit.
+     */
+    public void stage(final Path pomFile, final ContentUpdate update) {
+        Path absolutePath = pomFile.toAbsolutePath();
+        staged.put(absolutePath, new Staged(absolutePath, update));
+    }
+
+    /**
+     * Write all the staged POM files.
+     * @return The number of POM files changed.
+     * @throws MojoExecutionException If an error occurs, no POM file is changed in this case.
+     */
+    public int commit() throws MojoExecutionException {
+        Path journalFile = directory.resolve(JOURNAL_FILE);
+        Properties previousJournal = loadJournal(journalFile);
+        if (previousJournal != null && !COMMITTED.equals(previousJournal.getProperty(STATE))) {
+            throw new MojoExecutionException("An interrupted POM transaction has been found in " + journalFile
+                    + ", run the goal revert to roll it back");                                               // NOI18N
+        }
+        // Compute and write the new contents in parallel
+        List<Staged> batch = new ArrayList<>(staged.values());
+        batch.parallelStream().forEach(this::prepare);
+        List<Staged> changed = new ArrayList<>();
+        for (Staged entry : batch) {
+            if (entry.failure != null) {
+                deleteTempFiles(batch);
+                throw new MojoExecutionException("An error occurred saving " + entry.pomFile, entry.failure); // NOI18N
+            }
+            if (entry.changed) {
+                changed.add(entry);
+            }
+        }
+        if (changed.isEmpty()) {
+            return 0;
+        }
+        // Save the original contents before touching any POM file
+        Properties journal = new Properties();
+        if (previousJournal != null) {
+            journal.putAll(previousJournal);
+        }
+        List<Path> addedOriginals = new ArrayList<>();
+        try {
+            for (Staged entry : changed) {
+                if (entry.original != null) {
+                    Helper.generateBackupPoms(entry.pomFile, generateBackup, backupStrategy, logger);
+                }
+            }
+            List<Path> journaledOriginals = addToJournal(journal, journalFile, changed, addedOriginals);
+            // The new contents and the original contents are flushed once, before the journal refers to them
+            List<Path> written = new ArrayList<>(journaledOriginals);
+            for (Staged entry : changed) {
+                written.add(getTempFile(entry.pomFile));
+            }
+            sync(written);
+            journal.setProperty(STATE, PREPARED);
+            storeJournal(journalFile, journal);
+        } catch (IOException | MojoExecutionException ex) {
+            deleteTempFiles(batch);
+            discardJournal(journalFile, previousJournal, addedOriginals);
+            throw new MojoExecutionException("An error occurred saving the journal " + journalFile, ex);      // NOI18N
+        }
+        // Commit
+        List<Staged> renamed = new ArrayList<>();
+        for (Staged entry : changed) {
+            try {
+                Helper.moveAtomically(getTempFile(entry.pomFile), entry.pomFile);
+                renamed.add(entry);
+            } catch (IOException ex) {
+                restore(renamed);
+                deleteTempFiles(batch);
+                discardJournal(journalFile, previousJournal, addedOriginals);
+                throw new MojoExecutionException("An error occurred saving " + entry.pomFile
+                        + ", the POM files have been restored", ex);                                          // NOI18N
+            }
+        }
+        if (generateBackup) {
+            journal.setProperty(STATE, COMMITTED);
+            try {
+                storeJournal(journalFile, journal);
+            } catch (IOException ex) {
+                throw new MojoExecutionException("An error occurred saving the journal " + journalFile, ex);  // NOI18N
+            }
+        } else {
+            discardJournal(journalFile, previousJournal, addedOriginals);
+        }
+        logger.debug(changed.size() + " POM files saved, journal: " + journalFile);                           // NOI18N
+        staged.clear();
+        return changed.size();
+    }
+
+    /**
+     * Restore the POM files listed in the journal of the given directory, and delete the journal.
+     * @param directory The directory of the journal, see {@link #getDirectory(MavenProject)}.
+     * @param logger The logger to use for messages.
+     * @return The number of POM files restored, 0 if there is no journal.
+     * @throws MojoExecutionException If a POM file can't be restored.
+     */
+    public static int rollback(final Path directory, final Log logger) throws MojoExecutionException {
+        Path journalFile = directory.resolve(JOURNAL_FILE);
+        Properties journal = loadJournal(journalFile);
+        if (journal == null) {
+            return 0;
+        }
+        int count = getCount(journal, journalFile);
+        List<Path> originals = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Path pomFile = Paths.get(journal.getProperty(POM + i));
+            String original = journal.getProperty(ORIGINAL + i);
+            logger.info("Restoring " + pomFile + " from " + journalFile);                                     // NOI18N
+            try {
+                if (original == null) {
+                    Files.deleteIfExists(pomFile);
+                } else {
+                    Path originalFile = directory.resolve(original);
+                    if (Files.exists(originalFile)) {
+                        replace(pomFile, Files.readAllBytes(originalFile));
+                        originals.add(originalFile);
+                    } else if (originalFile.equals(Helper.getBackupFile(pomFile).toAbsolutePath())) {
+                        // The POM file has already been restored from its backup file
+                        logger.debug("The backup file " + originalFile + " has already been restored");       // NOI18N
+                    } else {
+                        throw new NoSuchFileException(originalFile.toString());
+                    }
+                }
+                Files.deleteIfExists(getTempFile(pomFile));
+                Files.deleteIfExists(Helper.getBackupFile(pomFile));
+            } catch (IOException ex) {
+                throw new MojoExecutionException("An error occurred restoring " + pomFile, ex);               // NOI18N
+            }
+        }
+        try {
+            Files.delete(journalFile);
+            for (Path originalFile : originals) {
+                Files.deleteIfExists(originalFile);
+            }
+        } catch (IOException ex) {
+            throw new MojoExecutionException("An error occurred deleting the journal " + journalFile, ex);    // NOI18N
+        }
+        return count;
+    }
+
+    private void prepare(final Staged entry) {
+        try {
+            entry.original = Files.exists(entry.pomFile) ? Files.readAllBytes(entry.pomFile) : null;
+            byte[] content = entry.update.apply(entry.pomFile, entry.original);
+            entry.changed = !Arrays.equals(content, entry.original);
+            if (entry.changed) {
+                write(getTempFile(entry.pomFile), content);
+            }
+        } catch (IOException | MojoExecutionException ex) {
+            entry.failure = ex;
+        }
+    }
+
+    /**
+     * Add the original contents of the changed POM files to the journal. An original content is taken from the
+     * backup file when it holds the same content, else it is written in the journal directory.
+     * @return The files holding the original contents added to the journal.
+     */
+    private List<Path> addToJournal(final Properties journal, final Path journalFile, final List<Staged> changed,
+            final List<Path> addedOriginals) throws IOException, MojoExecutionException {
+        int count = getCount(journal, journalFile);
+        Set<String> journaled = new HashSet<>();
+        for (int i = 0; i < count; i++) {
+            journaled.add(journal.getProperty(POM + i));
+        }
+        List<Path> journaledOriginals = new ArrayList<>();
+        for (Staged entry : changed) {
+            // The oldest original content is kept, as for the backup files
+            if (journaled.add(entry.pomFile.toString())) {
+                journal.setProperty(POM + count, entry.pomFile.toString());
+                if (entry.original != null) {
+                    Path backupFile = getBackupFile(entry);
+                    if (backupFile != null) {
+                        journal.setProperty(ORIGINAL + count, backupFile.toString());
+                        journaledOriginals.add(backupFile);
+                    } else {
+                        String original = count + ORIGINAL_EXT;
+                        Path originalFile = directory.resolve(original);
+                        write(originalFile, entry.original);
+                        addedOriginals.add(originalFile);
+                        journaledOriginals.add(originalFile);
+                        journal.setProperty(ORIGINAL + count, original);
+                    }
+                }
+                count++;
+            }
+        }
+        journal.setProperty(COUNT, Integer.toString(count));
+        return journaledOriginals;
+    }
+
+    /**
+     * Get the backup file of the given POM file when it holds its original content.
+     * @return The backup file, null if there is none or if it holds an older content.
+     */
+    private Path getBackupFile(final Staged entry) throws IOException {
+        if (!generateBackup) {
+            return null;
+        }
+        BackupStrategy strategy = backupStrategy != null ? backupStrategy : BackupStrategies.getDefault();
+        Path backupFile = strategy.getBackupFile(entry.pomFile);
+        if (backupFile == null || !Files.exists(backupFile)) {
+            return null;
+        }
+        if (Files.isSameFile(backupFile, entry.pomFile)
+                || Arrays.equals(Files.readAllBytes(backupFile), entry.original)) {
+            return backupFile.toAbsolutePath();
+        }
+        return null;
+    }
+
+    private static int getCount(final Properties journal, final Path journalFile) throws MojoExecutionException {
+        try {
+            return Integer.parseInt(journal.getProperty(COUNT, "0"));
+        } catch (NumberFormatException ex) {
+            throw new MojoExecutionException("The journal " + journalFile + " is corrupted", ex);             // NOI18N
+        }
+    }
+
+    private void discardJournal(final Path journalFile, final Properties previousJournal,
+            final List<Path> addedOriginals) {
+        try {
+            if (previousJournal == null) {
+                Files.deleteIfExists(journalFile);
+            } else {
+                storeJournal(journalFile, previousJournal);
+            }
+            for (Path originalFile : addedOriginals) {
+                Files.deleteIfExists(originalFile);
+            }
+        } catch (IOException ex) {
+            logger.warn("The journal " + journalFile + " can't be restored: " + ex.getMessage());             // NOI18N
+        }
+    }
+
+    private void restore(final List<Staged> renamed) {
+        for (Staged entry : renamed) {
+            try {
+                if (entry.original == null) {
+                    Files.deleteIfExists(entry.pomFile);
+                } else {
+                    replace(entry.pomFile, entry.original);
+                }
+            } catch (IOException ex) {
+                logger.error("The POM file " + entry.pomFile + " can't be restored: " + ex.getMessage());     // NOI18N
+            }
+        }
+    }
+
+    private void deleteTempFiles(final List<Staged> batch) {
+        for (Staged entry : batch) {
+            try {
+                Files.deleteIfExists(getTempFile(entry.pomFile));
+            } catch (IOException ex) {
+                logger.warn("The temporary file of " + entry.pomFile + " can't be deleted: " + ex.getMessage()); // NOI18N
+            }
+        }
+    }
+
+    private static Properties loadJournal(final Path journalFile) throws MojoExecutionException {
+        if (!Files.exists(journalFile)) {
+            return null;
+        }
+        Properties journal = new Properties();
+        try (InputStream in = Files.newInputStream(journalFile)) {
+            journal.load(in);
+        } catch (IOException ex) {
+            throw new MojoExecutionException("An error occurred reading the journal " + journalFile, ex);     // NOI18N
+        }
+        return journal;
+    }
+
+    private static void storeJournal(final Path journalFile, final Properties journal) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        journal.store(out, null);
+        replace(journalFile, out.toByteArray());
+    }
+
+    private static Path getTempFile(final Path file) {
+        return file.resolveSibling(file.getFileName() + "." + TEMP_EXT);
+    }
+
+    private static void replace(final Path file, final byte[] content) throws IOException {
+        Path tempFile = getTempFile(file);
+        write(tempFile, content);
+        sync(Collections.singletonList(tempFile));
+        Helper.moveAtomically(tempFile, file);
+    }
+
+    private static void write(final Path file, final byte[] content) throws IOException {
+        Files.createDirectories(file.getParent());
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.wrap(content);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+    }
+
+    /**
+     * Flush the given files to the disk, in parallel.
+     */
+    private static void sync(final List<Path> files) throws IOException {
+        Map<Path, IOException> failures = new ConcurrentHashMap<>();
+        files.parallelStream().forEach(file -> {
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                channel.force(true);
+            } catch (IOException ex) {
+                failures.put(file, ex);
+            }
+        });
+        if (!failures.isEmpty()) {
+            throw failures.values().iterator().next();
+        }
+    }
+
+    /**
+     * The update of a POM file.
+     */
+    @FunctionalInterface
+    public interface ContentUpdate {
+
+        /**
+         * Compute the new content of a POM file. It may be called from several threads for different files.
+         * @param pomFile The POM file.
+         * @param content The current content of the POM file, null if it doesn't exist.
+         * @return The new content of the POM file.
+         * @throws MojoExecutionException If the new content can't be computed.
+         */
+        byte[] apply(Path pomFile, byte[] content) throws MojoExecutionException;
+
+    }
+
+    /**
+     * A staged POM file.
+     */
+    private static final class Staged {
+
+        /** The POM file. */
+        private final Path pomFile;
+        /** The update to apply. */
+        private final ContentUpdate update;
+        /** The original content, null if the file doesn't exist. */
+        private byte[] original;
+        /** True if the content is changed. */
+        private boolean changed;
+        /** The error which occurred computing or writing the new content. */
+        private Exception failure;
+
+        private Staged(final Path pomFile, final ContentUpdate update) {
+            this.pomFile = pomFile;
+            this.update = update;
+        }
+
+    }
+
+}
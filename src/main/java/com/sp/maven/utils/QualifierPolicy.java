@@ -0,0 +1,15 @@
+package com.sp.maven.utils;
+
+/**
+ * What a version bump does with the qualifier of the version, see {@link SemanticVersion#bump}.
+ *
+ * 2026-10-18 21:02:44
+ */
+public enum QualifierPolicy {
+    /** The qualifier is dropped: 1.2.3-beta-SNAPSHOT gives 1.2.4. */
+    DROP,
+    /** The qualifier is kept: 1.2.3-beta-SNAPSHOT gives 1.2.4-beta-SNAPSHOT. */
+    KEEP,
+    /** The qualifier is kept without its SNAPSHOT suffix: 1.2.3-beta-SNAPSHOT gives 1.2.4-beta. */
+    RELEASE
+}
@@ -0,0 +1,214 @@
+package com.sp.maven.utils;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.model.Dependency;
+import org.apache.maven.model.Model;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.project.MavenProject;
+
+/**
+ * Reverse dependency index of the projects of a reactor, by groupId:artifactId key.
+ * For each key, it gives the project, the projects declaring a dependency on it and the projects managing its version
+ * in their own dependencyManagement section (including the imported BOMs). The index is built in a single pass over
+ * the reactor, with interned keys, and one index is shared by all the executions of a Maven session.
+ * In a non recursive build, the index is built from the raw models of the modules, see {@link ReactorLoader}.
+ *
+ * 2026-10-18 19:41:27
+ */
+public final class ReactorDependencyIndex {
+
+    /** The serial version unique id. */
+    private static final long serialVersionUID = 20261018194127L;
+    /** The index of each running session. */
+    private static final Map<MavenSession, ReactorDependencyIndex> SESSION_INDEXES =
+            Collections.synchronizedMap(new WeakHashMap<>());
+
+    /** The projects of the reactor, by key. */
+    private final Map<String, MavenProject> projects = new LinkedHashMap<>();
+    /** The projects declaring a dependency, by key of the dependency. */
+    private final Map<String, Set<MavenProject>> dependents = new HashMap<>();
+    /** The projects managing the version of a dependency, by key of the dependency. */
+    private final Map<String, Set<MavenProject>> managers = new HashMap<>();
+
+    private ReactorDependencyIndex() {
+    }
+
+    /**
+     * Get the index of all the projects of the given session, built on first use.
+     * @param session The Maven session.
+     * @return The index of the session.
+     * @throws MojoExecutionException If a POM file of a module can't be read.
+     */
+    public static ReactorDependencyIndex forSession(final MavenSession session) throws MojoExecutionException {
+        synchronized (SESSION_INDEXES) {
+            ReactorDependencyIndex index = SESSION_INDEXES.get(session);
+            if (index == null) {
+                index = build(ReactorLoader.getAllProjects(session));
+                SESSION_INDEXES.put(session, index);
+            }
+            return index;
+        }
+    }
+
+    /**
+     * Build the index of the given projects.
+     * @param allProjects The projects of the reactor.
+     * @return The index.
+     */
+    public static ReactorDependencyIndex build(final Collection<MavenProject> allProjects) {
+        ReactorDependencyIndex index = new ReactorDependencyIndex();
+        for (MavenProject project : allProjects) {
+            index.projects.putIfAbsent(getKey(project.getGroupId(), project.getArtifactId()), project);
+            for (Dependency dependency : project.getDependencies()) {
+                index.dependents.computeIfAbsent(getKey(dependency.getGroupId(), dependency.getArtifactId()),
+                        k -> new LinkedHashSet<>()).add(project);
+            }
+            // The managed versions are the ones written in the POM file, their coordinates may be expressions
+            Model model = project.getOriginalModel() != null ? project.getOriginalModel() : project.getModel();
+            if (model.getDependencyManagement() != null) {
+                for (Dependency dependency : model.getDependencyManagement().getDependencies()) {
+                    String key = getKey(ReactorLoader.interpolate(dependency.getGroupId(), project.getModel()),
+                            ReactorLoader.interpolate(dependency.getArtifactId(), project.getModel()));
+                    index.managers.computeIfAbsent(key, k -> new LinkedHashSet<>()).add(project);
+                }
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Build the interned key of an artifact.
+     * @param groupId The group id.
+     * @param artifactId The artifact id.
+     * @return groupId:artifactId
+     */
+    public static String getKey(final String groupId, final String artifactId) {
+        return (groupId + Constants.ID_SEPARATOR + artifactId).intern();
+    }
+
+    /**
+     * @param key The key of the project.
+     * @return The project of the reactor, null if it is not in the reactor.
+     */
+    public MavenProject getProject(final String key) {
+        return projects.get(key);
+    }
+
+    /**
+     * @return The projects of the reactor, by key.
+     */
+    public Map<String, MavenProject> getProjects() {
+        return Collections.unmodifiableMap(projects);
+    }
+
+    /**
+     * @param key The key of the artifact.
+     * @return The projects declaring a dependency on the artifact, in the reactor order.
+     */
+    public List<MavenProject> getDependents(final String key) {
+        Set<MavenProject> result = dependents.get(key);
+        return result == null ? Collections.emptyList() : new ArrayList<>(result);
+    }
+
+    /**
+     * @param key The key of the artifact.
+     * @return The projects depending directly or indirectly on the artifact, the nearest first.
+     */
+    public Set<MavenProject> getTransitiveDependents(final String key) {
+        Set<MavenProject> result = new LinkedHashSet<>();
+        Deque<String> keys = new ArrayDeque<>();
+        keys.add(key);
+        while (!keys.isEmpty()) {
+            Set<MavenProject> direct = dependents.get(keys.poll());
+            if (direct != null) {
+                for (MavenProject dependent : direct) {
+                    if (result.add(dependent)) {
+                        keys.add(getKey(dependent.getGroupId(), dependent.getArtifactId()));
+                    }
+                }
+            }
+        }
+        result.remove(projects.get(key));
+        return result;
+    }
+
+    /**
+     * Sort the projects depending directly or indirectly on an artifact in topological levels (Kahn's algorithm):
+     * the projects of a level only depend on the artifact, on projects of the previous levels or on projects out of
+     * the dependents, so the projects of a level are independent from each other. The projects of a dependency cycle
+     * are in the last level.
+     * @param key The key of the artifact.
+     * @return The levels of dependents, the nearest first.
+     */
+    public List<List<MavenProject>> getDependentLevels(final String key) {
+        Set<MavenProject> closure = getTransitiveDependents(key);
+        // Count the dependencies of each dependent among the other dependents
+        Map<MavenProject, Integer> inDegrees = new HashMap<>();
+        List<MavenProject> level = new ArrayList<>();
+        for (MavenProject dependent : closure) {
+            Set<MavenProject> dependencies = new HashSet<>();
+            for (Dependency dependency : dependent.getDependencies()) {
+                MavenProject project = projects.get(getKey(dependency.getGroupId(), dependency.getArtifactId()));
+                if (project != null && project != dependent && closure.contains(project)) {
+                    dependencies.add(project);
+                }
+            }
+            inDegrees.put(dependent, dependencies.size());
+            if (dependencies.isEmpty()) {
+                level.add(dependent);
+            }
+        }
+        List<List<MavenProject>> levels = new ArrayList<>();
+        int sorted = 0;
+        while (!level.isEmpty()) {
+            levels.add(level);
+            sorted += level.size();
+            List<MavenProject> nextLevel = new ArrayList<>();
+            for (MavenProject project : level) {
+                Set<MavenProject> direct = dependents.get(getKey(project.getGroupId(), project.getArtifactId()));
+                if (direct != null) {
+                    for (MavenProject dependent : direct) {
+                        if (dependent != project && closure.contains(dependent)
+                                && inDegrees.merge(dependent, -1, Integer::sum) == 0) {
+                            nextLevel.add(dependent);
+                        }
+                    }
+                }
+            }
+            level = nextLevel;
+        }
+        if (sorted < closure.size()) {
+            List<MavenProject> cycle = new ArrayList<>();
+            for (MavenProject dependent : closure) {
+                if (inDegrees.get(dependent) > 0) {
+                    cycle.add(dependent);
+                }
+            }
+            levels.add(cycle);
+        }
+        return levels;
+    }
+
+    /**
+     * @param key The key of the artifact.
+     * @return The projects managing the version of the artifact in their POM file, in the reactor order.
+     */
+    public List<MavenProject> getManagers(final String key) {
+        Set<MavenProject> result = managers.get(key);
+        return result == null ? Collections.emptyList() : new ArrayList<>(result);
+    }
+
+}
@@ -0,0 +1,228 @@
+package com.sp.maven.utils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.model.Dependency;
+import org.apache.maven.model.Model;
+import org.apache.maven.model.Parent;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.project.MavenProject;
+
+/**
+ * Lightweight loader of the modules of a reactor, for the goals which only edit versions.
+ * In a non recursive build (mvn -N), Maven only builds the root project: the modules are discovered from the
+ * modules sections, level by level, and their raw models are read in parallel. The groupId and the version inherited
+ * from the parent element are resolved, as well as the project, parent and own properties expressions of the
+ * dependency coordinates: there is no other interpolation, no inheritance and no dependency resolution. In a
+ * recursive build, the projects built by Maven are used as is.
+ * The modules are listed in the discovery order, each parent before its modules, and loaded once per session.
+ *
+ * 2026-10-18 21:35:48
+ */
+public final class ReactorLoader {
+
+    /** The serial version unique id. */
+    private static final long serialVersionUID = 20261018213548L;
+    /** The name of the POM file of a module directory. */
+    private static final String POM_FILE = "pom.xml";                                                         // NOI18N
+    /** The start of an expression. */
+    private static final String EXPRESSION_START = "${";                                                      // NOI18N
+    /** The end of an expression. */
+    private static final String EXPRESSION_END = "}";                                                         // NOI18N
+    /** The projects loaded for each running session. */
+    private static final Map<MavenSession, List<MavenProject>> SESSION_PROJECTS =
+            Collections.synchronizedMap(new WeakHashMap<>());
+
+    /**
+     * Constructor.
+     */
+    private ReactorLoader() {
+    }
+
+    /**
+     * Get the projects selected in the given session.
+     * @param session The Maven session.
+     * @return The projects of the reactor, or the loaded modules of the root project in a non recursive build.
+     * @throws MojoExecutionException If a POM file of a module can't be read.
+     */
+    public static List<MavenProject> getProjects(final MavenSession session) throws MojoExecutionException {
+        return session.getRequest().isRecursive() ? session.getProjects() : forSession(session);
+    }
+
+    /**
+     * Get all the projects of the given session.
+     * @param session The Maven session.
+     * @return All the projects of the reactor, or the loaded modules of the root project in a non recursive build.
+     * @throws MojoExecutionException If a POM file of a module can't be read.
+     */
+    public static List<MavenProject> getAllProjects(final MavenSession session) throws MojoExecutionException {
+        return session.getRequest().isRecursive() ? session.getAllProjects() : forSession(session);
+    }
+
+    private static List<MavenProject> forSession(final MavenSession session) throws MojoExecutionException {
+        synchronized (SESSION_PROJECTS) {
+            List<MavenProject> projects = SESSION_PROJECTS.get(session);
+            if (projects == null) {
+                projects = Collections.unmodifiableList(load(session.getTopLevelProject()));
+                SESSION_PROJECTS.put(session, projects);
+            }
+            return projects;
+        }
+    }
+
+    /**
+     * Load the modules of the given root project, recursively.
+     * @param root The root project.
+     * @return The root project and its modules.
+     * @throws MojoExecutionException If a POM file can't be read.
+     */
+    public static List<MavenProject> load(final MavenProject root) throws MojoExecutionException {
+        List<MavenProject> projects = new ArrayList<>();
+        projects.add(root);
+        Set<Path> visited = new HashSet<>();
+        visited.add(root.getFile().toPath().toAbsolutePath().normalize());
+        List<MavenProject> level = projects;
+        while (!level.isEmpty()) {
+            // The modules of a level are read concurrently
+            List<Path> pomFiles = new ArrayList<>();
+            for (MavenProject project : level) {
+                Path basedir = project.getFile().toPath().toAbsolutePath().getParent();
+                for (String module : project.getOriginalModel().getModules()) {
+                    Path pomFile = getPomFile(basedir.resolve(module));
+                    if (visited.add(pomFile)) {
+                        pomFiles.add(pomFile);
+                    }
+                }
+            }
+            Map<Path, Exception> failures = new ConcurrentHashMap<>();
+            level = pomFiles.parallelStream()
+                    .map(pomFile -> {
+                        try {
+                            return createProject(pomFile, Helper.loadMavenModel(pomFile));
+                        } catch (Exception e) {
+                            failures.put(pomFile, e);
+                            return null;
+                        }
+                    })
+                    .collect(Collectors.toList());
+            if (!failures.isEmpty()) {
+                Map.Entry<Path, Exception> failure = failures.entrySet().iterator().next();
+                throw new MojoExecutionException("An error occurred loading the module " + failure.getKey()
+                        + " : " + failure.getValue().getMessage(), failure.getValue());                        // NOI18N
+            }
+            projects.addAll(level);
+        }
+        return projects;
+    }
+
+    /**
+     * Create a project from the raw model of a POM file.
+     * @param pomFile The POM file.
+     * @param model The raw model, used as original model of the project.
+     * @return The project, with the groupId and the version of the parent element when they are inherited, and the
+     *     expressions of the dependency coordinates resolved.
+     * @throws MojoExecutionException If the groupId or the artifactId of a dependency can't be resolved.
+     */
+    static MavenProject createProject(final Path pomFile, final Model model) throws MojoExecutionException {
+        Model resolved = model.clone();
+        Parent parent = model.getParent();
+        if (parent != null) {
+            if (resolved.getGroupId() == null) {
+                resolved.setGroupId(parent.getGroupId());
+            }
+            if (resolved.getVersion() == null) {
+                resolved.setVersion(parent.getVersion());
+            }
+        }
+        resolveCoordinates(pomFile, resolved, resolved.getDependencies());
+        if (resolved.getDependencyManagement() != null) {
+            resolveCoordinates(pomFile, resolved, resolved.getDependencyManagement().getDependencies());
+        }
+        MavenProject project = new MavenProject(resolved);
+        project.setOriginalModel(model);
+        project.setFile(pomFile.toFile());
+        return project;
+    }
+
+    /**
+     * Resolve the project, parent and property expressions of the given value, the other expressions are kept.
+     * @param value The value, null if undefined.
+     * @param model The model defining the expressions, with its inherited groupId and version.
+     * @return The resolved value.
+     */
+    static String interpolate(final String value, final Model model) {
+        if (value == null || !value.contains(EXPRESSION_START)) {
+            return value;
+        }
+        StringBuilder result = new StringBuilder(value.length());
+        int position = 0;
+        int start;
+        while ((start = value.indexOf(EXPRESSION_START, position)) >= 0) {
+            int end = value.indexOf(EXPRESSION_END, start);
+            if (end < 0) {
+                break;
+            }
+            String resolved = getExpressionValue(value.substring(start + EXPRESSION_START.length(), end), model);
+            result.append(value, position, start).append(resolved != null ? resolved : value.substring(start, end + 1));
+            position = end + 1;
+        }
+        return result.append(value, position, value.length()).toString();
+    }
+
+    private static String getExpressionValue(final String expression, final Model model) {
+        Parent parent = model.getParent();
+        switch (expression) {
+            case "project.groupId" :                                                                          // NOI18N
+            case "pom.groupId" :                                                                              // NOI18N
+                return model.getGroupId();
+            case "project.artifactId" :                                                                       // NOI18N
+            case "pom.artifactId" :                                                                           // NOI18N
+                return model.getArtifactId();
+            case "project.version" :                                                                          // NOI18N
+            case "pom.version" :                                                                              // NOI18N
+                return model.getVersion();
+            case "project.parent.groupId" :                                                                   // NOI18N
+                return parent == null ? null : parent.getGroupId();
+            case "project.parent.artifactId" :                                                                // NOI18N
+                return parent == null ? null : parent.getArtifactId();
+            case "project.parent.version" :                                                                   // NOI18N
+                return parent == null ? null : parent.getVersion();
+            default :
+                return model.getProperties().getProperty(expression);
+        }
+    }
+
+    private static void resolveCoordinates(final Path pomFile, final Model model, final List<Dependency> dependencies)
+            throws MojoExecutionException {
+        for (Dependency dependency : dependencies) {
+            dependency.setGroupId(interpolate(dependency.getGroupId(), model));
+            dependency.setArtifactId(interpolate(dependency.getArtifactId(), model));
+            dependency.setVersion(interpolate(dependency.getVersion(), model));
+            // The keys of the dependency index can't be computed from an unresolved groupId or artifactId
+            if (isUnresolved(dependency.getGroupId()) || isUnresolved(dependency.getArtifactId())) {
+                throw new MojoExecutionException("The dependency " + dependency.getManagementKey() + " of "
+                        + pomFile + " can't be resolved without building the reactor");                       // NOI18N
+            }
+        }
+    }
+
+    private static boolean isUnresolved(final String value) {
+        return value != null && value.contains(EXPRESSION_START);
+    }
+
+    private static Path getPomFile(final Path module) {
+        Path path = module.normalize();
+        return Files.isDirectory(path) ? path.resolve(POM_FILE) : path;
+    }
+
+}
@@ -0,0 +1,570 @@
+package com.sp.maven.utils;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.model.Dependency;
+import org.apache.maven.model.Model;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.logging.Log;
+
+/**
+ * The changes of the POM files computed by a goal, written in a JSON file instead of the POM files.
+ * For each POM file, the plan holds the SHA-256 digest of its content and either the version edits (project version,
+ * parent version and versions of the managed dependencies, with their previous value) or the whole new content when
+ * the file can't be edited in place. The plan is applied by the goal apply-plan, without building the reactor: the
+ * digest ensures that the POM files didn't change since the plan was computed.
+ * The POM files are stored relative to the execution root directory, so that the plan can be applied on another
+ * checkout of the reactor.
+ * One plan per file is shared by all the executions of a build, including the modules built in parallel, and the
+ * file is rewritten each time a POM file is planned.
+ *
+ * 2026-10-18 20:15:09
+ */
+public final class ReleasePlan {
+
+    /** The serial version unique id. */
+    private static final long serialVersionUID = 20261018201509L;
+    /** The element of the project version. */
+    public static final String PROJECT_VERSION = "project/version";
+    /** The element of the parent version. */
+    public static final String PARENT_VERSION = "project/parent/version";
+    /** The element of the versions of the managed dependencies. */
+    public static final String MANAGED_VERSION = "project/dependencyManagement/dependencies/dependency/version";
+    /** The digest algorithm. */
+    private static final String DIGEST_ALGORITHM = "SHA-256";
+    /** The hexadecimal digits. */
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+    /** The plans of the last build, by plan file. */
+    private static final Map<Path, ReleasePlan> PLANS = new ConcurrentHashMap<>();
+
+    /** The plan file. */
+    private final Path file;
+    /** The directory the POM files are relative to. */
+    private final Path rootDirectory;
+    /** The start time of the build computing the plan, may be null. */
+    private final Date buildStartTime;
+    /** The planned changes, by POM file. */
+    private final Map<Path, PomChange> changes = new LinkedHashMap<>();
+
+    /**
+     * Constructor.
+     * @param file The plan file.
+     * @param rootDirectory The directory the POM files are relative to, usually the execution root directory.
+     */
+    public ReleasePlan(final Path file, final Path rootDirectory) {
+        this(file, rootDirectory, null);
+    }
+
+    private ReleasePlan(final Path file, final Path rootDirectory, final Date buildStartTime) {
+        this.file = file;
+        this.rootDirectory = rootDirectory.toAbsolutePath().normalize();
+        this.buildStartTime = buildStartTime;
+    }
+
+    /**
+     * Get the plan of the build of the given session written in the given file, created empty on first use.
+     * The sessions of the modules built in parallel are copies sharing the request of the build, so the plan is
+     * kept by file and replaced once a new build starts.
+     * @param session The Maven session.
+     * @param file The plan file.
+     * @return The plan of the build.
+     */
+    public static ReleasePlan forSession(final MavenSession session, final Path file) {
+        Path rootDirectory = Paths.get(session.getExecutionRootDirectory());
+        Date startTime = session.getRequest().getStartTime();
+        return PLANS.compute(file.toAbsolutePath().normalize(), (f, plan) ->
+                plan != null && Objects.equals(plan.buildStartTime, startTime)
+                        ? plan : new ReleasePlan(f, rootDirectory, startTime));
+    }
+
+    /**
+     * Plan the versions of the given model, see {@link Helper#savePomVersions}.
+     * Planning a POM file again replaces its changes.
+     * @param pomFile The POM file.
+     * @param mavenModel The Maven Model to apply, only its versions differ from the pom.xml.
+     * @param logger The logger to use for messages.
+     * @throws MojoExecutionException If the POM file can't be read.
+     */
+    public synchronized void addVersions(final Path pomFile, final Model mavenModel, final Log logger)
+            throws MojoExecutionException {
+        Path absolutePath = pomFile.toAbsolutePath().normalize();
+        byte[] content = readContent(absolutePath);
+        PomEditor editor = content == null ? null : PomEditor.parse(content);
+        List<VersionEdit> edits = editor == null ? null : getEdits(editor, mavenModel);
+        if (edits == null) {
+            logger.debug("The versions of " + absolutePath + " can't be edited in place");                    // NOI18N
+            add(absolutePath, content, Helper.writeMavenModel(absolutePath, mavenModel));
+        } else if (edits.isEmpty()) {
+            changes.remove(absolutePath);
+        } else {
+            changes.put(absolutePath, new PomChange(absolutePath, digest(content), edits, null));
+        }
+    }
+
+    /**
+     * Plan the whole given model, see {@link Helper#savePomFile}.
+     * Planning a POM file again replaces its changes.
+     * @param pomFile The POM file.
+     * @param mavenModel The Maven Model to write.
+     * @throws MojoExecutionException If the POM file can't be read.
+     */
+    public synchronized void addModel(final Path pomFile, final Model mavenModel) throws MojoExecutionException {
+        Path absolutePath = pomFile.toAbsolutePath().normalize();
+        add(absolutePath, readContent(absolutePath), Helper.writeMavenModel(absolutePath, mavenModel));
+    }
+
+    /**
+     * @return The number of POM files changed by the plan.
+     */
+    public synchronized int size() {
+        return changes.size();
+    }
+
+    /**
+     * Write the plan file.
+     * @throws MojoExecutionException If the file can't be written.
+     */
+    public synchronized void write() throws MojoExecutionException {
+        StringBuilder json = new StringBuilder(256 * (changes.size() + 1));
+        json.append("{\n  \"poms\": [");
+        boolean firstChange = true;
+        for (PomChange change : changes.values()) {
+            json.append(firstChange ? "\n    {" : ",\n    {");
+            firstChange = false;
+            json.append("\n      \"pom\": ");
+            appendString(json, rootDirectory.relativize(change.pomFile).toString().replace(File.separatorChar, '/'));
+            json.append(",\n      \"sha256\": ");
+            appendString(json, change.digest);
+            if (change.content != null) {
+                json.append(",\n      \"content\": ");
+                appendString(json, change.content);
+            } else {
+                json.append(",\n      \"edits\": [");
+                boolean firstEdit = true;
+                for (VersionEdit edit : change.edits) {
+                    json.append(firstEdit ? "\n        {" : ",\n        {");
+                    firstEdit = false;
+                    json.append("\"element\": ");
+                    appendString(json, edit.element);
+                    if (edit.key != null) {
+                        json.append(", \"key\": ");
+                        appendString(json, edit.key);
+                    }
+                    json.append(", \"from\": ");
+                    appendString(json, edit.from);
+                    json.append(", \"to\": ");
+                    appendString(json, edit.to);
+                    json.append("}");
+                }
+                json.append("\n      ]");
+            }
+            json.append("\n    }");
+        }
+        json.append(firstChange ? "]\n}\n" : "\n  ]\n}\n");
+        try {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            Helper.writeAtomically(file, json.toString().getBytes(StandardCharsets.UTF_8));
+        } catch (IOException ex) {
+            throw new MojoExecutionException("An error occurred writing the plan " + file, ex);               // NOI18N
+        }
+    }
+
+    /**
+     * Read a plan file.
+     * @param file The plan file.
+     * @param rootDirectory The directory the POM files are relative to, usually the execution root directory.
+     * @return The plan.
+     * @throws MojoExecutionException If the file can't be read or is not a plan.
+     */
+    @SuppressWarnings("unchecked")
+    public static ReleasePlan read(final Path file, final Path rootDirectory) throws MojoExecutionException {
+        ReleasePlan plan = new ReleasePlan(file, rootDirectory);
+        try {
+            String json = new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+            Map<String, Object> root = (Map<String, Object>) new JsonParser(json).parse();
+            for (Object pom : (List<Object>) root.get("poms")) {
+                Map<String, Object> change = (Map<String, Object>) pom;
+                Path pomFile = plan.rootDirectory.resolve((String) change.get("pom")).normalize();
+                List<VersionEdit> edits = null;
+                if (change.get("edits") != null) {
+                    edits = new ArrayList<>();
+                    for (Object item : (List<Object>) change.get("edits")) {
+                        Map<String, Object> edit = (Map<String, Object>) item;
+                        edits.add(new VersionEdit((String) edit.get("element"), (String) edit.get("key"),
+                                (String) edit.get("from"), (String) edit.get("to")));
+                    }
+                }
+                plan.changes.put(pomFile, new PomChange(pomFile, (String) change.get("sha256"), edits,
+                        (String) change.get("content")));
+            }
+        } catch (IOException ex) {
+            throw new MojoExecutionException("An error occurred reading the plan " + file, ex);               // NOI18N
+        } catch (ClassCastException | NullPointerException | IllegalArgumentException ex) {
+            throw new MojoExecutionException("The file " + file + " is not a valid plan", ex);               // NOI18N
+        }
+        return plan;
+    }
+
+    /**
+     * Stage all the planned changes in the given transaction. The transaction fails if a POM file changed since
+     * the plan was computed.
+     * @param transaction The transaction.
+     */
+    public synchronized void stage(final PomTransaction transaction) {
+        for (PomChange change : changes.values()) {
+            transaction.stage(change.pomFile, change::apply);
+        }
+    }
+
+    private void add(final Path pomFile, final byte[] content, final byte[] newContent) {
+        if (Objects.equals(digest(content), digest(newContent))) {
+            changes.remove(pomFile);
+        } else {
+            changes.put(pomFile, new PomChange(pomFile, digest(content), null,
+                    new String(newContent, StandardCharsets.UTF_8)));
+        }
+    }
+
+    private static List<VersionEdit> getEdits(final PomEditor editor, final Model mavenModel) {
+        List<VersionEdit> edits = new ArrayList<>();
+        String version = mavenModel.getVersion();
+        String previousVersion = editor.getProjectVersion();
+        if (!Objects.equals(version, previousVersion)) {
+            if (!editor.setProjectVersion(version)) {
+                return null;
+            }
+            edits.add(new VersionEdit(PROJECT_VERSION, null, previousVersion, version));
+        }
+        String parentVersion = mavenModel.getParent() == null ? null : mavenModel.getParent().getVersion();
+        String previousParentVersion = editor.getParentVersion();
+        if (!Objects.equals(parentVersion, previousParentVersion)) {
+            if (!editor.setParentVersion(parentVersion)) {
+                return null;
+            }
+            edits.add(new VersionEdit(PARENT_VERSION, null, previousParentVersion, parentVersion));
+        }
+        if (mavenModel.getDependencyManagement() != null) {
+            for (Dependency dependency : mavenModel.getDependencyManagement().getDependencies()) {
+                String key = PomEditor.getManagementKey(dependency.getGroupId(), dependency.getArtifactId(),
+                        dependency.getType(), dependency.getClassifier());
+                String previousManagedVersion = editor.getManagedVersion(key);
+                if (!Objects.equals(dependency.getVersion(), previousManagedVersion)) {
+                    if (!editor.setManagedVersion(key, dependency.getVersion())) {
+                        return null;
+                    }
+                    edits.add(new VersionEdit(MANAGED_VERSION, key, previousManagedVersion, dependency.getVersion()));
+                }
+            }
+        }
+        return edits;
+    }
+
+    private static byte[] readContent(final Path pomFile) throws MojoExecutionException {
+        try {
+            return Files.exists(pomFile) ? Files.readAllBytes(pomFile) : null;
+        } catch (IOException ex) {
+            throw new MojoExecutionException("An error occurred reading " + pomFile, ex);                     // NOI18N
+        }
+    }
+
+    private static String digest(final byte[] content) {
+        if (content == null) {
+            return null;
+        }
+        byte[] hash;
+        try {
+            hash = MessageDigest.getInstance(DIGEST_ALGORITHM).digest(content);
+        } catch (NoSuchAlgorithmException ex) {
+            // Every Java platform supports SHA-256
+            throw new IllegalStateException(ex);
+        }
+        char[] hex = new char[hash.length * 2];
+        for (int i = 0; i < hash.length; i++) {
+            hex[2 * i] = HEX_DIGITS[(hash[i] >> 4) & 0xF];
+            hex[2 * i + 1] = HEX_DIGITS[hash[i] & 0xF];
+        }
+        return new String(hex);
+    }
+
+    private static void appendString(final StringBuilder json, final String value) {
+        if (value == null) {
+            json.append("null");
+            return;
+        }
+        json.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' :
+                    json.append("\\\"");
+                    break;
+                case '\\' :
+                    json.append("\\\\");
+                    break;
+                case '\n' :
+                    json.append("\\n");
+                    break;
+                case '\r' :
+                    json.append("\\r");
+                    break;
+                case '\t' :
+                    json.append("\\t");
+                    break;
+                default :
+                    if (c < 0x20) {
+                        json.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        json.append(c);
+                    }
+                    break;
+            }
+        }
+        json.append('"');
+    }
+
+    /**
+     * The planned change of a POM file.
+     */
+    private static final class PomChange {
+
+        /** The POM file. */
+        private final Path pomFile;
+        /** The digest of the content of the POM file, null if it doesn't exist. */
+        private final String digest;
+        /** The version edits, null if the whole content is replaced. */
+        private final List<VersionEdit> edits;
+        /** The new content, null if the versions are edited in place. */
+        private final String content;
+
+        private PomChange(final Path pomFile, final String digest, final List<VersionEdit> edits,
+                final String content) {
+            this.pomFile = pomFile;
+            this.digest = digest;
+            this.edits = edits;
+            this.content = content;
+        }
+
+        private byte[] apply(final Path file, final byte[] currentContent) throws MojoExecutionException {
+            if (!Objects.equals(digest, digest(currentContent))) {
+                throw new MojoExecutionException("The POM file " + file
+                        + " changed since the plan was computed");                                            // NOI18N
+            }
+            if (content != null) {
+                return content.getBytes(StandardCharsets.UTF_8);
+            }
+            PomEditor editor = PomEditor.parse(currentContent);
+            for (VersionEdit edit : edits) {
+                boolean applied;
+                switch (edit.element) {
+                    case PROJECT_VERSION :
+                        applied = editor != null && editor.setProjectVersion(edit.to);
+                        break;
+                    case PARENT_VERSION :
+                        applied = editor != null && editor.setParentVersion(edit.to);
+                        break;
+                    case MANAGED_VERSION :
+                        applied = editor != null && editor.setManagedVersion(edit.key, edit.to);
+                        break;
+                    default :
+                        applied = false;
+                        break;
+                }
+                if (!applied) {
+                    throw new MojoExecutionException("The element " + edit.element + " of " + file
+                            + " can't be edited");                                                            // NOI18N
+                }
+            }
+            return editor.toByteArray();
+        }
+
+    }
+
+    /**
+     * A version edit.
+     */
+    private static final class VersionEdit {
+
+        /** The edited element. */
+        private final String element;
+        /** The management key of the dependency, null for the project and parent versions. */
+        private final String key;
+        /** The previous value. */
+        private final String from;
+        /** The new value. */
+        private final String to;
+
+        private VersionEdit(final String element, final String key, final String from, final String to) {
+            this.element = element;
+            this.key = key;
+            this.from = from;
+            this.to = to;
+        }
+
+    }
+
+    /**
+     * Minimal JSON parser, reading the plan files: objects, arrays, strings, literals.
+     */
+    private static final class JsonParser {
+
+        /** The JSON text. */
+        private final String json;
+        /** The position of the next character. */
+        private int position;
+
+        private JsonParser(final String json) {
+            this.json = json;
+        }
+
+        private Object parse() {
+            Object value = readValue();
+            skipWhitespaces();
+            if (position != json.length()) {
+                throw error();
+            }
+            return value;
+        }
+
+        private Object readValue() {
+            skipWhitespaces();
+            if (position >= json.length()) {
+                throw error();
+            }
+            char c = json.charAt(position);
+            if (c == '{') {
+                position++;
+                Map<String, Object> object = new LinkedHashMap<>();
+                skipWhitespaces();
+                if (peek() == '}') {
+                    position++;
+                    return object;
+                }
+                do {
+                    skipWhitespaces();
+                    String name = readString();
+                    skipWhitespaces();
+                    expect(':');
+                    object.put(name, readValue());
+                    skipWhitespaces();
+                } while (next() == ',');
+                position--;
+                expect('}');
+                return object;
+            } else if (c == '[') {
+                position++;
+                List<Object> array = new ArrayList<>();
+                skipWhitespaces();
+                if (peek() == ']') {
+                    position++;
+                    return array;
+                }
+                do {
+                    array.add(readValue());
+                    skipWhitespaces();
+                } while (next() == ',');
+                position--;
+                expect(']');
+                return array;
+            } else if (c == '"') {
+                return readString();
+            } else if (json.startsWith("null", position)) {
+                position += 4;
+                return null;
+            } else if (json.startsWith("true", position)) {
+                position += 4;
+                return Boolean.TRUE;
+            } else if (json.startsWith("false", position)) {
+                position += 5;
+                return Boolean.FALSE;
+            }
+            throw error();
+        }
+
+        private String readString() {
+            expect('"');
+            StringBuilder value = new StringBuilder();
+            while (true) {
+                char c = next();
+                if (c == '"') {
+                    return value.toString();
+                } else if (c == '\\') {
+                    char escaped = next();
+                    switch (escaped) {
+                        case 'n' :
+                            value.append('\n');
+                            break;
+                        case 'r' :
+                            value.append('\r');
+                            break;
+                        case 't' :
+                            value.append('\t');
+                            break;
+                        case 'b' :
+                            value.append('\b');
+                            break;
+                        case 'f' :
+                            value.append('\f');
+                            break;
+                        case 'u' :
+                            if (position + 4 > json.length()) {
+                                throw error();
+                            }
+                            value.append((char) Integer.parseInt(json.substring(position, position + 4), 16));
+                            position += 4;
+                            break;
+                        default :
+                            value.append(escaped);
+                            break;
+                    }
+                } else {
+                    value.append(c);
+                }
+            }
+        }
+
+        private void skipWhitespaces() {
+            while (position < json.length() && Character.isWhitespace(json.charAt(position))) {
+                position++;
+            }
+        }
+
+        private char peek() {
+            if (position >= json.length()) {
+                throw error();
+            }
+            return json.charAt(position);
+        }
+
+        private char next() {
+            char c = peek();
+            position++;
+            return c;
+        }
+
+        private void expect(final char expected) {
+            if (next() != expected) {
+                throw error();
+            }
+        }
+
+        private IllegalArgumentException error() {
+            return new IllegalArgumentException("Unexpected JSON at position " + position);                   // NOI18N
+        }
+
+    }
+
+}
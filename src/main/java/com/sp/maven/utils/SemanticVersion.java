@@ -0,0 +1,248 @@
+package com.sp.maven.utils;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A major.minor.micro version with an optional qualifier, parsed by hand and cached by distinct version string.
+ * The parsing follows the one of DefaultArtifactVersion: one to three numbers separated by dots, optionally followed
+ * by a dash and a qualifier. Any other version is kept as a qualifier only, with 0.0.0 numbers. Unlike
+ * DefaultArtifactVersion, the qualifier is never lost: the bumps keep or drop it according to a {@link QualifierPolicy}
+ * and a parsed version is always written back as it was read.
+ *
+ * 2026-10-18 21:02:44
+ */
+public final class SemanticVersion implements Comparable<SemanticVersion> {
+
+    /** The serial version unique id. */
+    private static final long serialVersionUID = 20261018210244L;
+    /** The parsed versions, by version string. */
+    private static final Map<String, SemanticVersion> CACHE = new ConcurrentHashMap<>();
+    /** The qualifier of the snapshot versions. */
+    private static final String SNAPSHOT = Constants.SNAPSHOT.substring(1);
+
+    /** The major version. */
+    private final int major;
+    /** The minor version. */
+    private final int minor;
+    /** The micro version. */
+    private final int micro;
+    /** The number of version numbers written, 0 if the version is not parsable. */
+    private final int components;
+    /** The interned qualifier, null if none. */
+    private final String qualifier;
+    /** The version string. */
+    private final String text;
+
+    private SemanticVersion(final int major, final int minor, final int micro, final int components,
+            final String qualifier, final String text) {
+        this.major = major;
+        this.minor = minor;
+        this.micro = micro;
+        this.components = components;
+        this.qualifier = qualifier;
+        this.text = text != null ? text : format();
+    }
+
+    /**
+     * Parse the given version, each distinct version string is parsed once.
+     * @param version The version.
+     * @return The parsed version.
+     */
+    public static SemanticVersion parse(final String version) {
+        SemanticVersion parsed = CACHE.get(version);
+        if (parsed == null) {
+            parsed = CACHE.computeIfAbsent(version, SemanticVersion::doParse);
+        }
+        return parsed;
+    }
+
+    private static SemanticVersion doParse(final String version) {
+        int[] numbers = new int[3];
+        int components = 0;
+        int length = version.length();
+        int i = 0;
+        while (components < numbers.length) {
+            int start = i;
+            long number = 0;
+            while (i < length && version.charAt(i) >= '0' && version.charAt(i) <= '9' && number <= Integer.MAX_VALUE) {
+                number = number * 10 + version.charAt(i++) - '0';
+            }
+            if (i == start || number > Integer.MAX_VALUE) {
+                return unparsable(version);
+            }
+            numbers[components++] = (int) number;
+            if (i == length || version.charAt(i) != '.') {
+                break;
+            }
+            i++;
+        }
+        String qualifier = null;
+        if (i < length) {
+            if (version.charAt(i) != '-' || i + 1 == length) {
+                return unparsable(version);
+            }
+            qualifier = version.substring(i + 1).intern();
+        }
+        return new SemanticVersion(numbers[0], numbers[1], numbers[2], components, qualifier, version);
+    }
+
+    private static SemanticVersion unparsable(final String version) {
+        return new SemanticVersion(0, 0, 0, 0, version.intern(), version);
+    }
+
+    /**
+     * @return The major version.
+     */
+    public int getMajor() {
+        return major;
+    }
+
+    /**
+     * @return The minor version.
+     */
+    public int getMinor() {
+        return minor;
+    }
+
+    /**
+     * @return The micro version.
+     */
+    public int getMicro() {
+        return micro;
+    }
+
+    /**
+     * @return The qualifier, null if none.
+     */
+    public String getQualifier() {
+        return qualifier;
+    }
+
+    /**
+     * @return true if the qualifier is SNAPSHOT or ends with -SNAPSHOT.
+     */
+    public boolean isSnapshot() {
+        return qualifier != null && text.length() > Constants.SNAPSHOT.length()
+                && (qualifier.equals(SNAPSHOT) || text.endsWith(Constants.SNAPSHOT));
+    }
+
+    /**
+     * Bump the version according to the given change type.
+     * @param changeType The change type, NONE gives the same version.
+     * @param policy What to do with the qualifier.
+     * @return The next version.
+     */
+    public SemanticVersion bump(final ChangeType changeType, final QualifierPolicy policy) {
+        String nextQualifier;
+        switch (policy) {
+            case KEEP : nextQualifier = qualifier; break;
+            case RELEASE : nextQualifier = getReleaseQualifier(); break;
+            default : nextQualifier = null; break;
+        }
+        switch (changeType) {
+            case MAJOR : return new SemanticVersion(major + 1, 0, 0, 3, nextQualifier, null);
+            case MINOR : return new SemanticVersion(major, minor + 1, 0, 3, nextQualifier, null);
+            case MICRO : return new SemanticVersion(major, minor, micro + 1, 3, nextQualifier, null);
+            default : return this;
+        }
+    }
+
+    /**
+     * @return The same version with a SNAPSHOT qualifier suffix.
+     */
+    public SemanticVersion toSnapshot() {
+        if (isSnapshot()) {
+            return this;
+        }
+        return parse(text + Constants.SNAPSHOT);
+    }
+
+    /**
+     * @return The same version without SNAPSHOT qualifier suffix.
+     */
+    public SemanticVersion toRelease() {
+        if (!isSnapshot()) {
+            return this;
+        }
+        return parse(text.substring(0, text.length() - Constants.SNAPSHOT.length()));
+    }
+
+    /**
+     * @return The version numbers as written, without qualifier.
+     */
+    public String getNumbers() {
+        if (qualifier == null) {
+            return text;
+        }
+        return components == 0 ? "" : text.substring(0, text.length() - qualifier.length() - 1);
+    }
+
+    private String getReleaseQualifier() {
+        if (!isSnapshot()) {
+            return qualifier;
+        }
+        int length = qualifier.length() - SNAPSHOT.length() - 1;
+        return length > 0 ? qualifier.substring(0, length).intern() : null;
+    }
+
+    private String format() {
+        StringBuilder sb = new StringBuilder(16).append(major).append('.').append(minor).append('.').append(micro);
+        if (qualifier != null) {
+            sb.append('-').append(qualifier);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Compare the numbers, then the qualifiers: a version without qualifier is greater than the same version with a
+     * qualifier, the qualifiers are compared as strings.
+     * @param other The other version.
+     * @return The comparison result.
+     */
+    @Override
+    public int compareTo(final SemanticVersion other) {
+        int result = Integer.compare(major, other.major);
+        if (result == 0) {
+            result = Integer.compare(minor, other.minor);
+        }
+        if (result == 0) {
+            result = Integer.compare(micro, other.micro);
+        }
+        if (result == 0 && qualifier != other.qualifier) {
+            if (qualifier == null) {
+                result = 1;
+            } else if (other.qualifier == null) {
+                result = -1;
+            } else {
+                result = qualifier.compareTo(other.qualifier);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof SemanticVersion)) {
+            return false;
+        }
+        SemanticVersion other = (SemanticVersion) obj;
+        return major == other.major && minor == other.minor && micro == other.micro
+                && (qualifier == null ? other.qualifier == null : qualifier.equals(other.qualifier));
+    }
+
+    @Override
+    public int hashCode() {
+        int result = (major * 31 + minor) * 31 + micro;
+        return qualifier == null ? result : result * 31 + qualifier.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return text;
+    }
+
+}
@@ -1,8 +1,6 @@
 
 package com.sp.maven.utils;
 
-import org.apache.maven.artifact.versioning.DefaultArtifactVersion;
-
 /**
  * VersionHelper.
  *
@@ -25,18 +23,19 @@ public class VersionHelper {
      * @return The next version according to the given changeType.
      */
     public static String bumpVersion(final String version, final ChangeType changeType) {
-        // Split the version to Major . Minor . Micro
-        DefaultArtifactVersion dav = new DefaultArtifactVersion(version);
-        int majorVersion = dav.getMajorVersion();
-        int minorVersion = dav.getMinorVersion();
-        int microVersion = dav.getIncrementalVersion();
-        switch (changeType) {
-            case MAJOR : return (majorVersion + 1) + ".0.0";
-            case MINOR : return majorVersion + "." + (minorVersion + 1) + ".0";
-            case MICRO : return majorVersion + "." + minorVersion + "." + (microVersion + 1);
-            case NONE : return version;
-            default: return version;
-        }
+        return bumpVersion(version, changeType, QualifierPolicy.DROP);
+    }
+
+    /**
+     * This method parse the given version and bump to the next one according to the given changeType.
+     * @param version The current version.
+     * @param changeType The change type (Major, Minor, Micro).
+     * @param policy What to do with the qualifier of the current version.
+     * @return The next version according to the given changeType.
+     */
+    public static String bumpVersion(final String version, final ChangeType changeType,
+            final QualifierPolicy policy) {
+        return SemanticVersion.parse(version).bump(changeType, policy).toString();
     }
 
     /**
@@ -0,0 +1,163 @@
+package com.sp.maven.versions;
+
+import com.sp.maven.utils.BackupStrategies;
+import com.sp.maven.utils.Helper;
+import com.sp.maven.utils.PomTransaction;
+import com.sp.maven.utils.ReactorDependencyIndex;
+import com.sp.maven.utils.ReactorLoader;
+import com.sp.maven.utils.ReleasePlan;
+import java.io.File;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.model.Dependency;
+import org.apache.maven.model.Model;
+import org.apache.maven.model.Parent;
+import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+import org.apache.maven.project.MavenProject;
+
+/**
+ * This goal is used to add or replace the qualifier of the versions of all the modules of the reactor at once.
+ * The new versions are computed in parallel, then the parent references and the dependency management entries of the
+ * reactor are updated to the new versions, and all the POM files are written in a single transaction.
+ * Run with mvn -N, the modules are loaded from their raw POM files without building the reactor.
+ *
+ * 2026-10-18 21:18:06
+ */
+@Mojo(name = "add-qualifier", aggregator = true)                                                              // NOI18N
+public class AddQualifierMojo extends AbstractMojo {
+
+    /** The serial version unique id. */
+    private static final long serialVersionUID = 20261018211806L;
+    /** The Maven session. */
+    @Parameter(defaultValue = "${session}", readonly = true, required = true)                                 // NOI18N
+    private MavenSession session;
+    /** Controls whether a backup pom should be created. */
+    @Parameter(property = "generateBackupPoms", defaultValue = "true")                                        // NOI18N
+    private boolean generateBackupPoms;
+    /** The backup strategy: copy, link (hard link to the original pom) or archive (one file for the reactor). */
+    @Parameter(property = "backupStrategy", defaultValue = "copy")                                            // NOI18N
+    private String backupStrategy;
+    /** The release plan file: when set, the changes are written in the plan instead of the pom files. */
+    @Parameter(property = "planFile")                                                                         // NOI18N
+    private File planFile;
+    /** The suffix added to the versions, with its leading dash (-RC1 for instance). */
+    @Parameter(property = "suffix", required = true)                                                          // NOI18N
+    private String suffix;
+    /** True to replace the existing qualifier of the versions, false to append the suffix to it. */
+    @Parameter(property = "replaceExisting", defaultValue = "false")                                          // NOI18N
+    private boolean replaceExisting;
+    /** True to add -SNAPSHOT after the suffix. */
+    @Parameter(property = "addSnapshot", defaultValue = "false")                                              // NOI18N
+    private boolean addSnapshot;
+
+    @Override
+    public void execute() throws MojoExecutionException, MojoFailureException {
+        List<MavenProject> projects = ReactorLoader.getProjects(session);
+        Map<String, String> newVersions = new ConcurrentHashMap<>();
+        Set<MavenProject> updatedProjects = addQualifier(projects, replaceExisting, addSnapshot, suffix, newVersions);
+        if (planFile != null) {
+            // Plan all the changes, see the goal apply-plan
+            ReleasePlan plan = ReleasePlan.forSession(session, planFile.toPath());
+            for (MavenProject project : projects) {
+                if (updatedProjects.contains(project)) {
+                    plan.addVersions(project.getFile().toPath(), project.getOriginalModel(), getLog());
+                }
+            }
+            plan.write();
+            getLog().info(plan.size() + " POM files planned in " + planFile);                                // NOI18N
+            return;
+        }
+        // Persist all the changes at once
+        PomTransaction transaction = new PomTransaction(
+                PomTransaction.getDirectory(session.getTopLevelProject()), generateBackupPoms,
+                BackupStrategies.forSession(session, backupStrategy), getLog());
+        for (MavenProject project : projects) {
+            if (updatedProjects.contains(project)) {
+                transaction.stage(project, project.getOriginalModel());
+            }
+        }
+        int savedPoms = transaction.commit();
+        getLog().info(newVersions.size() + " versions qualified, " + savedPoms + " POM files saved");          // NOI18N
+    }
+
+    /**
+     * Add the qualifier to the versions of the given projects, then update the references to the new versions.
+     * @param projects The projects of the reactor.
+     * @param replaceExisting True to replace the existing qualifier of the versions.
+     * @param addSnapshot True to add -SNAPSHOT after the suffix.
+     * @param suffix The suffix added to the versions.
+     * @param newVersions The map filled with the new versions, by key.
+     * @return The projects whose original model has been changed.
+     * @throws MojoExecutionException If a version can't be qualified.
+     */
+    static Set<MavenProject> addQualifier(final List<MavenProject> projects, final boolean replaceExisting,
+            final boolean addSnapshot, final String suffix, final Map<String, String> newVersions)
+            throws MojoExecutionException {
+        // The modules inheriting their version are updated through their parent reference
+        Map<String, String> oldVersions = new ConcurrentHashMap<>();
+        Set<MavenProject> updatedProjects = ConcurrentHashMap.newKeySet();
+        Map<MavenProject, MojoExecutionException> failures = new ConcurrentHashMap<>();
+        projects.parallelStream()
+                .filter(project -> project.getOriginalModel().getVersion() != null)
+                .forEach(project -> {
+                    String key = ReactorDependencyIndex.getKey(project.getGroupId(), project.getArtifactId());
+                    oldVersions.put(key, project.getOriginalModel().getVersion());
+                    try {
+                        newVersions.put(key, Helper.addQualifier(project, replaceExisting, addSnapshot, suffix));
+                        updatedProjects.add(project);
+                    } catch (MojoExecutionException e) {
+                        failures.put(project, e);
+                    }
+                });
+        if (!failures.isEmpty()) {
+            throw failures.values().iterator().next();
+        }
+        // Each model only references the new versions, so they are updated in parallel as well
+        projects.parallelStream().forEach(project -> {
+            if (updateReferences(project.getOriginalModel(), oldVersions, newVersions)) {
+                updatedProjects.add(project);
+            }
+        });
+        return updatedProjects;
+    }
+
+    /**
+     * Update the parent reference and the dependency management entries of a model which reference a module with
+     * its previous version. The versions defined by a property are left unchanged.
+     * @param model The original model.
+     * @param oldVersions The previous versions, by key.
+     * @param newVersions The new versions, by key.
+     * @return true if the model has been changed.
+     */
+    private static boolean updateReferences(final Model model, final Map<String, String> oldVersions,
+            final Map<String, String> newVersions) {
+        boolean updated = false;
+        Parent parent = model.getParent();
+        if (parent != null) {
+            String key = ReactorDependencyIndex.getKey(parent.getGroupId(), parent.getArtifactId());
+            if (parent.getVersion() != null && parent.getVersion().equals(oldVersions.get(key))) {
+                parent.setVersion(newVersions.get(key));
+                updated = true;
+            }
+        }
+        if (model.getDependencyManagement() != null) {
+            for (Dependency dependency : model.getDependencyManagement().getDependencies()) {
+                String key = ReactorDependencyIndex.getKey(dependency.getGroupId(), dependency.getArtifactId());
+                if (dependency.getVersion() != null && dependency.getVersion().equals(oldVersions.get(key))) {
+                    dependency.setVersion(newVersions.get(key));
+                    updated = true;
+                }
+            }
+        }
+        return updated;
+    }
+
+}
@@ -0,0 +1,57 @@
+package com.sp.maven.versions;
+
+import com.sp.maven.utils.BackupStrategies;
+import com.sp.maven.utils.Constants;
+import com.sp.maven.utils.PomTransaction;
+import com.sp.maven.utils.ReleasePlan;
+import java.io.File;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+
+/**
+ * This goal is used to apply a release plan computed by bump-version, major-bump-helper or light-effective with the
+ * planFile parameter. The reactor is not built: the planned POM files, relative to the execution root directory, are
+ * written in a single transaction, and the goal fails without changing any file if one of them changed since the plan
+ * was computed.
+ *
+ * 2026-10-18 20:42:55
+ */
+@Mojo(name = "apply-plan", aggregator = true, requiresProject = false)                                        // NOI18N
+public class ApplyPlanMojo extends AbstractMojo {
+
+    /** The serial version unique id. */
+    private static final long serialVersionUID = 20261018204255L;
+    /** The release plan file. */
+    @Parameter(property = "planFile", required = true)                                                        // NOI18N
+    private File planFile;
+    /** Controls whether a backup pom should be created. */
+    @Parameter(property = "generateBackupPoms", defaultValue = "true")                                        // NOI18N
+    private boolean generateBackupPoms;
+    /** The backup strategy: copy, link (hard link to the original pom) or archive (one file for the reactor). */
+    @Parameter(property = "backupStrategy", defaultValue = "copy")                                            // NOI18N
+    private String backupStrategy;
+    /** The Maven session. */
+    @Parameter(defaultValue = "${session}", readonly = true, required = true)                                 // NOI18N
+    private MavenSession session;
+
+    @Override
+    public void execute() throws MojoExecutionException, MojoFailureException {
+        Path rootDirectory = Paths.get(session.getExecutionRootDirectory());
+        ReleasePlan plan = ReleasePlan.read(planFile.toPath(), rootDirectory);
+        // No project is loaded, the backups are kept in the default build directory of the execution root
+        Path directory = rootDirectory.resolve("target").resolve(Constants.BACKUP_DIRECTORY);                  // NOI18N
+        PomTransaction transaction = new PomTransaction(directory, generateBackupPoms,
+                BackupStrategies.create(directory, backupStrategy), getLog());
+        plan.stage(transaction);
+        int savedPoms = transaction.commit();
+        getLog().info(savedPoms + " POM files updated from the plan " + planFile);                            // NOI18N
+    }
+
+}
@@ -1,8 +1,13 @@
 
 package com.sp.maven.versions;
 
+import com.sp.maven.utils.BackupStrategies;
 import com.sp.maven.utils.ChangeType;
 import com.sp.maven.utils.Helper;
+import com.sp.maven.utils.QualifierPolicy;
+import com.sp.maven.utils.ReleasePlan;
+import java.io.File;
+import org.apache.maven.execution.MavenSession;
 import org.apache.maven.plugin.AbstractMojo;
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugin.MojoFailureException;
@@ -23,12 +28,24 @@ public class BumpVersionMojo extends AbstractMojo {
     /** The Maven project. */
     @Component
     private MavenProject project;
+    /** The Maven session. */
+    @Parameter(defaultValue = "${session}", readonly = true, required = true)                                 // NOI18N
+    private MavenSession session;
     /** Controls whether a backup pom should be created. */
     @Parameter(property = "generateBackupPoms", defaultValue = "true")                                        // NOI18N
     private boolean generateBackupPoms;
+    /** The backup strategy: copy, link (hard link to the original pom) or archive (one file for the reactor). */
+    @Parameter(property = "backupStrategy", defaultValue = "copy")
+    private String backupStrategy;
+    /** The release plan file: when set, the changes are written in the plan instead of the pom files. */
+    @Parameter(property = "planFile")
+    private File planFile;
     /** Define the kind of bump (MAJOR, MINOR, MICRO, NONE). */
     @Parameter(property = "bumpType", required = true)
     private String bumpType;
+    /** Define what to do with the qualifier of the current version (DROP, KEEP, RELEASE). */
+    @Parameter(property = "qualifierPolicy", defaultValue = "DROP")                                           // NOI18N
+    private String qualifierPolicy;
     /** Define the kind of bump (MAJOR, MINOR, MICRO). */
     @Parameter(property = "bumpToSnapshot", required = true)                                                  // NOI18N
     private boolean bumpToSnapshot;
@@ -36,9 +53,19 @@ public class BumpVersionMojo extends AbstractMojo {
     @Override
     public void execute() throws MojoExecutionException, MojoFailureException {
         Helper.bumpWithParams(
-                project, ChangeType.valueOf(bumpType), bumpToSnapshot, generateBackupPoms);
+                project, ChangeType.valueOf(bumpType), QualifierPolicy.valueOf(qualifierPolicy), bumpToSnapshot,
+                generateBackupPoms);
+        if (planFile != null) {
+            // Plan the change only, see the goal apply-plan
+            ReleasePlan plan = ReleasePlan.forSession(session, planFile.toPath());
+            plan.addVersions(project.getFile().toPath(), project.getOriginalModel(), getLog());
+            plan.write();
+            getLog().info("New version of " + project.getFile() + " planned in " + planFile);                // NOI18N
+            return;
+        }
         // Generate the backup and save
-        Helper.savePomFile(project, project.getOriginalModel(), generateBackupPoms, getLog());
+        Helper.savePomVersions(project, project.getOriginalModel(), generateBackupPoms,
+                BackupStrategies.forSession(session, backupStrategy), getLog());
     }
 
 }
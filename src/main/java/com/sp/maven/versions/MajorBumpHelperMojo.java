@@ -1,14 +1,22 @@
 
 package com.sp.maven.versions;
 
+import com.sp.maven.utils.BackupStrategies;
 import com.sp.maven.utils.ChangeType;
 import com.sp.maven.utils.Constants;
 import com.sp.maven.utils.Helper;
+import com.sp.maven.utils.PomTransaction;
+import com.sp.maven.utils.ReactorDependencyIndex;
+import com.sp.maven.utils.ReactorLoader;
+import com.sp.maven.utils.ReleasePlan;
 import com.sp.maven.utils.VersionHelper;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 import org.apache.maven.execution.MavenSession;
 import org.apache.maven.model.Dependency;
@@ -18,6 +26,7 @@ import org.apache.maven.model.Parent;
 import org.apache.maven.plugin.AbstractMojo;
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugin.logging.Log;
 import org.apache.maven.plugins.annotations.LifecyclePhase;
 import org.apache.maven.plugins.annotations.Mojo;
 import org.apache.maven.plugins.annotations.Parameter;
@@ -27,6 +36,9 @@ import org.apache.maven.project.MavenProject;
  * This goal is used to do a major-SNAPSHOT bump of the specified project if required and a micro-SNAPSHOT bump
  * of upstream dependencies if required. It also ensures that the modified poms will be using the latest parent version
  * and that the new versions are synchronized in the dependency management pom.
+ * With the transitive option, the consumers of the bumped upstream dependencies are micro-SNAPSHOT bumped as well,
+ * in a single pass over the reactor, and the dependency versions they pin are updated.
+ * Run with mvn -N, the modules are loaded from their raw POM files without building the reactor.
  */
 @Mojo(  name = "major-bump-helper",
         aggregator = true,
@@ -36,6 +48,12 @@ public class MajorBumpHelperMojo extends AbstractMojo {
     /** Controls whether a backup pom should be created. */
     @Parameter(property = "generateBackupPoms", defaultValue = "true")
     private boolean generateBackupPoms;
+    /** The backup strategy: copy, link (hard link to the original pom) or archive (one file for the reactor). */
+    @Parameter(property = "backupStrategy", defaultValue = "copy")
+    private String backupStrategy;
+    /** The release plan file: when set, the changes are written in the plan instead of the pom files. */
+    @Parameter(property = "planFile")
+    private File planFile;
 
     /** gives the input param. */
     @Parameter(property = "groupId", required = true)
@@ -43,47 +61,86 @@ public class MajorBumpHelperMojo extends AbstractMojo {
     /** gives the input param. */
     @Parameter(property = "artifactId", required = true)
     private String targetArtifactId;
+    /** True to bump the dependents of the dependents too, down to the last consumers of the reactor. */
+    @Parameter(property = "transitive", defaultValue = "false")
+    private boolean transitive;
 
     @Parameter(defaultValue = "${session}", readonly = true)
     private MavenSession session;
 
-    private MavenProject parentPom = null;
-    private MavenProject majorPom = null;
-
-    private String majorPomId;
-
     private final static String LOG_LINE = "-----------------------------------";
 
-    private void logEphasizedInfoMessage(final String mess) {
-        getLog().info(LOG_LINE);
-        getLog().info(mess);
-        getLog().info(LOG_LINE);
+    private static void logEphasizedInfoMessage(final Log logger, final String mess) {
+        logger.info(LOG_LINE);
+        logger.info(mess);
+        logger.info(LOG_LINE);
     }
 
     @Override
     public void execute() throws MojoExecutionException, MojoFailureException {
 
-        majorPomId = targetGroupId + ":" + targetArtifactId;
-        logEphasizedInfoMessage("Starting dependency check....");
-
-        List<MavenProject> allProjects = session.getAllProjects();
-        List<MavenProject> impactedPoms = allProjects.stream()
-                .filter(mvnPom -> {
-                    init(mvnPom);
-                    for (Dependency d : mvnPom.getDependencies()) {
-                        String groupId = d.getGroupId();
-                        String artifactId = d.getArtifactId();
-                        String identifier = groupId + ":" + artifactId;
-                        if (identifier.equals(majorPomId)) {
-                            getLog().info("\tPom with dependency found: " + mvnPom.getFile().getPath());
-                            return true;
-                        }
-                    }
-                    return false;
-                })
-                .collect(Collectors.toList());
-
-        logEphasizedInfoMessage("Dependency check complete");
+        Map<MavenProject, Model> stagedModels = stageBumps(ReactorLoader.getAllProjects(session),
+                ReactorDependencyIndex.forSession(session),
+                ReactorDependencyIndex.getKey(targetGroupId, targetArtifactId), transitive, getLog());
+        if (planFile != null) {
+            //Plan all the changes, see the goal apply-plan
+            ReleasePlan plan = ReleasePlan.forSession(session, planFile.toPath());
+            for (Map.Entry<MavenProject, Model> staged : stagedModels.entrySet()) {
+                plan.addVersions(staged.getKey().getFile().toPath(), staged.getValue(), getLog());
+            }
+            plan.write();
+            getLog().info(plan.size() + " poms planned in " + planFile);
+        } else {
+            //Persist all the changes at once
+            PomTransaction transaction = new PomTransaction(
+                    PomTransaction.getDirectory(session.getTopLevelProject()), generateBackupPoms,
+                    BackupStrategies.forSession(session, backupStrategy), getLog());
+            for (Map.Entry<MavenProject, Model> staged : stagedModels.entrySet()) {
+                transaction.stage(staged.getKey(), staged.getValue());
+            }
+            int savedPoms = transaction.commit();
+            getLog().info(savedPoms + " poms saved.");
+        }
+        logEphasizedInfoMessage(getLog(), "Process complete.");
+    }
+
+    /**
+     * Bump the given pom and its dependents, and update the dependency management poms.
+     * @param allProjects All the projects of the reactor.
+     * @param dependencyIndex The dependency index of the reactor.
+     * @param majorPomId The key of the pom to major bump.
+     * @param transitive True to bump the dependents of the dependents too and to update the versions pinned by the
+     * consumers.
+     * @param logger The logger to use for messages.
+     * @return The modified models, by project, in the order they have been modified.
+     * @throws MojoExecutionException If the parent pom, the pom to bump or the dependency management poms can't be
+     * found.
+     */
+    static Map<MavenProject, Model> stageBumps(final List<MavenProject> allProjects,
+            final ReactorDependencyIndex dependencyIndex, final String majorPomId, final boolean transitive,
+            final Log logger) throws MojoExecutionException {
+        logEphasizedInfoMessage(logger, "Starting dependency check....");
+
+        MavenProject parentPom = dependencyIndex.getProject(Constants.PARENT_POM_ID);
+        MavenProject majorPom = dependencyIndex.getProject(majorPomId);
+        if (parentPom == null) {
+            throw new MojoExecutionException("Can't find the parent pom " + Constants.PARENT_POM_ID
+                    + " in the reactor");
+        }
+        if (majorPom == null) {
+            throw new MojoExecutionException("Can't find the pom " + majorPomId + " in the reactor");
+        }
+        //In transitive mode, the dependents are sorted in levels of independent poms
+        List<List<MavenProject>> impactedLevels = transitive
+                ? dependencyIndex.getDependentLevels(majorPomId)
+                : Collections.singletonList(dependencyIndex.getDependents(majorPomId));
+        List<MavenProject> impactedPoms = new ArrayList<>();
+        impactedLevels.forEach(impactedPoms::addAll);
+        for (MavenProject mvnPom : impactedPoms) {
+            logger.info("\tPom with dependency found: " + mvnPom.getFile().getPath());
+        }
+
+        logEphasizedInfoMessage(logger, "Dependency check complete");
 
         //Extract the dependency management modules
         List<MavenProject> depMgmtProjects = Helper.getDependencyManagementProjects(allProjects);
@@ -92,29 +149,35 @@ public class MajorBumpHelperMojo extends AbstractMojo {
         if (depMgmtProjects.isEmpty()) {
             throw new MojoExecutionException("Can't find any dep mgmt pom");
         } else {
-            getLog().debug(depMgmtProjects.size() + " dependency management projects detected.");
+            logger.debug(depMgmtProjects.size() + " dependency management projects detected.");
         }
 
         final String parentVersion = parentPom.getVersion();
-        getLog().info("Will ensure each bumped pom will use the parent in version: " + parentVersion);
-        logEphasizedInfoMessage("Starting dependent modules bump...");
+        logger.info("Will ensure each bumped pom will use the parent in version: " + parentVersion);
+        logEphasizedInfoMessage(logger, "Starting dependent modules bump...");
         //This map will hold all the version bumped during the process
         Map<String, String> updatedVersions = new HashMap<>();
-        //Now check the poms that need bumping
-        for (MavenProject pom : impactedPoms) {
-            //Only bump pom that were not bumped previously
-            if (!pom.getVersion().endsWith(Constants.SNAPSHOT)) {
+        //The modified poms are all written at the end of the process
+        Map<MavenProject, Model> stagedModels = new LinkedHashMap<>();
+        //Now check the poms that need bumping, level by level
+        for (List<MavenProject> level : impactedLevels) {
+            for (MavenProject pom : level) {
+                //Only bump pom that were not bumped previously
+                if (pom.getVersion().endsWith(Constants.SNAPSHOT)) {
+                    continue;
+                }
+                String newVersion = getMicroBumpVersion(pom);
                 //Do micro bump
-                String newVersion = updatePomVersion(pom);
+                Model originalModel = pom.getOriginalModel();
+                originalModel.setVersion(newVersion);
 
                 //Make sure it uses last defined parent
-                Model originalModel = pom.getOriginalModel();
                 Parent parentModel = originalModel.getParent();
                 parentModel.setVersion(parentVersion);
                 originalModel.setParent(parentModel);
 
-                //Persist pom that has been bumped
-                Helper.savePomFile(pom, pom.getOriginalModel(), generateBackupPoms, getLog());
+                //Stage pom that has been bumped
+                stagedModels.put(pom, pom.getOriginalModel());
 
                 //Register version change
                 String groupId = pom.getGroupId();
@@ -122,12 +185,12 @@ public class MajorBumpHelperMojo extends AbstractMojo {
                 String identifier = groupId + ":" + artifactId;
                 updatedVersions.put(identifier, newVersion);
 
-                getLog().info("Done:\t" + identifier + " bumped to: " + newVersion);
+                logger.info("Done:\t" + identifier + " bumped to: " + newVersion);
             }
         }
-        logEphasizedInfoMessage("Dependent modules bump complete.");
+        logEphasizedInfoMessage(logger, "Dependent modules bump complete.");
 
-        logEphasizedInfoMessage("Finalizing major bump updating depmgmt...");
+        logEphasizedInfoMessage(logger, "Finalizing major bump updating depmgmt...");
 
         //Do major bump if required.
         Model majorPomModel = majorPom.getOriginalModel();
@@ -140,20 +203,26 @@ public class MajorBumpHelperMojo extends AbstractMojo {
             //Make sure it uses last defined parent
             majorPomModel.getParent().setVersion(parentVersion);
 
-            //Persist major bump
-            Helper.savePomFile(majorPom, majorPomModel, generateBackupPoms, getLog());
+            //Stage major bump
+            stagedModels.put(majorPom, majorPomModel);
         } //else it was alredy major bumped since last release, no need to do it again
 
 
         //Start process of updating dependency managers:
         for (MavenProject projToUpdate : depMgmtProjects) {
-            updateDepMgmt(projToUpdate, updatedVersions);
+            updateDepMgmt(projToUpdate, updatedVersions, stagedModels);
+        }
+        //In transitive mode, update the versions pinned by the consumers, which are all bumped
+        if (transitive) {
+            for (MavenProject projToUpdate : allProjects) {
+                updateDependencies(projToUpdate, updatedVersions, stagedModels, logger);
+            }
         }
-        logEphasizedInfoMessage("Process complete.");
+        return stagedModels;
     }
 
-    private void updateDepMgmt(final MavenProject projToUpdate, final Map<String, String> updatedVersions)
-            throws MojoExecutionException {
+    private static void updateDepMgmt(final MavenProject projToUpdate, final Map<String, String> updatedVersions,
+            final Map<MavenProject, Model> stagedModels) {
         Model mavenModel = projToUpdate.getOriginalModel();
         DependencyManagement dependencyManagement = mavenModel.getDependencyManagement();
         List<Dependency> dependencies = dependencyManagement.getDependencies();
@@ -166,28 +235,39 @@ public class MajorBumpHelperMojo extends AbstractMojo {
                 d.setVersion(newVersion);
             }
         });
-        //Persist project change
-        Helper.savePomFile(projToUpdate, mavenModel, generateBackupPoms, getLog());
-    }
-
-    private String updatePomVersion(final MavenProject project) throws MojoExecutionException {
-        // Compute the new version
-        Model originalModel = project.getOriginalModel();
-        String originalVersion = originalModel.getVersion();
-        String newVersion = VersionHelper.bumpVersion(originalVersion, ChangeType.MICRO) + Constants.SNAPSHOT;
-        // Apply the new version and save the POM file
-        originalModel.setVersion(newVersion);
-        return newVersion;
+        //Stage project change
+        stagedModels.put(projToUpdate, mavenModel);
     }
 
-    private void init(final MavenProject mvnPom) {
-        final String pomId = Helper.getId(mvnPom.getOriginalModel());
-        if (parentPom == null && pomId.equals(Constants.PARENT_POM_ID)) {
-            parentPom = mvnPom;
+    private static void updateDependencies(final MavenProject projToUpdate,
+            final Map<String, String> updatedVersions, final Map<MavenProject, Model> stagedModels, final Log logger) {
+        Model mavenModel = stagedModels.getOrDefault(projToUpdate, projToUpdate.getOriginalModel());
+        boolean updated = false;
+        for (Dependency d : mavenModel.getDependencies()) {
+            String version = d.getVersion();
+            //Only the explicit versions are pinned, the managed and the property versions are left as is
+            if (version == null || version.contains("${")) {
+                continue;
+            }
+            String identifier = d.getGroupId() + ":" + d.getArtifactId();
+            String newVersion = updatedVersions.get(identifier);
+            if (newVersion != null && !newVersion.equals(version)) {
+                d.setVersion(newVersion);
+                updated = true;
+                logger.info("Done:\t" + identifier + " pinned to: " + newVersion + " in "
+                        + projToUpdate.getFile().getPath());
+            }
         }
-        if (majorPom == null && pomId.equals(majorPomId)) {
-            majorPom = mvnPom;
+        if (updated) {
+            //Stage project change
+            stagedModels.put(projToUpdate, mavenModel);
         }
     }
 
+    private static String getMicroBumpVersion(final MavenProject project) {
+        // Compute the new version
+        String originalVersion = project.getOriginalModel().getVersion();
+        return VersionHelper.bumpVersion(originalVersion, ChangeType.MICRO) + Constants.SNAPSHOT;
+    }
+
 }
@@ -0,0 +1,115 @@
+package com.sp.maven.baseline;
+
+import java.io.File;
+import java.lang.reflect.Proxy;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import junit.framework.TestCase;
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.artifact.DefaultArtifact;
+import org.apache.maven.artifact.handler.DefaultArtifactHandler;
+import org.apache.maven.artifact.metadata.ArtifactMetadataSource;
+import org.apache.maven.artifact.versioning.ArtifactVersion;
+import org.apache.maven.artifact.versioning.DefaultArtifactVersion;
+import org.apache.maven.execution.DefaultMavenExecutionRequest;
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.model.Model;
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.apache.maven.project.MavenProject;
+import org.apache.maven.shared.artifact.ArtifactCoordinate;
+import org.apache.maven.shared.artifact.resolve.ArtifactResolver;
+import org.apache.maven.shared.artifact.resolve.ArtifactResolverException;
+import org.apache.maven.shared.artifact.resolve.ArtifactResult;
+import org.codehaus.plexus.util.FileUtils;
+
+public class BaselineAllMojoTest extends TestCase {
+
+    public BaselineAllMojoTest(String testName) {
+        super(testName);
+    }
+
+    /**
+     * Test of resolvePreviousArtifacts method, of class BaselineAllMojo.
+     */
+    public void testResolvePreviousArtifacts() throws Exception {
+        System.out.println("resolvePreviousArtifacts");
+        File directory = Files.createTempDirectory("baseline-all").toFile();
+        Set<String> lookupThreads = Collections.newSetFromMap(new ConcurrentHashMap<>());
+        Map<String, Integer> lookups = new ConcurrentHashMap<>();
+        ArtifactMetadataSource metadataSource = (ArtifactMetadataSource) Proxy.newProxyInstance(
+                getClass().getClassLoader(), new Class<?>[]{ArtifactMetadataSource.class}, (proxy, method, args) -> {
+                    Artifact artifact = (Artifact) args[0];
+                    lookupThreads.add(Thread.currentThread().getName());
+                    lookups.merge(artifact.getArtifactId(), 1, Integer::sum);
+                    List<ArtifactVersion> versions = new ArrayList<>();
+                    for (String version : new String[]{"1.0.0", "1.1.0", "1.2.0-SNAPSHOT"}) {
+                        versions.add(new DefaultArtifactVersion(version));
+                    }
+                    return versions;
+                });
+        ArtifactResolver resolver = (ArtifactResolver) Proxy.newProxyInstance(
+                getClass().getClassLoader(), new Class<?>[]{ArtifactResolver.class}, (proxy, method, args) -> {
+                    ArtifactCoordinate coordinate = (ArtifactCoordinate) args[1];
+                    // The bundle is only published with its classifier
+                    if ("bundle".equals(coordinate.getArtifactId()) && coordinate.getClassifier() == null) {
+                        throw new ArtifactResolverException("Not found", new Exception());
+                    }
+                    Artifact artifact = new DefaultArtifact("com.sp", coordinate.getArtifactId(),
+                            coordinate.getVersion(), null, "jar", coordinate.getClassifier(),
+                            new DefaultArtifactHandler("jar"));
+                    File file = new File(directory, coordinate.getArtifactId() + ".jar");
+                    file.createNewFile();
+                    artifact.setFile(file);
+                    return (ArtifactResult) () -> artifact;
+                });
+        MavenSession session = new MavenSession(null, null, new DefaultMavenExecutionRequest(), null);
+        PreviousArtifactResolver previousArtifactResolver = new PreviousArtifactResolver(resolver, metadataSource,
+                session, ResolutionIndex.forSession(session, null, 60, new SystemStreamLog()));
+
+        MavenProject jar = createProject("jar", "1.2.0-SNAPSHOT", "jar");
+        MavenProject first = createProject("first", "1.0.0", "jar");
+        MavenProject bundle = createProject("bundle", "2.0.0", "bundle");
+        BaselineAllMojo instance = new BaselineAllMojo();
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        Map<MavenProject, Artifact> result;
+        try {
+            result = instance.resolvePreviousArtifacts(Arrays.asList(jar, first, bundle),
+                    previousArtifactResolver, executor);
+        } finally {
+            executor.shutdownNow();
+            FileUtils.deleteDirectory(directory);
+        }
+
+        // The reactor order is kept, the modules without previous version are skipped
+        assertEquals(Arrays.asList(jar, bundle), new ArrayList<>(result.keySet()));
+        assertEquals("1.1.0", result.get(jar).getVersion());
+        assertEquals("1.1.0", result.get(bundle).getVersion());
+        assertEquals("bundle", result.get(bundle).getClassifier());
+        // The retry of the bundle reuses the versions retrieved by the first attempt
+        assertEquals(Integer.valueOf(1), lookups.get("bundle"));
+        // The lookups run on the pool
+        assertFalse(lookupThreads.contains(Thread.currentThread().getName()));
+    }
+
+    private static MavenProject createProject(String artifactId, String version, String packaging) {
+        Model model = new Model();
+        model.setGroupId("com.sp");
+        model.setArtifactId(artifactId);
+        model.setVersion(version);
+        model.setPackaging(packaging);
+        MavenProject project = new MavenProject(model);
+        project.setArtifact(new DefaultArtifact("com.sp", artifactId, version, null, packaging, null,
+                new DefaultArtifactHandler(packaging)));
+        project.setRemoteArtifactRepositories(new ArrayList<>());
+        return project;
+    }
+
+}
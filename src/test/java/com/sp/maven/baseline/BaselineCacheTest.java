@@ -0,0 +1,109 @@
+package com.sp.maven.baseline;
+
+import aQute.bnd.differ.DiffPluginImpl;
+import aQute.bnd.osgi.Jar;
+import aQute.bnd.service.diff.Delta;
+import aQute.bnd.service.diff.Tree;
+import java.io.File;
+import java.nio.file.Files;
+import junit.framework.TestCase;
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.codehaus.plexus.util.FileUtils;
+
+public class BaselineCacheTest extends TestCase {
+
+    private File directory;
+    private File cacheDirectory;
+    private DiffPluginImpl differ;
+
+    public BaselineCacheTest(String testName) {
+        super(testName);
+    }
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        directory = Files.createTempDirectory("baseline-cache").toFile();
+        cacheDirectory = new File(directory, "cache");
+        differ = new DiffPluginImpl();
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        FileUtils.deleteDirectory(directory);
+        super.tearDown();
+    }
+
+    /**
+     * Test of getTree method, of class BaselineCache.
+     */
+    public void testGetTree() throws Exception {
+        System.out.println("getTree");
+        File file = writeJar("a.jar", 3);
+        BaselineCache cache = new BaselineCache(cacheDirectory, 100, 30, new SystemStreamLog());
+        Tree computed;
+        try (Jar jar = new Jar(file)) {
+            computed = cache.getTree(file, jar, differ);
+        }
+        assertEquals(1, getEntries().length);
+
+        // The tree is read from the cache: the JAR given is not analysed
+        Tree cached;
+        try (Jar empty = new Jar("empty")) {
+            cached = cache.getTree(file, empty, differ);
+        }
+        assertEquals(Delta.UNCHANGED, cached.diff(computed).getDelta());
+        assertEquals(Delta.UNCHANGED, computed.diff(cached).getDelta());
+    }
+
+    /**
+     * Test of the eviction of the old entries, of class BaselineCache.
+     */
+    public void testEvictByAge() throws Exception {
+        System.out.println("evictByAge");
+        BaselineCache cache = new BaselineCache(cacheDirectory, 100, 1, new SystemStreamLog());
+        File first = writeJar("a.jar", 1);
+        try (Jar jar = new Jar(first)) {
+            cache.getTree(first, jar, differ);
+        }
+        File[] entries = getEntries();
+        assertEquals(1, entries.length);
+        assertTrue(entries[0].setLastModified(System.currentTimeMillis() - 2L * 24 * 60 * 60 * 1000));
+
+        File second = writeJar("b.jar", 2);
+        try (Jar jar = new Jar(second)) {
+            cache.getTree(second, jar, differ);
+        }
+        entries = getEntries();
+        assertEquals(1, entries.length);
+        assertEquals(BaselineCache.sha256(second), entries[0].getName().replaceAll("^v\\d+-|\\.tree$", ""));
+    }
+
+    /**
+     * Test of the eviction of the entries exceeding the maximum size, of class BaselineCache.
+     */
+    public void testEvictBySize() throws Exception {
+        System.out.println("evictBySize");
+        BaselineCache cache = new BaselineCache(cacheDirectory, 0, 30, new SystemStreamLog());
+        File file = writeJar("a.jar", 1);
+        Tree tree;
+        try (Jar jar = new Jar(file)) {
+            tree = cache.getTree(file, jar, differ);
+        }
+        // The tree is computed, but no entry fits in the cache
+        assertNotNull(tree);
+        assertEquals(0, getEntries().length);
+    }
+
+    private File writeJar(final String name, final int packages) throws Exception {
+        File file = new File(directory, name);
+        SyntheticJars.write(file, packages, SyntheticJars.Layout.OSGI, "1.0.0", 0);
+        return file;
+    }
+
+    private File[] getEntries() {
+        File[] entries = cacheDirectory.listFiles((dir, name) -> name.endsWith(".tree"));
+        return entries == null ? new File[0] : entries;
+    }
+
+}
@@ -0,0 +1,158 @@
+package com.sp.maven.baseline;
+
+import com.sp.maven.utils.ChangeType;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.jar.Attributes;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.jar.Manifest;
+import junit.framework.TestCase;
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.codehaus.plexus.util.FileUtils;
+
+public class BaselineComparatorTest extends TestCase {
+
+    private File directory;
+
+    public BaselineComparatorTest(String testName) {
+        super(testName);
+    }
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        directory = Files.createTempDirectory("baseline-comparator").toFile();
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        FileUtils.deleteDirectory(directory);
+        super.tearDown();
+    }
+
+    /**
+     * Test of detectChanges method, of class BaselineComparator: the incremental comparison detects the same
+     * changes as the full one, with and without the cache.
+     */
+    public void testDetectChanges() throws Exception {
+        System.out.println("detectChanges");
+        for (SyntheticJars.Layout layout : SyntheticJars.Layout.values()) {
+            File previous = new File(directory, "previous-" + layout + ".jar");
+            File current = new File(directory, "current-" + layout + ".jar");
+            writeJars(previous, current, layout);
+
+            Map<ChangeType, List<String>> expected = detectChanges(false, null, previous, current);
+            assertEquals(layout.name(), ChangeType.MAJOR, BaselineComparator.getChangeType(expected));
+            String changes = expected.toString();
+            // The removed package
+            assertTrue(changes, changes.contains("com.sp.removed"));
+            if (layout != SyntheticJars.Layout.CLASSES) {
+                // The package whose class extends a changed class of another package
+                assertTrue(changes, changes.contains("com.sp.sub"));
+            }
+            assertFalse(changes, changes.contains("com.sp.unchanged"));
+            // The incremental comparison analyses the packages whose classes or Export-Package clause changed,
+            // and the packages extending them
+            Set<String> changedPackages;
+            try (JarIndex previousIndex = JarIndex.open(previous);
+                    JarIndex currentIndex = JarIndex.open(current)) {
+                changedPackages = ChangedPackages.compute(previousIndex, currentIndex);
+            }
+            Set<String> expectedPackages = new TreeSet<>(Arrays.asList("com/sp/changed", "com/sp/sub", "com/sp/removed"));
+            if (layout == SyntheticJars.Layout.OSGI) {
+                expectedPackages.add("com/sp/versioned");
+            }
+            assertEquals(expectedPackages, new TreeSet<>(changedPackages));
+
+            BaselineCache cache = new BaselineCache(new File(directory, "cache-" + layout), 100, 30,
+                    new SystemStreamLog());
+            // The cache is filled by the first comparison then read by the next ones
+            assertEquals(layout.name(), expected, detectChanges(false, cache, previous, current));
+            assertEquals(layout.name(), expected, detectChanges(false, cache, previous, current));
+            assertEquals(layout.name(), expected, detectChanges(true, null, previous, current));
+            assertEquals(layout.name(), expected, detectChanges(true, cache, previous, current));
+        }
+    }
+
+    private static Map<ChangeType, List<String>> detectChanges(boolean incremental, BaselineCache cache,
+            File previous, File current) throws Exception {
+        BaselineComparator comparator = new BaselineComparator(cache, incremental, new SystemStreamLog());
+        Map<ChangeType, List<String>> detectedChanges = new TreeMap<>();
+        comparator.detectChanges(previous, current).forEach((changeType, changes) -> {
+            List<String> sorted = new ArrayList<>(changes);
+            Collections.sort(sorted);
+            detectedChanges.put(changeType, sorted);
+        });
+        return detectedChanges;
+    }
+
+    /**
+     * Write two versions of a JAR file: a field is added to a class of com.sp.changed, which is extended by a class
+     * of com.sp.sub, the package com.sp.removed is removed and only the version of com.sp.versioned changes.
+     */
+    private static void writeJars(File previous, File current, SyntheticJars.Layout layout) throws IOException {
+        Map<String, byte[]> classes = new LinkedHashMap<>();
+        classes.put("com/sp/changed/Base", SyntheticJars.classBytes("com/sp/changed/Base", new String[]{"value"}));
+        classes.put("com/sp/sub/Sub", SyntheticJars.classBytes("com/sp/sub/Sub", "com/sp/changed/Base",
+                new String[]{"other"}));
+        classes.put("com/sp/removed/Removed", SyntheticJars.classBytes("com/sp/removed/Removed",
+                new String[]{"value"}));
+        classes.put("com/sp/versioned/Versioned", SyntheticJars.classBytes("com/sp/versioned/Versioned",
+                new String[]{"value"}));
+        classes.put("com/sp/unchanged/Unchanged", SyntheticJars.classBytes("com/sp/unchanged/Unchanged",
+                new String[]{"value"}));
+        writeJar(previous, layout, classes, "1.0.0");
+
+        classes.put("com/sp/changed/Base", SyntheticJars.classBytes("com/sp/changed/Base",
+                new String[]{"value", "added"}));
+        classes.remove("com/sp/removed/Removed");
+        writeJar(current, layout, classes, "1.1.0");
+    }
+
+    private static void writeJar(File file, SyntheticJars.Layout layout, Map<String, byte[]> classes,
+            String versionedVersion) throws IOException {
+        Manifest manifest = new Manifest();
+        Attributes attributes = manifest.getMainAttributes();
+        attributes.put(Attributes.Name.MANIFEST_VERSION, "1.0");
+        if (layout == SyntheticJars.Layout.OSGI) {
+            attributes.putValue("Bundle-SymbolicName", "com.sp.test");
+            StringBuilder exports = new StringBuilder();
+            for (String className : classes.keySet()) {
+                String packageName = JarIndex.getPackage(className).replace('/', '.');
+                String version = packageName.equals("com.sp.versioned") ? versionedVersion : "1.0.0";
+                if (exports.length() > 0) {
+                    exports.append(',');
+                }
+                exports.append(packageName).append(";version=\"").append(version).append('"');
+            }
+            attributes.putValue("Export-Package", exports.toString());
+        } else if (layout == SyntheticJars.Layout.NETBEANS) {
+            Set<String> packages = new LinkedHashSet<>();
+            for (String className : classes.keySet()) {
+                packages.add(JarIndex.getPackage(className).replace('/', '.') + ".*");
+            }
+            attributes.putValue("OpenIDE-Module-Public-Packages", String.join(", ", packages));
+        }
+        try (JarOutputStream out = new JarOutputStream(new FileOutputStream(file), manifest)) {
+            for (Map.Entry<String, byte[]> entry : classes.entrySet()) {
+                out.putNextEntry(new JarEntry(entry.getKey() + ".class"));
+                out.write(entry.getValue());
+                out.closeEntry();
+            }
+        }
+    }
+
+}
@@ -0,0 +1,48 @@
+package com.sp.maven.baseline;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import junit.framework.TestCase;
+
+public class ChangedPackagesTest extends TestCase {
+
+    public ChangedPackagesTest(String testName) {
+        super(testName);
+    }
+
+    /**
+     * Test of getSuperTypes method, of class ChangedPackages.
+     */
+    public void testGetSuperTypes() throws Exception {
+        System.out.println("getSuperTypes");
+        assertEquals(Collections.singleton("com/sp/a/Base"), ChangedPackages.getSuperTypes(
+                SyntheticJars.classBytes("com/sp/b/Sub", "com/sp/a/Base", new String[]{"value"})));
+        // A class compiled by javac, with long constants and interfaces
+        assertEquals(new HashSet<>(Arrays.asList("java/util/AbstractList", "java/util/List", "java/util/RandomAccess",
+                "java/lang/Cloneable", "java/io/Serializable")),
+                ChangedPackages.getSuperTypes(readClass("/java/util/ArrayList.class")));
+        try {
+            ChangedPackages.getSuperTypes(new byte[]{1, 2, 3, 4, 5, 6, 7, 8, 9, 10});
+            fail("Not a class file");
+        } catch (IOException ex) {
+            assertEquals("Invalid class file", ex.getMessage());
+        }
+    }
+
+    private static byte[] readClass(String name) throws Exception {
+        try (InputStream in = ChangedPackagesTest.class.getResourceAsStream(name)) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[4096];
+            int n;
+            while ((n = in.read(buffer)) > 0) {
+                out.write(buffer, 0, n);
+            }
+            return out.toByteArray();
+        }
+    }
+
+}
@@ -0,0 +1,220 @@
+package com.sp.maven.baseline;
+
+import aQute.bnd.differ.DiffImpl;
+import aQute.bnd.service.diff.Delta;
+import aQute.bnd.service.diff.Diff;
+import aQute.bnd.service.diff.Tree;
+import aQute.bnd.service.diff.Type;
+import com.sp.maven.utils.ChangeType;
+import java.io.File;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import junit.framework.TestCase;
+import org.codehaus.plexus.util.FileUtils;
+
+public class DiffReportWriterTest extends TestCase {
+
+    /** Name of the added method, with a quote, a tab and a control character to escape in the JSON report. */
+    private static final String ADDED_METHOD = "quote\"d\tname\u0001()";
+
+    private File directory;
+
+    public DiffReportWriterTest(String testName) {
+        super(testName);
+    }
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        directory = Files.createTempDirectory("diff-report").toFile();
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        FileUtils.deleteDirectory(directory);
+        super.tearDown();
+    }
+
+    /**
+     * Test of writeChange method, of class DiffReportWriter: the unchanged and ignored elements are pruned and the
+     * strings are escaped in the JSON report.
+     */
+    public void testWriteChange() throws Exception {
+        System.out.println("writeChange");
+        File previous = new File(directory, "previous.jar");
+        File current = new File(directory, "current.jar");
+        try (DiffReportWriter report = DiffReportWriter.open(directory, previous, current)) {
+            report.writeChange(ChangeType.MAJOR, "Package \"com.sp.api\"\r\nchanged\\", createDiff());
+            report.writeChange(ChangeType.MINOR, "Version changed", null);
+            report.finish(ChangeType.MAJOR);
+        }
+
+        String json = read(DiffReportWriter.JSON_REPORT);
+        assertEquals("{\n"
+                + "  \"previous\": \"" + previous.getAbsolutePath() + "\",\n"
+                + "  \"current\": \"" + current.getAbsolutePath() + "\",\n"
+                + "  \"changes\": [\n"
+                + "    {\"changeType\": \"MAJOR\", \"message\": \"Package \\\"com.sp.api\\\"\\r\\nchanged\\\\\", "
+                + "\"diff\": {\"delta\": \"major\", \"type\": \"package\", \"name\": \"com.sp.api\", \"changes\": ["
+                + "{\"delta\": \"minor\", \"type\": \"class\", \"name\": \"com.sp.api.Changed\", \"changes\": ["
+                + "{\"delta\": \"added\", \"type\": \"method\", \"name\": \"quote\\\"d\\tname\\u0001()\"}]}, "
+                + "{\"delta\": \"removed\", \"type\": \"class\", \"name\": \"com.sp.api.Removed\"}]}},\n"
+                + "    {\"changeType\": \"MINOR\", \"message\": \"Version changed\"}\n"
+                + "  ],\n"
+                + "  \"changeType\": \"MAJOR\"\n"
+                + "}\n", json);
+
+        String text = read(DiffReportWriter.TEXT_REPORT);
+        assertEquals("Old File : " + previous.getAbsolutePath() + "\n"
+                + "New File : " + current.getAbsolutePath() + "\n"
+                + "\n"
+                + "[MAJOR] Package \"com.sp.api\"\r\nchanged\\\n"
+                + "  A minor change occurs in the class com.sp.api.Changed\n"
+                + "    + method " + ADDED_METHOD + "\n"
+                + "  - class com.sp.api.Removed\n"
+                + "[MINOR] Version changed\n"
+                + "\n"
+                + "Main change type : MAJOR\n", text);
+    }
+
+    /**
+     * Test of finish method without any change, of class DiffReportWriter.
+     */
+    public void testFinish() throws Exception {
+        System.out.println("finish");
+        File previous = new File(directory, "previous.jar");
+        File current = new File(directory, "current.jar");
+        try (DiffReportWriter report = DiffReportWriter.open(directory, previous, current)) {
+            report.finish(ChangeType.NONE);
+        }
+        assertEquals("{\n"
+                + "  \"previous\": \"" + previous.getAbsolutePath() + "\",\n"
+                + "  \"current\": \"" + current.getAbsolutePath() + "\",\n"
+                + "  \"changes\": [],\n"
+                + "  \"changeType\": \"NONE\"\n"
+                + "}\n", read(DiffReportWriter.JSON_REPORT));
+    }
+
+    private String read(String name) throws Exception {
+        return new String(Files.readAllBytes(new File(directory, name).toPath()), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Create the differences of a package: a method is added to com.sp.api.Changed, com.sp.api.Removed is
+     * removed, com.sp.api.Unchanged is unchanged and the addition of com.sp.api.Ignored is ignored.
+     */
+    private static Diff createDiff() {
+        Tree older = element(Type.PACKAGE, "com.sp.api",
+                element(Type.CLASS, "com.sp.api.Changed", element(Type.METHOD, "value()")),
+                element(Type.CLASS, "com.sp.api.Removed"),
+                element(Type.CLASS, "com.sp.api.Unchanged", element(Type.METHOD, "value()")));
+        Tree newer = element(Type.PACKAGE, "com.sp.api",
+                element(Type.CLASS, "com.sp.api.Changed", element(Type.METHOD, "value()"),
+                        element(Type.METHOD, ADDED_METHOD)),
+                element(Type.CLASS, "com.sp.api.Ignored"),
+                element(Type.CLASS, "com.sp.api.Unchanged", element(Type.METHOD, "value()")));
+        return ignore(new DiffImpl(newer, older), "com.sp.api.Ignored");
+    }
+
+    private static Tree element(Type type, String name, Tree... children) {
+        Arrays.sort(children);
+        return new TestElement(type, name, children);
+    }
+
+    /**
+     * Wrap the given differences so that the delta of the elements with the given name is IGNORED, as with the
+     * Ignore of bnd.
+     */
+    private static Diff ignore(Diff diff, String ignoredName) {
+        return (Diff) Proxy.newProxyInstance(DiffReportWriterTest.class.getClassLoader(), new Class<?>[]{Diff.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("getDelta") && args == null && diff.getName().equals(ignoredName)) {
+                        return Delta.IGNORED;
+                    } else if (method.getName().equals("getChildren")) {
+                        List<Diff> children = new ArrayList<>();
+                        for (Diff child : diff.getChildren()) {
+                            children.add(ignore(child, ignoredName));
+                        }
+                        return children;
+                    }
+                    try {
+                        return method.invoke(diff, args);
+                    } catch (InvocationTargetException ex) {
+                        throw ex.getCause();
+                    }
+                });
+    }
+
+    /**
+     * An element of the API tree, added as a minor change and removed as a major change, like the bnd elements.
+     */
+    private static final class TestElement implements Tree {
+
+        private final Type type;
+        private final String name;
+        private final Tree[] children;
+
+        TestElement(Type type, String name, Tree[] children) {
+            this.type = type;
+            this.name = name;
+            this.children = children;
+        }
+
+        @Override
+        public Data serialize() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Tree[] getChildren() {
+            return children;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public Type getType() {
+            return type;
+        }
+
+        @Override
+        public Delta ifAdded() {
+            return Delta.MINOR;
+        }
+
+        @Override
+        public Delta ifRemoved() {
+            return Delta.MAJOR;
+        }
+
+        @Override
+        public Diff diff(Tree older) {
+            return new DiffImpl(this, older);
+        }
+
+        @Override
+        public Tree get(String childName) {
+            for (Tree child : children) {
+                if (child.getName().equals(childName)) {
+                    return child;
+                }
+            }
+            return null;
+        }
+
+        @Override
+        public int compareTo(Tree other) {
+            return type == other.getType() ? name.compareTo(other.getName()) : type.compareTo(other.getType());
+        }
+
+    }
+
+}
@@ -0,0 +1,62 @@
+package com.sp.maven.baseline;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Map;
+import junit.framework.TestCase;
+
+public class ExportPackageParserTest extends TestCase {
+
+    public ExportPackageParserTest(String testName) {
+        super(testName);
+    }
+
+    /**
+     * Test of parse method with quoted attributes and directives, of class ExportPackageParser.
+     */
+    public void testParseQuoted() {
+        System.out.println("parseQuoted");
+        Map<String, String> result = ExportPackageParser.parse(
+                "com.sp.a;version=\"1.2.0\";uses:=\"com.sp.b,com.sp.c\",com.sp.b;version=\"1.0.0\"");
+        assertEquals(Arrays.asList("com.sp.a", "com.sp.b"), new ArrayList<>(result.keySet()));
+        assertEquals("1.2.0", result.get("com.sp.a"));
+        assertEquals("1.0.0", result.get("com.sp.b"));
+    }
+
+    /**
+     * Test of parse method with unquoted attributes, of class ExportPackageParser.
+     */
+    public void testParseUnquoted() {
+        System.out.println("parseUnquoted");
+        Map<String, String> result = ExportPackageParser.parse(
+                "com.sp.a;version=1.2,com.sp.b, com.sp.c ;version=2.0,com.sp.a;version=3.0");
+        assertEquals(Arrays.asList("com.sp.a", "com.sp.b", "com.sp.c"), new ArrayList<>(result.keySet()));
+        assertEquals("1.2", result.get("com.sp.a"));
+        assertNull(result.get("com.sp.b"));
+        assertEquals("2.0", result.get("com.sp.c"));
+    }
+
+    /**
+     * Test of parse method with several packages in a clause and typed attributes, of class ExportPackageParser.
+     */
+    public void testParseSharedClause() {
+        System.out.println("parseSharedClause");
+        Map<String, String> result = ExportPackageParser.parse(
+                "com.sp.a;com.sp.b;version:Version=\"3.0\";mandatory:=\"x\";x=\"a;b,c\";,com.sp.c;specification-version=1.1");
+        assertEquals(Arrays.asList("com.sp.a", "com.sp.b", "com.sp.c"), new ArrayList<>(result.keySet()));
+        assertEquals("3.0", result.get("com.sp.a"));
+        assertEquals("3.0", result.get("com.sp.b"));
+        assertEquals("1.1", result.get("com.sp.c"));
+    }
+
+    /**
+     * Test of parse method with an empty header, of class ExportPackageParser.
+     */
+    public void testParseEmpty() {
+        System.out.println("parseEmpty");
+        assertTrue(ExportPackageParser.parse(null).isEmpty());
+        assertTrue(ExportPackageParser.parse("").isEmpty());
+        assertTrue(ExportPackageParser.parse(" , ").isEmpty());
+    }
+
+}
@@ -0,0 +1,242 @@
+package com.sp.maven.baseline;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.jar.Attributes;
+import java.util.jar.JarFile;
+import java.util.jar.Manifest;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipException;
+import java.util.zip.ZipOutputStream;
+import junit.framework.TestCase;
+import org.codehaus.plexus.util.FileUtils;
+
+public class JarIndexTest extends TestCase {
+
+    private File directory;
+
+    public JarIndexTest(String testName) {
+        super(testName);
+    }
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        directory = Files.createTempDirectory("jar-index").toFile();
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        FileUtils.deleteDirectory(directory);
+        super.tearDown();
+    }
+
+    /**
+     * Test of open method, of class JarIndex.
+     */
+    public void testOpen() throws Exception {
+        System.out.println("open");
+        byte[] stored = SyntheticJars.classBytes("com/sp/a/Stored", new String[]{"value"});
+        byte[] deflated = SyntheticJars.classBytes("com/sp/b/Deflated", new String[]{"value", "other"});
+        File file = new File(directory, "mixed.jar");
+        try (ZipOutputStream out = new ZipOutputStream(new FileOutputStream(file))) {
+            out.putNextEntry(new ZipEntry(JarFile.MANIFEST_NAME));
+            createManifest().write(out);
+            out.closeEntry();
+            out.putNextEntry(new ZipEntry("com/sp/a/"));
+            out.closeEntry();
+            out.putNextEntry(createStoredEntry("com/sp/a/Stored.class", stored));
+            out.write(stored);
+            out.closeEntry();
+            ZipEntry entry = new ZipEntry("com/sp/b/Deflated.class");
+            entry.setComment("deflated entry");
+            entry.setExtra(new byte[]{(byte) 0xCA, (byte) 0xFE, 0, 0});
+            out.putNextEntry(entry);
+            out.write(deflated);
+            out.closeEntry();
+            out.putNextEntry(createStoredEntry("readme.txt", "readme".getBytes(StandardCharsets.UTF_8)));
+            out.write("readme".getBytes(StandardCharsets.UTF_8));
+            out.closeEntry();
+            // The end of central directory record is followed by a long comment
+            char[] comment = new char[4000];
+            Arrays.fill(comment, 'c');
+            out.setComment(new String(comment));
+        }
+
+        try (JarIndex index = JarIndex.open(file)) {
+            assertTrue(index.hasClasses());
+            assertEquals(Arrays.asList("com/sp/a/Stored.class", "com/sp/b/Deflated.class"), index.getClassEntries());
+            assertEquals(Arrays.asList("com.sp.a", "com.sp.b"), Arrays.asList(index.getPackages().toArray()));
+            assertEquals("com.sp.test", index.getMainAttributes().getValue("Bundle-SymbolicName"));
+            assertTrue(Arrays.equals(stored, index.read("com/sp/a/Stored.class")));
+            assertTrue(Arrays.equals(deflated, index.read("com/sp/b/Deflated.class")));
+            assertEquals("readme", new String(index.read("readme.txt"), StandardCharsets.UTF_8));
+            assertNull(index.read("missing.txt"));
+            CRC32 crc = new CRC32();
+            crc.update(deflated);
+            assertEquals(Long.valueOf((crc.getValue() << 32) | deflated.length),
+                    index.getClassChecksums().get("com/sp/b/Deflated.class"));
+            // The bnd JAR reads the same content, the directories excepted
+            assertEquals(4, index.toBndJar().getResources().size());
+            assertTrue(Arrays.equals(deflated, read(index.toBndJar().getResource("com/sp/b/Deflated.class")
+                    .openInputStream())));
+        }
+    }
+
+    /**
+     * Test of open method with an empty JAR file, of class JarIndex.
+     */
+    public void testOpenEmpty() throws Exception {
+        System.out.println("openEmpty");
+        File file = new File(directory, "empty.jar");
+        try (ZipOutputStream out = new ZipOutputStream(new FileOutputStream(file))) {
+            out.finish();
+        }
+        try (JarIndex index = JarIndex.open(file)) {
+            assertFalse(index.hasClasses());
+            assertNull(index.getManifest());
+            assertTrue(index.getMainAttributes().isEmpty());
+            assertTrue(index.getClassEntries().isEmpty());
+            assertTrue(index.scanPackages(Collections.<String>emptyList()).isEmpty());
+        }
+
+        File notZip = new File(directory, "not-a.jar");
+        Files.write(notZip.toPath(), "not a zip file".getBytes(StandardCharsets.UTF_8));
+        try {
+            JarIndex.open(notZip).close();
+            fail("The file is not a zip file");
+        } catch (ZipException ex) {
+            assertTrue(ex.getMessage().startsWith("Not a zip file"));
+        }
+    }
+
+    /**
+     * Test of read method with a Zip64 entry, of class JarIndex.
+     */
+    public void testReadZip64() throws Exception {
+        System.out.println("readZip64");
+        byte[] content = SyntheticJars.classBytes("com/sp/a/Large", new String[]{"value"});
+        File file = new File(directory, "zip64.jar");
+        try (ZipOutputStream out = new ZipOutputStream(new FileOutputStream(file))) {
+            out.putNextEntry(new ZipEntry("com/sp/a/Large.class"));
+            out.write(content);
+            out.closeEntry();
+        }
+        // The sizes of the entry are moved to a Zip64 extra field, as done for the entries larger than 4 GB
+        byte[] bytes = Files.readAllBytes(file.toPath());
+        int cen = -1;
+        for (int pos = bytes.length - 4; pos >= 0 && cen < 0; pos--) {
+            if (bytes[pos] == 'P' && bytes[pos + 1] == 'K' && bytes[pos + 2] == 1 && bytes[pos + 3] == 2) {
+                cen = pos;
+            }
+        }
+        assertTrue(cen >= 0);
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.seek(cen + 20);
+            raf.writeInt(0xFFFFFFFF);
+        }
+
+        try (JarIndex index = JarIndex.open(file)) {
+            assertEquals(Collections.singletonList("com/sp/a/Large.class"), index.getClassEntries());
+            try {
+                index.read("com/sp/a/Large.class");
+                fail("The Zip64 entries are not supported");
+            } catch (ZipException ex) {
+                assertTrue(ex.getMessage().startsWith("Zip64 entries are not supported"));
+            }
+        }
+    }
+
+    /**
+     * Test of scanPackages method, of class JarIndex: the packages are the ones found by the former rule, which
+     * excluded the classes whose name contains .impl. or .internal., including when the classes of a package
+     * are split between two scan chunks.
+     */
+    public void testScanPackages() throws Exception {
+        System.out.println("scanPackages");
+        File file = new File(directory, "large.jar");
+        try (ZipOutputStream out = new ZipOutputStream(new FileOutputStream(file))) {
+            out.setLevel(0);
+            String[] packages = {"com/sp/api", "com/sp/impl", "com/sp/api/internal/util", "impl/root", "com/sp/spi",
+                "com/sp/implementation", "com/sp/a/b/c/impl", "com/sp/\u00e9t\u00e9", "com/sp/api"};
+            int count = 0;
+            // Long runs of classes of the same package cross the chunk boundaries, short runs interleave the packages
+            for (int run = 0; count < 20000; run++) {
+                String packageName = packages[run % packages.length] + (run % 7 == 0 ? "" : "/p" + (run % 13));
+                int length = run % 3 == 0 ? 1500 : 1 + run % 4;
+                for (int c = 0; c < length; c++, count++) {
+                    out.putNextEntry(new ZipEntry(packageName + "/C" + count + (c % 5 == 0 ? "$Inner" : "") + ".class"));
+                    out.closeEntry();
+                }
+                if (run % 5 == 0) {
+                    out.putNextEntry(new ZipEntry(packageName + "/resource" + run + ".txt"));
+                    out.closeEntry();
+                }
+            }
+            out.putNextEntry(new ZipEntry("Default.class"));
+            out.closeEntry();
+        }
+
+        try (JarIndex index = JarIndex.open(file)) {
+            assertTrue(index.getClassEntries().size() > 2 * 8192);
+            for (List<String> excludedSegments : Arrays.asList(ApiExtractor.DEFAULT_EXCLUDED_SEGMENTS,
+                    Arrays.asList("spi", "impl", "\u00e9t\u00e9"), Collections.<String>emptyList())) {
+                Set<String> expected = new TreeSet<>();
+                for (String entry : index.getClassEntries()) {
+                    String className = entry.substring(0, entry.length() - ".class".length()).replace('/', '.');
+                    boolean excluded = false;
+                    for (String excludedSegment : excludedSegments) {
+                        excluded |= className.contains("." + excludedSegment + ".");
+                    }
+                    if (!excluded && className.lastIndexOf('.') > 0) {
+                        expected.add(className.substring(0, className.lastIndexOf('.')));
+                    }
+                }
+                assertEquals(excludedSegments.toString(), expected, index.scanPackages(excludedSegments));
+            }
+        }
+    }
+
+    private static Manifest createManifest() {
+        Manifest manifest = new Manifest();
+        manifest.getMainAttributes().put(Attributes.Name.MANIFEST_VERSION, "1.0");
+        manifest.getMainAttributes().putValue("Bundle-SymbolicName", "com.sp.test");
+        return manifest;
+    }
+
+    private static ZipEntry createStoredEntry(String name, byte[] content) {
+        ZipEntry entry = new ZipEntry(name);
+        entry.setMethod(ZipEntry.STORED);
+        entry.setSize(content.length);
+        entry.setCompressedSize(content.length);
+        CRC32 crc = new CRC32();
+        crc.update(content);
+        entry.setCrc(crc.getValue());
+        return entry;
+    }
+
+    private static byte[] read(InputStream in) throws IOException {
+        try (InputStream stream = in) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[4096];
+            int n;
+            while ((n = stream.read(buffer)) > 0) {
+                out.write(buffer, 0, n);
+            }
+            return out.toByteArray();
+        }
+    }
+
+}
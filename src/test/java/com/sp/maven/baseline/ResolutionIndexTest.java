@@ -0,0 +1,113 @@
+package com.sp.maven.baseline;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.Arrays;
+import junit.framework.TestCase;
+import org.apache.maven.artifact.versioning.ArtifactVersion;
+import org.apache.maven.artifact.versioning.DefaultArtifactVersion;
+import org.apache.maven.execution.DefaultMavenExecutionRequest;
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.codehaus.plexus.util.FileUtils;
+
+public class ResolutionIndexTest extends TestCase {
+
+    private File directory;
+
+    public ResolutionIndexTest(String testName) {
+        super(testName);
+    }
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        directory = Files.createTempDirectory("resolution-index").toFile();
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        FileUtils.deleteDirectory(directory);
+        super.tearDown();
+    }
+
+    /**
+     * Test of forSession method, of class ResolutionIndex.
+     */
+    public void testForSession() {
+        System.out.println("forSession");
+        MavenSession session = createSession("build");
+        File storage = new File(directory, "index.properties");
+        ResolutionIndex index = ResolutionIndex.forSession(session, storage, 60, new SystemStreamLog());
+        assertSame(index, ResolutionIndex.forSession(session, storage, 60, new SystemStreamLog()));
+        // A parallel build gives each project a copy of the session
+        assertSame(index, ResolutionIndex.forSession(createSession("build"), storage, 60, new SystemStreamLog()));
+        assertNotSame(index, ResolutionIndex.forSession(session, storage, 10, new SystemStreamLog()));
+        assertNotSame(index, ResolutionIndex.forSession(session, new File(directory, "other.properties"), 60,
+                new SystemStreamLog()));
+        assertNotSame(index, ResolutionIndex.forSession(session, null, 60, new SystemStreamLog()));
+        assertNotSame(index, ResolutionIndex.forSession(createSession("other-build"), storage, 60,
+                new SystemStreamLog()));
+    }
+
+    /**
+     * Test of save method, of class ResolutionIndex: the entries of concurrent builds are merged.
+     */
+    public void testSave() throws Exception {
+        System.out.println("save");
+        File storage = new File(directory, "index.properties");
+        File jar = new File(directory, "lib-1.0.jar");
+        jar.createNewFile();
+        ResolutionIndex first = ResolutionIndex.forSession(createSession("first"), storage, 60, new SystemStreamLog());
+        ResolutionIndex second = ResolutionIndex.forSession(createSession("second"), storage, 60,
+                new SystemStreamLog());
+        first.putVersions("com.sp:lib", Arrays.asList(version("1.0")));
+        first.putFile("com.sp:lib:jar::1.0", jar);
+        second.putVersions("com.sp:other", Arrays.asList(version("2.0"), version("2.1")));
+        // The entries are stored once, when the index is saved
+        assertFalse(storage.exists());
+        first.save();
+        second.save();
+
+        ResolutionIndex loaded = ResolutionIndex.forSession(createSession("loaded"), storage, 60,
+                new SystemStreamLog());
+        assertEquals(Arrays.asList(version("1.0")), loaded.getVersions("com.sp:lib"));
+        assertEquals(Arrays.asList(version("2.0"), version("2.1")), loaded.getVersions("com.sp:other"));
+        assertEquals(jar.getAbsoluteFile(), loaded.getFile("com.sp:lib:jar::1.0"));
+        // The versions are trusted for a limited time only
+        assertNull(ResolutionIndex.forSession(createSession("expired"), storage, -1, new SystemStreamLog())
+                .getVersions("com.sp:lib"));
+
+        // The entries added later are merged in the stored index
+        second.putVersions("com.sp:lib", Arrays.asList(version("1.0"), version("1.1")));
+        second.save();
+        loaded = ResolutionIndex.forSession(createSession("reloaded"), storage, 60, new SystemStreamLog());
+        assertEquals(Arrays.asList(version("1.0"), version("1.1")), loaded.getVersions("com.sp:lib"));
+        assertEquals(Arrays.asList(version("2.0"), version("2.1")), loaded.getVersions("com.sp:other"));
+    }
+
+    /**
+     * Test of getVersions method, of class ResolutionIndex: the versions kept in memory expire as well.
+     */
+    public void testGetVersions() {
+        System.out.println("getVersions");
+        ResolutionIndex index = ResolutionIndex.forSession(createSession("memory"), null, 60, new SystemStreamLog());
+        index.putVersions("com.sp:a", Arrays.asList(version("0.9")));
+        assertEquals(Arrays.asList(version("0.9")), index.getVersions("com.sp:a"));
+        assertNull(index.getVersions("com.sp:b"));
+        index = ResolutionIndex.forSession(createSession("memory"), null, -1, new SystemStreamLog());
+        index.putVersions("com.sp:a", Arrays.asList(version("0.9")));
+        assertNull(index.getVersions("com.sp:a"));
+    }
+
+    private static ArtifactVersion version(String version) {
+        return new DefaultArtifactVersion(version);
+    }
+
+    private MavenSession createSession(final String build) {
+        DefaultMavenExecutionRequest request = new DefaultMavenExecutionRequest();
+        request.setBaseDirectory(new File(directory, build));
+        return new MavenSession(null, null, request, null);
+    }
+
+}
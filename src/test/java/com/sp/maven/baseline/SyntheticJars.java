@@ -0,0 +1,154 @@
+package com.sp.maven.baseline;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.jar.Attributes;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.jar.Manifest;
+
+/**
+ * Generate the JAR files used by the tests and the benchmarks, so that they run without any artifact to download.
+ * The classes are written directly in the class file format, each one with a public field.
+ */
+public final class SyntheticJars {
+
+    /** The serial version unique id. */
+    private static final long serialVersionUID = 20261018153512L;
+    /** Number of classes in each package. */
+    public static final int CLASSES_PER_PACKAGE = 5;
+
+    /** How the exposed packages are declared in the MANIFEST. */
+    public enum Layout {
+        /** Export-Package header of an OSGi bundle. */
+        OSGI,
+        /** OpenIDE-Module-Public-Packages header of a NetBeans module. */
+        NETBEANS,
+        /** No header, the packages are found by scanning the classes. */
+        CLASSES
+    }
+
+    /**
+     * Constructor.
+     */
+    private SyntheticJars() {
+    }
+
+    /**
+     * Write a JAR file.
+     * @param file The JAR file to write.
+     * @param packages The number of packages.
+     * @param layout How the exposed packages are declared.
+     * @param version The version of the exported packages.
+     * @param changeEvery A package out of changeEvery gets an additional public field, 0 for none.
+     * @throws IOException If the file can't be written.
+     */
+    public static void write(final File file, final int packages, final Layout layout, final String version,
+            final int changeEvery) throws IOException {
+        List<String> packageNames = new ArrayList<>();
+        for (int p = 0; p < packages; p++) {
+            packageNames.add("com.sp.bench.p" + p);
+        }
+        Manifest manifest = new Manifest();
+        Attributes attributes = manifest.getMainAttributes();
+        attributes.put(Attributes.Name.MANIFEST_VERSION, "1.0");
+        if (layout == Layout.OSGI) {
+            attributes.putValue("Bundle-SymbolicName", "com.sp.bench");
+            StringBuilder exports = new StringBuilder();
+            for (String packageName : packageNames) {
+                if (exports.length() > 0) {
+                    exports.append(',');
+                }
+                exports.append(packageName).append(";version=\"").append(version).append('"');
+            }
+            attributes.putValue("Export-Package", exports.toString());
+        } else if (layout == Layout.NETBEANS) {
+            StringBuilder exports = new StringBuilder();
+            for (String packageName : packageNames) {
+                if (exports.length() > 0) {
+                    exports.append(", ");
+                }
+                exports.append(packageName).append(".*");
+            }
+            attributes.putValue("OpenIDE-Module-Public-Packages", exports.toString());
+        }
+        try (JarOutputStream out = new JarOutputStream(new FileOutputStream(file), manifest)) {
+            for (int p = 0; p < packages; p++) {
+                boolean changed = changeEvery > 0 && p % changeEvery == 0;
+                String path = packageNames.get(p).replace('.', '/');
+                for (int c = 0; c < CLASSES_PER_PACKAGE; c++) {
+                    String className = path + "/C" + c;
+                    out.putNextEntry(new JarEntry(className + ".class"));
+                    out.write(classBytes(className, changed && c == 0 ? new String[]{"value", "added"}
+                            : new String[]{"value"}));
+                    out.closeEntry();
+                }
+            }
+        }
+    }
+
+    /**
+     * Build a public class extending Object with the given public int fields.
+     * @param className The internal name of the class.
+     * @param fields The names of the fields.
+     * @return The content of the class file.
+     * @throws IOException Never, the class is written in memory.
+     */
+    static byte[] classBytes(final String className, final String[] fields) throws IOException {
+        return classBytes(className, "java/lang/Object", fields);
+    }
+
+    /**
+     * Build a public class extending the given class with the given public int fields.
+     * @param className The internal name of the class.
+     * @param superName The internal name of the super class.
+     * @param fields The names of the fields.
+     * @return The content of the class file.
+     * @throws IOException Never, the class is written in memory.
+     */
+    static byte[] classBytes(final String className, final String superName, final String[] fields)
+            throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(0xCAFEBABE);
+        out.writeShort(0);
+        out.writeShort(52);
+        // #1 this name, #2 this class, #3 super name, #4 super class, #5 field descriptor, #6.. field names
+        out.writeShort(6 + fields.length);
+        out.writeByte(1);
+        out.writeUTF(className);
+        out.writeByte(7);
+        out.writeShort(1);
+        out.writeByte(1);
+        out.writeUTF(superName);
+        out.writeByte(7);
+        out.writeShort(3);
+        out.writeByte(1);
+        out.writeUTF("I");
+        for (String field : fields) {
+            out.writeByte(1);
+            out.writeUTF(field);
+        }
+        out.writeShort(0x0021); // public super
+        out.writeShort(2);
+        out.writeShort(4);
+        out.writeShort(0); // interfaces
+        out.writeShort(fields.length);
+        for (int i = 0; i < fields.length; i++) {
+            out.writeShort(0x0001); // public
+            out.writeShort(6 + i);
+            out.writeShort(5);
+            out.writeShort(0); // attributes
+        }
+        out.writeShort(0); // methods
+        out.writeShort(0); // attributes
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+}
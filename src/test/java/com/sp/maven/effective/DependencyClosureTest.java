@@ -0,0 +1,52 @@
+package com.sp.maven.effective;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Collections;
+import junit.framework.TestCase;
+import org.eclipse.aether.artifact.ArtifactProperties;
+import org.eclipse.aether.artifact.DefaultArtifact;
+import org.eclipse.aether.graph.DefaultDependencyNode;
+import org.eclipse.aether.graph.Dependency;
+
+public class DependencyClosureTest extends TestCase {
+
+    public DependencyClosureTest(String testName) {
+        super(testName);
+    }
+
+    /**
+     * Test of of method, of class DependencyClosure.
+     */
+    public void testOf() {
+        System.out.println("of");
+        DefaultDependencyNode root = new DefaultDependencyNode(new DefaultArtifact("com.sp:assembly:pom:1.0.0"));
+        DefaultDependencyNode a = createNode(new DefaultArtifact("com.sp:a:1.0.0"));
+        DefaultDependencyNode b = createNode(new DefaultArtifact("com.sp", "b", "tests", "jar", "1.0.0",
+                Collections.singletonMap(ArtifactProperties.TYPE, "test-jar"), (File) null));
+        DefaultDependencyNode c = createNode(new DefaultArtifact("com.sp:c:1.0.0"));
+        DefaultDependencyNode c2 = createNode(new DefaultArtifact("com.sp:c:1.0.0"));
+        root.setChildren(Arrays.asList(a, b));
+        a.setChildren(Collections.singletonList(c));
+        b.setChildren(Collections.singletonList(c2));
+
+        DependencyClosure closure = DependencyClosure.of(root);
+        assertEquals(Arrays.asList("com.sp:a:jar", "com.sp:b:test-jar:tests", "com.sp:c:jar"), closure.getKeys());
+        assertTrue(closure.contains("com.sp:c:jar"));
+        assertFalse(closure.contains("com.sp:b:jar"));
+        assertFalse(closure.contains("com.sp:assembly:pom"));
+
+        // A shared node and a cycle are walked once
+        DefaultDependencyNode d = createNode(new DefaultArtifact("com.sp:d:1.0.0"));
+        c.setChildren(Arrays.asList(d, a));
+        c2.setChildren(Collections.singletonList(d));
+        closure = DependencyClosure.of(root);
+        assertEquals(Arrays.asList("com.sp:a:jar", "com.sp:b:test-jar:tests", "com.sp:c:jar", "com.sp:d:jar"),
+                closure.getKeys());
+    }
+
+    private static DefaultDependencyNode createNode(final DefaultArtifact artifact) {
+        return new DefaultDependencyNode(new Dependency(artifact, "compile"));
+    }
+
+}
@@ -0,0 +1,137 @@
+package com.sp.maven.effective;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import junit.framework.TestCase;
+import org.apache.maven.model.Dependency;
+import org.apache.maven.model.DependencyManagement;
+import org.apache.maven.model.Model;
+import org.apache.maven.model.building.DefaultModelBuildingRequest;
+import org.apache.maven.model.inheritance.DefaultInheritanceAssembler;
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.codehaus.plexus.util.FileUtils;
+
+public class LightEffectiveFingerprintTest extends TestCase {
+
+    private Path directory;
+
+    public LightEffectiveFingerprintTest(String testName) {
+        super(testName);
+    }
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        directory = Files.createTempDirectory("fingerprint");
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        FileUtils.deleteDirectory(directory.toFile());
+        super.tearDown();
+    }
+
+    /**
+     * Test of of method, of class LightEffectiveFingerprint.
+     */
+    public void testOf() throws Exception {
+        System.out.println("of");
+        Model model = createModel("1.0.0");
+        String fingerprint = LightEffectiveFingerprint.of(model, "options");
+        assertEquals(fingerprint, LightEffectiveFingerprint.of(createModel("1.0.0"), "options"));
+        assertFalse(fingerprint.equals(LightEffectiveFingerprint.of(createModel("1.0.1"), "options")));
+        assertFalse(fingerprint.equals(LightEffectiveFingerprint.of(model, "other options")));
+        model.addProperty("name", "value");
+        assertFalse(fingerprint.equals(LightEffectiveFingerprint.of(model, "options")));
+    }
+
+    /**
+     * Test of of method with an effective model built again from the generated POM file, of class
+     * LightEffectiveFingerprint: the managed dependencies declared by the POM file come first, the fingerprint is
+     * the same.
+     */
+    public void testOfRegenerated() throws Exception {
+        System.out.println("ofRegenerated");
+        Model parent = new Model();
+        parent.setDependencyManagement(new DependencyManagement());
+        parent.getDependencyManagement().addDependency(createDependency("unused", "1.0.0"));
+        parent.getDependencyManagement().addDependency(createDependency("lib", "1.0.0"));
+        Model original = new Model();
+        original.setDependencyManagement(new DependencyManagement());
+        original.getDependencyManagement().addDependency(createDependency("own", "2.0.0"));
+        original.addDependency(createDependency("lib", null));
+        original.addDependency(createDependency("own", null));
+        Model effective = inherit(original, parent);
+        String fingerprint = LightEffectiveFingerprint.of(effective, "options");
+
+        // The light effective POM file declares the managed dependencies used
+        Model generated = original.clone();
+        generated.setDependencyManagement(effective.getDependencyManagement().clone());
+        LightEffectivePomMojo.filterDependencyManagement(generated, null, new SystemStreamLog());
+        // The next build reads the generated model from the POM file
+        Model regenerated = generated.clone();
+        Model regeneratedEffective = inherit(regenerated, parent);
+        assertEquals(Arrays.asList("own", "unused", "lib"), getManagedArtifactIds(effective));
+        assertEquals(Arrays.asList("own", "lib", "unused"), getManagedArtifactIds(regeneratedEffective));
+        assertEquals(fingerprint, LightEffectiveFingerprint.of(regeneratedEffective, "options"));
+
+        // A managed version changed by the parent is detected
+        parent.getDependencyManagement().getDependencies().get(0).setVersion("1.0.1");
+        assertFalse(fingerprint.equals(LightEffectiveFingerprint.of(inherit(regenerated, parent), "options")));
+    }
+
+    /**
+     * Test of isUpToDate method, of class LightEffectiveFingerprint.
+     */
+    public void testIsUpToDate() throws Exception {
+        System.out.println("isUpToDate");
+        Path fingerprintFile = directory.resolve("target").resolve(LightEffectiveFingerprint.FINGERPRINT_FILE);
+        Path pomFile = directory.resolve("pom.xml");
+        Files.write(pomFile, "<project/>".getBytes(StandardCharsets.UTF_8));
+        assertFalse(LightEffectiveFingerprint.isUpToDate(fingerprintFile, "abc", pomFile));
+
+        LightEffectiveFingerprint.store(fingerprintFile, "abc", pomFile);
+        assertTrue(LightEffectiveFingerprint.isUpToDate(fingerprintFile, "abc", pomFile));
+        assertFalse(LightEffectiveFingerprint.isUpToDate(fingerprintFile, "def", pomFile));
+        // The POM file changed since its generation
+        Files.write(pomFile, "<project></project>".getBytes(StandardCharsets.UTF_8));
+        assertFalse(LightEffectiveFingerprint.isUpToDate(fingerprintFile, "abc", pomFile));
+    }
+
+    private static Model createModel(final String version) {
+        Model model = new Model();
+        model.addDependency(createDependency("lib", version));
+        return model;
+    }
+
+    private static Dependency createDependency(final String artifactId, final String version) {
+        Dependency dependency = new Dependency();
+        dependency.setGroupId("com.sp");
+        dependency.setArtifactId(artifactId);
+        dependency.setVersion(version);
+        return dependency;
+    }
+
+    /**
+     * Build the effective model of a project as Maven does, the inherited managed dependencies come last.
+     */
+    private static Model inherit(final Model model, final Model parent) {
+        Model effective = model.clone();
+        new DefaultInheritanceAssembler().assembleModelInheritance(effective, parent,
+                new DefaultModelBuildingRequest(), problem -> fail(problem.getMessage()));
+        return effective;
+    }
+
+    private static List<String> getManagedArtifactIds(final Model model) {
+        List<String> artifactIds = new ArrayList<>();
+        for (Dependency dependency : model.getDependencyManagement().getDependencies()) {
+            artifactIds.add(dependency.getArtifactId());
+        }
+        return artifactIds;
+    }
+
+}
@@ -0,0 +1,76 @@
+package com.sp.maven.effective;
+
+import junit.framework.TestCase;
+import org.apache.maven.model.Build;
+import org.apache.maven.model.Dependency;
+import org.apache.maven.model.DependencyManagement;
+import org.apache.maven.model.Model;
+import org.apache.maven.model.Plugin;
+import org.apache.maven.model.PluginManagement;
+import org.apache.maven.plugin.logging.SystemStreamLog;
+
+public class LightEffectivePomMojoTest extends TestCase {
+
+    public LightEffectivePomMojoTest(String testName) {
+        super(testName);
+    }
+
+    /**
+     * Test of filterDependencyManagement method, of class LightEffectivePomMojo.
+     */
+    public void testFilterDependencyManagement() {
+        System.out.println("filterDependencyManagement");
+        Model model = new Model();
+        model.addDependency(createDependency("lib", null, null));
+        model.addDependency(createDependency("lib", "test-jar", "tests"));
+        model.setDependencyManagement(new DependencyManagement());
+        model.getDependencyManagement().addDependency(createDependency("lib", null, null));
+        model.getDependencyManagement().addDependency(createDependency("lib", null, "sources"));
+        model.getDependencyManagement().addDependency(createDependency("lib", "test-jar", "tests"));
+        model.getDependencyManagement().addDependency(createDependency("unused", null, null));
+
+        LightEffectivePomMojo.filterDependencyManagement(model, null, new SystemStreamLog());
+        assertEquals(2, model.getDependencyManagement().getDependencies().size());
+        assertNull(model.getDependencyManagement().getDependencies().get(0).getClassifier());
+        assertEquals("tests", model.getDependencyManagement().getDependencies().get(1).getClassifier());
+    }
+
+    /**
+     * Test of filterPluginManagement method, of class LightEffectivePomMojo.
+     */
+    public void testFilterPluginManagement() {
+        System.out.println("filterPluginManagement");
+        Model model = new Model();
+        model.setBuild(new Build());
+        model.getBuild().addPlugin(createPlugin("used"));
+        model.getBuild().setPluginManagement(new PluginManagement());
+        model.getBuild().getPluginManagement().addPlugin(createPlugin("unused"));
+        model.getBuild().getPluginManagement().addPlugin(createPlugin("used"));
+
+        LightEffectivePomMojo.filterPluginManagement(model, new SystemStreamLog());
+        assertEquals(1, model.getBuild().getPluginManagement().getPlugins().size());
+        assertEquals("used", model.getBuild().getPluginManagement().getPlugins().get(0).getArtifactId());
+        // No build section
+        LightEffectivePomMojo.filterPluginManagement(new Model(), new SystemStreamLog());
+    }
+
+    private static Dependency createDependency(final String artifactId, final String type, final String classifier) {
+        Dependency dependency = new Dependency();
+        dependency.setGroupId("com.sp");
+        dependency.setArtifactId(artifactId);
+        dependency.setVersion("1.0.0");
+        if (type != null) {
+            dependency.setType(type);
+        }
+        dependency.setClassifier(classifier);
+        return dependency;
+    }
+
+    private static Plugin createPlugin(final String artifactId) {
+        Plugin plugin = new Plugin();
+        plugin.setGroupId("com.sp");
+        plugin.setArtifactId(artifactId);
+        return plugin;
+    }
+
+}
@@ -0,0 +1,95 @@
+package com.sp.maven.effective;
+
+import java.util.Arrays;
+import java.util.List;
+import junit.framework.TestCase;
+import org.apache.maven.model.Dependency;
+import org.apache.maven.model.DependencyManagement;
+import org.apache.maven.model.Model;
+import org.apache.maven.model.Parent;
+import org.apache.maven.project.MavenProject;
+
+public class ManagedDependencyIndexTest extends TestCase {
+
+    public ManagedDependencyIndexTest(String testName) {
+        super(testName);
+    }
+
+    /**
+     * Test of select method, of class ManagedDependencyIndex.
+     */
+    public void testSelect() {
+        System.out.println("select");
+        Dependency a = createDependency("a", null);
+        Dependency b = createDependency("b", null);
+        Dependency bSources = createDependency("b", "sources");
+        ManagedDependencyIndex index = new ManagedDependencyIndex(Arrays.asList(a, b, bSources));
+        assertEquals(3, index.size());
+
+        List<Dependency> selected = index.select(Arrays.asList(createDependency("b", "sources").getManagementKey(),
+                createDependency("unknown", null).getManagementKey(), createDependency("a", null).getManagementKey()));
+        // In the declaration order, as copies
+        assertEquals(2, selected.size());
+        assertEquals("a", selected.get(0).getArtifactId());
+        assertNotSame(a, selected.get(0));
+        assertEquals("sources", selected.get(1).getClassifier());
+    }
+
+    /**
+     * Test of getSharingKey method, of class ManagedDependencyIndex.
+     */
+    public void testGetSharingKey() {
+        System.out.println("getSharingKey");
+        Model parentModel = new Model();
+        parentModel.setGroupId("com.sp");
+        parentModel.setArtifactId("parent");
+        parentModel.setVersion("1.0.0");
+        parentModel.setDependencyManagement(new DependencyManagement());
+        parentModel.getDependencyManagement().addDependency(createDependency("a", null));
+        MavenProject parentProject = new MavenProject(parentModel);
+        parentProject.setOriginalModel(parentModel);
+        Parent parent = new Parent();
+        parent.setGroupId("com.sp");
+        parent.setArtifactId("parent");
+        parent.setVersion("1.0.0");
+        Model model = new Model();
+        model.setArtifactId("assembly");
+        model.setParent(parent);
+        MavenProject project = new MavenProject(model);
+        project.setOriginalModel(model);
+        project.setParent(parentProject);
+        assertEquals(parent.getId(), ManagedDependencyIndex.getSharingKey(project));
+
+        // An unknown parent may have a dependencyManagement section of its own
+        project.setParent(null);
+        assertEquals(project.getId(), ManagedDependencyIndex.getSharingKey(project));
+        project.setParent(parentProject);
+
+        // A version of its own may change the project expressions of the inherited section
+        model.setVersion("1.1.0");
+        assertEquals(project.getId(), ManagedDependencyIndex.getSharingKey(project));
+        model.setVersion(null);
+
+        // An inherited section referring to the project is interpolated for each module
+        Dependency b = createDependency("b", null);
+        b.setVersion("${project.version}");
+        parentModel.getDependencyManagement().addDependency(b);
+        assertEquals(project.getId(), ManagedDependencyIndex.getSharingKey(project));
+        parentModel.getDependencyManagement().removeDependency(b);
+        assertEquals(parent.getId(), ManagedDependencyIndex.getSharingKey(project));
+
+        // A property may change the versions of the imported BOMs
+        model.addProperty("bom.version", "2.0.0");
+        assertEquals(project.getId(), ManagedDependencyIndex.getSharingKey(project));
+    }
+
+    private static Dependency createDependency(final String artifactId, final String classifier) {
+        Dependency dependency = new Dependency();
+        dependency.setGroupId("com.sp");
+        dependency.setArtifactId(artifactId);
+        dependency.setVersion("1.0.0");
+        dependency.setClassifier(classifier);
+        return dependency;
+    }
+
+}
@@ -0,0 +1,123 @@
+package com.sp.maven.revert;
+
+import com.sp.maven.utils.BackupManifest;
+import com.sp.maven.utils.BackupStrategies;
+import com.sp.maven.utils.BackupStrategy;
+import com.sp.maven.utils.Constants;
+import com.sp.maven.utils.Helper;
+import com.sp.maven.utils.PomTransaction;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.stream.Stream;
+import junit.framework.TestCase;
+import org.apache.maven.model.Model;
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.apache.maven.project.MavenProject;
+
+public class RevertAllMojoTest extends TestCase {
+
+    private static final String POM = "<project>\r\n"
+            + "    <groupId>com.sp</groupId>\r\n"
+            + "    <artifactId>%s</artifactId>\r\n"
+            + "    <version>%s</version>\r\n"
+            + "</project>\r\n";
+
+    private Path root;
+
+    public RevertAllMojoTest(String testName) {
+        super(testName);
+    }
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        root = Files.createTempDirectory("reactor");
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        try (Stream<Path> files = Files.walk(root)) {
+            files.sorted((a, b) -> b.compareTo(a)).forEach(file -> file.toFile().delete());
+        }
+        super.tearDown();
+    }
+
+    /**
+     * Test of revert method, of class RevertAllMojo.
+     */
+    public void testRevert() throws Exception {
+        System.out.println("revert");
+        Path directory = root.resolve("target").resolve(Constants.BACKUP_DIRECTORY);
+        BackupStrategy link = BackupStrategies.create(directory, BackupStrategies.LINK);
+        // a and b are changed by two transactions, the journal keeps the oldest content of a
+        PomTransaction transaction = new PomTransaction(directory, true, link, new SystemStreamLog());
+        transaction.stage(createProject("a", "1.0.0"), createModel("a", "1.0.1"));
+        transaction.stage(createProject("b", "2.0.0"), createModel("b", "3.0.0"));
+        assertEquals(2, transaction.commit());
+        transaction = new PomTransaction(directory, true, link, new SystemStreamLog());
+        transaction.stage(createProject("a", "1.0.1"), createModel("a", "1.0.2"));
+        assertEquals(1, transaction.commit());
+        // d is out of the reactor and only listed in the manifest
+        MavenProject d = createProject("d", "4.0.0");
+        Helper.savePomVersions(d, createModel("d", "4.0.1"), true,
+                BackupStrategies.create(directory, BackupStrategies.COPY), new SystemStreamLog());
+        // c is backed up by a hard link to its unchanged POM file, out of the manifest
+        MavenProject c = createProject("c", "5.0.0");
+        Files.createLink(getBackupFile("c"), getPomFile("c"));
+        assertEquals(Arrays.asList(getPomFile("a"), getPomFile("b"), getPomFile("d")),
+                BackupManifest.read(directory));
+
+        MavenProject a = createProject("a", "1.0.2");
+        MavenProject b = createProject("b", "3.0.0");
+        // a and b are restored from the journal, c and d from their backup file
+        assertEquals(4, RevertAllMojo.revert(directory, Arrays.asList(a, b, c), new SystemStreamLog()));
+        assertEquals(String.format(POM, "a", "1.0.0"), read("a"));
+        assertEquals(String.format(POM, "b", "2.0.0"), read("b"));
+        assertEquals(String.format(POM, "c", "5.0.0"), read("c"));
+        assertEquals(String.format(POM, "d", "4.0.0"), read("d"));
+        for (String name : new String[]{"a", "b", "c", "d"}) {
+            // The move of the hard link to c leaves it in place, it is deleted
+            assertFalse(name, Files.exists(getBackupFile(name)));
+        }
+        assertFalse(Files.exists(directory.resolve(PomTransaction.JOURNAL_FILE)));
+        assertFalse(Files.exists(directory.resolve(BackupManifest.MANIFEST_FILE)));
+
+        // Nothing is left to revert
+        assertEquals(0, RevertAllMojo.revert(directory, Arrays.asList(a, b, c), new SystemStreamLog()));
+    }
+
+    private MavenProject createProject(final String name, final String version) throws IOException {
+        Path pomFile = getPomFile(name);
+        if (!Files.exists(pomFile)) {
+            Files.createDirectories(pomFile.getParent());
+            Files.write(pomFile, String.format(POM, name, version).getBytes(StandardCharsets.UTF_8));
+        }
+        MavenProject project = new MavenProject(createModel(name, version));
+        project.setFile(pomFile.toFile());
+        return project;
+    }
+
+    private static Model createModel(final String name, final String version) {
+        Model model = new Model();
+        model.setGroupId("com.sp");
+        model.setArtifactId(name);
+        model.setVersion(version);
+        return model;
+    }
+
+    private Path getPomFile(final String name) {
+        return root.resolve(name).resolve("pom.xml").toAbsolutePath();
+    }
+
+    private Path getBackupFile(final String name) {
+        return Helper.getBackupFile(getPomFile(name));
+    }
+
+    private String read(final String name) throws IOException {
+        return new String(Files.readAllBytes(getPomFile(name)), StandardCharsets.UTF_8);
+    }
+
+}
@@ -0,0 +1,148 @@
+package com.sp.maven.utils;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.stream.Stream;
+import junit.framework.TestCase;
+import org.apache.maven.model.Model;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.apache.maven.project.MavenProject;
+
+public class BackupStrategiesTest extends TestCase {
+
+    private static final String POM = "<project>\r\n"
+            + "    <groupId>com.sp</groupId>\r\n"
+            + "    <artifactId>%s</artifactId>\r\n"
+            + "    <version>%s</version>\r\n"
+            + "</project>\r\n";
+
+    private Path root;
+
+    public BackupStrategiesTest(String testName) {
+        super(testName);
+    }
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        root = Files.createTempDirectory("reactor");
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        try (Stream<Path> files = Files.walk(root)) {
+            files.sorted((a, b) -> b.compareTo(a)).forEach(file -> file.toFile().delete());
+        }
+        super.tearDown();
+    }
+
+    /**
+     * Test of the link strategy, of class BackupStrategies.
+     */
+    public void testLink() throws Exception {
+        System.out.println("link");
+        Path directory = root.resolve("target").resolve(Constants.BACKUP_DIRECTORY);
+        BackupStrategy strategy = BackupStrategies.create(directory, BackupStrategies.LINK);
+        bump("a", "1.0.0", "1.0.1", strategy);
+        bump("a", "1.0.1", "1.0.2", strategy);
+        assertEquals(String.format(POM, "a", "1.0.2"), read(root.resolve("a").resolve("pom.xml")));
+        assertEquals(String.format(POM, "a", "1.0.0"),
+                read(Helper.getBackupFile(root.resolve("a").resolve("pom.xml"))));
+        assertEquals(1, BackupManifest.read(directory).size());
+    }
+
+    /**
+     * Test of the archive strategy, of class BackupStrategies.
+     */
+    public void testArchive() throws Exception {
+        System.out.println("archive");
+        Path directory = root.resolve("target").resolve(Constants.BACKUP_DIRECTORY);
+        BackupStrategy strategy = BackupStrategies.create(directory, BackupStrategies.ARCHIVE);
+        bump("a", "1.0.0", "1.0.1", strategy);
+        bump("b", "2.0.0", "3.0.0", strategy);
+        bump("a", "1.0.1", "1.0.2", strategy);
+        assertFalse(Files.exists(Helper.getBackupFile(root.resolve("a").resolve("pom.xml"))));
+        assertEquals(2, BackupArchive.read(directory).size());
+
+        assertEquals(2, BackupArchive.restore(directory, new SystemStreamLog()));
+        assertEquals(String.format(POM, "a", "1.0.0"), read(root.resolve("a").resolve("pom.xml")));
+        assertEquals(String.format(POM, "b", "2.0.0"), read(root.resolve("b").resolve("pom.xml")));
+        assertFalse(Files.exists(directory.resolve(BackupArchive.ARCHIVE_FILE)));
+    }
+
+    /**
+     * Test of create method, of class BackupStrategies: the strategies of a directory share its manifest.
+     */
+    public void testCreate() throws Exception {
+        System.out.println("create");
+        Path directory = root.resolve("target").resolve(Constants.BACKUP_DIRECTORY);
+        BackupStrategy copy = BackupStrategies.create(directory, BackupStrategies.COPY);
+        BackupStrategy link = BackupStrategies.create(directory, BackupStrategies.LINK);
+        assertSame(copy, BackupStrategies.create(root.resolve("a").resolve("..").resolve("target")
+                .resolve(Constants.BACKUP_DIRECTORY), "COPY"));
+        List<Path> pomFiles = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            Path pomFile = root.resolve("m" + i).resolve("pom.xml");
+            Files.createDirectories(pomFile.getParent());
+            Files.write(pomFile, String.format(POM, "m" + i, "1.0.0").getBytes(StandardCharsets.UTF_8));
+            pomFiles.add(pomFile.toAbsolutePath());
+        }
+        // The modules built in parallel back up their POM file with both strategies
+        pomFiles.parallelStream().forEach(pomFile -> {
+            try {
+                copy.backup(pomFile, new SystemStreamLog());
+                link.backup(pomFile, new SystemStreamLog());
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        });
+        assertEquals(new HashSet<>(pomFiles), new HashSet<>(BackupManifest.read(directory)));
+        assertEquals(pomFiles.size(), BackupManifest.read(directory).size());
+
+        // A backup made after a revert is listed again
+        BackupManifest.delete(directory);
+        link.backup(pomFiles.get(0), new SystemStreamLog());
+        assertEquals(pomFiles.subList(0, 1), BackupManifest.read(directory));
+    }
+
+    /**
+     * Test of create method with an unknown strategy, of class BackupStrategies.
+     */
+    public void testCreateUnknown() {
+        System.out.println("createUnknown");
+        try {
+            BackupStrategies.create(root, "zip");
+            fail("The strategy should be unknown");
+        } catch (MojoExecutionException ex) {
+            assertTrue(ex.getMessage().contains("zip"));
+        }
+    }
+
+    private void bump(final String name, final String version, final String newVersion,
+            final BackupStrategy strategy) throws Exception {
+        Path pomFile = root.resolve(name).resolve("pom.xml");
+        if (!Files.exists(pomFile)) {
+            Files.createDirectories(pomFile.getParent());
+            Files.write(pomFile, String.format(POM, name, version).getBytes(StandardCharsets.UTF_8));
+        }
+        Model model = new Model();
+        model.setGroupId("com.sp");
+        model.setArtifactId(name);
+        model.setVersion(newVersion);
+        MavenProject project = new MavenProject(model);
+        project.setFile(pomFile.toFile());
+        Helper.savePomVersions(project, model, true, strategy, new SystemStreamLog());
+    }
+
+    private static String read(final Path file) throws IOException {
+        return new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+    }
+
+}
@@ -0,0 +1,74 @@
+package com.sp.maven.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Properties;
+import junit.framework.TestCase;
+import org.apache.maven.model.Model;
+import org.apache.maven.model.Profile;
+import org.codehaus.plexus.util.FileUtils;
+
+public class CanonicalPomWriterTest extends TestCase {
+
+    public CanonicalPomWriterTest(String testName) {
+        super(testName);
+    }
+
+    /**
+     * Test of toByteArray method, of class CanonicalPomWriter.
+     */
+    public void testToByteArray() throws Exception {
+        System.out.println("toByteArray");
+        Model model = createModel("zeta", "alpha", "mu");
+        Properties properties = model.getProperties();
+        String content = new String(CanonicalPomWriter.toByteArray(model), StandardCharsets.UTF_8);
+        assertTrue(content.startsWith("<?xml version=\"1.0\" encoding=\"UTF-8\"?>"));
+        assertFalse(content.contains("\r"));
+        assertTrue(content.indexOf("<alpha>") < content.indexOf("<mu>"));
+        assertTrue(content.indexOf("<mu>") < content.indexOf("<zeta>"));
+        // The profile properties are sorted as well
+        assertTrue(content.indexOf("<p-alpha>") < content.indexOf("<p-zeta>"));
+        // The model is unchanged
+        assertSame(properties, model.getProperties());
+
+        assertTrue(Arrays.equals(CanonicalPomWriter.toByteArray(model),
+                CanonicalPomWriter.toByteArray(createModel("mu", "zeta", "alpha"))));
+    }
+
+    /**
+     * Test of write method, of class CanonicalPomWriter.
+     */
+    public void testWrite() throws Exception {
+        System.out.println("write");
+        Path directory = Files.createTempDirectory("canonical");
+        try {
+            Path pomFile = directory.resolve("pom.xml");
+            Files.write(pomFile, "<project/>".getBytes(StandardCharsets.UTF_8));
+            Model model = createModel("b", "a");
+            CanonicalPomWriter.write(model, pomFile);
+            assertTrue(Arrays.equals(CanonicalPomWriter.toByteArray(model), Files.readAllBytes(pomFile)));
+            assertFalse(Files.exists(directory.resolve("pom.xml.tmp")));
+        } finally {
+            FileUtils.deleteDirectory(directory.toFile());
+        }
+    }
+
+    private static Model createModel(final String... names) {
+        Model model = new Model();
+        model.setModelVersion("4.0.0");
+        model.setGroupId("com.sp");
+        model.setArtifactId("canonical");
+        model.setVersion("1.0.0");
+        Profile profile = new Profile();
+        profile.setId("profile");
+        for (String name : names) {
+            model.addProperty(name, name + "-value");
+            profile.addProperty("p-" + name, name);
+        }
+        model.addProfile(profile);
+        return model;
+    }
+
+}
@@ -0,0 +1,38 @@
+package com.sp.maven.utils;
+
+import junit.framework.TestCase;
+import org.apache.maven.model.Model;
+import org.apache.maven.project.MavenProject;
+
+public class HelperTest extends TestCase {
+
+    public HelperTest(String testName) {
+        super(testName);
+    }
+
+    /**
+     * Test of addQualifier method, of class Helper.
+     */
+    public void testAddQualifier() throws Exception {
+        System.out.println("addQualifier");
+        assertEquals("1.2.7-19R1-SNAPSHOT", Helper.addQualifier(createProject("1.2.7-SNAPSHOT"), true, true, "-19R1"));
+        assertEquals("1.2.7-19R1", Helper.addQualifier(createProject("1.2.7-beta-SNAPSHOT"), true, false, "-19R1"));
+        assertEquals("1.2.7-beta-19R1", Helper.addQualifier(createProject("1.2.7-beta"), false, false, "-19R1"));
+        // Not a major.minor.micro version, the qualifier starts at the first dash
+        assertEquals("1.2.3.4-19R1-SNAPSHOT", Helper.addQualifier(createProject("1.2.3.4-beta"), true, true, "-19R1"));
+        assertEquals("1.2.3.4-19R1", Helper.addQualifier(createProject("1.2.3.4"), true, false, "-19R1"));
+        // Not a snapshot, the qualifier is kept as is
+        assertEquals("1.2.7-19R1", Helper.addQualifier(createProject("1.2.7-betaSNAPSHOT"), true, false, "-19R1"));
+    }
+
+    private static MavenProject createProject(final String version) {
+        Model model = new Model();
+        model.setGroupId("com.sp");
+        model.setArtifactId("a");
+        model.setVersion(version);
+        MavenProject project = new MavenProject(model);
+        project.setOriginalModel(model);
+        return project;
+    }
+
+}
@@ -0,0 +1,136 @@
+package com.sp.maven.utils;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import junit.framework.TestCase;
+import org.apache.maven.model.Dependency;
+import org.apache.maven.model.DependencyManagement;
+import org.apache.maven.model.Model;
+import org.apache.maven.model.Parent;
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.apache.maven.project.MavenProject;
+
+public class PomEditorTest extends TestCase {
+
+    private static final String POM = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\r\n"
+            + "<!-- <version>0.0.0</version> -->\r\n"
+            + "<project xmlns=\"http://maven.apache.org/POM/4.0.0\">\r\n"
+            + "    <modelVersion>4.0.0</modelVersion>\r\n"
+            + "    <parent>\r\n"
+            + "        <groupId>com.sp.maven</groupId>\r\n"
+            + "        <artifactId>parent</artifactId>\r\n"
+            + "        <version>1.0.0</version>   <!-- the parent -->\r\n"
+            + "    </parent>\r\n"
+            + "    <groupId>com.sp.maven.depmgmt</groupId>\r\n"
+            + "    <artifactId>bom</artifactId>\r\n"
+            + "    <version> 2.3.4-SNAPSHOT </version>\r\n"
+            + "    <dependencyManagement>\r\n"
+            + "        <dependencies>\r\n"
+            + "            <dependency>\r\n"
+            + "                <groupId>com.sp</groupId>\r\n"
+            + "                <artifactId>a</artifactId>\r\n"
+            + "                <version>1.1.0</version>\r\n"
+            + "            </dependency>\r\n"
+            + "            <dependency>\r\n"
+            + "                <groupId>com.sp</groupId>\r\n"
+            + "                <artifactId>a</artifactId>\r\n"
+            + "                <classifier>tests</classifier>\r\n"
+            + "                <version>1.1.0</version>\r\n"
+            + "            </dependency>\r\n"
+            + "        </dependencies>\r\n"
+            + "    </dependencyManagement>\r\n"
+            + "    <dependencies>\r\n"
+            + "        <dependency>\r\n"
+            + "            <groupId>com.sp</groupId>\r\n"
+            + "            <artifactId>a</artifactId>\r\n"
+            + "            <version>1.1.0</version>\r\n"
+            + "        </dependency>\r\n"
+            + "    </dependencies>\r\n"
+            + "</project>\r\n";
+
+    private Path pomFile;
+
+    public PomEditorTest(String testName) {
+        super(testName);
+    }
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        pomFile = Files.createTempFile("pom", ".xml");
+        Files.write(pomFile, POM.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        Files.deleteIfExists(pomFile);
+        Files.deleteIfExists(new File(pomFile.toString() + "." + Constants.BACKUP_EXT).toPath());
+        super.tearDown();
+    }
+
+    /**
+     * Test of the scan of the versions, of class PomEditor.
+     */
+    public void testRead() throws Exception {
+        System.out.println("read");
+        PomEditor editor = PomEditor.read(pomFile);
+        assertEquals("2.3.4-SNAPSHOT", editor.getProjectVersion());
+        assertEquals("1.0.0", editor.getParentVersion());
+        assertEquals("1.1.0", editor.getManagedVersion(PomEditor.getManagementKey("com.sp", "a", null, null)));
+        assertEquals("1.1.0", editor.getManagedVersion(PomEditor.getManagementKey("com.sp", "a", "jar", "tests")));
+        assertNull(editor.getManagedVersion(PomEditor.getManagementKey("com.sp", "b", null, null)));
+        assertFalse(editor.hasChanges());
+    }
+
+    /**
+     * Test of toByteArray method, of class PomEditor.
+     */
+    public void testToByteArray() throws Exception {
+        System.out.println("toByteArray");
+        PomEditor editor = PomEditor.read(pomFile);
+        assertTrue(editor.setProjectVersion("3.0.0-SNAPSHOT"));
+        assertTrue(editor.setParentVersion("1.0.1"));
+        assertTrue(editor.setManagedVersion(PomEditor.getManagementKey("com.sp", "a", "jar", "tests"), "1.2.0"));
+        assertFalse(editor.setManagedVersion(PomEditor.getManagementKey("com.sp", "b", null, null), "1.2.0"));
+        String expected = POM.replace("<version> 2.3.4-SNAPSHOT </version>", "<version> 3.0.0-SNAPSHOT </version>")
+                .replace("<version>1.0.0</version>   <!--", "<version>1.0.1</version>   <!--")
+                .replace("<classifier>tests</classifier>\r\n                <version>1.1.0</version>",
+                        "<classifier>tests</classifier>\r\n                <version>1.2.0</version>");
+        assertEquals(expected, new String(editor.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Test of savePomVersions method, of class Helper.
+     */
+    public void testSavePomVersions() throws Exception {
+        System.out.println("savePomVersions");
+        Model model = new Model();
+        model.setGroupId("com.sp.maven.depmgmt");
+        model.setArtifactId("bom");
+        model.setVersion("2.4.0-SNAPSHOT");
+        Parent parent = new Parent();
+        parent.setGroupId("com.sp.maven");
+        parent.setArtifactId("parent");
+        parent.setVersion("1.0.0");
+        model.setParent(parent);
+        model.setDependencyManagement(new DependencyManagement());
+        for (String classifier : new String[] {null, "tests"}) {
+            Dependency dependency = new Dependency();
+            dependency.setGroupId("com.sp");
+            dependency.setArtifactId("a");
+            dependency.setClassifier(classifier);
+            dependency.setVersion("1.1.0");
+            model.getDependencyManagement().addDependency(dependency);
+        }
+        MavenProject project = new MavenProject(model);
+        project.setFile(pomFile.toFile());
+        Helper.savePomVersions(project, model, true, null, new SystemStreamLog());
+        assertEquals(POM.replace("2.3.4-SNAPSHOT", "2.4.0-SNAPSHOT"),
+                new String(Files.readAllBytes(pomFile), StandardCharsets.UTF_8));
+        assertEquals(POM, new String(Files.readAllBytes(new File(pomFile.toString() + "." + Constants.BACKUP_EXT).toPath()),
+                StandardCharsets.UTF_8));
+    }
+
+}
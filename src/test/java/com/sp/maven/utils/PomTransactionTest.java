@@ -0,0 +1,152 @@
+package com.sp.maven.utils;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.stream.Stream;
+import junit.framework.TestCase;
+import org.apache.maven.model.Model;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.apache.maven.project.MavenProject;
+
+public class PomTransactionTest extends TestCase {
+
+    private static final String POM = "<project>\r\n"
+            + "    <!-- the module %s -->\r\n"
+            + "    <groupId>com.sp</groupId>\r\n"
+            + "    <artifactId>%s</artifactId>\r\n"
+            + "    <version>%s</version>\r\n"
+            + "</project>\r\n";
+
+    private Path root;
+
+    public PomTransactionTest(String testName) {
+        super(testName);
+    }
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        root = Files.createTempDirectory("reactor");
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        try (Stream<Path> files = Files.walk(root)) {
+            files.sorted((a, b) -> b.compareTo(a)).forEach(file -> file.toFile().delete());
+        }
+        super.tearDown();
+    }
+
+    /**
+     * Test of commit and rollback methods, of class PomTransaction.
+     */
+    public void testCommitAndRollback() throws Exception {
+        System.out.println("commitAndRollback");
+        Path journalDirectory = root.resolve("target").resolve(Constants.BACKUP_DIRECTORY);
+        BackupStrategy strategy = BackupStrategies.create(journalDirectory, BackupStrategies.COPY);
+        PomTransaction transaction = new PomTransaction(journalDirectory, true, strategy, new SystemStreamLog());
+        transaction.stage(createProject("a", "1.0.0"), createModel("a", "1.0.1-SNAPSHOT"));
+        transaction.stage(createProject("b", "2.0.0"), createModel("b", "3.0.0-SNAPSHOT"));
+        transaction.stage(createProject("c", "1.0.0"), createModel("c", "1.0.0"));
+        assertEquals(2, transaction.commit());
+        assertEquals(String.format(POM, "a", "a", "1.0.1-SNAPSHOT"), read("a"));
+        assertEquals(String.format(POM, "b", "b", "3.0.0-SNAPSHOT"), read("b"));
+        assertEquals(String.format(POM, "c", "c", "1.0.0"), read("c"));
+        assertTrue(Files.exists(journalDirectory.resolve(PomTransaction.JOURNAL_FILE)));
+        assertFalse(Files.exists(root.resolve("a").resolve("pom.xml.tmp")));
+        assertEquals(Arrays.asList(root.resolve("a").resolve("pom.xml").toAbsolutePath(),
+                root.resolve("b").resolve("pom.xml").toAbsolutePath()), BackupManifest.read(journalDirectory));
+
+        // A second transaction keeps the oldest original content
+        transaction = new PomTransaction(journalDirectory, true, null, new SystemStreamLog());
+        transaction.stage(createProject("a", "1.0.1-SNAPSHOT"), createModel("a", "1.0.2-SNAPSHOT"));
+        assertEquals(1, transaction.commit());
+
+        assertEquals(2, PomTransaction.rollback(journalDirectory, new SystemStreamLog()));
+        assertEquals(String.format(POM, "a", "a", "1.0.0"), read("a"));
+        assertEquals(String.format(POM, "b", "b", "2.0.0"), read("b"));
+        assertFalse(Files.exists(root.resolve("a").resolve("pom.xml." + Constants.BACKUP_EXT)));
+        assertFalse(Files.exists(journalDirectory.resolve(PomTransaction.JOURNAL_FILE)));
+        assertEquals(0, PomTransaction.rollback(journalDirectory, new SystemStreamLog()));
+    }
+
+    /**
+     * Test of commit method without backup, of class PomTransaction.
+     */
+    public void testCommitWithoutBackup() throws Exception {
+        System.out.println("commitWithoutBackup");
+        Path journalDirectory = root.resolve("target").resolve(Constants.BACKUP_DIRECTORY);
+        PomTransaction transaction = new PomTransaction(journalDirectory, false, null, new SystemStreamLog());
+        transaction.stage(createProject("a", "1.0.0"), createModel("a", "1.1.0"));
+        assertEquals(1, transaction.commit());
+        assertEquals(String.format(POM, "a", "a", "1.1.0"), read("a"));
+        assertFalse(Files.exists(journalDirectory.resolve(PomTransaction.JOURNAL_FILE)));
+        assertFalse(Files.exists(root.resolve("a").resolve("pom.xml." + Constants.BACKUP_EXT)));
+    }
+
+    /**
+     * Test of commit and rollback methods with the backup files as journal originals, of class PomTransaction.
+     */
+    public void testJournalOriginals() throws Exception {
+        System.out.println("journalOriginals");
+        Path journalDirectory = root.resolve("target").resolve(Constants.BACKUP_DIRECTORY);
+        PomTransaction transaction = new PomTransaction(journalDirectory, true, null, new SystemStreamLog());
+        transaction.stage(createProject("a", "1.0.0"), createModel("a", "1.1.0"));
+        assertEquals(1, transaction.commit());
+        Path backupFile = root.resolve("a").resolve("pom.xml." + Constants.BACKUP_EXT);
+        assertEquals(String.format(POM, "a", "a", "1.0.0"),
+                new String(Files.readAllBytes(backupFile), StandardCharsets.UTF_8));
+        try (Stream<Path> files = Files.list(journalDirectory)) {
+            assertFalse(files.anyMatch(file -> file.getFileName().toString().endsWith(".xml")));
+        }
+
+        // The backup file is restored before the journal, as by the goal revert
+        Files.move(backupFile, root.resolve("a").resolve("pom.xml"), StandardCopyOption.REPLACE_EXISTING);
+        assertEquals(1, PomTransaction.rollback(journalDirectory, new SystemStreamLog()));
+        assertEquals(String.format(POM, "a", "a", "1.0.0"), read("a"));
+
+        // A corrupted journal is reported
+        transaction = new PomTransaction(journalDirectory, true, null, new SystemStreamLog());
+        transaction.stage(createProject("b", "1.0.0"), createModel("b", "1.1.0"));
+        assertEquals(1, transaction.commit());
+        Path journalFile = journalDirectory.resolve(PomTransaction.JOURNAL_FILE);
+        String journal = new String(Files.readAllBytes(journalFile), StandardCharsets.ISO_8859_1);
+        Files.write(journalFile, journal.replaceAll("count=\\d+", "count=x").getBytes(StandardCharsets.ISO_8859_1));
+        try {
+            PomTransaction.rollback(journalDirectory, new SystemStreamLog());
+            fail("The journal is corrupted");
+        } catch (MojoExecutionException ex) {
+            assertTrue(ex.getCause() instanceof NumberFormatException);
+        }
+    }
+
+    private MavenProject createProject(final String name, final String version) throws IOException {
+        Path pomFile = root.resolve(name).resolve("pom.xml");
+        if (!Files.exists(pomFile)) {
+            Files.createDirectories(pomFile.getParent());
+            Files.write(pomFile, String.format(POM, name, name, version).getBytes(StandardCharsets.UTF_8));
+        }
+        MavenProject project = new MavenProject(createModel(name, version));
+        project.setFile(pomFile.toFile());
+        return project;
+    }
+
+    private static Model createModel(final String name, final String version) {
+        Model model = new Model();
+        model.setGroupId("com.sp");
+        model.setArtifactId(name);
+        model.setVersion(version);
+        return model;
+    }
+
+    private String read(final String name) throws IOException {
+        return new String(Files.readAllBytes(root.resolve(name).resolve("pom.xml")), StandardCharsets.UTF_8);
+    }
+
+}
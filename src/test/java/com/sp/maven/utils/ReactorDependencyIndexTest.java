@@ -0,0 +1,80 @@
+package com.sp.maven.utils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import junit.framework.TestCase;
+import org.apache.maven.model.Dependency;
+import org.apache.maven.model.DependencyManagement;
+import org.apache.maven.model.Model;
+import org.apache.maven.project.MavenProject;
+
+public class ReactorDependencyIndexTest extends TestCase {
+
+    public ReactorDependencyIndexTest(String testName) {
+        super(testName);
+    }
+
+    /**
+     * Test of the lookups, of class ReactorDependencyIndex.
+     */
+    public void testLookups() {
+        System.out.println("lookups");
+        MavenProject a = createProject("a");
+        MavenProject b = createProject("b", "a");
+        MavenProject c = createProject("c", "b", "a");
+        MavenProject d = createProject("d", "c");
+        MavenProject e = createProject("e", "x");
+        MavenProject bom = createProject("bom");
+        bom.getModel().setDependencyManagement(new DependencyManagement());
+        bom.getModel().getDependencyManagement().addDependency(createDependency("a"));
+        ReactorDependencyIndex index = ReactorDependencyIndex.build(Arrays.asList(a, b, c, d, e, bom));
+
+        assertSame(c, index.getProject(ReactorDependencyIndex.getKey("com.sp", "c")));
+        assertNull(index.getProject(ReactorDependencyIndex.getKey("com.sp", "x")));
+        assertEquals(Arrays.asList(b, c), index.getDependents(ReactorDependencyIndex.getKey("com.sp", "a")));
+        assertEquals(Collections.emptyList(), index.getDependents(ReactorDependencyIndex.getKey("com.sp", "d")));
+        assertEquals(Arrays.asList(b, c, d),
+                new ArrayList<>(index.getTransitiveDependents(ReactorDependencyIndex.getKey("com.sp", "a"))));
+        assertEquals(Arrays.asList(bom), index.getManagers(ReactorDependencyIndex.getKey("com.sp", "a")));
+        assertSame(ReactorDependencyIndex.getKey("com.sp", "a"), ReactorDependencyIndex.getKey("com.sp", "a"));
+    }
+
+    /**
+     * Test of getDependentLevels method, of class ReactorDependencyIndex.
+     */
+    public void testGetDependentLevels() {
+        System.out.println("getDependentLevels");
+        MavenProject a = createProject("a");
+        MavenProject b = createProject("b", "a");
+        MavenProject c = createProject("c", "b", "a");
+        MavenProject d = createProject("d", "c", "e");
+        MavenProject e = createProject("e", "a");
+        MavenProject f = createProject("f", "g", "a");
+        MavenProject g = createProject("g", "f");
+        ReactorDependencyIndex index = ReactorDependencyIndex.build(Arrays.asList(a, b, c, d, e, f, g));
+        assertEquals(Arrays.asList(Arrays.asList(b, e), Arrays.asList(c), Arrays.asList(d), Arrays.asList(f, g)),
+                index.getDependentLevels(ReactorDependencyIndex.getKey("com.sp", "a")));
+        assertEquals(Collections.emptyList(), index.getDependentLevels(ReactorDependencyIndex.getKey("com.sp", "d")));
+    }
+
+    private static MavenProject createProject(final String artifactId, final String... dependencies) {
+        Model model = new Model();
+        model.setGroupId("com.sp");
+        model.setArtifactId(artifactId);
+        model.setVersion("1.0.0");
+        for (String dependency : dependencies) {
+            model.addDependency(createDependency(dependency));
+        }
+        return new MavenProject(model);
+    }
+
+    private static Dependency createDependency(final String artifactId) {
+        Dependency dependency = new Dependency();
+        dependency.setGroupId("com.sp");
+        dependency.setArtifactId(artifactId);
+        dependency.setVersion("1.0.0");
+        return dependency;
+    }
+
+}
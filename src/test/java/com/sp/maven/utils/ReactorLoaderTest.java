@@ -0,0 +1,120 @@
+package com.sp.maven.utils;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.List;
+import junit.framework.TestCase;
+import org.apache.maven.model.Dependency;
+import org.apache.maven.model.DependencyManagement;
+import org.apache.maven.model.Model;
+import org.apache.maven.model.Parent;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.project.MavenProject;
+
+public class ReactorLoaderTest extends TestCase {
+
+    public ReactorLoaderTest(String testName) {
+        super(testName);
+    }
+
+    /**
+     * Test of createProject method, of class ReactorLoader.
+     */
+    public void testCreateProject() throws Exception {
+        System.out.println("createProject");
+        Parent parent = new Parent();
+        parent.setGroupId("com.sp");
+        parent.setArtifactId("parent");
+        parent.setVersion("1.0.0");
+        Model model = new Model();
+        model.setParent(parent);
+        model.setArtifactId("module");
+        Path pomFile = Paths.get("module", "pom.xml").toAbsolutePath();
+
+        MavenProject project = ReactorLoader.createProject(pomFile, model);
+        assertEquals("com.sp", project.getGroupId());
+        assertEquals("module", project.getArtifactId());
+        assertEquals("1.0.0", project.getVersion());
+        assertEquals(pomFile.toFile(), project.getFile());
+        // The raw model is kept as is, to be written back
+        assertSame(model, project.getOriginalModel());
+        assertNull(project.getOriginalModel().getVersion());
+    }
+
+    /**
+     * Test of createProject method with expressions in the dependency coordinates, of class ReactorLoader.
+     */
+    public void testCreateProjectWithExpressions() throws Exception {
+        System.out.println("createProjectWithExpressions");
+        Parent parent = new Parent();
+        parent.setGroupId("com.sp");
+        parent.setArtifactId("parent");
+        parent.setVersion("1.0.0");
+        Model model = new Model();
+        model.setParent(parent);
+        model.setArtifactId("module");
+        model.addProperty("lib.version", "3.0.0");
+        model.addDependency(createDependency("${project.groupId}", "a", "${project.version}"));
+        model.addDependency(createDependency("com.sp", "lib", "${lib.version}"));
+        model.addDependency(createDependency("com.sp", "other", "${other.version}"));
+        model.setDependencyManagement(new DependencyManagement());
+        model.getDependencyManagement().addDependency(
+                createDependency("${project.parent.groupId}", "${project.parent.artifactId}-bom",
+                        "${project.parent.version}"));
+        Path pomFile = Paths.get("module", "pom.xml").toAbsolutePath();
+
+        MavenProject project = ReactorLoader.createProject(pomFile, model);
+        List<Dependency> dependencies = project.getDependencies();
+        assertEquals("com.sp:a:jar", dependencies.get(0).getManagementKey());
+        assertEquals("1.0.0", dependencies.get(0).getVersion());
+        assertEquals("3.0.0", dependencies.get(1).getVersion());
+        // The expressions out of the model are kept
+        assertEquals("${other.version}", dependencies.get(2).getVersion());
+        Dependency managed = project.getModel().getDependencyManagement().getDependencies().get(0);
+        assertEquals("com.sp:parent-bom:jar", managed.getManagementKey());
+        assertEquals("1.0.0", managed.getVersion());
+        // The raw model is kept as is, to be written back
+        assertEquals("${project.groupId}", model.getDependencies().get(0).getGroupId());
+        assertEquals("${project.version}", model.getDependencies().get(0).getVersion());
+
+        // The index is built with the resolved keys
+        ReactorDependencyIndex index = ReactorDependencyIndex.build(Collections.singletonList(project));
+        assertEquals(Collections.singletonList(project),
+                index.getDependents(ReactorDependencyIndex.getKey("com.sp", "a")));
+        assertEquals(Collections.singletonList(project),
+                index.getManagers(ReactorDependencyIndex.getKey("com.sp", "parent-bom")));
+
+        // A dependency of an unknown groupId can't be indexed
+        model.addDependency(createDependency("${other.groupId}", "b", "1.0.0"));
+        try {
+            ReactorLoader.createProject(pomFile, model);
+            fail("The groupId can't be resolved");
+        } catch (MojoExecutionException ex) {
+            assertTrue(ex.getMessage().contains("${other.groupId}:b"));
+        }
+    }
+
+    /**
+     * Test of load method, of class ReactorLoader.
+     */
+    public void testLoadWithoutModules() throws Exception {
+        System.out.println("loadWithoutModules");
+        Model model = new Model();
+        model.setGroupId("com.sp");
+        model.setArtifactId("root");
+        model.setVersion("1.0.0");
+        MavenProject root = ReactorLoader.createProject(Paths.get("pom.xml").toAbsolutePath(), model);
+        assertEquals(1, ReactorLoader.load(root).size());
+        assertSame(root, ReactorLoader.load(root).get(0));
+    }
+
+    private static Dependency createDependency(final String groupId, final String artifactId, final String version) {
+        Dependency dependency = new Dependency();
+        dependency.setGroupId(groupId);
+        dependency.setArtifactId(artifactId);
+        dependency.setVersion(version);
+        return dependency;
+    }
+
+}
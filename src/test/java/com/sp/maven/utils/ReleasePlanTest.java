@@ -0,0 +1,188 @@
+package com.sp.maven.utils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Date;
+import java.util.stream.Stream;
+import junit.framework.TestCase;
+import org.apache.maven.execution.DefaultMavenExecutionRequest;
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.model.Dependency;
+import org.apache.maven.model.DependencyManagement;
+import org.apache.maven.model.Model;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.logging.SystemStreamLog;
+
+public class ReleasePlanTest extends TestCase {
+
+    private static final String POM = "<project>\r\n"
+            + "    <!-- \"quoted\" comment -->\r\n"
+            + "    <groupId>com.sp</groupId>\r\n"
+            + "    <artifactId>%s</artifactId>\r\n"
+            + "    <version>%s</version>\r\n"
+            + "    <dependencyManagement>\r\n"
+            + "        <dependencies>\r\n"
+            + "            <dependency>\r\n"
+            + "                <groupId>com.sp</groupId>\r\n"
+            + "                <artifactId>lib</artifactId>\r\n"
+            + "                <version>%s</version>\r\n"
+            + "            </dependency>\r\n"
+            + "        </dependencies>\r\n"
+            + "    </dependencyManagement>\r\n"
+            + "</project>\r\n";
+
+    private Path root;
+
+    public ReleasePlanTest(String testName) {
+        super(testName);
+    }
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        root = Files.createTempDirectory("reactor");
+        write("a", String.format(POM, "a", "1.0.0", "2.0.0"));
+        write("b", String.format(POM, "b", "1.0.0", "2.0.0"));
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        try (Stream<Path> files = Files.walk(root)) {
+            files.sorted((a, b) -> b.compareTo(a)).forEach(file -> file.toFile().delete());
+        }
+        super.tearDown();
+    }
+
+    /**
+     * Test of the computation, the serialization and the application of a plan, of class ReleasePlan.
+     */
+    public void testPlanAndApply() throws Exception {
+        System.out.println("planAndApply");
+        Path planFile = root.resolve("plan.json");
+        ReleasePlan plan = new ReleasePlan(planFile, root);
+        plan.addVersions(pomFile("a"), createModel("a", "1.0.1-SNAPSHOT", "3.0.0-SNAPSHOT"), new SystemStreamLog());
+        plan.addVersions(pomFile("b"), createModel("b", "1.0.0", "2.0.0"), new SystemStreamLog());
+        Model model = createModel("b", "1.1.0", "2.0.0");
+        model.setDescription("The \"b\" module");
+        plan.addModel(pomFile("b"), model);
+        assertEquals(2, plan.size());
+        plan.write();
+        // The POM files are not touched
+        assertEquals(String.format(POM, "a", "1.0.0", "2.0.0"), read("a"));
+        // The POM files are relative to the root directory
+        String json = new String(Files.readAllBytes(planFile), StandardCharsets.UTF_8);
+        assertTrue(json.contains("\"pom\": \"a/pom.xml\""));
+
+        commit(ReleasePlan.read(planFile, root));
+        assertEquals(String.format(POM, "a", "1.0.1-SNAPSHOT", "3.0.0-SNAPSHOT"), read("a"));
+        assertTrue(read("b").contains("<version>1.1.0</version>"));
+        assertTrue(read("b").contains("<description>The \"b\" module</description>"));
+    }
+
+    /**
+     * Test of the application of a plan on a changed POM file, of class ReleasePlan.
+     */
+    public void testApplyStale() throws Exception {
+        System.out.println("applyStale");
+        Path planFile = root.resolve("plan.json");
+        ReleasePlan plan = new ReleasePlan(planFile, root);
+        plan.addVersions(pomFile("a"), createModel("a", "1.0.1", "2.0.0"), new SystemStreamLog());
+        plan.addVersions(pomFile("b"), createModel("b", "1.0.1", "2.0.0"), new SystemStreamLog());
+        plan.write();
+        write("b", String.format(POM, "b", "1.0.0", "2.1.0"));
+        try {
+            commit(ReleasePlan.read(planFile, root));
+            fail("The plan should be stale");
+        } catch (MojoExecutionException ex) {
+            assertEquals(String.format(POM, "a", "1.0.0", "2.0.0"), read("a"));
+        }
+    }
+
+    /**
+     * Test of forSession method, of class ReleasePlan.
+     */
+    public void testForSession() throws Exception {
+        System.out.println("forSession");
+        DefaultMavenExecutionRequest request = new DefaultMavenExecutionRequest();
+        request.setBaseDirectory(root.toFile());
+        request.setStartTime(new Date(1000L));
+        MavenSession session = new MavenSession(null, null, request, null);
+        ReleasePlan plan = ReleasePlan.forSession(session, root.resolve("plan.json"));
+        assertSame(plan, ReleasePlan.forSession(session, root.resolve("target").resolve("..").resolve("plan.json")));
+        // The modules built in parallel have a copy of the session
+        assertSame(plan, ReleasePlan.forSession(session.clone(), root.resolve("plan.json")));
+        ReleasePlan otherPlan = ReleasePlan.forSession(session, root.resolve("other.json"));
+        assertNotSame(plan, otherPlan);
+        plan.addVersions(pomFile("a"), createModel("a", "1.0.1", "2.0.0"), new SystemStreamLog());
+        otherPlan.addVersions(pomFile("b"), createModel("b", "1.0.1", "2.0.0"), new SystemStreamLog());
+        plan.write();
+        otherPlan.write();
+
+        // A new build starts with an empty plan
+        DefaultMavenExecutionRequest nextRequest = new DefaultMavenExecutionRequest();
+        nextRequest.setBaseDirectory(root.toFile());
+        nextRequest.setStartTime(new Date(2000L));
+        ReleasePlan nextPlan = ReleasePlan.forSession(new MavenSession(null, null, nextRequest, null),
+                root.resolve("plan.json"));
+        assertNotSame(plan, nextPlan);
+        assertEquals(0, nextPlan.size());
+
+        // The plan is applied on another checkout of the reactor
+        Path otherRoot = Files.createTempDirectory("reactor");
+        try {
+            Path otherPom = otherRoot.resolve("a").resolve("pom.xml");
+            Files.createDirectories(otherPom.getParent());
+            Files.copy(pomFile("a"), otherPom);
+            ReleasePlan otherCheckoutPlan = ReleasePlan.read(root.resolve("plan.json"), otherRoot);
+            assertEquals(1, otherCheckoutPlan.size());
+            PomTransaction transaction = new PomTransaction(otherRoot.resolve("target"), false, null,
+                    new SystemStreamLog());
+            otherCheckoutPlan.stage(transaction);
+            assertEquals(1, transaction.commit());
+            assertEquals(String.format(POM, "a", "1.0.1", "2.0.0"),
+                    new String(Files.readAllBytes(otherPom), StandardCharsets.UTF_8));
+            assertEquals(String.format(POM, "a", "1.0.0", "2.0.0"), read("a"));
+        } finally {
+            try (Stream<Path> files = Files.walk(otherRoot)) {
+                files.sorted((a, b) -> b.compareTo(a)).forEach(file -> file.toFile().delete());
+            }
+        }
+    }
+
+    private void commit(final ReleasePlan plan) throws MojoExecutionException {
+        PomTransaction transaction = new PomTransaction(root.resolve("target"), false, null, new SystemStreamLog());
+        plan.stage(transaction);
+        transaction.commit();
+    }
+
+    private static Model createModel(final String artifactId, final String version, final String libVersion) {
+        Model model = new Model();
+        model.setModelVersion("4.0.0");
+        model.setGroupId("com.sp");
+        model.setArtifactId(artifactId);
+        model.setVersion(version);
+        Dependency dependency = new Dependency();
+        dependency.setGroupId("com.sp");
+        dependency.setArtifactId("lib");
+        dependency.setVersion(libVersion);
+        model.setDependencyManagement(new DependencyManagement());
+        model.getDependencyManagement().addDependency(dependency);
+        return model;
+    }
+
+    private Path pomFile(final String name) {
+        return root.resolve(name).resolve("pom.xml");
+    }
+
+    private void write(final String name, final String content) throws IOException {
+        Files.createDirectories(pomFile(name).getParent());
+        Files.write(pomFile(name), content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private String read(final String name) throws IOException {
+        return new String(Files.readAllBytes(pomFile(name)), StandardCharsets.UTF_8);
+    }
+
+}
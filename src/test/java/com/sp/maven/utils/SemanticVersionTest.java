@@ -0,0 +1,84 @@
+package com.sp.maven.utils;
+
+import junit.framework.TestCase;
+
+public class SemanticVersionTest extends TestCase {
+
+    public SemanticVersionTest(String testName) {
+        super(testName);
+    }
+
+    /**
+     * Test of parse method, of class SemanticVersion.
+     */
+    public void testParse() {
+        System.out.println("parse");
+        SemanticVersion version = SemanticVersion.parse("1.2.3-beta-SNAPSHOT");
+        assertEquals(1, version.getMajor());
+        assertEquals(2, version.getMinor());
+        assertEquals(3, version.getMicro());
+        assertEquals("beta-SNAPSHOT", version.getQualifier());
+        assertTrue(version.isSnapshot());
+        assertEquals("1.2.3", version.getNumbers());
+        assertSame(version, SemanticVersion.parse("1.2.3-beta-SNAPSHOT"));
+
+        version = SemanticVersion.parse("1.2");
+        assertEquals(1, version.getMajor());
+        assertEquals(2, version.getMinor());
+        assertEquals(0, version.getMicro());
+        assertNull(version.getQualifier());
+        assertEquals("1.2", version.toString());
+
+        // Not a major.minor.micro version, as for DefaultArtifactVersion
+        version = SemanticVersion.parse("1.2.3.4");
+        assertEquals(0, version.getMajor());
+        assertEquals("1.2.3.4", version.getQualifier());
+        assertEquals("", version.getNumbers());
+
+        // Only a SNAPSHOT qualifier or a -SNAPSHOT suffix is a snapshot
+        assertTrue(SemanticVersion.parse("1.2.7-SNAPSHOT").isSnapshot());
+        assertTrue(SemanticVersion.parse("1.2.3.4-SNAPSHOT").isSnapshot());
+        assertFalse(SemanticVersion.parse("1.2.7-betaSNAPSHOT").isSnapshot());
+        assertFalse(SemanticVersion.parse("1.2.7-SNAPSHOTbeta").isSnapshot());
+        assertFalse(SemanticVersion.parse("1.2.7SNAPSHOT").isSnapshot());
+    }
+
+    /**
+     * Test of bump method, of class SemanticVersion.
+     */
+    public void testBump() {
+        System.out.println("bump");
+        SemanticVersion version = SemanticVersion.parse("1.2.3-beta-SNAPSHOT");
+        assertEquals("1.2.4", version.bump(ChangeType.MICRO, QualifierPolicy.DROP).toString());
+        assertEquals("1.3.0-beta-SNAPSHOT", version.bump(ChangeType.MINOR, QualifierPolicy.KEEP).toString());
+        assertEquals("2.0.0-beta", version.bump(ChangeType.MAJOR, QualifierPolicy.RELEASE).toString());
+        assertSame(version, version.bump(ChangeType.NONE, QualifierPolicy.DROP));
+        assertEquals("1.2.4", SemanticVersion.parse("1.2.3-SNAPSHOT")
+                .bump(ChangeType.MICRO, QualifierPolicy.RELEASE).toString());
+        assertEquals("1.2.4-SNAPSHOT", SemanticVersion.parse("1.2.3")
+                .bump(ChangeType.MICRO, QualifierPolicy.KEEP).toSnapshot().toString());
+        assertEquals("1.2.3-beta", version.toRelease().toString());
+        assertEquals("1.2.7", SemanticVersion.parse("1.2.7-SNAPSHOT").toRelease().toString());
+        assertEquals("1.2.7-betaSNAPSHOT", SemanticVersion.parse("1.2.7-betaSNAPSHOT").toRelease().toString());
+        assertEquals("1.2.3.4", SemanticVersion.parse("1.2.3.4-SNAPSHOT").toRelease().toString());
+        assertEquals("1.2.8-betaSNAPSHOT", SemanticVersion.parse("1.2.7-betaSNAPSHOT")
+                .bump(ChangeType.MICRO, QualifierPolicy.RELEASE).toString());
+        assertEquals("1.2.7-betaSNAPSHOT-SNAPSHOT", SemanticVersion.parse("1.2.7-betaSNAPSHOT")
+                .toSnapshot().toString());
+    }
+
+    /**
+     * Test of compareTo method, of class SemanticVersion.
+     */
+    public void testCompareTo() {
+        System.out.println("compareTo");
+        assertTrue(SemanticVersion.parse("1.10.0").compareTo(SemanticVersion.parse("1.9.9")) > 0);
+        assertTrue(SemanticVersion.parse("1.2.3").compareTo(SemanticVersion.parse("1.2.3-SNAPSHOT")) > 0);
+        assertTrue(SemanticVersion.parse("1.2.3-alpha").compareTo(SemanticVersion.parse("1.2.3-beta")) < 0);
+        assertEquals(0, SemanticVersion.parse("1.2").compareTo(SemanticVersion.parse("1.2.0")));
+        assertEquals(SemanticVersion.parse("1.2"), SemanticVersion.parse("1.2.0"));
+        // The written components differ, the baseline goals compare the version strings
+        assertFalse(SemanticVersion.parse("1.2-SNAPSHOT").toRelease().toString().equals("1.2.0"));
+    }
+
+}
@@ -0,0 +1,84 @@
+package com.sp.maven.versions;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import junit.framework.TestCase;
+import org.apache.maven.model.Dependency;
+import org.apache.maven.model.DependencyManagement;
+import org.apache.maven.model.Model;
+import org.apache.maven.model.Parent;
+import org.apache.maven.project.MavenProject;
+
+public class AddQualifierMojoTest extends TestCase {
+
+    public AddQualifierMojoTest(String testName) {
+        super(testName);
+    }
+
+    /**
+     * Test of addQualifier method, of class AddQualifierMojo.
+     */
+    public void testAddQualifier() throws Exception {
+        System.out.println("addQualifier");
+        MavenProject parent = createProject("parent", "1.0.0-SNAPSHOT", null);
+        MavenProject a = createProject("a", "2.0.0", parent);
+        MavenProject b = createProject("b", null, parent);
+        MavenProject depMgmt = createProject("dep-mgmt", "3.0.0", null);
+        DependencyManagement dependencyManagement = new DependencyManagement();
+        dependencyManagement.addDependency(createDependency("a", "2.0.0"));
+        dependencyManagement.addDependency(createDependency("b", "${b.version}"));
+        dependencyManagement.addDependency(createDependency("external", "2.0.0"));
+        depMgmt.getOriginalModel().setDependencyManagement(dependencyManagement);
+        MavenProject unchanged = createProject("unchanged", null, null);
+        List<MavenProject> projects = Arrays.asList(parent, a, b, depMgmt, unchanged);
+
+        Map<String, String> newVersions = new HashMap<>();
+        Set<MavenProject> updatedProjects = AddQualifierMojo.addQualifier(projects, false, true, "-RC1",
+                newVersions);
+        assertEquals(new HashSet<>(Arrays.asList(parent, a, b, depMgmt)), updatedProjects);
+        assertEquals(3, newVersions.size());
+        assertEquals("1.0.0-RC1-SNAPSHOT", parent.getOriginalModel().getVersion());
+        assertEquals("2.0.0-RC1-SNAPSHOT", a.getOriginalModel().getVersion());
+        // The parent references are updated
+        assertEquals("1.0.0-RC1-SNAPSHOT", a.getOriginalModel().getParent().getVersion());
+        assertEquals("1.0.0-RC1-SNAPSHOT", b.getOriginalModel().getParent().getVersion());
+        assertNull(b.getOriginalModel().getVersion());
+        // The managed versions are updated, except the properties and the external modules
+        List<Dependency> managed = depMgmt.getOriginalModel().getDependencyManagement().getDependencies();
+        assertEquals("2.0.0-RC1-SNAPSHOT", managed.get(0).getVersion());
+        assertEquals("${b.version}", managed.get(1).getVersion());
+        assertEquals("2.0.0", managed.get(2).getVersion());
+    }
+
+    private static MavenProject createProject(final String artifactId, final String version,
+            final MavenProject parentProject) {
+        Model model = new Model();
+        model.setArtifactId(artifactId);
+        model.setVersion(version);
+        if (parentProject != null) {
+            Parent parent = new Parent();
+            parent.setGroupId("com.sp");
+            parent.setArtifactId(parentProject.getArtifactId());
+            parent.setVersion(parentProject.getOriginalModel().getVersion());
+            model.setParent(parent);
+        } else {
+            model.setGroupId("com.sp");
+        }
+        MavenProject project = new MavenProject(model);
+        project.setOriginalModel(model);
+        return project;
+    }
+
+    private static Dependency createDependency(final String artifactId, final String version) {
+        Dependency dependency = new Dependency();
+        dependency.setGroupId("com.sp");
+        dependency.setArtifactId(artifactId);
+        dependency.setVersion(version);
+        return dependency;
+    }
+
+}
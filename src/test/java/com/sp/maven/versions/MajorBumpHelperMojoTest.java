@@ -0,0 +1,127 @@
+package com.sp.maven.versions;
+
+import com.sp.maven.utils.Constants;
+import com.sp.maven.utils.ReactorDependencyIndex;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import junit.framework.TestCase;
+import org.apache.maven.model.Dependency;
+import org.apache.maven.model.DependencyManagement;
+import org.apache.maven.model.Model;
+import org.apache.maven.model.Parent;
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.apache.maven.project.MavenProject;
+
+public class MajorBumpHelperMojoTest extends TestCase {
+
+    public MajorBumpHelperMojoTest(String testName) {
+        super(testName);
+    }
+
+    /**
+     * Test of stageBumps method, of class MajorBumpHelperMojo: only the direct dependents are bumped and no pinned
+     * version is changed.
+     */
+    public void testStageBumps() throws Exception {
+        System.out.println("stageBumps");
+        List<MavenProject> projects = createReactor();
+        MavenProject depMgmt = projects.get(1);
+        MavenProject a = projects.get(2);
+        MavenProject b = projects.get(3);
+        MavenProject c = projects.get(4);
+        Map<MavenProject, Model> stagedModels = MajorBumpHelperMojo.stageBumps(projects,
+                ReactorDependencyIndex.build(projects), ReactorDependencyIndex.getKey("com.sp", "a"), false,
+                new SystemStreamLog());
+
+        assertEquals(Arrays.asList(b, a, depMgmt), new ArrayList<>(stagedModels.keySet()));
+        assertEquals("2.0.0-SNAPSHOT", a.getOriginalModel().getVersion());
+        assertEquals("2.0.0", a.getOriginalModel().getParent().getVersion());
+        assertEquals("1.0.1-SNAPSHOT", b.getOriginalModel().getVersion());
+        assertEquals("2.0.0", b.getOriginalModel().getParent().getVersion());
+        assertEquals("1.2.3", c.getOriginalModel().getVersion());
+        // The pinned versions are left as is
+        assertEquals("1.2.3", b.getOriginalModel().getDependencies().get(0).getVersion());
+        assertEquals("1.0.0", c.getOriginalModel().getDependencies().get(0).getVersion());
+        List<Dependency> managed = depMgmt.getOriginalModel().getDependencyManagement().getDependencies();
+        assertEquals("2.0.0-SNAPSHOT", managed.get(0).getVersion());
+        assertEquals("1.0.1-SNAPSHOT", managed.get(1).getVersion());
+        assertEquals("1.2.3", managed.get(2).getVersion());
+    }
+
+    /**
+     * Test of stageBumps method in transitive mode, of class MajorBumpHelperMojo: the dependents of the dependents
+     * are bumped and the versions pinned by the consumers are updated.
+     */
+    public void testStageBumpsTransitive() throws Exception {
+        System.out.println("stageBumpsTransitive");
+        List<MavenProject> projects = createReactor();
+        MavenProject depMgmt = projects.get(1);
+        MavenProject a = projects.get(2);
+        MavenProject b = projects.get(3);
+        MavenProject c = projects.get(4);
+        Map<MavenProject, Model> stagedModels = MajorBumpHelperMojo.stageBumps(projects,
+                ReactorDependencyIndex.build(projects), ReactorDependencyIndex.getKey("com.sp", "a"), true,
+                new SystemStreamLog());
+
+        assertEquals(Arrays.asList(b, c, a, depMgmt), new ArrayList<>(stagedModels.keySet()));
+        assertEquals("2.0.0-SNAPSHOT", a.getOriginalModel().getVersion());
+        assertEquals("1.0.1-SNAPSHOT", b.getOriginalModel().getVersion());
+        assertEquals("1.2.4-SNAPSHOT", c.getOriginalModel().getVersion());
+        assertEquals("2.0.0", c.getOriginalModel().getParent().getVersion());
+        // The pinned versions follow the bumps
+        assertEquals("2.0.0-SNAPSHOT", b.getOriginalModel().getDependencies().get(0).getVersion());
+        assertEquals("1.0.1-SNAPSHOT", c.getOriginalModel().getDependencies().get(0).getVersion());
+        List<Dependency> managed = depMgmt.getOriginalModel().getDependencyManagement().getDependencies();
+        assertEquals("2.0.0-SNAPSHOT", managed.get(0).getVersion());
+        assertEquals("1.0.1-SNAPSHOT", managed.get(1).getVersion());
+        assertEquals("1.2.4-SNAPSHOT", managed.get(2).getVersion());
+    }
+
+    /**
+     * Create a reactor: b pins the version of a, c pins the version of b, and the dependency management pom
+     * manages all of them.
+     */
+    private static List<MavenProject> createReactor() {
+        MavenProject parent = createProject("com.sp.maven", "parent", "2.0.0");
+        MavenProject depMgmt = createProject(Constants.DEP_MGMT_GROUP_ID, "dep-mgmt", "1.0.0");
+        DependencyManagement dependencyManagement = new DependencyManagement();
+        dependencyManagement.addDependency(createDependency("a", "1.0.0"));
+        dependencyManagement.addDependency(createDependency("b", "1.0.0"));
+        dependencyManagement.addDependency(createDependency("c", "1.2.3"));
+        depMgmt.getOriginalModel().setDependencyManagement(dependencyManagement);
+        MavenProject a = createProject("com.sp", "a", "1.0.0");
+        MavenProject b = createProject("com.sp", "b", "1.0.0");
+        b.getOriginalModel().addDependency(createDependency("a", "1.2.3"));
+        MavenProject c = createProject("com.sp", "c", "1.2.3");
+        c.getOriginalModel().addDependency(createDependency("b", "1.0.0"));
+        return Arrays.asList(parent, depMgmt, a, b, c);
+    }
+
+    private static MavenProject createProject(final String groupId, final String artifactId, final String version) {
+        Model model = new Model();
+        model.setGroupId(groupId);
+        model.setArtifactId(artifactId);
+        model.setVersion(version);
+        Parent parent = new Parent();
+        parent.setGroupId("com.sp.maven");
+        parent.setArtifactId("parent");
+        parent.setVersion("1.0.0");
+        model.setParent(parent);
+        MavenProject project = new MavenProject(model);
+        project.setOriginalModel(model);
+        project.setFile(new File(artifactId, "pom.xml"));
+        return project;
+    }
+
+    private static Dependency createDependency(final String artifactId, final String version) {
+        Dependency dependency = new Dependency();
+        dependency.setGroupId("com.sp");
+        dependency.setArtifactId(artifactId);
+        dependency.setVersion(version);
+        return dependency;
+    }
+
+}